@@ -0,0 +1,1751 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        BytecodeBackend.java                                       ---*
+ *---                                                                   ---*
+ *---    This file declares a class that translates a list of           ---*
+ *---    PotentialInstruction instances into one JVM class per program, ---*
+ *---    loads it as a hidden class and runs it in-process.  Variables  ---*
+ *---    become static fields, the code is split into methods small     ---*
+ *---    enough for the JIT, labels become native jumps.                ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BytecodeBackend
+{
+  //  0.  Constants:
+  //  PURPOSE: To tell the name of the generated class.  It must be in the
+  //	package of this class for the hidden class to be defined.
+  public static final
+  String	CLASS_NAME		= "OurPascalProgram";
+
+  //  PURPOSE: To tell the name of the generated method that runs the
+  //	program.
+  public static final
+  String	METHOD_NAME		= "run";
+
+  //  PURPOSE: To tell the prefixes of the names of the generated methods
+  //	that copy the Frame into the fields and back.
+  public static final
+  String	LOAD_METHOD_PREFIX_STR	= "loadFrame";
+
+  public static final
+  String	STORE_METHOD_PREFIX_STR	= "storeFrame";
+
+  //  PURPOSE: To tell the prefix of the names of the generated methods that
+  //	each run one chunk of the program, and their type: each receives
+  //	the entry to start at and returns the entry to go to next.
+  public static final
+  String	CHUNK_METHOD_PREFIX_STR	= "chunk";
+
+  public static final
+  String	CHUNK_METHOD_DESCRIPTOR	= "(I)I";
+
+  //  PURPOSE: To tell the prefix of the names of the generated fields.
+  public static final
+  String	FIELD_PREFIX_STR	= "v";
+
+  //  PURPOSE: To tell the type of the generated method: it receives the
+  //	integer, real, boolean and string arrays of the Frame.
+  public static final
+  MethodType	METHOD_TYPE		= MethodType.methodType
+						(void.class,
+						 long[].class,
+						 double[].class,
+						 boolean[].class,
+						 Object[].class
+						);
+
+  //  PURPOSE: To tell the class file version written.  Version 49 needs no
+  //	StackMapTable, the JVM infers the frames itself.
+  public static final
+  int		CLASS_FILE_VERSION	= 49;
+
+  //  PURPOSE: To tell the largest code size a JVM method may have.
+  public static final
+  int		MAX_CODE_LENGTH		= 65535;
+
+  //  PURPOSE: To tell the largest code size of a method HotSpot will
+  //	compile (its HugeMethodLimit).  Larger methods are only ever
+  //	interpreted, so each chunk is kept within it.
+  public static final
+  int		MAX_JIT_CODE_LENGTH	= 8000;
+
+  //  PURPOSE: To tell the largest number of fields a JVM class may have.
+  public static final
+  int		MAX_FIELDS		= 65535;
+
+  //  PURPOSE: To tell the largest number of chunks: the chunk of an entry
+  //	is kept in its upper 16 bits.
+  public static final
+  int		MAX_CHUNKS		= 0xFFFF;
+
+  //  PURPOSE: To tell the entry that ends the program.
+  protected static final
+  int		END_ENTRY		= -1;
+
+  //  PURPOSE: To tell the code a chunk may need besides its instructions:
+  //	the switch on the entry with its first case, and the return into
+  //	the next chunk.
+  protected static final
+  int		CHUNK_OVERHEAD_LENGTH	= 1 + 1 + 2 + 12 + 4 + 4;
+
+  //  PURPOSE: To tell the code an instruction may add to its chunk besides
+  //	its own: a switch case if it is entered from another chunk, and a
+  //	return stub if it jumps to another chunk.
+  protected static final
+  int		ENTRY_CASE_LENGTH	= 4;
+
+  protected static final
+  int		RETURN_STUB_LENGTH	= 1 + 2 + 1;
+
+  //  PURPOSE: To tell the most code copying one variable between the Frame
+  //	and its field takes.
+  protected static final
+  int		FRAME_COPY_LENGTH	= 1 + 1 + 3 + 1 + 3;
+
+  //  PURPOSE: To tell the largest operand stack depth the generated code
+  //	needs (e.g. array, index and a long value during store-back).
+  protected static final
+  int		MAX_STACK		= 8;
+
+  //  PURPOSE: To tell the number of locals taken by the method parameters.
+  protected static final
+  int		NUM_PARAM_LOCALS	= 4;
+
+  //  PURPOSE: To hold the JVM opcodes used.
+  protected static final int	NOP		= 0x00;
+  protected static final int	ICONST_0	= 0x03;
+  protected static final int	ICONST_1	= 0x04;
+  protected static final int	LCONST_0	= 0x09;
+  protected static final int	DCONST_0	= 0x0e;
+  protected static final int	BIPUSH		= 0x10;
+  protected static final int	SIPUSH		= 0x11;
+  protected static final int	LDC_W		= 0x13;
+  protected static final int	LDC2_W		= 0x14;
+  protected static final int	ILOAD		= 0x15;
+  protected static final int	ALOAD		= 0x19;
+  protected static final int	ILOAD_0		= 0x1a;
+  protected static final int	LALOAD		= 0x2f;
+  protected static final int	DALOAD		= 0x31;
+  protected static final int	AALOAD		= 0x32;
+  protected static final int	BALOAD		= 0x33;
+  protected static final int	ISTORE		= 0x36;
+  protected static final int	LASTORE		= 0x50;
+  protected static final int	DASTORE		= 0x52;
+  protected static final int	AASTORE		= 0x53;
+  protected static final int	BASTORE		= 0x54;
+  protected static final int	LADD		= 0x61;
+  protected static final int	DADD		= 0x63;
+  protected static final int	LSUB		= 0x65;
+  protected static final int	DSUB		= 0x67;
+  protected static final int	LMUL		= 0x69;
+  protected static final int	DMUL		= 0x6b;
+  protected static final int	LDIV		= 0x6d;
+  protected static final int	DDIV		= 0x6f;
+  protected static final int	LREM		= 0x71;
+  protected static final int	IUSHR		= 0x7c;
+  protected static final int	IAND		= 0x7e;
+  protected static final int	IOR		= 0x80;
+  protected static final int	IXOR		= 0x82;
+  protected static final int	L2D		= 0x8a;
+  protected static final int	I2C		= 0x92;
+  protected static final int	LCMP		= 0x94;
+  protected static final int	DCMPL		= 0x97;
+  protected static final int	DCMPG		= 0x98;
+  protected static final int	IFEQ		= 0x99;
+  protected static final int	IFNE		= 0x9a;
+  protected static final int	IFLT		= 0x9b;
+  protected static final int	IFGE		= 0x9c;
+  protected static final int	IFGT		= 0x9d;
+  protected static final int	IFLE		= 0x9e;
+  protected static final int	IF_ICMPEQ	= 0x9f;
+  protected static final int	IF_ICMPNE	= 0xa0;
+  protected static final int	GOTO		= 0xa7;
+  protected static final int	TABLESWITCH	= 0xaa;
+  protected static final int	IRETURN		= 0xac;
+  protected static final int	RETURN		= 0xb1;
+  protected static final int	GETSTATIC	= 0xb2;
+  protected static final int	PUTSTATIC	= 0xb3;
+  protected static final int	INVOKEVIRTUAL	= 0xb6;
+  protected static final int	INVOKESTATIC	= 0xb8;
+  protected static final int	CHECKCAST	= 0xc0;
+  protected static final int	GOTO_W		= 0xc8;
+
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to translate 'instructList'.  No return
+  //	value.
+  public
+  BytecodeBackend		(List<PotentialInstruction>	instructList)
+  {
+    instructArray_	= instructList.toArray(new PotentialInstruction[0]);
+    varToFieldMap_	= new IdentityHashMap<>();
+    varList_		= new ArrayList<>();
+    labelToIndexMap_	= new HashMap<>();
+    loopList_		= new ArrayList<>();
+    chunkStartList_	= new ArrayList<>();
+    entryListList_	= new ArrayList<>();
+    lengthBoundArray_	= new int[instructArray_.length];
+    chunkOfInstruct_	= new int[instructArray_.length];
+    labelToOffsetMap_	= new HashMap<>();
+    fixupList_		= new ArrayList<>();
+    code_		= new ByteArrayOutputStream();
+    pool_		= new ConstantPool();
+    methods_		= new ByteArrayOutputStream();
+    numMethods_		= 0;
+  }
+
+  //  II. Accessors:
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To translate, load and run 'instructList' against the
+  //	variable values in 'frame'.  Final values are stored back into
+  //	'frame'.  No return value.
+  public static
+  void		run		(List<PotentialInstruction>	instructList,
+				 Frame				frame
+				)
+  {
+    MethodHandle	handle	= new BytecodeBackend(instructList).load();
+
+    try
+    {
+      handle.invokeExact(frame.getIntegerArray(),
+			 frame.getRealArray(),
+			 frame.getBooleanArray(),
+			 frame.getObjectArray()
+			);
+    }
+    catch  (RuntimeException | Error error)
+    {
+      throw error;
+    }
+    catch  (Throwable error)
+    {
+      throw new IllegalStateException(error);
+    }
+  }
+
+  //  PURPOSE: To translate the instructions, define the resulting class as
+  //	a hidden class and return a handle to its 'run' method.
+  public
+  MethodHandle	load		()
+  {
+    try
+    {
+      MethodHandles.Lookup	lookup	=
+				MethodHandles.lookup()
+					     .defineHiddenClass(toClassFile(),true);
+
+      return(lookup.findStatic(lookup.lookupClass(),METHOD_NAME,METHOD_TYPE));
+    }
+    catch  (IllegalAccessException | NoSuchMethodException error)
+    {
+      throw new IllegalStateException(error);
+    }
+  }
+
+  //  PURPOSE: To translate the instructions and return the bytes of the
+  //	class file.
+  public
+  byte[]	toClassFile	()
+  {
+    //  I.  Give each variable a field, find the labels and loops:
+    for  (int index = 0;  index < instructArray_.length;  index++)
+    {
+      PotentialInstruction	instruct	= instructArray_[index];
+
+      for  (Variable var : instruct.getVars())
+      {
+	fieldOf(var);
+      }
+
+      if  (instruct.getAddressLabel() != PotentialInstruction.NO_ADDRESS_LABEL)
+      {
+	labelToIndexMap_.put(instruct.getAddressLabel(),index);
+      }
+    }
+
+    if  (varList_.size() > MAX_FIELDS)
+    {
+      throw new IllegalStateException
+			("Program has too many variables for a JVM class");
+    }
+
+    for  (int index = 0;  index < instructArray_.length;  index++)
+    {
+      Integer	target	= labelToIndexMap_.get
+				(instructArray_[index].getGotoAddressLabel());
+
+      if  ( (target != null)  &&  (target <= index) )
+      {
+	loopList_.add(new int[] { target, index + 1 });
+      }
+    }
+
+    //  II.  Split the instructions into chunks, find their entries:
+    split();
+
+    //  III.  Write the methods and the class:
+    int		numLoads	= writeFrameCopies(LOAD_METHOD_PREFIX_STR,true);
+    int		numStores	= writeFrameCopies(STORE_METHOD_PREFIX_STR,false);
+
+    writeRun(numLoads,numStores);
+
+    for  (int chunk = 0;  chunk < chunkStartList_.size();  chunk++)
+    {
+      writeChunk(chunk);
+    }
+
+    return(writeClass());
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To split the instructions into chunks whose code fits in
+  //	MAX_JIT_CODE_LENGTH, giving each loop nest a chunk of its own where
+  //	it fits so that the JIT compiles no more than the loop, and to list
+  //	the entries of each chunk: its start, then each instruction another
+  //	chunk jumps to.  No return value.
+  protected
+  void		split		()
+  {
+    //  I.  Pack the loop nests and straight-line instructions:
+    List<int[]>	unitList	= new ArrayList<>();
+    int		length		= 0;
+    boolean	isAfterNest	= false;
+
+    for  (int index = 0;  index < instructArray_.length;  index++)
+    {
+      lengthBoundArray_[index]	= lengthBound(instructArray_[index]);
+    }
+
+    addUnits(0,instructArray_.length,unitList);
+    chunkStartList_.add(0);
+
+    for  (int[] unit : unitList)
+    {
+      int	unitLength	= lengthBound(unit[0],unit[1]);
+      boolean	isNest		= (unit[1] > unit[0] + 1);
+
+      if  ( (length > 0)  &&
+	    ( isNest  ||  isAfterNest  ||
+	      (length + unitLength > MAX_JIT_CODE_LENGTH - CHUNK_OVERHEAD_LENGTH)
+	    )
+	  )
+      {
+	chunkStartList_.add(unit[0]);
+	length	= 0;
+      }
+
+      length		+= unitLength;
+      isAfterNest	=  isNest;
+
+      for  (int index = unit[0];  index < unit[1];  index++)
+      {
+	chunkOfInstruct_[index]	= chunkStartList_.size() - 1;
+      }
+    }
+
+    if  (chunkStartList_.size() > MAX_CHUNKS)
+    {
+      throw new IllegalStateException("Program is too large for a JVM class");
+    }
+
+    //  II.  List the entries:
+    for  (int start : chunkStartList_)
+    {
+      List<Integer>	entryList	= new ArrayList<>();
+
+      entryList.add(start);
+      entryListList_.add(entryList);
+    }
+
+    for  (int index = 0;  index < instructArray_.length;  index++)
+    {
+      Integer	target	= labelToIndexMap_.get
+				(instructArray_[index].getGotoAddressLabel());
+
+      if  ( (target != null)  &&
+	    (chunkOfInstruct_[target] != chunkOfInstruct_[index])
+	  )
+      {
+	List<Integer>	entryList	=
+				entryListList_.get(chunkOfInstruct_[target]);
+
+	if  (!entryList.contains(target))
+	{
+	  entryList.add(target);
+	}
+      }
+    }
+
+    for  (List<Integer> entryList : entryListList_)
+    {
+      Collections.sort(entryList);
+    }
+  }
+
+  //  PURPOSE: To append to 'unitList' the { start, end } of each loop nest
+  //	and of each instruction outside of one from 'from' up to but not
+  //	including 'to'.  A nest too long for a chunk is split into the nests
+  //	inside it.  No return value.
+  protected
+  void		addUnits	(int		from,
+				 int		to,
+				 List<int[]>	unitList
+				)
+  {
+    for  (int index = from;  index < to;  )
+    {
+      int	end	= nestEnd(index,from,to);
+
+      if  ( (end == index + 1)  ||
+	    (lengthBound(index,end)
+			<= MAX_JIT_CODE_LENGTH - CHUNK_OVERHEAD_LENGTH
+	    )
+	  )
+      {
+	unitList.add(new int[] { index, end });
+      }
+      else
+      if  ( (index == from)  &&  (end == to) )
+      {
+	//  Loops that overlap without nesting are split at each instruction:
+	for  (int inner = index;  inner < end;  inner++)
+	{
+	  unitList.add(new int[] { inner, inner + 1 });
+	}
+      }
+      else
+      {
+	addUnits(index,end,unitList);
+      }
+
+      index	= end;
+    }
+  }
+
+  //  PURPOSE: To return the end of the loop nest that starts at 'index',
+  //	counting only the loops from 'from' up to but not including 'to'
+  //	other than the one that spans them, or 'index + 1' if no loop starts
+  //	there.
+  protected
+  int		nestEnd		(int	index,
+				 int	from,
+				 int	to
+				)
+  {
+    int		end		= index + 1;
+    boolean	haveGrown	= true;
+
+    while  (haveGrown)
+    {
+      haveGrown	= false;
+
+      for  (int[] loop : loopList_)
+      {
+	if  ( (loop[0] >= index)  &&  (loop[0] < end)	&&
+	      (loop[1] > end)  &&  (loop[1] <= to)	&&
+	      ( (loop[0] != from)  ||  (loop[1] != to) )
+	    )
+	{
+	  end		= loop[1];
+	  haveGrown	= true;
+	}
+      }
+    }
+
+    return(end);
+  }
+
+  //  PURPOSE: To return the most code the instructions from 'from' up to
+  //	but not including 'to' may take in their chunk.
+  protected
+  int		lengthBound	(int	from,
+				 int	to
+				)
+  {
+    int		length	= 0;
+
+    for  (int index = from;  index < to;  index++)
+    {
+      length	+= lengthBoundArray_[index];
+    }
+
+    return(length);
+  }
+
+  //  PURPOSE: To return the most code 'instruct' may take in its chunk.
+  protected
+  int		lengthBound	(PotentialInstruction	instruct)
+  {
+    int		start	= code_.size();
+    int		length;
+
+    translate(instruct);
+    length	= code_.size() - start;
+    code_.reset();
+    fixupList_.clear();
+
+    if  (instruct.getAddressLabel() != PotentialInstruction.NO_ADDRESS_LABEL)
+    {
+      length	+= ENTRY_CASE_LENGTH;
+    }
+
+    if  (instruct.getGotoAddressLabel() != PotentialInstruction.NO_ADDRESS_LABEL)
+    {
+      length	+= RETURN_STUB_LENGTH;
+    }
+
+    return(length);
+  }
+
+  //  PURPOSE: To return the entry of the instruction at 'index': its chunk
+  //	in the upper 16 bits, its place among the entries of the chunk in
+  //	the lower.
+  protected
+  int		entryOf		(int	index)
+  {
+    int		chunk	= chunkOfInstruct_[index];
+
+    return( (chunk << 16) | entryListList_.get(chunk).indexOf(index) );
+  }
+
+  //  PURPOSE: To write the method that copies the Frame into the fields
+  //	with the 'numLoads' load methods, then runs the chunk of each entry
+  //	in turn until the program ends, then copies the fields back into
+  //	the Frame with the 'numStores' store methods.  No return value.
+  protected
+  void		writeRun	(int	numLoads,
+				 int	numStores
+				)
+  {
+    int		numChunks	= chunkStartList_.size();
+    int		loopStart;
+    int		switchStart;
+
+    //  I.  Load the Frame, start at the first entry:
+    for  (int load = 0;  load < numLoads;  load++)
+    {
+      emitFrameCopy(LOAD_METHOD_PREFIX_STR + load);
+    }
+
+    emit(ICONST_0);
+    emit(ISTORE);
+    emit(NUM_PARAM_LOCALS);
+
+    //  II.  Switch on the chunk of the entry:
+    loopStart	= code_.size();
+    emit(ILOAD);
+    emit(NUM_PARAM_LOCALS);
+    emit(BIPUSH);
+    emit(16);
+    emit(IUSHR);
+    switchStart	= code_.size();
+    emit(TABLESWITCH);
+
+    while  (code_.size() % 4 != 0)
+    {
+      emit(NOP);
+    }
+
+    fixupList_.add(new int[] { switchStart, code_.size(), END_ENTRY });
+    emitInt(0);
+    emitInt(0);
+    emitInt(numChunks - 1);
+
+    for  (int chunk = 0;  chunk < numChunks;  chunk++)
+    {
+      fixupList_.add(new int[] { switchStart, code_.size(), chunk });
+      emitInt(0);
+    }
+
+    //  III.  Run the chunk, go back for the next entry:
+    for  (int chunk = 0;  chunk < numChunks;  chunk++)
+    {
+      labelToOffsetMap_.put((long)chunk,code_.size());
+      emit(ILOAD);
+      emit(NUM_PARAM_LOCALS);
+      emit(I2C);
+      emitInvoke(INVOKESTATIC,CLASS_NAME,CHUNK_METHOD_PREFIX_STR + chunk,
+		 CHUNK_METHOD_DESCRIPTOR
+		);
+      emit(ISTORE);
+      emit(NUM_PARAM_LOCALS);
+      emit(GOTO_W);
+      emitInt(loopStart - (code_.size() - 1));
+    }
+
+    //  IV.  Store the Frame back, return:
+    labelToOffsetMap_.put((long)END_ENTRY,code_.size());
+
+    for  (int store = 0;  store < numStores;  store++)
+    {
+      emitFrameCopy(STORE_METHOD_PREFIX_STR + store);
+    }
+
+    emit(RETURN);
+    endMethod(0x0001 | 0x0008,			// public static
+	      METHOD_NAME,METHOD_TYPE.toMethodDescriptorString(),
+	      NUM_PARAM_LOCALS + 1
+	     );
+  }
+
+  //  PURPOSE: To write the methods named 'prefixStr' and a number that
+  //	copy the Frame into the fields if 'isLoad' or the fields into the
+  //	Frame otherwise, and to return how many were written.
+  protected
+  int		writeFrameCopies(String		prefixStr,
+				 boolean	isLoad
+				)
+  {
+    int		numMethods	= 0;
+
+    for  (Variable var : varList_)
+    {
+      if  (code_.size() + FRAME_COPY_LENGTH + 1 > MAX_JIT_CODE_LENGTH)
+      {
+	endFrameCopy(prefixStr + numMethods++);
+      }
+
+      if  (isLoad)
+      {
+	loadFromFrame(var);
+      }
+      else
+      {
+	storeToFrame(var);
+      }
+    }
+
+    endFrameCopy(prefixStr + numMethods++);
+    return(numMethods);
+  }
+
+  //  PURPOSE: To end the frame copy method 'name'.  No return value.
+  protected
+  void		endFrameCopy	(String	name)
+  {
+    emit(RETURN);
+    endMethod(0x0002 | 0x0008,			// private static
+	      name,METHOD_TYPE.toMethodDescriptorString(),NUM_PARAM_LOCALS
+	     );
+  }
+
+  //  PURPOSE: To write the method of chunk 'chunk'.  It goes to the entry
+  //	it receives, runs until it leaves the chunk and returns the entry
+  //	it leaves for.  No return value.
+  protected
+  void		writeChunk	(int	chunk)
+  {
+    int			start		= chunkStartList_.get(chunk);
+    int			end		= (chunk + 1 < chunkStartList_.size())
+					  ? chunkStartList_.get(chunk + 1)
+					  : instructArray_.length;
+    List<Integer>	entryList	= entryListList_.get(chunk);
+
+    //  I.  Go to the entry received:
+    if  (entryList.size() > 1)
+    {
+      //  iload_0; tableswitch, padded to offset 4; default = first case:
+      int	bodyOffset	= 1 + 1 + 2 + 12 + 4 * entryList.size();
+
+      emit(ILOAD_0);
+      emit(TABLESWITCH);
+      emitShort(0);
+      emitInt(bodyOffset - 1);
+      emitInt(0);
+      emitInt(entryList.size() - 1);
+      emitInt(bodyOffset - 1);
+
+      for  (int entry = 1;  entry < entryList.size();  entry++)
+      {
+	long	label	= instructArray_[entryList.get(entry)].getAddressLabel();
+
+	fixupList_.add(new int[] { 1, code_.size(), (int)label });
+	emitInt(0);
+      }
+    }
+
+    //  II.  Translate the instructions:
+    for  (int index = start;  index < end;  index++)
+    {
+      PotentialInstruction	instruct	= instructArray_[index];
+
+      if  (instruct.getAddressLabel() != PotentialInstruction.NO_ADDRESS_LABEL)
+      {
+	labelToOffsetMap_.put(instruct.getAddressLabel(),code_.size());
+      }
+
+      translate(instruct);
+    }
+
+    //  III.  Leave for the next chunk, or end:
+    emitReturnEntry( (end < instructArray_.length) ? entryOf(end) : END_ENTRY );
+
+    //  IV.  Leave for each label of another chunk jumped to:
+    for  (int fixup = 0;  fixup < fixupList_.size();  fixup++)
+    {
+      long	label	= fixupList_.get(fixup)[2];
+
+      if  (!labelToOffsetMap_.containsKey(label))
+      {
+	Integer	target	= labelToIndexMap_.get(label);
+
+	if  (target == null)
+	{
+	  throw new IllegalStateException("Jump to undefined label " + label);
+	}
+
+	labelToOffsetMap_.put(label,code_.size());
+	emitReturnEntry(entryOf(target));
+      }
+    }
+
+    endMethod(0x0002 | 0x0008,			// private static
+	      CHUNK_METHOD_PREFIX_STR + chunk,CHUNK_METHOD_DESCRIPTOR,1
+	     );
+  }
+
+  //  PURPOSE: To append code that returns 'entry'.  No return value.
+  protected
+  void		emitReturnEntry	(int	entry)
+  {
+    emit(LDC_W);
+    emitShort(pool_.integer(entry));
+    emit(IRETURN);
+  }
+
+  //  PURPOSE: To append a call of frame copy method 'name' with the Frame
+  //	arrays received.  No return value.
+  protected
+  void		emitFrameCopy	(String	name)
+  {
+    for  (int param = 0;  param < NUM_PARAM_LOCALS;  param++)
+    {
+      emit(ALOAD);
+      emit(param);
+    }
+
+    emitInvoke(INVOKESTATIC,CLASS_NAME,name,
+	       METHOD_TYPE.toMethodDescriptorString()
+	      );
+  }
+
+  //  PURPOSE: To resolve the jumps of the code appended, write it as the
+  //	method 'name' of type 'descriptor' with 'numLocals' locals and
+  //	access 'flags', then clear the code for the next method.  No return
+  //	value.
+  protected
+  void		endMethod	(int	flags,
+				 String	name,
+				 String	descriptor,
+				 int	numLocals
+				)
+  {
+    byte[]	code	= code_.toByteArray();
+
+    if  (code.length > MAX_CODE_LENGTH)
+    {
+      throw new IllegalStateException
+			("Program is too large for a JVM method");
+    }
+
+    for  (int[] fixup : fixupList_)
+    {
+      Integer	target	= labelToOffsetMap_.get((long)fixup[2]);
+
+      if  (target == null)
+      {
+	throw new IllegalStateException
+			("Jump to undefined label " + fixup[2]);
+      }
+
+      int	offset	= target - fixup[0];
+
+      code[fixup[1]  ]	= (byte)(offset >> 24);
+      code[fixup[1]+1]	= (byte)(offset >> 16);
+      code[fixup[1]+2]	= (byte)(offset >>  8);
+      code[fixup[1]+3]	= (byte)(offset      );
+    }
+
+    try
+    {
+      DataOutputStream	out	= new DataOutputStream(methods_);
+
+      out.writeShort(flags);
+      out.writeShort(pool_.utf8(name));
+      out.writeShort(pool_.utf8(descriptor));
+      out.writeShort(1);			// attributes
+      out.writeShort(pool_.utf8("Code"));
+      out.writeInt(2 + 2 + 4 + code.length + 2 + 2);
+      out.writeShort(MAX_STACK);
+      out.writeShort(numLocals);
+      out.writeInt(code.length);
+      out.write(code);
+      out.writeShort(0);			// exception table
+      out.writeShort(0);			// code attributes
+      out.flush();
+    }
+    catch  (IOException error)
+    {
+      throw new IllegalStateException(error);
+    }
+
+    numMethods_++;
+    code_.reset();
+    labelToOffsetMap_.clear();
+    fixupList_.clear();
+  }
+
+  //  PURPOSE: To append the code for 'instruct'.  No return value.
+  protected
+  void		translate	(PotentialInstruction	instruct)
+  {
+    VmOperation	op	= instruct.getOp();
+
+    if  (instruct instanceof VarPotentialInstruction)
+    {
+      Variable	var	= ((VarPotentialInstruction)instruct).getVar();
+
+      switch  (op)
+      {
+      case BOOL_CLEAR_VM_OP :
+	emit(ICONST_0);
+	emitStore(var);
+	return;
+      case INT_CLEAR_VM_OP :
+	emit(LCONST_0);
+	emitStore(var);
+	return;
+      case REAL_CLEAR_VM_OP :
+	emit(DCONST_0);
+	emitStore(var);
+	return;
+      case STDOUT_PRINT_VM_OP :
+      case STDOUT_PRINTLN_VM_OP :
+	emitPrint(var,op == VmOperation.STDOUT_PRINTLN_VM_OP);
+	return;
+      default :
+	break;
+      }
+    }
+    else
+    if  (instruct instanceof VarVarPotentialInstruction)
+    {
+      VarVarPotentialInstruction
+		varVar	= (VarVarPotentialInstruction)instruct;
+      Variable	dest	= varVar.getDest();
+      Variable	src	= varVar.getSrc0();
+
+      switch  (op)
+      {
+      case INT_COPY_VM_OP :
+      case REAL_COPY_VM_OP :
+      case IDEA_COPY_VM_OP :
+	emitLoad(src);
+	emitStore(dest);
+	return;
+      case INT_ADD_VAR_VAR_VM_OP :
+      case REAL_ADD_VAR_VAR_VM_OP :
+      case INT_SUB_VAR_VAR_VM_OP :
+      case REAL_SUB_VAR_VAR_VM_OP :
+      case INT_MUL_VAR_VAR_VM_OP :
+      case REAL_MUL_VAR_VAR_VM_OP :
+	emitLoad(dest);
+	emitLoad(src);
+	emit(arithmeticOpcode(op));
+	emitStore(dest);
+	return;
+      case LOGIC_NOT_VM_OP :
+	emitLoad(src);
+	emit(ICONST_1);
+	emit(IXOR);
+	emitStore(dest);
+	return;
+      case INT_TO_REAL_VM_OP :
+	emitLoad(src);
+	emit(L2D);
+	emitStore(dest);
+	return;
+      default :
+	break;
+      }
+    }
+    else
+    if  (instruct instanceof VarVarVarPotentialInstruction)
+    {
+      VarVarVarPotentialInstruction
+		triple	= (VarVarVarPotentialInstruction)instruct;
+
+      switch  (op)
+      {
+      case INT_ADD_VM_OP :
+      case REAL_ADD_VM_OP :
+      case INT_SUB_VM_OP :
+      case REAL_SUB_VM_OP :
+      case INT_MUL_VM_OP :
+      case REAL_MUL_VM_OP :
+      case INT_DIV_VM_OP :
+      case REAL_DIV_VM_OP :
+      case MOD_VM_OP :
+      case LOGIC_AND_VM_OP :
+      case LOGIC_OR_VM_OP :
+	emitLoad(triple.getSrc0());
+	emitLoad(triple.getSrc1());
+	emit(arithmeticOpcode(op));
+	emitStore(triple.getDest());
+	return;
+      default :
+	emitCompare(op,triple.getSrc0(),triple.getSrc1());
+	emitStore(triple.getDest());
+	return;
+      }
+    }
+    else
+    if  (instruct instanceof VarVarVarVarPotentialInstruction)
+    {
+      emitSelect((VarVarVarVarPotentialInstruction)instruct);
+      return;
+    }
+    else
+    if  (instruct instanceof AddrPotentialInstruction)
+    {
+      if  (op == VmOperation.GOTO_VM_OP)
+      {
+	emitGoto(((AddrPotentialInstruction)instruct).getGotoAddressLabel());
+      }
+
+      return;
+    }
+    else
+    if  (instruct instanceof VarAddrPotentialInstruction)
+    {
+      VarAddrPotentialInstruction
+		varAddr	= (VarAddrPotentialInstruction)instruct;
+
+      //  Skip the 'goto_w' unless the condition calls for the jump:
+      emitLoad(varAddr.getVar());
+      emit( (op == VmOperation.IF_FALSE_GOTO_VM_OP) ? IFNE : IFEQ );
+      emitShort(3 + 5);
+      emitGoto(varAddr.getGotoAddressLabel());
+      return;
+    }
+    else
+    if  (instruct instanceof VarVarAddrPotentialInstruction)
+    {
+      emitFusedJump((VarVarAddrPotentialInstruction)instruct);
+      return;
+    }
+    else
+    if  (instruct instanceof VarVarImmPotentialInstruction)
+    {
+      VarVarImmPotentialInstruction
+		varVarImm	= (VarVarImmPotentialInstruction)instruct;
+
+      emitLoad(varVarImm.getSrc0());
+      emitImmediate(varVarImm.getImmediate());
+
+      switch  (op)
+      {
+      case INT_ADD_IMM_VM_OP :
+      case REAL_ADD_IMM_VM_OP :
+      case INT_SUB_IMM_VM_OP :
+      case REAL_SUB_IMM_VM_OP :
+      case INT_MUL_IMM_VM_OP :
+      case REAL_MUL_IMM_VM_OP :
+	emit(arithmeticOpcode(op));
+	break;
+      default :
+	emitBoolean(emitCmp(op,Type.INTEGER));
+	break;
+      }
+
+      emitStore(varVarImm.getDest());
+      return;
+    }
+    else
+    if  (instruct instanceof VarImmAddrPotentialInstruction)
+    {
+      VarImmAddrPotentialInstruction
+		varImmAddr	= (VarImmAddrPotentialInstruction)instruct;
+
+      emitLoad(varImmAddr.getSrc0());
+      emitImmediate(varImmAddr.getImmediate());
+      emitJumpIf(emitCmp(op,Type.INTEGER),varImmAddr.getGotoAddressLabel());
+      return;
+    }
+    else
+    if  ( (op == VmOperation.NO_VM_OP) || (op == VmOperation.ADDR_LABEL_OP) )
+    {
+      return;
+    }
+
+    throw new IllegalArgumentException
+		("Non-handled op " + op + " in BytecodeBackend.translate()");
+  }
+
+  //  PURPOSE: To return the JVM opcode that combines two operands the way
+  //	'op' does.
+  protected static
+  int		arithmeticOpcode(VmOperation	op)
+  {
+    switch  (op)
+    {
+    case INT_ADD_VAR_VAR_VM_OP :
+    case INT_ADD_VM_OP :
+    case INT_ADD_IMM_VM_OP :		return(LADD);
+    case REAL_ADD_VAR_VAR_VM_OP :
+    case REAL_ADD_VM_OP :
+    case REAL_ADD_IMM_VM_OP :		return(DADD);
+    case INT_SUB_VAR_VAR_VM_OP :
+    case INT_SUB_VM_OP :
+    case INT_SUB_IMM_VM_OP :		return(LSUB);
+    case REAL_SUB_VAR_VAR_VM_OP :
+    case REAL_SUB_VM_OP :
+    case REAL_SUB_IMM_VM_OP :		return(DSUB);
+    case INT_MUL_VAR_VAR_VM_OP :
+    case INT_MUL_VM_OP :
+    case INT_MUL_IMM_VM_OP :		return(LMUL);
+    case REAL_MUL_VAR_VAR_VM_OP :
+    case REAL_MUL_VM_OP :
+    case REAL_MUL_IMM_VM_OP :		return(DMUL);
+    case INT_DIV_VM_OP :		return(LDIV);
+    case REAL_DIV_VM_OP :		return(DDIV);
+    case MOD_VM_OP :			return(LREM);
+    case LOGIC_AND_VM_OP :		return(IAND);
+    case LOGIC_OR_VM_OP :		return(IOR);
+    default :
+      throw new IllegalArgumentException("Non-arithmetic op " + op);
+    }
+  }
+
+  //  PURPOSE: To append code that leaves 1 on the stack if 'lhs' and 'rhs'
+  //	compare as 'op' says, or 0 otherwise.  No return value.
+  protected
+  void		emitCompare	(VmOperation	op,
+				 Variable	lhs,
+				 Variable	rhs
+				)
+  {
+    emitLoad(lhs);
+    emitLoad(rhs);
+    emitBoolean(emitCmp(op,lhs.getType()));
+  }
+
+  //  PURPOSE: To append code that turns 'falseJump', a branch on the int
+  //	left by emitCmp(), into 1 if it would not jump or 0 if it would.  No
+  //	return value.
+  protected
+  void		emitBoolean	(int	falseJump)
+  {
+    //  falseJump +7; iconst_1; goto +4; iconst_0:
+    emit(falseJump);
+    emitShort(3 + 1 + 3);
+    emit(ICONST_1);
+    emit(GOTO);
+    emitShort(3 + 1);
+    emit(ICONST_0);
+  }
+
+  //  PURPOSE: To append code that goes to the label of 'instruct' if its
+  //	operands compare as its op says.  No return value.
+  protected
+  void		emitFusedJump	(VarVarAddrPotentialInstruction	instruct)
+  {
+    emitLoad(instruct.getSrc0());
+    emitLoad(instruct.getSrc1());
+    emitJumpIf(emitCmp(instruct.getOp(),instruct.getSrc0().getType()),
+	       instruct.getGotoAddressLabel()
+	      );
+  }
+
+  //  PURPOSE: To append code that sets the destination of 'instruct' to
+  //	one of its sources as its condition says.  The short diamond leaves
+  //	the choice on the stack, a shape the JIT may turn into a conditional
+  //	move.  No return value.
+  protected
+  void		emitSelect	(VarVarVarVarPotentialInstruction	instruct)
+  {
+    //  ifeq +N; load src0; goto +M; load src1; store dest:
+    emitLoad(instruct.getCond());
+    emit(IFEQ);
+    emitShort(3 + loadLength(instruct.getSrc0()) + 3);
+    emitLoad(instruct.getSrc0());
+    emit(GOTO);
+    emitShort(3 + loadLength(instruct.getSrc1()));
+    emitLoad(instruct.getSrc1());
+    emitStore(instruct.getDest());
+  }
+
+  //  PURPOSE: To append code that goes to 'label' unless 'falseJump', a
+  //	branch on the int left by emitCmp(), would jump.  No return value.
+  protected
+  void		emitJumpIf	(int	falseJump,
+				 long	label
+				)
+  {
+    //  Skip the 'goto_w' unless the comparison holds:
+    emit(falseJump);
+    emitShort(3 + 5);
+    emitGoto(label);
+  }
+
+  //  PURPOSE: To append code that pushes inline operand 'immediate'.  No
+  //	return value.
+  protected
+  void		emitImmediate	(Value	immediate)
+  {
+    emit(LDC2_W);
+
+    if  (immediate.getType() == Type.INTEGER)
+    {
+      emitShort(pool_.longConst(immediate.getInteger()));
+    }
+    else
+    {
+      emitShort(pool_.doubleConst(immediate.getReal()));
+    }
+  }
+
+  //  PURPOSE: To append code that compares the two pushed operands of type
+  //	'type', leaving an int that is negative, zero or positive, and to
+  //	return the branch opcode that jumps when that int says comparison
+  //	'op' does not hold.  The REAL_*_VM_OP comparisons are also emitted
+  //	for string and boolean operands; the operand type decides how they
+  //	compare.
+  protected
+  int		emitCmp		(VmOperation	op,
+				 Type		type
+				)
+  {
+    int		falseJump;
+
+    switch  (type)
+    {
+    case INTEGER :
+      emit(LCMP);
+      break;
+    case REAL :
+      //  Choose the NaN result that makes the comparison false:
+      emit( (op == VmOperation.REAL_LESSER_VM_OP		||
+	     op == VmOperation.REAL_LESSER_EQUAL_VM_OP		||
+	     op == VmOperation.IF_REAL_LESSER_GOTO_VM_OP	||
+	     op == VmOperation.IF_REAL_LESSER_EQUAL_GOTO_VM_OP
+	    )
+	    ? DCMPG : DCMPL
+	  );
+      break;
+    case STRING :
+      emitInvoke(INVOKEVIRTUAL,"java/lang/String","compareTo",
+		 "(Ljava/lang/String;)I"
+		);
+      break;
+    default :
+      //  Booleans are ints, equal exactly when their difference is zero:
+      emit(IXOR);
+      break;
+    }
+
+    switch  (op)
+    {
+    case INT_EQUAL_VM_OP :
+    case REAL_EQUAL_VM_OP :
+    case IF_INT_EQUAL_GOTO_VM_OP :
+    case IF_REAL_EQUAL_GOTO_VM_OP :
+    case INT_EQUAL_IMM_VM_OP :
+    case IF_INT_EQUAL_IMM_GOTO_VM_OP :		falseJump = IFNE;	break;
+    case INT_NOT_EQUAL_VM_OP :
+    case REAL_NOT_EQUAL_VM_OP :
+    case IF_INT_NOT_EQUAL_GOTO_VM_OP :
+    case IF_REAL_NOT_EQUAL_GOTO_VM_OP :
+    case INT_NOT_EQUAL_IMM_VM_OP :
+    case IF_INT_NOT_EQUAL_IMM_GOTO_VM_OP :	falseJump = IFEQ;	break;
+    case INT_LESSER_VM_OP :
+    case REAL_LESSER_VM_OP :
+    case IF_INT_LESSER_GOTO_VM_OP :
+    case IF_REAL_LESSER_GOTO_VM_OP :
+    case INT_LESSER_IMM_VM_OP :
+    case IF_INT_LESSER_IMM_GOTO_VM_OP :		falseJump = IFGE;	break;
+    case INT_LESSER_EQUAL_VM_OP :
+    case REAL_LESSER_EQUAL_VM_OP :
+    case IF_INT_LESSER_EQUAL_GOTO_VM_OP :
+    case IF_REAL_LESSER_EQUAL_GOTO_VM_OP :
+    case INT_LESSER_EQUAL_IMM_VM_OP :
+    case IF_INT_LESSER_EQUAL_IMM_GOTO_VM_OP :	falseJump = IFGT;	break;
+    case INT_GREATER_VM_OP :
+    case REAL_GREATER_VM_OP :
+    case IF_INT_GREATER_GOTO_VM_OP :
+    case IF_REAL_GREATER_GOTO_VM_OP :
+    case INT_GREATER_IMM_VM_OP :
+    case IF_INT_GREATER_IMM_GOTO_VM_OP :	falseJump = IFLE;	break;
+    case INT_GREATER_EQUAL_VM_OP :
+    case REAL_GREATER_EQUAL_VM_OP :
+    case IF_INT_GREATER_EQUAL_GOTO_VM_OP :
+    case IF_REAL_GREATER_EQUAL_GOTO_VM_OP :
+    case INT_GREATER_EQUAL_IMM_VM_OP :
+    case IF_INT_GREATER_EQUAL_IMM_GOTO_VM_OP :	falseJump = IFLT;	break;
+    default :
+      throw new IllegalArgumentException
+		("Non-handled op " + op + " in BytecodeBackend.translate()");
+    }
+
+    return(falseJump);
+  }
+
+  //  PURPOSE: To append code that prints 'var' to 'System.out', followed
+  //	by a newline if 'shouldWriteNewline'.  No return value.
+  protected
+  void		emitPrint	(Variable	var,
+				 boolean	shouldWriteNewline
+				)
+  {
+    String	descriptor;
+
+    switch  (var.getType())
+    {
+    case BOOLEAN :	descriptor	= "(Z)V";			break;
+    case INTEGER :	descriptor	= "(J)V";			break;
+    case REAL :		descriptor	= "(D)V";			break;
+    default :		descriptor	= "(Ljava/lang/String;)V";	break;
+    }
+
+    emitGetStdout();
+    emitLoad(var);
+    emitInvoke(INVOKEVIRTUAL,"java/io/PrintStream","print",descriptor);
+
+    if  (shouldWriteNewline)
+    {
+      emitGetStdout();
+      emitInvoke(INVOKEVIRTUAL,"java/io/PrintStream","println","()V");
+    }
+  }
+
+  //  PURPOSE: To append code that pushes 'System.out'.  No return value.
+  protected
+  void		emitGetStdout	()
+  {
+    emit(GETSTATIC);
+    emitShort(pool_.fieldRef("java/lang/System","out","Ljava/io/PrintStream;"));
+  }
+
+  //  PURPOSE: To append an invoke of method 'name' of 'owner'.  No return
+  //	value.
+  protected
+  void		emitInvoke	(int	opcode,
+				 String	owner,
+				 String	name,
+				 String	descriptor
+				)
+  {
+    emit(opcode);
+    emitShort(pool_.methodRef(owner,name,descriptor));
+  }
+
+  //  PURPOSE: To append a jump to address label 'label'.  The offset is
+  //	filled in once all labels are known.  No return value.
+  protected
+  void		emitGoto	(long	label)
+  {
+    int		start	= code_.size();
+
+    emit(GOTO_W);
+    fixupList_.add(new int[] { start, code_.size(), (int)label });
+    emitInt(0);
+  }
+
+  //  PURPOSE: To append code that pushes the value of 'var'.  No return
+  //	value.
+  protected
+  void		emitLoad	(Variable	var)
+  {
+    emit(GETSTATIC);
+    emitShort(fieldOf(var));
+
+    if  (var.getType() == Type.STRING)
+    {
+      emit(CHECKCAST);
+      emitShort(pool_.classRef("java/lang/String"));
+    }
+  }
+
+  //  PURPOSE: To return the number of bytes emitLoad() appends for 'var'.
+  protected
+  int		loadLength	(Variable	var)
+  {
+    return( (var.getType() == Type.STRING) ? 3 + 3 : 3 );
+  }
+
+  //  PURPOSE: To append code that pops the value of 'var'.  No return
+  //	value.
+  protected
+  void		emitStore	(Variable	var)
+  {
+    emit(PUTSTATIC);
+    emitShort(fieldOf(var));
+  }
+
+  //  PURPOSE: To append code that copies the frame slot of 'var' into its
+  //	field.  No return value.
+  protected
+  void		loadFromFrame	(Variable	var)
+  {
+    emitFrameArray(var);
+
+    switch  (var.getType())
+    {
+    case INTEGER :	emit(LALOAD);	break;
+    case REAL :		emit(DALOAD);	break;
+    case BOOLEAN :	emit(BALOAD);	break;
+    default :		emit(AALOAD);	break;
+    }
+
+    emit(PUTSTATIC);
+    emitShort(fieldOf(var));
+  }
+
+  //  PURPOSE: To append code that copies the field of 'var' back into its
+  //	frame slot.  No return value.
+  protected
+  void		storeToFrame	(Variable	var)
+  {
+    emitFrameArray(var);
+    emit(GETSTATIC);
+    emitShort(fieldOf(var));
+
+    switch  (var.getType())
+    {
+    case INTEGER :	emit(LASTORE);	break;
+    case REAL :		emit(DASTORE);	break;
+    case BOOLEAN :	emit(BASTORE);	break;
+    default :		emit(AASTORE);	break;
+    }
+  }
+
+  //  PURPOSE: To append code that pushes the frame array for the type of
+  //	'var', then the slot of 'var'.  No return value.
+  protected
+  void		emitFrameArray	(Variable	var)
+  {
+    int		param;
+
+    switch  (var.getType())
+    {
+    case INTEGER :	param	= 0;	break;
+    case REAL :		param	= 1;	break;
+    case BOOLEAN :	param	= 2;	break;
+    default :		param	= 3;	break;
+    }
+
+    emit(ALOAD);
+    emit(param);
+    emitPushInt(var.getSlot());
+  }
+
+  //  PURPOSE: To append code that pushes int 'value'.  No return value.
+  protected
+  void		emitPushInt	(int	value)
+  {
+    if  ( (value >= Byte.MIN_VALUE) && (value <= Byte.MAX_VALUE) )
+    {
+      emit(BIPUSH);
+      emit(value);
+    }
+    else
+    if  ( (value >= Short.MIN_VALUE) && (value <= Short.MAX_VALUE) )
+    {
+      emit(SIPUSH);
+      emitShort(value);
+    }
+    else
+    {
+      emit(LDC_W);
+      emitShort(pool_.integer(value));
+    }
+  }
+
+  //  PURPOSE: To return the constant pool index of the field of 'var',
+  //	giving it one the first time 'var' is seen.
+  protected
+  int		fieldOf		(Variable	var)
+  {
+    Integer	field	= varToFieldMap_.get(var);
+
+    if  (field == null)
+    {
+      field	= pool_.fieldRef(CLASS_NAME,
+				 FIELD_PREFIX_STR + varList_.size(),
+				 descriptorOf(var)
+				);
+      varToFieldMap_.put(var,field);
+      varList_.add(var);
+    }
+
+    return(field);
+  }
+
+  //  PURPOSE: To return the type descriptor of the field of 'var'.
+  protected static
+  String	descriptorOf	(Variable	var)
+  {
+    switch  (var.getType())
+    {
+    case INTEGER :	return("J");
+    case REAL :		return("D");
+    case BOOLEAN :	return("Z");
+    default :		return("Ljava/lang/Object;");
+    }
+  }
+
+  //  PURPOSE: To append byte 'value' to the code.  No return value.
+  protected
+  void		emit		(int	value)
+  {
+    code_.write(value);
+  }
+
+  //  PURPOSE: To append 16-bit 'value' to the code.  No return value.
+  protected
+  void		emitShort	(int	value)
+  {
+    code_.write(value >> 8);
+    code_.write(value);
+  }
+
+  //  PURPOSE: To append 32-bit 'value' to the code.  No return value.
+  protected
+  void		emitInt		(int	value)
+  {
+    emitShort(value >> 16);
+    emitShort(value);
+  }
+
+  //  PURPOSE: To return the bytes of a class with a static field for each
+  //	variable and the methods written.
+  protected
+  byte[]	writeClass	()
+  {
+    int		thisClass	= pool_.classRef(CLASS_NAME);
+    int		superClass	= pool_.classRef("java/lang/Object");
+
+    try
+    {
+      ByteArrayOutputStream	bytes	= new ByteArrayOutputStream();
+      DataOutputStream		out	= new DataOutputStream(bytes);
+
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(CLASS_FILE_VERSION);
+      pool_.write(out);
+      out.writeShort(0x0001 | 0x0010 | 0x0020);	// public final super
+      out.writeShort(thisClass);
+      out.writeShort(superClass);
+      out.writeShort(0);			// interfaces
+      out.writeShort(varList_.size());		// fields
+
+      for  (int field = 0;  field < varList_.size();  field++)
+      {
+	out.writeShort(0x0002 | 0x0008);	// private static
+	out.writeShort(pool_.utf8(FIELD_PREFIX_STR + field));
+	out.writeShort(pool_.utf8(descriptorOf(varList_.get(field))));
+	out.writeShort(0);			// field attributes
+      }
+
+      out.writeShort(numMethods_);		// methods
+      methods_.writeTo(out);
+      out.writeShort(0);			// class attributes
+      out.flush();
+      return(bytes.toByteArray());
+    }
+    catch  (IOException error)
+    {
+      throw new IllegalStateException(error);
+    }
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the instructions to translate, indexed by position.
+  protected final
+  PotentialInstruction[]	instructArray_;
+
+  //  PURPOSE: To map each variable to the constant pool index of its
+  //	field.
+  protected final
+  Map<Variable,Integer>		varToFieldMap_;
+
+  //  PURPOSE: To hold the variables in the order their fields were given.
+  protected final
+  List<Variable>		varList_;
+
+  //  PURPOSE: To map each address label to the index of its instruction.
+  protected final
+  Map<Long,Integer>		labelToIndexMap_;
+
+  //  PURPOSE: To hold { first, last + 1 } instruction index of each loop,
+  //	from the target of a backward jump to the jump.
+  protected final
+  List<int[]>			loopList_;
+
+  //  PURPOSE: To hold the most code each instruction may take.
+  protected final
+  int[]				lengthBoundArray_;
+
+  //  PURPOSE: To hold the index of the first instruction of each chunk.
+  protected final
+  List<Integer>			chunkStartList_;
+
+  //  PURPOSE: To hold the instruction indices of the entries of each
+  //	chunk, its start first.
+  protected final
+  List<List<Integer>>		entryListList_;
+
+  //  PURPOSE: To hold the chunk of each instruction.
+  protected final
+  int[]				chunkOfInstruct_;
+
+  //  PURPOSE: To map each address label to its code offset in the method
+  //	being written.
+  protected final
+  Map<Long,Integer>		labelToOffsetMap_;
+
+  //  PURPOSE: To hold { instruction offset, operand offset, label } of each
+  //	jump of the method being written whose offset is not yet known.
+  protected final
+  List<int[]>			fixupList_;
+
+  //  PURPOSE: To hold the code of the method being written.
+  protected final
+  ByteArrayOutputStream		code_;
+
+  //  PURPOSE: To hold the constant pool.
+  protected final
+  ConstantPool			pool_;
+
+  //  PURPOSE: To hold the methods written.
+  protected final
+  ByteArrayOutputStream		methods_;
+
+  //  PURPOSE: To hold the number of methods written.
+  protected
+  int				numMethods_;
+}
+
+
+//  PURPOSE: To build the constant pool of a class file, sharing entries.
+class ConstantPool
+{
+  //  0.  Constants:
+  //  PURPOSE: To tell the largest entry count a constant pool may have.
+  public static final
+  int		MAX_COUNT		= 65535;
+
+  //  I.  Constructor(s):
+  public
+  ConstantPool			()
+  {
+    bytes_	= new ByteArrayOutputStream();
+    out_	= new DataOutputStream(bytes_);
+    indexMap_	= new HashMap<>();
+    count_	= 1;
+  }
+
+  //  II. Accessors:
+  //  PURPOSE: To return the index of a UTF8 entry for 'text'.
+  public
+  int		utf8		(String	text)
+  {
+    return(entry("U" + text,() -> { out_.writeByte(1); out_.writeUTF(text); }));
+  }
+
+  //  PURPOSE: To return the index of an Integer entry for 'value'.
+  public
+  int		integer		(int	value)
+  {
+    return(entry("I" + value,() -> { out_.writeByte(3); out_.writeInt(value); }));
+  }
+
+  //  PURPOSE: To return the index of a Long entry for 'value'.
+  public
+  int		longConst	(long	value)
+  {
+    return(entry("J" + value,2,
+		 () -> { out_.writeByte(5); out_.writeLong(value); }
+		)
+	  );
+  }
+
+  //  PURPOSE: To return the index of a Double entry for 'value'.
+  public
+  int		doubleConst	(double	value)
+  {
+    long	bits	= Double.doubleToRawLongBits(value);
+
+    return(entry("D" + bits,2,
+		 () -> { out_.writeByte(6); out_.writeLong(bits); }
+		)
+	  );
+  }
+
+  //  PURPOSE: To return the index of a Class entry for 'name'.
+  public
+  int		classRef	(String	name)
+  {
+    int		nameIndex	= utf8(name);
+
+    return(entry("C" + name,
+		 () -> { out_.writeByte(7); out_.writeShort(nameIndex); }
+		)
+	  );
+  }
+
+  //  PURPOSE: To return the index of a Fieldref entry.
+  public
+  int		fieldRef	(String	owner,
+				 String	name,
+				 String	descriptor
+				)
+  {
+    return(memberRef(9,owner,name,descriptor));
+  }
+
+  //  PURPOSE: To return the index of a Methodref entry.
+  public
+  int		methodRef	(String	owner,
+				 String	name,
+				 String	descriptor
+				)
+  {
+    return(memberRef(10,owner,name,descriptor));
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To write the entry count and entries to 'out'.  No return
+  //	value.
+  public
+  void		write		(DataOutputStream	out)
+				throws IOException
+  {
+    out_.flush();
+    out.writeShort(count_);
+    bytes_.writeTo(out);
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To write one entry.
+  @FunctionalInterface
+  protected
+  interface	EntryWriter
+  {
+    void	write		()	throws IOException;
+  }
+
+  //  PURPOSE: To return the index of the entry named 'key', having
+  //	'writer' append it if it is new.
+  protected
+  int		entry		(String		key,
+				 EntryWriter	writer
+				)
+  {
+    return(entry(key,1,writer));
+  }
+
+  //  PURPOSE: To return the index of the entry named 'key', taking 'size'
+  //	indices, having 'writer' append it if it is new.
+  protected
+  int		entry		(String		key,
+				 int		size,
+				 EntryWriter	writer
+				)
+  {
+    Integer	index	= indexMap_.get(key);
+
+    if  (index == null)
+    {
+      if  (count_ + size > MAX_COUNT)
+      {
+	throw new IllegalStateException
+			("Program is too large for a JVM class");
+      }
+
+      try
+      {
+	writer.write();
+      }
+      catch  (IOException error)
+      {
+	throw new IllegalStateException(error);
+      }
+
+      index	= count_;
+      count_	+= size;
+      indexMap_.put(key,index);
+    }
+
+    return(index);
+  }
+
+  //  PURPOSE: To return the index of a field or method reference entry.
+  protected
+  int		memberRef	(int	tag,
+				 String	owner,
+				 String	name,
+				 String	descriptor
+				)
+  {
+    int		classIndex	= classRef(owner);
+    int		nameIndex	= utf8(name);
+    int		typeIndex	= utf8(descriptor);
+    int		nameAndType	=
+		entry("N" + name + ":" + descriptor,
+		      () ->
+		      {
+			out_.writeByte(12);
+			out_.writeShort(nameIndex);
+			out_.writeShort(typeIndex);
+		      }
+		     );
+
+    return(entry("M" + tag + owner + "." + name + ":" + descriptor,
+		 () ->
+		 {
+		   out_.writeByte(tag);
+		   out_.writeShort(classIndex);
+		   out_.writeShort(nameAndType);
+		 }
+		)
+	  );
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the written entries.
+  private final
+  ByteArrayOutputStream		bytes_;
+
+  //  PURPOSE: To write the entries.
+  private final
+  DataOutputStream		out_;
+
+  //  PURPOSE: To map each entry key to its index.
+  private final
+  Map<String,Integer>		indexMap_;
+
+  //  PURPOSE: To hold the index of the next entry.
+  private
+  int				count_;
+}
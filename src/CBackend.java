@@ -0,0 +1,565 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        CBackend.java                                              ---*
+ *---                                                                   ---*
+ *---    This file declares a class that translates a list of           ---*
+ *---    PotentialInstruction instances into a portable C program.      ---*
+ *---    Variables become typed globals, labels become C labels.        ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class CBackend
+{
+  //  0.  Constants:
+  //  PURPOSE: To tell the prefix given to variable names so they cannot
+  //	clash with C keywords or library names.
+  public static final
+  String	VAR_PREFIX_STR		= "v_";
+
+  //  PURPOSE: To tell the size of the stdout buffer of the generated
+  //	program.
+  public static final
+  int		STDOUT_BUFFER_SIZE	= 1 << 16;
+
+  //  PURPOSE: To tell what the generated program prints to stderr when it
+  //	divides an integer by zero: what the Java engines print.
+  public static final
+  String	DIV_BY_ZERO_STR		=
+				new ArithmeticException("/ by zero").toString();
+
+  //  PURPOSE: To hold the runtime support of the generated program.
+  //	print_real() prints a double the way Java's Double.toString() does
+  //	since JDK 19: the shortest digits that read back exactly, in plain
+  //	notation for magnitudes in [1e-3,1e7) and scientific notation
+  //	otherwise.  Older JDKs print extra digits for some values.
+  protected static final
+  String	PRELUDE_STR		=
+    "#include <inttypes.h>\n"						+
+    "#include <math.h>\n"						+
+    "#include <stdint.h>\n"						+
+    "#include <stdio.h>\n"						+
+    "#include <stdlib.h>\n"						+
+    "#include <string.h>\n"						+
+    "\n"								+
+    "/* Wrap on overflow like Java does. */\n"				+
+    "#define I_ADD(a,b) ((int64_t)((uint64_t)(a) + (uint64_t)(b)))\n"	+
+    "#define I_SUB(a,b) ((int64_t)((uint64_t)(a) - (uint64_t)(b)))\n"	+
+    "#define I_MUL(a,b) ((int64_t)((uint64_t)(a) * (uint64_t)(b)))\n"	+
+    "\n"								+
+    "/* Stop like the other engines on a zero divisor, after the output\n"	+
+    "   so far, and wrap INT64_MIN / -1 like Java does. */\n"		+
+    "static void div_by_zero(void)\n"					+
+    "{\n"								+
+    "  fflush(stdout);\n"						+
+    "  fputs(\"" + DIV_BY_ZERO_STR + "\\n\", stderr);\n"		+
+    "  exit(EXIT_FAILURE);\n"						+
+    "}\n"								+
+    "\n"								+
+    "static int64_t i_div(int64_t a, int64_t b)\n"			+
+    "{\n"								+
+    "  if (b == 0) div_by_zero();\n"					+
+    "  return (b == -1) ? I_SUB(0,a) : a / b;\n"			+
+    "}\n"								+
+    "\n"								+
+    "static int64_t i_mod(int64_t a, int64_t b)\n"			+
+    "{\n"								+
+    "  if (b == 0) div_by_zero();\n"					+
+    "  return (b == -1) ? 0 : a % b;\n"					+
+    "}\n"								+
+    "\n"								+
+    "static void print_real(double d)\n"				+
+    "{\n"								+
+    "  char buf[40], digits[24];\n"					+
+    "  int  p, nd = 0, exp, i;\n"					+
+    "  char *q;\n"							+
+    "\n"								+
+    "  if (isnan(d)) { fputs(\"NaN\", stdout); return; }\n"		+
+    "  if (isinf(d)) { fputs(d > 0 ? \"Infinity\" : \"-Infinity\","	+
+    " stdout); return; }\n"						+
+    "  if (d == 0) { fputs(signbit(d) ? \"-0.0\" : \"0.0\", stdout);"	+
+    " return; }\n"							+
+    "  if (d < 0) { putchar('-'); d = -d; }\n"				+
+    "\n"								+
+    "  for (p = 1; p < 17; p++)\n"					+
+    "  {\n"								+
+    "    snprintf(buf, sizeof buf, \"%.*e\", p - 1, d);\n"		+
+    "    if (strtod(buf, NULL) == d) break;\n"				+
+    "  }\n"								+
+    "  if (p == 17) snprintf(buf, sizeof buf, \"%.16e\", d);\n"		+
+    "\n"								+
+    "  for (q = buf; *q != 'e'; q++)\n"					+
+    "    if (*q != '.') digits[nd++] = *q;\n"				+
+    "  exp = atoi(q + 1);\n"						+
+    "  while (nd > 1 && digits[nd - 1] == '0') nd--;\n"			+
+    "\n"								+
+    "  if (exp >= -3 && exp < 7)\n"					+
+    "  {\n"								+
+    "    if (exp < 0)\n"						+
+    "    {\n"								+
+    "      fputs(\"0.\", stdout);\n"					+
+    "      for (i = -1; i > exp; i--) putchar('0');\n"			+
+    "      fwrite(digits, 1, nd, stdout);\n"				+
+    "      return;\n"							+
+    "    }\n"								+
+    "    for (i = 0; i <= exp; i++) putchar(i < nd ? digits[i] : '0');\n"+
+    "    putchar('.');\n"						+
+    "    if (nd > exp + 1) fwrite(digits + exp + 1, 1, nd - exp - 1,"	+
+    " stdout);\n"							+
+    "    else putchar('0');\n"						+
+    "    return;\n"							+
+    "  }\n"								+
+    "\n"								+
+    "  putchar(digits[0]);\n"						+
+    "  putchar('.');\n"							+
+    "  if (nd > 1) fwrite(digits + 1, 1, nd - 1, stdout);\n"		+
+    "  else putchar('0');\n"						+
+    "  printf(\"E%d\", exp);\n"						+
+    "}\n";
+
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to translate 'instructList'.  No return
+  //	value.
+  public
+  CBackend			(List<PotentialInstruction>	instructList)
+  {
+    instructList_	= instructList;
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To print the C translation of 'instructList' to 'file'.  No
+  //	return value.
+  public static
+  void		toC		(PrintStream			file,
+				 List<PotentialInstruction>	instructList
+				)
+  {
+    new CBackend(instructList).write(file);
+  }
+
+  //  PURPOSE: To print the C translation to 'file'.  No return value.
+  public
+  void		write		(PrintStream	file)
+  {
+    Set<Variable>	varSet	= new LinkedHashSet<>();
+
+    for  (PotentialInstruction instruct : instructList_)
+    {
+      for  (Variable var : instruct.getVars())
+      {
+	varSet.add(var);
+      }
+    }
+
+    file.print(PRELUDE_STR);
+    file.println();
+
+    for  (Variable var : varSet)
+    {
+      file.println("static " + cType(var.getType()) + "\t" + name(var)
+		   + " = " + initializer(var) + ";"
+		  );
+    }
+
+    file.println();
+    file.println("int main(void)");
+    file.println("{");
+    file.println("  static char stdoutBuffer[" + STDOUT_BUFFER_SIZE + "];");
+    file.println();
+    file.println("  setvbuf(stdout, stdoutBuffer, _IOFBF, sizeof stdoutBuffer);");
+
+    for  (PotentialInstruction instruct : instructList_)
+    {
+      if  (instruct.getAddressLabel() != PotentialInstruction.NO_ADDRESS_LABEL)
+      {
+	file.println(label(instruct.getAddressLabel()) + ":;");
+      }
+
+      String	line	= translate(instruct);
+
+      if  (line != null)
+      {
+	file.println("  " + line);
+      }
+    }
+
+    file.println("  fflush(stdout);");
+    file.println("  return 0;");
+    file.println("}");
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To return the C statement(s) that do 'instruct', or 'null'
+  //	if it does nothing.
+  protected
+  String	translate	(PotentialInstruction	instruct)
+  {
+    VmOperation	op	= instruct.getOp();
+
+    if  (instruct instanceof VarPotentialInstruction)
+    {
+      Variable	var	= ((VarPotentialInstruction)instruct).getVar();
+
+      switch  (op)
+      {
+      case BOOL_CLEAR_VM_OP :
+      case INT_CLEAR_VM_OP :
+	return(name(var) + " = 0;");
+      case REAL_CLEAR_VM_OP :
+	return(name(var) + " = 0.0;");
+      case STDOUT_PRINT_VM_OP :
+	return(print(var));
+      case STDOUT_PRINTLN_VM_OP :
+	return(print(var) + " putchar('\\n');");
+      default :
+	break;
+      }
+    }
+    else
+    if  (instruct instanceof VarVarPotentialInstruction)
+    {
+      VarVarPotentialInstruction
+		varVar	= (VarVarPotentialInstruction)instruct;
+      String	dest	= name(varVar.getDest());
+      String	src	= name(varVar.getSrc0());
+
+      switch  (op)
+      {
+      case INT_COPY_VM_OP :
+      case REAL_COPY_VM_OP :
+      case IDEA_COPY_VM_OP :
+      case INT_TO_REAL_VM_OP :
+	return(dest + " = " + src + ";");
+      case INT_ADD_VAR_VAR_VM_OP :
+	return(dest + " = I_ADD(" + dest + "," + src + ");");
+      case INT_SUB_VAR_VAR_VM_OP :
+	return(dest + " = I_SUB(" + dest + "," + src + ");");
+      case INT_MUL_VAR_VAR_VM_OP :
+	return(dest + " = I_MUL(" + dest + "," + src + ");");
+      case REAL_ADD_VAR_VAR_VM_OP :
+	return(dest + " += " + src + ";");
+      case REAL_SUB_VAR_VAR_VM_OP :
+	return(dest + " -= " + src + ";");
+      case REAL_MUL_VAR_VAR_VM_OP :
+	return(dest + " *= " + src + ";");
+      case LOGIC_NOT_VM_OP :
+	return(dest + " = !" + src + ";");
+      default :
+	break;
+      }
+    }
+    else
+    if  (instruct instanceof VarVarVarPotentialInstruction)
+    {
+      VarVarVarPotentialInstruction
+		triple	= (VarVarVarPotentialInstruction)instruct;
+
+      return(name(triple.getDest()) + " = "
+	     + expression(op,triple.getSrc0(),triple.getSrc1()) + ";"
+	    );
+    }
+    else
+    if  (instruct instanceof VarVarVarVarPotentialInstruction)
+    {
+      VarVarVarVarPotentialInstruction
+		select	= (VarVarVarVarPotentialInstruction)instruct;
+
+      return(name(select.getDest()) + " = " + name(select.getCond()) + " ? "
+	     + name(select.getSrc0()) + " : " + name(select.getSrc1()) + ";"
+	    );
+    }
+    else
+    if  (instruct instanceof AddrPotentialInstruction)
+    {
+      if  (op == VmOperation.GOTO_VM_OP)
+      {
+	return("goto " + label(((AddrPotentialInstruction)instruct)
+					.getGotoAddressLabel()
+			      ) + ";"
+	      );
+      }
+
+      return(null);
+    }
+    else
+    if  (instruct instanceof VarAddrPotentialInstruction)
+    {
+      VarAddrPotentialInstruction
+		varAddr	= (VarAddrPotentialInstruction)instruct;
+
+      return("if (" + ( (op == VmOperation.IF_FALSE_GOTO_VM_OP) ? "!" : "" )
+	     + name(varAddr.getVar()) + ") goto "
+	     + label(varAddr.getGotoAddressLabel()) + ";"
+	    );
+    }
+    else
+    if  (instruct instanceof VarVarAddrPotentialInstruction)
+    {
+      VarVarAddrPotentialInstruction
+		fused	= (VarVarAddrPotentialInstruction)instruct;
+
+      return("if (" + expression(op,fused.getSrc0(),fused.getSrc1())
+	     + ") goto " + label(fused.getGotoAddressLabel()) + ";"
+	    );
+    }
+    else
+    if  (instruct instanceof VarVarImmPotentialInstruction)
+    {
+      VarVarImmPotentialInstruction
+		varVarImm	= (VarVarImmPotentialInstruction)instruct;
+
+      return(name(varVarImm.getDest()) + " = "
+	     + expression(op,varVarImm.getImmediate().getType(),
+			  name(varVarImm.getSrc0()),
+			  literal(varVarImm.getImmediate())
+			 )
+	     + ";"
+	    );
+    }
+    else
+    if  (instruct instanceof VarImmAddrPotentialInstruction)
+    {
+      VarImmAddrPotentialInstruction
+		varImmAddr	= (VarImmAddrPotentialInstruction)instruct;
+
+      return("if (" + expression(op,Type.INTEGER,name(varImmAddr.getSrc0()),
+				 literal(varImmAddr.getImmediate())
+				)
+	     + ") goto " + label(varImmAddr.getGotoAddressLabel()) + ";"
+	    );
+    }
+    else
+    if  ( (op == VmOperation.NO_VM_OP)  ||  (op == VmOperation.ADDR_LABEL_OP) )
+    {
+      return(null);
+    }
+
+    throw new IllegalArgumentException
+		("Non-handled op " + op + " in CBackend.translate()");
+  }
+
+  //  PURPOSE: To return the C expression that combines 'lhs' and 'rhs' as
+  //	'op' does.  The REAL_*_VM_OP comparisons are also emitted for string
+  //	and boolean operands; the operand type decides how they compare.
+  protected static
+  String	expression	(VmOperation	op,
+				 Variable	lhs,
+				 Variable	rhs
+				)
+  {
+    return(expression(op,lhs.getType(),name(lhs),name(rhs)));
+  }
+
+  //  PURPOSE: To return the C expression that combines 'left' and 'right',
+  //	both C expressions of type 'type', as 'op' does.
+  protected static
+  String	expression	(VmOperation	op,
+				 Type		type,
+				 String		left,
+				 String		right
+				)
+  {
+    String	relation;
+
+    switch  (op)
+    {
+    case INT_ADD_VM_OP :
+    case INT_ADD_IMM_VM_OP :		return("I_ADD(" + left + "," + right + ")");
+    case INT_SUB_VM_OP :
+    case INT_SUB_IMM_VM_OP :		return("I_SUB(" + left + "," + right + ")");
+    case INT_MUL_VM_OP :
+    case INT_MUL_IMM_VM_OP :		return("I_MUL(" + left + "," + right + ")");
+    case REAL_ADD_VM_OP :
+    case REAL_ADD_IMM_VM_OP :		return(left + " + " + right);
+    case REAL_SUB_VM_OP :
+    case REAL_SUB_IMM_VM_OP :		return(left + " - " + right);
+    case REAL_MUL_VM_OP :
+    case REAL_MUL_IMM_VM_OP :		return(left + " * " + right);
+    case INT_DIV_VM_OP :		return("i_div(" + left + "," + right + ")");
+    case REAL_DIV_VM_OP :		return(left + " / " + right);
+    case MOD_VM_OP :			return("i_mod(" + left + "," + right + ")");
+    case LOGIC_AND_VM_OP :		return(left + " && " + right);
+    case LOGIC_OR_VM_OP :		return(left + " || " + right);
+    case INT_EQUAL_VM_OP :
+    case REAL_EQUAL_VM_OP :
+    case IF_INT_EQUAL_GOTO_VM_OP :
+    case IF_REAL_EQUAL_GOTO_VM_OP :
+    case INT_EQUAL_IMM_VM_OP :
+    case IF_INT_EQUAL_IMM_GOTO_VM_OP :		relation = "==";	break;
+    case INT_NOT_EQUAL_VM_OP :
+    case REAL_NOT_EQUAL_VM_OP :
+    case IF_INT_NOT_EQUAL_GOTO_VM_OP :
+    case IF_REAL_NOT_EQUAL_GOTO_VM_OP :
+    case INT_NOT_EQUAL_IMM_VM_OP :
+    case IF_INT_NOT_EQUAL_IMM_GOTO_VM_OP :	relation = "!=";	break;
+    case INT_LESSER_VM_OP :
+    case REAL_LESSER_VM_OP :
+    case IF_INT_LESSER_GOTO_VM_OP :
+    case IF_REAL_LESSER_GOTO_VM_OP :
+    case INT_LESSER_IMM_VM_OP :
+    case IF_INT_LESSER_IMM_GOTO_VM_OP :		relation = "<";		break;
+    case INT_LESSER_EQUAL_VM_OP :
+    case REAL_LESSER_EQUAL_VM_OP :
+    case IF_INT_LESSER_EQUAL_GOTO_VM_OP :
+    case IF_REAL_LESSER_EQUAL_GOTO_VM_OP :
+    case INT_LESSER_EQUAL_IMM_VM_OP :
+    case IF_INT_LESSER_EQUAL_IMM_GOTO_VM_OP :	relation = "<=";	break;
+    case INT_GREATER_VM_OP :
+    case REAL_GREATER_VM_OP :
+    case IF_INT_GREATER_GOTO_VM_OP :
+    case IF_REAL_GREATER_GOTO_VM_OP :
+    case INT_GREATER_IMM_VM_OP :
+    case IF_INT_GREATER_IMM_GOTO_VM_OP :	relation = ">";		break;
+    case INT_GREATER_EQUAL_VM_OP :
+    case REAL_GREATER_EQUAL_VM_OP :
+    case IF_INT_GREATER_EQUAL_GOTO_VM_OP :
+    case IF_REAL_GREATER_EQUAL_GOTO_VM_OP :
+    case INT_GREATER_EQUAL_IMM_VM_OP :
+    case IF_INT_GREATER_EQUAL_IMM_GOTO_VM_OP :	relation = ">=";	break;
+    default :
+      throw new IllegalArgumentException
+		("Non-handled op " + op + " in CBackend.translate()");
+    }
+
+    if  (type == Type.STRING)
+    {
+      return("strcmp(" + left + "," + right + ") " + relation + " 0");
+    }
+
+    return(left + " " + relation + " " + right);
+  }
+
+  //  PURPOSE: To return the C statement that prints 'var'.
+  protected static
+  String	print		(Variable	var)
+  {
+    switch  (var.getType())
+    {
+    case BOOLEAN :
+      return("fputs(" + name(var) + " ? \"true\" : \"false\", stdout);");
+    case INTEGER :
+      return("printf(\"%\" PRId64, " + name(var) + ");");
+    case REAL :
+      return("print_real(" + name(var) + ");");
+    default :
+      return("fputs(" + name(var) + ", stdout);");
+    }
+  }
+
+  //  PURPOSE: To return the C type that holds values of type 'type'.
+  protected static
+  String	cType		(Type	type)
+  {
+    switch  (type)
+    {
+    case BOOLEAN :	return("int");
+    case INTEGER :	return("int64_t");
+    case REAL :		return("double");
+    case STRING :	return("const char *");
+    default :
+      throw new IllegalArgumentException("Variable has no type");
+    }
+  }
+
+  //  PURPOSE: To return the C literal of the current value of 'var'.
+  protected static
+  String	initializer	(Variable	var)
+  {
+    switch  (var.getType())
+    {
+    case BOOLEAN :
+      return(var.getBoolean() ? "1" : "0");
+    case INTEGER :
+      return(literal(new IntegerValue(var.getInteger())));
+    case REAL :
+      return(literal(new RealValue(var.getReal())));
+    default :
+      return(stringLiteral(var.getString()));
+    }
+  }
+
+  //  PURPOSE: To return the C literal of number 'value'.
+  protected static
+  String	literal		(Value	value)
+  {
+    switch  (value.getType())
+    {
+    case INTEGER :
+      long	integer	= value.getInteger();
+
+      return( (integer == Long.MIN_VALUE)
+	      ? "INT64_MIN" : "INT64_C(" + integer + ")"
+	    );
+    case REAL :
+      double	real	= value.getReal();
+
+      if  (Double.isNaN(real))
+	return("NAN");
+      if  (Double.isInfinite(real))
+	return( (real > 0) ? "HUGE_VAL" : "-HUGE_VAL" );
+
+      //  Hex floats are exact:
+      return(Double.toHexString(real));
+    default :
+      throw new IllegalArgumentException
+		("Inline operand " + value + " is not a number");
+    }
+  }
+
+  //  PURPOSE: To return 'text' as a C string literal.
+  protected static
+  String	stringLiteral	(String	text)
+  {
+    StringBuilder	builder	= new StringBuilder("\"");
+
+    for  (byte b : text.getBytes(StandardCharsets.UTF_8))
+    {
+      int	c	= b & 0xFF;
+
+      if  ( (c == '"')  ||  (c == '\\') )
+      {
+	builder.append('\\').append((char)c);
+      }
+      else
+      if  ( (c < ' ')  ||  (c >= 0x7F) || (c == '?') )
+      {
+	//  Octal escapes; '?' too, to avoid trigraphs:
+	builder.append(String.format("\\%03o",c));
+      }
+      else
+      {
+	builder.append((char)c);
+      }
+    }
+
+    return(builder.append('"').toString());
+  }
+
+  //  PURPOSE: To return the C name of 'var'.
+  protected static
+  String	name		(Variable	var)
+  {
+    return(VAR_PREFIX_STR + var.getNameStr());
+  }
+
+  //  PURPOSE: To return the C name of address label 'label'.
+  protected static
+  String	label		(long	label)
+  {
+    return(String.format(PotentialInstruction.ADDR_TEMPLATE,label));
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the instructions to translate.
+  protected final
+  List<PotentialInstruction>	instructList_;
+}
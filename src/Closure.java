@@ -0,0 +1,69 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        Closure.java                                               ---*
+ *---                                                                   ---*
+ *---    This file declares the interfaces of the pre-bound closures    ---*
+ *---    that Statement trees are compiled into for fast execution.     ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+//  PURPOSE: To represent compiled code that computes an integer.
+@FunctionalInterface
+interface IntegerClosure
+{
+  //  PURPOSE: To compute the integer, reading variables from 'frame'.
+  long		computeInteger	(Frame	frame);
+}
+
+
+//  PURPOSE: To represent compiled code that computes a real.
+@FunctionalInterface
+interface RealClosure
+{
+  //  PURPOSE: To compute the real, reading variables from 'frame'.
+  double	computeReal	(Frame	frame);
+}
+
+
+//  PURPOSE: To represent compiled code that computes a boolean.
+@FunctionalInterface
+interface BooleanClosure
+{
+  //  PURPOSE: To compute the boolean, reading variables from 'frame'.
+  boolean	computeBoolean	(Frame	frame);
+}
+
+
+//  PURPOSE: To represent compiled code that computes a string.
+@FunctionalInterface
+interface StringClosure
+{
+  //  PURPOSE: To compute the string, reading variables from 'frame'.
+  String	computeString	(Frame	frame);
+}
+
+
+//  PURPOSE: To represent compiled code that is run for its effect only.
+@FunctionalInterface
+interface ExecuteClosure
+{
+  //  PURPOSE: To run, reading and writing variables in 'frame'.
+  void		execute		(Frame	frame);
+}
+
+
+//  PURPOSE: To represent compiled code for a counted loop that resumes from
+//	the current value of its variable.
+@FunctionalInterface
+interface CountedLoopClosure
+{
+  //  PURPOSE: To run the loop until its variable passes 'bound', reading
+  //	and writing variables in 'frame'.
+  void		execute		(Frame	frame,
+				 long	bound
+				);
+}
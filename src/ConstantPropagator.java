@@ -0,0 +1,929 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        ConstantPropagator.java                                    ---*
+ *---                                                                   ---*
+ *---    This file declares a class that finds the values of a list of  ---*
+ *---    VM instructions that are the same on every run, folds them,    ---*
+ *---    and removes the code that constant conditions make             ---*
+ *---    unreachable.                                                   ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+//  PURPOSE: To do sparse conditional constant propagation over the SSA
+//	form of a list of instructions.  Each value starts out as 'TOP' (not
+//	yet seen to be computed) and is only ever lowered, to a constant and
+//	then to 'BOTTOM' (not constant).  Only the blocks and edges that
+//	control is found able to reach are looked at, so a branch on a
+//	constant keeps the code it skips from spoiling the values it joins.
+class ConstantPropagator
+{
+  //  0.  Constants:
+  //  PURPOSE: To stand for a value not yet seen to be computed, and for one
+  //	that is not constant.  They are told from constants by identity.
+  protected static final
+  Value		TOP			= new StringValue("<top>");
+
+  protected static final
+  Value		BOTTOM			= new StringValue("<bottom>");
+
+  //  PURPOSE: To tell the relations that compares may test.
+  protected static final
+  int		EQUAL			= 0;
+
+  protected static final
+  int		NOT_EQUAL		= 1;
+
+  protected static final
+  int		LESSER			= 2;
+
+  protected static final
+  int		LESSER_EQUAL		= 3;
+
+  protected static final
+  int		GREATER			= 4;
+
+  protected static final
+  int		GREATER_EQUAL		= 5;
+
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to propagate the constants of
+  //	'instructList'.  No return value.
+  protected
+  ConstantPropagator		(List<PotentialInstruction>	instructList)
+  {
+    List<BasicBlock>	blockList;
+
+    graph_		= new ControlFlowGraph(instructList);
+    blockList		= graph_.getBlocks();
+    ssa_		= new SsaForm(graph_,new DominatorTree(graph_));
+    latticeArray_	= new Value[ssa_.getNumValues()];
+    userListList_	= new ArrayList<>(ssa_.getNumValues());
+    isExecutableArray_	= new boolean[blockList.size()];
+    edgeArray_		= new boolean[blockList.size()][];
+    flowWorkList_	= new ArrayDeque<>();
+    ssaWorkList_	= new ArrayDeque<>();
+
+    for  (BasicBlock block : blockList)
+    {
+      edgeArray_[block.getIndex()]	=
+		new boolean[block.getPredecessors().size() + 1];
+    }
+
+    for  (int value = 0;  value < latticeArray_.length;  value++)
+    {
+      latticeArray_[value]	= ssa_.isEntryValue(value)
+				  ? entryLattice(value)
+				  : TOP;
+      userListList_.add(new ArrayList<>(2));
+    }
+
+    noteUsers();
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To rewrite 'instructList' so that each value found to be
+  //	constant is copied from, and each read of one is made from, the
+  //	shared read-only Variable that holds it; that each branch on a
+  //	constant condition goes only the one way; and that the blocks
+  //	control can no longer reach are gone.  Returns the number of
+  //	instructions removed.
+  public static
+  int		propagate	(List<PotentialInstruction>	instructList)
+  {
+    if  (instructList.isEmpty())
+    {
+      return(0);
+    }
+
+    return(new ConstantPropagator(instructList).transform(instructList));
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To do the work of propagate(List) on 'instructList'.
+  //	Returns the number of instructions removed.
+  protected
+  int		transform	(List<PotentialInstruction>	instructList)
+  {
+    List<PotentialInstruction>	newList	=
+				new ArrayList<>(instructList.size());
+    int				oldSize	= instructList.size();
+
+    solve();
+
+    for  (BasicBlock block : graph_.getBlocks())
+    {
+      if  (!isExecutableArray_[block.getIndex()])
+      {
+	continue;
+      }
+
+      for  (int index = block.getStart();  index < block.getEnd();  index++)
+      {
+	PotentialInstruction	instruct	= rewrite(index);
+
+	if  (instruct != null)
+	{
+	  newList.add(instruct);
+	}
+      }
+    }
+
+    instructList.clear();
+    instructList.addAll(newList);
+    return(oldSize - newList.size());
+  }
+
+  //  PURPOSE: To find which blocks may run and which values are constant,
+  //	following newly reachable edges and newly lowered values until
+  //	there are none.  No return value.
+  protected
+  void		solve		()
+  {
+    BasicBlock	first	= graph_.getBlocks().get(0);
+
+    //  The program starts along the extra edge of the first block:
+    edgeArray_[0][first.getPredecessors().size()]	= true;
+    flowWorkList_.add(first);
+
+    while  (!flowWorkList_.isEmpty()  ||  !ssaWorkList_.isEmpty())
+    {
+      while  (!flowWorkList_.isEmpty())
+      {
+	visitBlock(flowWorkList_.poll());
+      }
+
+      while  (!ssaWorkList_.isEmpty())
+      {
+	for  (int user : userListList_.get(ssaWorkList_.poll()))
+	{
+	  if  (user >= 0)
+	  {
+	    visitInstruct(user);
+	  }
+	  else
+	  {
+	    visitPhi(-user - 1);
+	  }
+	}
+      }
+    }
+  }
+
+  //  PURPOSE: To look at 'block', which control has just been found able
+  //	to reach along a new edge.  The first time, its phis and its
+  //	instructions are evaluated; afterwards only its phis can change.
+  //	No return value.
+  protected
+  void		visitBlock	(BasicBlock	block)
+  {
+    boolean	isFirstVisit	= !isExecutableArray_[block.getIndex()];
+
+    isExecutableArray_[block.getIndex()]	= true;
+
+    for  (int phi : ssa_.getPhisOf(block))
+    {
+      visitPhi(phi);
+    }
+
+    if  (isFirstVisit)
+    {
+      for  (int index = block.getStart();  index < block.getEnd();  index++)
+      {
+	visitInstruct(index);
+      }
+    }
+  }
+
+  //  PURPOSE: To lower the value of phi 'phi' to the meet of its operands
+  //	along the edges control may take.  No return value.
+  protected
+  void		visitPhi	(int	phi)
+  {
+    BasicBlock	block		= ssa_.getPhiBlock(phi);
+    int[]	operandArray	= ssa_.getPhiOperands(phi);
+    boolean[]	edgeArray	= edgeArray_[block.getIndex()];
+    Value	result		= TOP;
+
+    if  (!isExecutableArray_[block.getIndex()])
+    {
+      return;
+    }
+
+    for  (int pred = 0;  pred < operandArray.length;  pred++)
+    {
+      if  (edgeArray[pred])
+      {
+	result	= meet(result,latticeArray_[operandArray[pred]]);
+      }
+    }
+
+    lower(ssa_.getPhiValue(phi),result);
+  }
+
+  //  PURPOSE: To evaluate instruction 'index' if its block may run: to
+  //	lower the value it writes, and if it ends its block, to follow the
+  //	edges it may take.  No return value.
+  protected
+  void		visitInstruct	(int	index)
+  {
+    BasicBlock	block	= graph_.getBlockOf(index);
+    int		def	= ssa_.getDefValue(index);
+
+    if  (!isExecutableArray_[block.getIndex()])
+    {
+      return;
+    }
+
+    if  (def != SsaForm.NO_VALUE)
+    {
+      lower(def,evaluate(index));
+    }
+
+    if  (index != block.getEnd() - 1)
+    {
+      return;
+    }
+
+    Value	jumps	= evaluateBranch(index);
+
+    if  (jumps == TOP)
+    {
+      return;
+    }
+
+    if  ( (jumps == BOTTOM)  ||  jumps.getBoolean() )
+    {
+      BasicBlock	target	= graph_.getBlockOfLabel
+				(graph_.getInstruct(index).getGotoAddressLabel());
+
+      if  (target != null)
+      {
+	followEdge(block,target);
+      }
+    }
+
+    if  ( (jumps == BOTTOM)  ||  !jumps.getBoolean() )
+    {
+      BasicBlock	fallThrough	= graph_.getFallThrough(block);
+
+      if  (fallThrough != null)
+      {
+	followEdge(block,fallThrough);
+      }
+    }
+  }
+
+  //  PURPOSE: To note that control may flow from 'pred' to 'succ'.  No
+  //	return value.
+  protected
+  void		followEdge	(BasicBlock	pred,
+				 BasicBlock	succ
+				)
+  {
+    boolean[]	edgeArray	= edgeArray_[succ.getIndex()];
+    int		position	= succ.getPredecessors().indexOf(pred);
+
+    if  (!edgeArray[position])
+    {
+      edgeArray[position]	= true;
+      flowWorkList_.add(succ);
+    }
+  }
+
+  //  PURPOSE: To lower SSA value 'value' toward 'newLattice', noting its
+  //	users if it changes.  No return value.
+  protected
+  void		lower		(int	value,
+				 Value	newLattice
+				)
+  {
+    Value	oldLattice	= latticeArray_[value];
+    Value	lowered		= meet(oldLattice,newLattice);
+
+    if  (!isSame(oldLattice,lowered))
+    {
+      latticeArray_[value]	= lowered;
+      ssaWorkList_.add(value);
+    }
+  }
+
+  //  PURPOSE: To return where instruction 'index' goes: 'TOP' if that is
+  //	not yet known, a true or false BooleanValue if it does or does not
+  //	jump, or 'BOTTOM' if it may do either.  An instruction that does
+  //	not branch on a condition always "jumps" to its target if it has
+  //	one and falls through otherwise, and is returned as 'BOTTOM' so
+  //	that both are followed.
+  protected
+  Value		evaluateBranch	(int	index)
+  {
+    PotentialInstruction	instruct	= graph_.getInstruct(index);
+    Value[]			operandArray	= operands(index);
+
+    if  (!isConditional(instruct))
+    {
+      return(BOTTOM);
+    }
+
+    for  (Value operand : operandArray)
+    {
+      if  ( (operand == TOP)  ||  (operand == BOTTOM) )
+      {
+	return(operand);
+      }
+    }
+
+    switch  (instruct.getOp())
+    {
+    case IF_FALSE_GOTO_VM_OP :
+      return(new BooleanValue(!operandArray[0].getBoolean()));
+    case IF_TRUE_GOTO_VM_OP :
+      return(operandArray[0]);
+    default :
+      Value	rhs	= (instruct instanceof VarImmAddrPotentialInstruction)
+			  ? ((VarImmAddrPotentialInstruction)instruct)
+				.getImmediate()
+			  : operandArray[1];
+
+      return(compare(relation(instruct.getOp()),operandArray[0],rhs));
+    }
+  }
+
+  //  PURPOSE: To return the lattice value of what instruction 'index'
+  //	writes, given the lattice values of what it reads.
+  protected
+  Value		evaluate	(int	index)
+  {
+    PotentialInstruction	instruct	= graph_.getInstruct(index);
+    Value[]			operandArray	= operands(index);
+    VmOperation			op		= instruct.getOp();
+
+    switch  (op)
+    {
+    case BOOL_CLEAR_VM_OP :	return(new BooleanValue(false));
+    case INT_CLEAR_VM_OP :	return(new IntegerValue(0));
+    case REAL_CLEAR_VM_OP :	return(new RealValue(0.0));
+
+    case INT_SELECT_VM_OP :
+    case REAL_SELECT_VM_OP :
+    case IDEA_SELECT_VM_OP :
+      if  ( (operandArray[0] == TOP)  ||  (operandArray[0] == BOTTOM) )
+      {
+	return( (operandArray[0] == TOP)
+		? TOP
+		: meet(operandArray[1],operandArray[2])
+	      );
+      }
+
+      return(operandArray[0].getBoolean() ? operandArray[1] : operandArray[2]);
+
+    case LOGIC_AND_VM_OP :
+    case LOGIC_OR_VM_OP :
+      //  Either operand alone may decide the result:
+      boolean	decider	= (op == VmOperation.LOGIC_OR_VM_OP);
+
+      for  (Value operand : operandArray)
+      {
+	if  ( (operand != TOP)		&&
+	      (operand != BOTTOM)	&&
+	      (operand.getBoolean() == decider)
+	    )
+	{
+	  return(operand);
+	}
+      }
+      break;
+
+    default :
+      break;
+    }
+
+    for  (Value operand : operandArray)
+    {
+      if  (operand == BOTTOM)
+      {
+	return(BOTTOM);
+      }
+    }
+
+    for  (Value operand : operandArray)
+    {
+      if  (operand == TOP)
+      {
+	return(TOP);
+      }
+    }
+
+    Value	result	= fold(instruct,operandArray);
+
+    if  ( (result == null)  ||
+	  (result.getType() != instruct.getDefinedVar().getType())
+	)
+    {
+      return(BOTTOM);
+    }
+
+    if  ( (result.getType() == Type.REAL)  &&
+	  !Double.isFinite(result.getReal())
+	)
+    {
+      return(BOTTOM);
+    }
+
+    return(result);
+  }
+
+  //  PURPOSE: To return what 'instruct' writes when it reads the constants
+  //	in 'operandArray', or 'null' if that cannot be known here.
+  protected static
+  Value		fold		(PotentialInstruction	instruct,
+				 Value[]		operandArray
+				)
+  {
+    VmOperation	op	= instruct.getOp();
+    Value	lhs	= operandArray[0];
+    Value	rhs	= (operandArray.length > 1) ? operandArray[1] : null;
+
+    if  (instruct instanceof VarVarImmPotentialInstruction)
+    {
+      rhs	= ((VarVarImmPotentialInstruction)instruct).getImmediate();
+    }
+
+    switch  (op)
+    {
+    case INT_COPY_VM_OP :
+    case REAL_COPY_VM_OP :
+    case IDEA_COPY_VM_OP :
+      return(lhs);
+
+    case INT_TO_REAL_VM_OP :
+      return(new RealValue(lhs.getInteger()));
+
+    case LOGIC_NOT_VM_OP :
+      return(new BooleanValue(!lhs.getBoolean()));
+
+    case LOGIC_AND_VM_OP :
+      return(new BooleanValue(lhs.getBoolean() & rhs.getBoolean()));
+
+    case LOGIC_OR_VM_OP :
+      return(new BooleanValue(lhs.getBoolean() | rhs.getBoolean()));
+
+    case INT_ADD_VAR_VAR_VM_OP :
+    case INT_ADD_VM_OP :
+    case INT_ADD_IMM_VM_OP :
+      return(new IntegerValue(lhs.getInteger() + rhs.getInteger()));
+
+    case INT_SUB_VAR_VAR_VM_OP :
+    case INT_SUB_VM_OP :
+    case INT_SUB_IMM_VM_OP :
+      return(new IntegerValue(lhs.getInteger() - rhs.getInteger()));
+
+    case INT_MUL_VAR_VAR_VM_OP :
+    case INT_MUL_VM_OP :
+    case INT_MUL_IMM_VM_OP :
+      return(new IntegerValue(lhs.getInteger() * rhs.getInteger()));
+
+    case INT_DIV_VM_OP :
+      return( (rhs.getInteger() == 0)
+	      ? null
+	      : new IntegerValue(lhs.getInteger() / rhs.getInteger())
+	    );
+
+    case MOD_VM_OP :
+      return( (rhs.getInteger() == 0)
+	      ? null
+	      : new IntegerValue(lhs.getInteger() % rhs.getInteger())
+	    );
+
+    case REAL_ADD_VAR_VAR_VM_OP :
+    case REAL_ADD_VM_OP :
+    case REAL_ADD_IMM_VM_OP :
+      return(new RealValue(real(lhs) + real(rhs)));
+
+    case REAL_SUB_VAR_VAR_VM_OP :
+    case REAL_SUB_VM_OP :
+    case REAL_SUB_IMM_VM_OP :
+      return(new RealValue(real(lhs) - real(rhs)));
+
+    case REAL_MUL_VAR_VAR_VM_OP :
+    case REAL_MUL_VM_OP :
+    case REAL_MUL_IMM_VM_OP :
+      return(new RealValue(real(lhs) * real(rhs)));
+
+    case REAL_DIV_VM_OP :
+      return(new RealValue(real(lhs) / real(rhs)));
+
+    default :
+      int	relation	= relation(op);
+
+      if  (relation < 0)
+      {
+	return(null);
+      }
+
+      Value	holds	= compare(relation,lhs,rhs);
+
+      return( (holds == BOTTOM) ? null : holds );
+    }
+  }
+
+  //  PURPOSE: To return whether constants 'lhs' and 'rhs' stand in
+  //	relation 'relation' as a BooleanValue, or 'BOTTOM' if they cannot
+  //	be compared here.
+  protected static
+  Value		compare		(int	relation,
+				 Value	lhs,
+				 Value	rhs
+				)
+  {
+    int		sign;
+
+    if  (lhs.getType() != rhs.getType())
+    {
+      return(BOTTOM);
+    }
+
+    switch  (lhs.getType())
+    {
+    case BOOLEAN :
+      if  (relation > NOT_EQUAL)
+      {
+	return(BOTTOM);
+      }
+
+      sign	= (lhs.getBoolean() == rhs.getBoolean()) ? 0 : 1;
+      break;
+    case INTEGER :
+      sign	= Long.compare(lhs.getInteger(),rhs.getInteger());
+      break;
+    case REAL :
+      //  Not Double.compare(), which tells -0.0 from 0.0:
+      sign	= (lhs.getReal() < rhs.getReal()) ? -1
+		: (lhs.getReal() > rhs.getReal()) ?  1 : 0;
+      break;
+    default :
+      sign	= lhs.getString().compareTo(rhs.getString());
+      break;
+    }
+
+    switch  (relation)
+    {
+    case EQUAL :		return(new BooleanValue(sign == 0));
+    case NOT_EQUAL :		return(new BooleanValue(sign != 0));
+    case LESSER :		return(new BooleanValue(sign <  0));
+    case LESSER_EQUAL :		return(new BooleanValue(sign <= 0));
+    case GREATER :		return(new BooleanValue(sign >  0));
+    default :			return(new BooleanValue(sign >= 0));
+    }
+  }
+
+  //  PURPOSE: To return the relation that compare op 'op' tests, or -1 if
+  //	'op' does not compare.
+  protected static
+  int		relation	(VmOperation	op)
+  {
+    switch  (op)
+    {
+    case INT_EQUAL_VM_OP :
+    case REAL_EQUAL_VM_OP :
+    case INT_EQUAL_IMM_VM_OP :
+    case IF_INT_EQUAL_GOTO_VM_OP :
+    case IF_REAL_EQUAL_GOTO_VM_OP :
+    case IF_INT_EQUAL_IMM_GOTO_VM_OP :		return(EQUAL);
+    case INT_NOT_EQUAL_VM_OP :
+    case REAL_NOT_EQUAL_VM_OP :
+    case INT_NOT_EQUAL_IMM_VM_OP :
+    case IF_INT_NOT_EQUAL_GOTO_VM_OP :
+    case IF_REAL_NOT_EQUAL_GOTO_VM_OP :
+    case IF_INT_NOT_EQUAL_IMM_GOTO_VM_OP :	return(NOT_EQUAL);
+    case INT_LESSER_VM_OP :
+    case REAL_LESSER_VM_OP :
+    case INT_LESSER_IMM_VM_OP :
+    case IF_INT_LESSER_GOTO_VM_OP :
+    case IF_REAL_LESSER_GOTO_VM_OP :
+    case IF_INT_LESSER_IMM_GOTO_VM_OP :		return(LESSER);
+    case INT_LESSER_EQUAL_VM_OP :
+    case REAL_LESSER_EQUAL_VM_OP :
+    case INT_LESSER_EQUAL_IMM_VM_OP :
+    case IF_INT_LESSER_EQUAL_GOTO_VM_OP :
+    case IF_REAL_LESSER_EQUAL_GOTO_VM_OP :
+    case IF_INT_LESSER_EQUAL_IMM_GOTO_VM_OP :	return(LESSER_EQUAL);
+    case INT_GREATER_VM_OP :
+    case REAL_GREATER_VM_OP :
+    case INT_GREATER_IMM_VM_OP :
+    case IF_INT_GREATER_GOTO_VM_OP :
+    case IF_REAL_GREATER_GOTO_VM_OP :
+    case IF_INT_GREATER_IMM_GOTO_VM_OP :	return(GREATER);
+    case INT_GREATER_EQUAL_VM_OP :
+    case REAL_GREATER_EQUAL_VM_OP :
+    case INT_GREATER_EQUAL_IMM_VM_OP :
+    case IF_INT_GREATER_EQUAL_GOTO_VM_OP :
+    case IF_REAL_GREATER_EQUAL_GOTO_VM_OP :
+    case IF_INT_GREATER_EQUAL_IMM_GOTO_VM_OP :	return(GREATER_EQUAL);
+    default :
+      return(-1);
+    }
+  }
+
+  //  PURPOSE: To return 'instruct' rewritten by what solve() found, or
+  //	'null' if it is no longer needed.  Instruction 'index' is in a
+  //	block that may run.
+  protected
+  PotentialInstruction
+		rewrite		(int	index)
+  {
+    PotentialInstruction	instruct	= graph_.getInstruct(index);
+    int				def		= ssa_.getDefValue(index);
+    long			label		= instruct.getAddressLabel();
+
+    //  I.  A branch on a constant becomes a jump or nothing:
+    if  (isConditional(instruct))
+    {
+      Value	jumps	= evaluateBranch(index);
+
+      if  ( (jumps != TOP)  &&  (jumps != BOTTOM) )
+      {
+	if  (jumps.getBoolean())
+	{
+	  instruct	= new AddrPotentialInstruction
+				(VmOperation.GOTO_VM_OP,
+				 instruct.getGotoAddressLabel()
+				);
+	}
+	else
+	if  (label != PotentialInstruction.NO_ADDRESS_LABEL)
+	{
+	  instruct	= new PotentialInstruction(VmOperation.NO_VM_OP);
+	}
+	else
+	{
+	  return(null);
+	}
+
+	instruct.setAddressLabel(label);
+	return(instruct);
+      }
+    }
+
+    //  II.  A constant result is copied from the Variable that holds it:
+    if  (def != SsaForm.NO_VALUE)
+    {
+      Value	result	= latticeArray_[def];
+      Variable	dest	= instruct.getDefinedVar();
+
+      if  ( (result != TOP)  &&  (result != BOTTOM)  &&  !isCheap(instruct) )
+      {
+	instruct	= new VarVarPotentialInstruction
+				(copyOp(dest.getType()),
+				 dest,
+				 VarStore.get().obtainConstVar(result)
+				);
+	instruct.setAddressLabel(label);
+	return(instruct);
+      }
+
+      //  A select on a constant condition copies the operand it picks:
+      Value[]	operandArray	= operands(index);
+
+      if  ( (instruct instanceof VarVarVarVarPotentialInstruction)	&&
+	    (operandArray[0] != BOTTOM)					&&
+	    (operandArray[0] != TOP)
+	  )
+      {
+	VarVarVarVarPotentialInstruction	select	=
+				(VarVarVarVarPotentialInstruction)instruct;
+
+	instruct	= new VarVarPotentialInstruction
+				(copyOp(dest.getType()),
+				 dest,
+				 operandArray[0].getBoolean()
+				 ? select.getSrc0()
+				 : select.getSrc1()
+				);
+	instruct.setAddressLabel(label);
+      }
+    }
+
+    //  III.  Constant operands are read from the Variables that hold them:
+    Map<Variable,Variable>	renameMap	= new IdentityHashMap<>();
+    Variable[]			usedArray	= instruct.getUsedVars();
+    int[]			valueArray	= ssa_.getUseValues(index);
+
+    if  (usedArray.length == valueArray.length)
+    {
+      for  (int use = 0;  use < usedArray.length;  use++)
+      {
+	Value	operand	= latticeArray_[valueArray[use]];
+
+	if  ( (operand != TOP)				&&
+	      (operand != BOTTOM)			&&
+	      (operand.getType() == usedArray[use].getType())	&&
+	      !VarStore.get().isConstVar(usedArray[use])
+	    )
+	{
+	  renameMap.put(usedArray[use],VarStore.get().obtainConstVar(operand));
+	}
+      }
+
+      instruct.replaceUsedVars(renameMap);
+    }
+
+    return(instruct);
+  }
+
+  //  PURPOSE: To return 'true' if writing a constant with 'instruct' is
+  //	already as cheap as copying it, or 'false' otherwise.
+  protected static
+  boolean	isCheap		(PotentialInstruction	instruct)
+  {
+    switch  (instruct.getOp())
+    {
+    case BOOL_CLEAR_VM_OP :
+    case INT_CLEAR_VM_OP :
+    case REAL_CLEAR_VM_OP :
+      return(true);
+    case INT_COPY_VM_OP :
+    case REAL_COPY_VM_OP :
+    case IDEA_COPY_VM_OP :
+      return(VarStore.get().isConstVar
+		(((VarVarPotentialInstruction)instruct).getSrc0())
+	    );
+    default :
+      return(false);
+    }
+  }
+
+  //  PURPOSE: To return the op that copies a Variable of type 'type'.
+  protected static
+  VmOperation	copyOp		(Type	type)
+  {
+    switch  (type)
+    {
+    case INTEGER :	return(VmOperation.INT_COPY_VM_OP);
+    case REAL :		return(VmOperation.REAL_COPY_VM_OP);
+    default :		return(VmOperation.IDEA_COPY_VM_OP);
+    }
+  }
+
+  //  PURPOSE: To return 'true' if 'instruct' jumps only when a condition
+  //	holds, or 'false' otherwise.
+  protected static
+  boolean	isConditional	(PotentialInstruction	instruct)
+  {
+    return( (instruct.getOp() != VmOperation.GOTO_VM_OP)  &&
+	    (instruct.getGotoAddressLabel()
+			!= PotentialInstruction.NO_ADDRESS_LABEL
+	    )
+	  );
+  }
+
+  //  PURPOSE: To return the lattice values of what instruction 'index'
+  //	reads, in the order of getUsedVars().
+  protected
+  Value[]	operands	(int	index)
+  {
+    int[]	valueArray	= ssa_.getUseValues(index);
+    Value[]	operandArray	= new Value[valueArray.length];
+
+    for  (int use = 0;  use < valueArray.length;  use++)
+    {
+      operandArray[use]	= latticeArray_[valueArray[use]];
+    }
+
+    return(operandArray);
+  }
+
+  //  PURPOSE: To return the lattice value that an entry value 'value'
+  //	starts with: its constant for a shared read-only Variable, or
+  //	'BOTTOM' for any other, whose first value is not fixed here.
+  protected
+  Value		entryLattice	(int	value)
+  {
+    Variable	var	= graph_.getVar(ssa_.getVarOfValue(value));
+
+    return( VarStore.get().isConstVar(var) ? var.getValue() : BOTTOM );
+  }
+
+  //  PURPOSE: To note, for each SSA value, the instructions (as their
+  //	indices) and phis (as -1 - the phi) that read it.  No return value.
+  protected
+  void		noteUsers	()
+  {
+    for  (int index = 0;  index < graph_.getNumInstructs();  index++)
+    {
+      for  (int value : ssa_.getUseValues(index))
+      {
+	if  (value != SsaForm.NO_VALUE)
+	{
+	  userListList_.get(value).add(index);
+	}
+      }
+    }
+
+    for  (int phi = 0;  phi < ssa_.getNumPhis();  phi++)
+    {
+      for  (int value : ssa_.getPhiOperands(phi))
+      {
+	if  (value != SsaForm.NO_VALUE)
+	{
+	  userListList_.get(value).add(-phi - 1);
+	}
+      }
+    }
+  }
+
+  //  PURPOSE: To return the meet of lattice values 'lhs' and 'rhs': the
+  //	highest value no higher than either.
+  protected static
+  Value		meet		(Value	lhs,
+				 Value	rhs
+				)
+  {
+    if  (lhs == TOP)
+    {
+      return(rhs);
+    }
+
+    if  (rhs == TOP)
+    {
+      return(lhs);
+    }
+
+    return( isSame(lhs,rhs) ? lhs : BOTTOM );
+  }
+
+  //  PURPOSE: To return 'true' if lattice values 'lhs' and 'rhs' are the
+  //	same, or 'false' otherwise.  Constants are the same when they would
+  //	share one read-only Variable.
+  protected static
+  boolean	isSame		(Value	lhs,
+				 Value	rhs
+				)
+  {
+    if  ( (lhs == rhs)  ||
+	  (lhs == TOP)  ||  (lhs == BOTTOM)  ||
+	  (rhs == TOP)  ||  (rhs == BOTTOM)
+	)
+    {
+      return(lhs == rhs);
+    }
+
+    return( (lhs.getType() == rhs.getType())  &&
+	    lhs.toString().equals(rhs.toString())
+	  );
+  }
+
+  //  PURPOSE: To return numeric constant 'value' as a real.
+  protected static
+  double	real		(Value	value)
+  {
+    return( (value.getType() == Type.INTEGER)
+	    ? value.getInteger()
+	    : value.getReal()
+	  );
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the blocks of the instructions and their SSA form.
+  protected final
+  ControlFlowGraph		graph_;
+
+  protected final
+  SsaForm			ssa_;
+
+  //  PURPOSE: To hold, for each SSA value, 'TOP', its constant or 'BOTTOM'.
+  protected final
+  Value[]			latticeArray_;
+
+  //  PURPOSE: To hold, for each SSA value, the instructions and phis that
+  //	read it.
+  protected final
+  List<List<Integer>>	userListList_;
+
+  //  PURPOSE: To hold, for each block, whether control may reach it.
+  protected final
+  boolean[]			isExecutableArray_;
+
+  //  PURPOSE: To hold, for each block, whether control may arrive from
+  //	each predecessor, and last from the start of the program.
+  protected final
+  boolean[][]			edgeArray_;
+
+  //  PURPOSE: To hold the blocks newly reached and the values newly
+  //	lowered, still to be followed.
+  protected final
+  Deque<BasicBlock>		flowWorkList_;
+
+  protected final
+  Deque<Integer>		ssaWorkList_;
+}
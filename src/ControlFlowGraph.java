@@ -0,0 +1,427 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        ControlFlowGraph.java                                      ---*
+ *---                                                                   ---*
+ *---    This file declares classes that split a list of VM             ---*
+ *---    instructions into basic blocks joined by the ways control may  ---*
+ *---    flow between them.                                             ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+//  PURPOSE: To represent a run of instructions entered only at its first
+//	and left only after its last.
+class BasicBlock
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to be block number 'newIndex', holding
+  //	the instructions from index 'newStart' up to but not including
+  //	'newEnd'.  No return value.
+  protected
+  BasicBlock			(int	newIndex,
+				 int	newStart,
+				 int	newEnd
+				)
+  {
+    index_		= newIndex;
+    start_		= newStart;
+    end_		= newEnd;
+    succList_		= new ArrayList<>(2);
+    predList_		= new ArrayList<>(2);
+  }
+
+  //  II.  Accessors:
+  //  PURPOSE: To return the position of 'this' among the blocks.
+  public
+  int		getIndex	()
+  {
+    return(index_);
+  }
+
+  //  PURPOSE: To return the index of the first instruction of 'this'.
+  public
+  int		getStart	()
+  {
+    return(start_);
+  }
+
+  //  PURPOSE: To return the index just past the last instruction of 'this'.
+  public
+  int		getEnd		()
+  {
+    return(end_);
+  }
+
+  //  PURPOSE: To return the blocks that may run right after 'this'.
+  public
+  List<BasicBlock>
+		getSuccessors	()
+  {
+    return(succList_);
+  }
+
+  //  PURPOSE: To return the blocks that may run right before 'this'.
+  public
+  List<BasicBlock>
+		getPredecessors	()
+  {
+    return(predList_);
+  }
+
+  //  III.  Mutators:
+  //  PURPOSE: To note that control may flow from 'this' to 'succ'.  No
+  //	return value.
+  protected
+  void		addSuccessor	(BasicBlock	succ)
+  {
+    if  (!succList_.contains(succ))
+    {
+      succList_.add(succ);
+      succ.predList_.add(this);
+    }
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the position of 'this' among the blocks.
+  protected final
+  int				index_;
+
+  //  PURPOSE: To hold the index of the first instruction of 'this'.
+  protected final
+  int				start_;
+
+  //  PURPOSE: To hold the index just past the last instruction of 'this'.
+  protected final
+  int				end_;
+
+  //  PURPOSE: To hold the blocks that may run right after 'this'.
+  protected final
+  List<BasicBlock>		succList_;
+
+  //  PURPOSE: To hold the blocks that may run right before 'this'.
+  protected final
+  List<BasicBlock>		predList_;
+}
+
+
+//  PURPOSE: To represent the basic blocks of a list of VM instructions and
+//	the edges between them.  The Variables the instructions mention are
+//	numbered densely so analyses can keep them in bit sets.
+class ControlFlowGraph
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to describe 'instructList', which must
+  //	not change while 'this' is in use.  No return value.
+  public
+  ControlFlowGraph		(List<PotentialInstruction>	instructList)
+  {
+    instructArray_	= instructList.toArray(new PotentialInstruction[0]);
+    blockList_		= new ArrayList<>();
+    blockOfInstruct_	= new int[instructArray_.length];
+    defArray_		= new int[instructArray_.length];
+    useArray_		= new int[instructArray_.length][];
+    varList_		= new ArrayList<>();
+    varToIndexMap_	= new IdentityHashMap<>();
+    labelToBlockMap_	= new HashMap<>();
+
+    numberVars();
+    buildBlocks();
+  }
+
+  //  II.  Accessors:
+  //  PURPOSE: To return the number of instructions.
+  public
+  int		getNumInstructs	()
+  {
+    return(instructArray_.length);
+  }
+
+  //  PURPOSE: To return the instruction at 'index'.
+  public
+  PotentialInstruction
+		getInstruct	(int	index)
+  {
+    return(instructArray_[index]);
+  }
+
+  //  PURPOSE: To return the blocks, in instruction order.  The first one,
+  //	if any, is where the program starts.
+  public
+  List<BasicBlock>
+		getBlocks	()
+  {
+    return(blockList_);
+  }
+
+  //  PURPOSE: To return the block that holds instruction 'index'.
+  public
+  BasicBlock	getBlockOf	(int	index)
+  {
+    return(blockList_.get(blockOfInstruct_[index]));
+  }
+
+  //  PURPOSE: To return the block that starts with the instruction labelled
+  //	'label', or 'null' if there is none.
+  public
+  BasicBlock	getBlockOfLabel	(long	label)
+  {
+    return(labelToBlockMap_.get(label));
+  }
+
+  //  PURPOSE: To return the block control falls into from 'block', or
+  //	'null' if it cannot fall out of 'block' or falls off the end.
+  public
+  BasicBlock	getFallThrough	(BasicBlock	block)
+  {
+    PotentialInstruction	last	= instructArray_[block.getEnd() - 1];
+
+    if  ( (last.getOp() == VmOperation.GOTO_VM_OP)  ||
+	  (block.getIndex() + 1 >= blockList_.size())
+	)
+    {
+      return(null);
+    }
+
+    return(blockList_.get(block.getIndex() + 1));
+  }
+
+  //  PURPOSE: To return 'true' if control may leave the program from
+  //	'block' by falling off the end of the instructions, or 'false'
+  //	otherwise.
+  public
+  boolean	isExit		(BasicBlock	block)
+  {
+    return( (block.getIndex() + 1 == blockList_.size())		&&
+	    (instructArray_[block.getEnd() - 1].getOp() != VmOperation.GOTO_VM_OP)
+	  );
+  }
+
+  //  PURPOSE: To return the number of distinct Variables mentioned.
+  public
+  int		getNumVars	()
+  {
+    return(varList_.size());
+  }
+
+  //  PURPOSE: To return the Variable numbered 'index'.
+  public
+  Variable	getVar		(int	index)
+  {
+    return(varList_.get(index));
+  }
+
+  //  PURPOSE: To return the number of 'var', or -1 if no instruction
+  //	mentions it.
+  public
+  int		getVarIndex	(Variable	var)
+  {
+    Integer	index	= (var == null) ? null : varToIndexMap_.get(var);
+
+    return( (index == null) ? -1 : index );
+  }
+
+  //  PURPOSE: To return the number of the Variable instruction 'index'
+  //	writes, or -1 if it writes none.
+  public
+  int		getDefIndex	(int	index)
+  {
+    return(defArray_[index]);
+  }
+
+  //  PURPOSE: To return the numbers of the Variables instruction 'index'
+  //	reads.  The array must not be changed.
+  public
+  int[]		getUseIndices	(int	index)
+  {
+    return(useArray_[index]);
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To number each Variable the instructions define or use, and
+  //	to note the numbers each instruction writes and reads.  No return
+  //	value.
+  protected
+  void		numberVars	()
+  {
+    for  (int index = 0;  index < instructArray_.length;  index++)
+    {
+      PotentialInstruction	instruct	= instructArray_[index];
+      Variable[]		usedArray	= instruct.getUsedVars();
+
+      defArray_[index]	= noteVar(instruct.getDefinedVar());
+      useArray_[index]	= new int[usedArray.length];
+
+      for  (int use = 0;  use < usedArray.length;  use++)
+      {
+	useArray_[index][use]	= noteVar(usedArray[use]);
+      }
+    }
+  }
+
+  //  PURPOSE: To give 'var' a number if it has none yet.  Returns its
+  //	number, or -1 if 'var' is 'null'.
+  protected
+  int		noteVar		(Variable	var)
+  {
+    if  (var == null)
+    {
+      return(-1);
+    }
+
+    Integer	index	= varToIndexMap_.get(var);
+
+    if  (index == null)
+    {
+      index	= varList_.size();
+      varToIndexMap_.put(var,index);
+      varList_.add(var);
+    }
+
+    return(index);
+  }
+
+  //  PURPOSE: To split the instructions into blocks and join them.  A block
+  //	starts at the first instruction, at each labelled instruction and
+  //	after each jump.  No return value.
+  protected
+  void		buildBlocks	()
+  {
+    int			numInstructs	= instructArray_.length;
+    int			start		= 0;
+
+    //  I.  Find the blocks:
+    for  (int index = 0;  index < numInstructs;  index++)
+    {
+      PotentialInstruction	instruct	= instructArray_[index];
+      boolean			isLeader	=
+		(index > start)  &&
+		(instruct.getAddressLabel() != PotentialInstruction.NO_ADDRESS_LABEL);
+
+      if  (isLeader)
+      {
+	addBlock(start,index);
+	start	= index;
+      }
+
+      if  (isJump(instruct))
+      {
+	addBlock(start,index + 1);
+	start	= index + 1;
+      }
+    }
+
+    if  (start < numInstructs)
+    {
+      addBlock(start,numInstructs);
+    }
+
+    for  (BasicBlock block : blockList_)
+    {
+      long	label	= instructArray_[block.getStart()].getAddressLabel();
+
+      if  (label != PotentialInstruction.NO_ADDRESS_LABEL)
+      {
+	labelToBlockMap_.put(label,block);
+      }
+    }
+
+    //  II.  Join them:
+    for  (BasicBlock block : blockList_)
+    {
+      long		target		= instructArray_[block.getEnd() - 1]
+						.getGotoAddressLabel();
+      BasicBlock	fallThrough	= getFallThrough(block);
+
+      if  (fallThrough != null)
+      {
+	block.addSuccessor(fallThrough);
+      }
+
+      if  (target != PotentialInstruction.NO_ADDRESS_LABEL)
+      {
+	BasicBlock	targetBlock	= labelToBlockMap_.get(target);
+
+	if  (targetBlock == null)
+	{
+	  throw new IllegalArgumentException
+			("Jump to undefined label " + target);
+	}
+
+	block.addSuccessor(targetBlock);
+      }
+    }
+  }
+
+  //  PURPOSE: To append the block of the instructions from 'start' up to
+  //	but not including 'end'.  No return value.
+  protected
+  void		addBlock	(int	start,
+				 int	end
+				)
+  {
+    BasicBlock	block	= new BasicBlock(blockList_.size(),start,end);
+
+    for  (int index = start;  index < end;  index++)
+    {
+      blockOfInstruct_[index]	= block.getIndex();
+    }
+
+    blockList_.add(block);
+  }
+
+  //  PURPOSE: To return 'true' if 'instruct' may go somewhere other than
+  //	the next instruction, or 'false' otherwise.
+  protected static
+  boolean	isJump		(PotentialInstruction	instruct)
+  {
+    return( (instruct.getOp() == VmOperation.GOTO_VM_OP)  ||
+	    (instruct.getGotoAddressLabel()
+			!= PotentialInstruction.NO_ADDRESS_LABEL
+	    )
+	  );
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the instructions, indexed by position.
+  protected final
+  PotentialInstruction[]	instructArray_;
+
+  //  PURPOSE: To hold the blocks, in instruction order.
+  protected final
+  List<BasicBlock>		blockList_;
+
+  //  PURPOSE: To hold, for each instruction, the index of its block.
+  protected final
+  int[]				blockOfInstruct_;
+
+  //  PURPOSE: To hold, for each instruction, the number of the Variable it
+  //	writes, or -1.
+  protected final
+  int[]				defArray_;
+
+  //  PURPOSE: To hold, for each instruction, the numbers of the Variables
+  //	it reads.
+  protected final
+  int[][]			useArray_;
+
+  //  PURPOSE: To hold the Variables mentioned, indexed by their numbers.
+  protected final
+  List<Variable>		varList_;
+
+  //  PURPOSE: To map each Variable mentioned to its number.
+  protected final
+  Map<Variable,Integer>		varToIndexMap_;
+
+  //  PURPOSE: To map the label of each block that has one to the block.
+  protected final
+  Map<Long,BasicBlock>		labelToBlockMap_;
+}
@@ -0,0 +1,258 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        CopyPropagator.java                                        ---*
+ *---                                                                   ---*
+ *---    This file declares a class that makes the copies of a list of  ---*
+ *---    VM instructions unneeded, by computing results straight into   ---*
+ *---    the Variables they are copied to and by reading the sources of ---*
+ *---    copies instead of their destinations.                          ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+//  PURPOSE: To propagate copies over the SSA form of a list of
+//	instructions.  A read of the destination of a copy is made from the
+//	source instead (following chains of copies) wherever no write of the
+//	source but the one copied can reach.  The copy is then left unread
+//	for DeadCodeEliminator to remove.
+class CopyPropagator extends SsaWalker
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to propagate the copies of
+  //	'instructList'.  No return value.
+  protected
+  CopyPropagator		(List<PotentialInstruction>	instructList)
+  {
+    super(new ControlFlowGraph(instructList));
+
+    sourceArray_	= new int[ssa_.getNumValues()];
+    numRenamed_		= 0;
+
+    for  (int value = 0;  value < sourceArray_.length;  value++)
+    {
+      int	instruct	= ssa_.getInstructOfValue(value);
+
+      sourceArray_[value]	=
+		( (instruct >= 0)  &&
+		  ValueNumberer.isCopy(graph_.getInstruct(instruct))
+		)
+		? ssa_.getUseValues(instruct)[0]
+		: SsaForm.NO_VALUE;
+    }
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To rewrite 'instructList' so that, where it is safe, each
+  //	result copied into a Variable is computed straight into it, and
+  //	each read of a copied Variable is made from the copy's source.
+  //	Returns the number of copies removed plus the number of reads
+  //	renamed.
+  public static
+  int		propagate	(List<PotentialInstruction>	instructList)
+  {
+    if  (instructList.isEmpty())
+    {
+      return(0);
+    }
+
+    int		count	= coalesce(instructList);
+
+    return(count + new CopyPropagator(instructList).transform());
+  }
+
+  //  PURPOSE: To rewrite each 'op t,...' soon followed by 'copy x,t' in the
+  //	same block, where temporary 't' is read by nothing else and 'x' is
+  //	neither read nor written in between, into 'op x,...', removing the
+  //	copy.  Returns the number of copies removed.
+  public static
+  int		coalesce	(List<PotentialInstruction>	instructList)
+  {
+    ControlFlowGraph	graph		= new ControlFlowGraph(instructList);
+    LivenessAnalysis	liveness	=
+				(LivenessAnalysis)new LivenessAnalysis(graph).solve();
+    boolean[]		isGoneArray	= new boolean[graph.getNumInstructs()];
+    boolean[]		isChangedArray	= new boolean[graph.getNumInstructs()];
+    int			numRemoved	= 0;
+
+    for  (BasicBlock block : graph.getBlocks())
+    {
+      BitSet	liveSet	= (BitSet)liveness.getExitSet(block).clone();
+
+      //  'liveSet' holds what is live after instruction 'index':
+      for  (int index = block.getEnd() - 1;  index > block.getStart();  index--)
+      {
+	int	def	= coalescedDef(graph,block,index,liveSet,isChangedArray);
+
+	liveness.apply(index,liveSet);
+
+	if  (def < 0)
+	{
+	  continue;
+	}
+
+	Map<Variable,Variable>	renameMap	= new IdentityHashMap<>();
+
+	renameMap.put(graph.getVar(graph.getUseIndices(index)[0]),
+		      graph.getVar(graph.getDefIndex(index))
+		     );
+	graph.getInstruct(def).replaceVars(renameMap);
+	isChangedArray[def]	= true;
+	isGoneArray[index]	= true;
+	numRemoved++;
+      }
+    }
+
+    ListIterator<PotentialInstruction>	iter	= instructList.listIterator();
+
+    for  (int index = 0;  iter.hasNext();  index++)
+    {
+      iter.next();
+
+      if  (isGoneArray[index])
+      {
+	iter.remove();
+      }
+    }
+
+    return(numRemoved);
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To return the index of the instruction of 'block' whose
+  //	result copy 'index' can take over, or -1 if there is none.
+  //	'liveSet' holds what is live after 'index'.  The instructions marked
+  //	in 'isChangedArray' already write elsewhere than 'graph' says, so
+  //	the search stops at them.
+  protected static
+  int		coalescedDef	(ControlFlowGraph	graph,
+				 BasicBlock		block,
+				 int			index,
+				 BitSet			liveSet,
+				 boolean[]		isChangedArray
+				)
+  {
+    PotentialInstruction	copy	= graph.getInstruct(index);
+
+    if  (isChangedArray[index]  ||  !ValueNumberer.isCopy(copy))
+    {
+      return(-1);
+    }
+
+    int		dest	= graph.getDefIndex(index);
+    int		src	= graph.getUseIndices(index)[0];
+
+    if  ( (dest == src)						||
+	  !VarStore.isTempVar(graph.getVar(src))		||
+	  (graph.getVar(src).getType() != graph.getVar(dest).getType())	||
+	  liveSet.get(src)
+	)
+    {
+      return(-1);
+    }
+
+    for  (int def = index - 1;  def >= block.getStart();  def--)
+    {
+      if  (isChangedArray[def])
+      {
+	return(-1);
+      }
+
+      if  (graph.getDefIndex(def) == src)
+      {
+	//  An op that also reads what it writes cannot write elsewhere:
+	for  (int use : graph.getUseIndices(def))
+	{
+	  if  (use == src)
+	  {
+	    return(-1);
+	  }
+	}
+
+	return(def);
+      }
+
+      if  (graph.getDefIndex(def) == dest)
+      {
+	return(-1);
+      }
+
+      for  (int use : graph.getUseIndices(def))
+      {
+	if  ( (use == src)  ||  (use == dest) )
+	{
+	  return(-1);
+	}
+      }
+    }
+
+    return(-1);
+  }
+
+  //  PURPOSE: To rename the reads of copied Variables, walking the
+  //	dominator tree to know what each Variable holds.  Returns the number
+  //	of reads renamed.
+  protected
+  int		transform	()
+  {
+    walk();
+    return(numRenamed_);
+  }
+
+  //  PURPOSE: To make instruction 'index' read, in place of each Variable
+  //	that a copy wrote, the Variable copied from, as long as no other
+  //	write of it reaches there.  No return value.
+  @Override
+  protected
+  void		visitInstruct	(int	index)
+  {
+    PotentialInstruction	instruct	= graph_.getInstruct(index);
+    int[]			valueArray	= ssa_.getUseValues(index);
+    Map<Variable,Variable>	renameMap	= new IdentityHashMap<>();
+
+    for  (int value : valueArray)
+    {
+      int	source	= value;
+
+      while  ( (sourceArray_[source] != SsaForm.NO_VALUE)  &&
+	       (getCurrent(ssa_.getVarOfValue(sourceArray_[source]))
+			== sourceArray_[source]
+	       )
+	     )
+      {
+	source	= sourceArray_[source];
+      }
+
+      if  (source != value)
+      {
+	renameMap.put(graph_.getVar(ssa_.getVarOfValue(value)),
+		      graph_.getVar(ssa_.getVarOfValue(source))
+		     );
+      }
+    }
+
+    if  (!renameMap.isEmpty())
+    {
+      instruct.replaceUsedVars(renameMap);
+      numRenamed_	+= renameMap.size();
+    }
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold, for each SSA value made by a copy, the value it
+  //	copies, or 'NO_VALUE'.
+  protected final
+  int[]				sourceArray_;
+
+  //  PURPOSE: To hold the number of reads renamed so far.
+  protected
+  int				numRenamed_;
+}
@@ -0,0 +1,707 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        DataflowAnalysis.java                                      ---*
+ *---                                                                   ---*
+ *---    This file declares a worklist solver for bit-set dataflow      ---*
+ *---    problems over a ControlFlowGraph, and the liveness, reaching   ---*
+ *---    definition and available expression problems built on it.     ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//  PURPOSE: To be told, for each instruction of a block, the set of facts
+//	that hold just before it runs.
+interface InstructSetVisitor
+{
+  //  PURPOSE: To look at 'set', which holds just before instruction
+  //	'index' runs.  'set' is reused, so must not be kept or changed.  No
+  //	return value.
+  void		visit		(int	index,
+				 BitSet	set
+				);
+}
+
+
+//  PURPOSE: To solve a gen/kill dataflow problem whose facts are numbered
+//	bits.  Each block's gen and kill sets are built once, so each pass
+//	over a block costs a few bit-set operations whatever its length.
+abstract
+class DataflowAnalysis
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to solve a problem over 'graph' that
+  //	flows with control if 'isForward' or against it otherwise, and
+  //	merges paths by union if 'isUnion' or by intersection otherwise.
+  //	No return value.
+  protected
+  DataflowAnalysis		(ControlFlowGraph	graph,
+				 boolean		isForward,
+				 boolean		isUnion
+				)
+  {
+    graph_	= graph;
+    isForward_	= isForward;
+    isUnion_	= isUnion;
+  }
+
+  //  II.  Accessors:
+  //  PURPOSE: To return the graph 'this' analyzes.
+  public
+  ControlFlowGraph
+		getGraph	()
+  {
+    return(graph_);
+  }
+
+  //  PURPOSE: To return the facts that hold on entry to 'block'.  solve()
+  //	must have been called.
+  public
+  BitSet	getEntrySet	(BasicBlock	block)
+  {
+    return(entryArray_[block.getIndex()]);
+  }
+
+  //  PURPOSE: To return the facts that hold on exit from 'block'.  solve()
+  //	must have been called.
+  public
+  BitSet	getExitSet	(BasicBlock	block)
+  {
+    return(exitArray_[block.getIndex()]);
+  }
+
+  //  IV.  Methods that do main and misc. work of class:
+  //  PURPOSE: To compute the facts at the entry and exit of each block.
+  //	Returns 'this'.
+  public
+  DataflowAnalysis
+		solve		()
+  {
+    List<BasicBlock>	blockList	= graph_.getBlocks();
+    int			numBlocks	= blockList.size();
+    BitSet[]		genArray	= new BitSet[numBlocks];
+    BitSet[]		killArray	= new BitSet[numBlocks];
+    Deque<BasicBlock>	workList	= new ArrayDeque<>(numBlocks);
+    boolean[]		isOnList	= new boolean[numBlocks];
+
+    entryArray_	= new BitSet[numBlocks];
+    exitArray_	= new BitSet[numBlocks];
+
+    //  I.  Summarize the blocks, start every result at the meet's top:
+    for  (BasicBlock block : blockList)
+    {
+      int	index	= block.getIndex();
+      BitSet	top	= new BitSet();
+
+      genArray[index]	= new BitSet();
+      killArray[index]	= new BitSet();
+      summarize(block,genArray[index],killArray[index]);
+
+      if  (!isUnion_)
+      {
+	top.set(0,getNumFacts());
+      }
+
+      if  (isForward_)
+      {
+	entryArray_[index]	= new BitSet();
+	exitArray_[index]	= top;
+      }
+      else
+      {
+	entryArray_[index]	= top;
+	exitArray_[index]	= new BitSet();
+      }
+    }
+
+    //  II.  Visit the blocks in flow order until nothing changes:
+    for  (int count = 0;  count < numBlocks;  count++)
+    {
+      workList.add(blockList.get(isForward_ ? count : numBlocks - 1 - count));
+      isOnList[workList.getLast().getIndex()]	= true;
+    }
+
+    while  (!workList.isEmpty())
+    {
+      BasicBlock	block	= workList.poll();
+      int		index	= block.getIndex();
+      BitSet		in	= meet(isForward_ ? block.getPredecessors()
+						  : block.getSuccessors()
+				      );
+      BitSet		out;
+
+      //  Nothing holds where the program starts or ends, even if the
+      //  block is also reached from elsewhere, as the first one is when a
+      //  loop starts the program:
+      if  ( !isUnion_  &&  isBoundary(block) )
+      {
+	in.clear();
+      }
+
+      out		= (BitSet)in.clone();
+      isOnList[index]	= false;
+      out.andNot(killArray[index]);
+      out.or(genArray[index]);
+
+      BitSet[]		inArray	= isForward_ ? entryArray_ : exitArray_;
+      BitSet[]		outArray= isForward_ ? exitArray_  : entryArray_;
+
+      inArray[index]	= in;
+
+      if  (!out.equals(outArray[index]))
+      {
+	outArray[index]	= out;
+
+	for  (BasicBlock next : isForward_ ? block.getSuccessors()
+					   : block.getPredecessors()
+	     )
+	{
+	  if  (!isOnList[next.getIndex()])
+	  {
+	    isOnList[next.getIndex()]	= true;
+	    workList.add(next);
+	  }
+	}
+      }
+    }
+
+    return(this);
+  }
+
+  //  PURPOSE: To tell 'visitor' the facts that hold just before each
+  //	instruction of 'block', visiting in flow order.  solve() must have
+  //	been called.  No return value.
+  public
+  void		scanBlock	(BasicBlock		block,
+				 InstructSetVisitor	visitor
+				)
+  {
+    if  (isForward_)
+    {
+      BitSet	set	= (BitSet)getEntrySet(block).clone();
+
+      for  (int index = block.getStart();  index < block.getEnd();  index++)
+      {
+	visitor.visit(index,set);
+	apply(index,set);
+      }
+    }
+    else
+    {
+      BitSet	set	= (BitSet)getExitSet(block).clone();
+
+      for  (int index = block.getEnd() - 1;  index >= block.getStart();  index--)
+      {
+	apply(index,set);
+	visitor.visit(index,set);
+      }
+    }
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To return the number of facts, the bits of the sets.
+  protected abstract
+  int		getNumFacts	();
+
+  //  PURPOSE: To change 'set' by the effect of instruction 'index', in the
+  //	direction of the flow.  No return value.
+  protected abstract
+  void		apply		(int	index,
+				 BitSet	set
+				);
+
+  //  PURPOSE: To add the effect of instruction 'index' to 'gen' and
+  //	'kill', which summarize the instructions before it in the direction
+  //	of the flow.  No return value.
+  protected abstract
+  void		applyToSummary	(int	index,
+				 BitSet	gen,
+				 BitSet	kill
+				);
+
+  //  PURPOSE: To set 'gen' and 'kill' to summarize 'block', so that what
+  //	leaves it is 'gen' plus what enters it less 'kill'.  No return
+  //	value.
+  protected
+  void		summarize	(BasicBlock	block,
+				 BitSet		gen,
+				 BitSet		kill
+				)
+  {
+    if  (isForward_)
+    {
+      for  (int index = block.getStart();  index < block.getEnd();  index++)
+      {
+	applyToSummary(index,gen,kill);
+      }
+    }
+    else
+    {
+      for  (int index = block.getEnd() - 1;  index >= block.getStart();  index--)
+      {
+	applyToSummary(index,gen,kill);
+      }
+    }
+  }
+
+  //  PURPOSE: To return 'true' if control may arrive at 'block' from
+  //	outside the program in the direction of the flow: it is the first
+  //	block of a forward problem, or one the program may end after for a
+  //	backward one.  Returns 'false' otherwise.
+  protected
+  boolean	isBoundary	(BasicBlock	block)
+  {
+    return( isForward_ ? (block.getIndex() == 0) : graph_.isExit(block) );
+  }
+
+  //  PURPOSE: To return the merge of the results of 'blockList'.  Where
+  //	there are none, as at the start or end of the program, nothing
+  //	holds.
+  protected
+  BitSet	meet		(List<BasicBlock>	blockList)
+  {
+    BitSet[]	outArray	= isForward_ ? exitArray_ : entryArray_;
+    BitSet	returnMe	= null;
+
+    for  (BasicBlock block : blockList)
+    {
+      BitSet	out	= outArray[block.getIndex()];
+
+      if  (returnMe == null)
+      {
+	returnMe	= (BitSet)out.clone();
+      }
+      else
+      if  (isUnion_)
+      {
+	returnMe.or(out);
+      }
+      else
+      {
+	returnMe.and(out);
+      }
+    }
+
+    return( (returnMe == null) ? new BitSet() : returnMe );
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the graph analyzed.
+  protected final
+  ControlFlowGraph		graph_;
+
+  //  PURPOSE: To hold 'true' if facts flow with control, or 'false' if
+  //	they flow against it.
+  protected final
+  boolean			isForward_;
+
+  //  PURPOSE: To hold 'true' if paths merge by union, or 'false' if by
+  //	intersection.
+  protected final
+  boolean			isUnion_;
+
+  //  PURPOSE: To hold the facts on entry to and exit from each block.
+  protected
+  BitSet[]			entryArray_;
+
+  protected
+  BitSet[]			exitArray_;
+}
+
+
+//  PURPOSE: To find the Variables whose values may yet be read.  Bit 'v'
+//	is Variable number 'v' of the graph.
+class LivenessAnalysis extends DataflowAnalysis
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to analyze 'graph'.  No return value.
+  public
+  LivenessAnalysis		(ControlFlowGraph	graph)
+  {
+    super(graph,false,true);
+  }
+
+  //  V.  Protected methods:
+  @Override
+  protected
+  int		getNumFacts	()
+  {
+    return(graph_.getNumVars());
+  }
+
+  //  PURPOSE: To make 'set' hold what is live before instruction 'index'
+  //	given what is live after it.  No return value.
+  @Override
+  protected
+  void		apply		(int	index,
+				 BitSet	set
+				)
+  {
+    int		def	= graph_.getDefIndex(index);
+
+    if  (def >= 0)
+    {
+      set.clear(def);
+    }
+
+    for  (int use : graph_.getUseIndices(index))
+    {
+      set.set(use);
+    }
+  }
+
+  @Override
+  protected
+  void		applyToSummary	(int	index,
+				 BitSet	gen,
+				 BitSet	kill
+				)
+  {
+    int		def	= graph_.getDefIndex(index);
+
+    if  (def >= 0)
+    {
+      gen.clear(def);
+      kill.set(def);
+    }
+
+    for  (int use : graph_.getUseIndices(index))
+    {
+      gen.set(use);
+    }
+  }
+}
+
+
+//  PURPOSE: To find the writes whose values may reach each point.  Each
+//	instruction that writes a Variable is a definition, numbered in
+//	instruction order.
+class ReachingDefinitions extends DataflowAnalysis
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to analyze 'graph'.  No return value.
+  public
+  ReachingDefinitions		(ControlFlowGraph	graph)
+  {
+    super(graph,true,true);
+
+    int		numInstructs	= graph.getNumInstructs();
+    List<Integer>
+		defList		= new ArrayList<>();
+
+    defOfInstructArray_	= new int[numInstructs];
+    defsOfVarArray_	= new BitSet[graph.getNumVars()];
+
+    for  (int var = 0;  var < defsOfVarArray_.length;  var++)
+    {
+      defsOfVarArray_[var]	= new BitSet();
+    }
+
+    for  (int index = 0;  index < numInstructs;  index++)
+    {
+      int	var	= graph.getDefIndex(index);
+
+      defOfInstructArray_[index]	= (var < 0) ? -1 : defList.size();
+
+      if  (var >= 0)
+      {
+	defsOfVarArray_[var].set(defList.size());
+	defList.add(index);
+      }
+    }
+
+    instructOfDefArray_	= defList.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  //  II.  Accessors:
+  //  PURPOSE: To return the number of definitions.
+  public
+  int		getNumDefs	()
+  {
+    return(instructOfDefArray_.length);
+  }
+
+  //  PURPOSE: To return the index of the instruction that makes
+  //	definition 'def'.
+  public
+  int		getInstructOfDef(int	def)
+  {
+    return(instructOfDefArray_[def]);
+  }
+
+  //  PURPOSE: To return the definition instruction 'index' makes, or -1 if
+  //	it writes nothing.
+  public
+  int		getDefOfInstruct(int	index)
+  {
+    return(defOfInstructArray_[index]);
+  }
+
+  //  PURPOSE: To return the definitions of Variable number 'var'.  The set
+  //	must not be changed.
+  public
+  BitSet	getDefsOfVar	(int	var)
+  {
+    return(defsOfVarArray_[var]);
+  }
+
+  //  V.  Protected methods:
+  @Override
+  protected
+  int		getNumFacts	()
+  {
+    return(getNumDefs());
+  }
+
+  //  PURPOSE: To make 'set' hold what reaches after instruction 'index'
+  //	given what reaches before it.  No return value.
+  @Override
+  protected
+  void		apply		(int	index,
+				 BitSet	set
+				)
+  {
+    int		def	= defOfInstructArray_[index];
+
+    if  (def >= 0)
+    {
+      set.andNot(defsOfVarArray_[graph_.getDefIndex(index)]);
+      set.set(def);
+    }
+  }
+
+  @Override
+  protected
+  void		applyToSummary	(int	index,
+				 BitSet	gen,
+				 BitSet	kill
+				)
+  {
+    int		def	= defOfInstructArray_[index];
+
+    if  (def >= 0)
+    {
+      BitSet	killed	= defsOfVarArray_[graph_.getDefIndex(index)];
+
+      gen.andNot(killed);
+      gen.set(def);
+      kill.or(killed);
+    }
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold, for each definition, the index of its instruction.
+  protected final
+  int[]				instructOfDefArray_;
+
+  //  PURPOSE: To hold, for each instruction, its definition or -1.
+  protected final
+  int[]				defOfInstructArray_;
+
+  //  PURPOSE: To hold, for each Variable, the definitions that write it.
+  protected final
+  BitSet[]			defsOfVarArray_;
+}
+
+
+//  PURPOSE: To find the computations whose values are already known at each
+//	point, because every path there computes them and changes none of
+//	their operands afterward.  Instructions that compute the same
+//	operation of the same operands share one expression number.
+class AvailableExpressions extends DataflowAnalysis
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to analyze 'graph'.  No return value.
+  public
+  AvailableExpressions		(ControlFlowGraph	graph)
+  {
+    super(graph,true,false);
+
+    int			numInstructs	= graph.getNumInstructs();
+    Map<String,Integer>	keyToExprMap	= new HashMap<>();
+
+    exprOfInstructArray_	= new int[numInstructs];
+    exprsOfVarArray_		= new BitSet[graph.getNumVars()];
+
+    for  (int var = 0;  var < exprsOfVarArray_.length;  var++)
+    {
+      exprsOfVarArray_[var]	= new BitSet();
+    }
+
+    for  (int index = 0;  index < numInstructs;  index++)
+    {
+      String	key	= expressionKey(index);
+      Integer	expr	= (key == null) ? null : keyToExprMap.get(key);
+
+      if  ( (key != null)  &&  (expr == null) )
+      {
+	expr	= keyToExprMap.size();
+	keyToExprMap.put(key,expr);
+
+	for  (int use : graph.getUseIndices(index))
+	{
+	  exprsOfVarArray_[use].set(expr);
+	}
+      }
+
+      exprOfInstructArray_[index]	= (expr == null) ? -1 : expr;
+    }
+
+    numExprs_	= keyToExprMap.size();
+  }
+
+  //  II.  Accessors:
+  //  PURPOSE: To return the number of distinct expressions.
+  public
+  int		getNumExprs	()
+  {
+    return(numExprs_);
+  }
+
+  //  PURPOSE: To return the expression instruction 'index' computes, or -1
+  //	if it computes none.
+  public
+  int		getExprOfInstruct
+				(int	index)
+  {
+    return(exprOfInstructArray_[index]);
+  }
+
+  //  PURPOSE: To return the expressions that read Variable number 'var'.
+  //	The set must not be changed.
+  public
+  BitSet	getExprsOfVar	(int	var)
+  {
+    return(exprsOfVarArray_[var]);
+  }
+
+  //  PURPOSE: To return 'true' if 'instruct' computes its destination from
+  //	its sources alone, with no other effect, or 'false' otherwise.
+  public static
+  boolean	isPure		(PotentialInstruction	instruct)
+  {
+    if  ( (instruct instanceof VarVarVarPotentialInstruction)  ||
+	  (instruct instanceof VarVarImmPotentialInstruction)
+	)
+    {
+      return(true);
+    }
+
+    if  (instruct instanceof VarVarPotentialInstruction)
+    {
+      return( (instruct.getOp() == VmOperation.LOGIC_NOT_VM_OP)  ||
+	      (instruct.getOp() == VmOperation.INT_TO_REAL_VM_OP)
+	    );
+    }
+
+    return(false);
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To return the text that identifies what instruction 'index'
+  //	computes, or 'null' if it is not a pure computation.
+  protected
+  String	expressionKey	(int	index)
+  {
+    PotentialInstruction	instruct	= graph_.getInstruct(index);
+
+    if  (!isPure(instruct))
+    {
+      return(null);
+    }
+
+    StringBuilder	key	= new StringBuilder();
+
+    key.append(instruct.getOp().ordinal());
+
+    for  (int use : graph_.getUseIndices(index))
+    {
+      key.append(',').append(use);
+    }
+
+    if  (instruct instanceof VarVarImmPotentialInstruction)
+    {
+      Value	immediate	= ((VarVarImmPotentialInstruction)instruct)
+					.getImmediate();
+
+      key.append(",#").append(immediate.getType().ordinal())
+	 .append(':').append(immediate);
+    }
+
+    return(key.toString());
+  }
+
+  @Override
+  protected
+  int		getNumFacts	()
+  {
+    return(numExprs_);
+  }
+
+  //  PURPOSE: To make 'set' hold what is available after instruction
+  //	'index' given what is available before it.  No return value.
+  @Override
+  protected
+  void		apply		(int	index,
+				 BitSet	set
+				)
+  {
+    int		expr	= exprOfInstructArray_[index];
+    int		def	= graph_.getDefIndex(index);
+
+    if  (expr >= 0)
+    {
+      set.set(expr);
+    }
+
+    if  (def >= 0)
+    {
+      set.andNot(exprsOfVarArray_[def]);
+    }
+  }
+
+  @Override
+  protected
+  void		applyToSummary	(int	index,
+				 BitSet	gen,
+				 BitSet	kill
+				)
+  {
+    int		expr	= exprOfInstructArray_[index];
+    int		def	= graph_.getDefIndex(index);
+
+    if  (expr >= 0)
+    {
+      gen.set(expr);
+    }
+
+    if  (def >= 0)
+    {
+      gen.andNot(exprsOfVarArray_[def]);
+      kill.or(exprsOfVarArray_[def]);
+    }
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the number of distinct expressions.
+  protected final
+  int				numExprs_;
+
+  //  PURPOSE: To hold, for each instruction, its expression or -1.
+  protected final
+  int[]				exprOfInstructArray_;
+
+  //  PURPOSE: To hold, for each Variable, the expressions that read it.
+  protected final
+  BitSet[]			exprsOfVarArray_;
+}
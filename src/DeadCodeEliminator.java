@@ -0,0 +1,201 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        DeadCodeEliminator.java                                    ---*
+ *---                                                                   ---*
+ *---    This file declares a class that removes the instructions of a  ---*
+ *---    list of VM instructions that can never run, and those whose    ---*
+ *---    results are never read.                                        ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.ListIterator;
+
+//  PURPOSE: To remove, in one round, the blocks control cannot reach from
+//	the start of the program and the instructions that only write a
+//	Variable that is not live after them.  Removing an instruction may
+//	leave the ones feeding it dead, so eliminate(List) repeats rounds
+//	until nothing changes.
+class DeadCodeEliminator
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to find the dead instructions of
+  //	'instructList'.  No return value.
+  protected
+  DeadCodeEliminator		(List<PotentialInstruction>	instructList)
+  {
+    graph_		= new ControlFlowGraph(instructList);
+    isDeadArray_	= new boolean[graph_.getNumInstructs()];
+    isUnreachableArray_	= new boolean[graph_.getNumInstructs()];
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To remove from 'instructList' the instructions that cannot
+  //	run and those whose results are never read.  A removed instruction
+  //	with an address label leaves a no-op with that label behind.
+  //	Returns the number of instructions removed or made no-ops.
+  public static
+  int		eliminate	(List<PotentialInstruction>	instructList)
+  {
+    int		total	= 0;
+    int		removed;
+
+    do
+    {
+      removed	= instructList.isEmpty()
+		  ? 0
+		  : new DeadCodeEliminator(instructList).transform(instructList);
+      total	+= removed;
+    }
+    while  (removed > 0);
+
+    return(total);
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To do one round of eliminate(List) on 'instructList'.
+  //	Returns the number of instructions removed or made no-ops.
+  protected
+  int		transform	(List<PotentialInstruction>	instructList)
+  {
+    ListIterator<PotentialInstruction>	iter	= instructList.listIterator();
+    int					removed	= 0;
+
+    markUnreachable();
+    markUnread();
+
+    for  (int index = 0;  iter.hasNext();  index++)
+    {
+      PotentialInstruction	instruct	= iter.next();
+      long			label		= instruct.getAddressLabel();
+
+      if  (!isDeadArray_[index])
+      {
+	continue;
+      }
+
+      removed++;
+
+      if  ( isUnreachableArray_[index]  ||
+	    (label == PotentialInstruction.NO_ADDRESS_LABEL)
+	  )
+      {
+	iter.remove();
+      }
+      else
+      {
+	PotentialInstruction	noOp	=
+				new PotentialInstruction(VmOperation.NO_VM_OP);
+
+	noOp.setAddressLabel(label);
+	iter.set(noOp);
+      }
+    }
+
+    return(removed);
+  }
+
+  //  PURPOSE: To mark dead every instruction of a block that control cannot
+  //	reach.  Their labels can only be jumped to from such blocks, so they
+  //	go too: a no-op left for one would itself be unreachable.  No return
+  //	value.
+  protected
+  void		markUnreachable	()
+  {
+    DominatorTree	domTree	= new DominatorTree(graph_);
+
+    for  (BasicBlock block : graph_.getBlocks())
+    {
+      if  (!domTree.isReachable(block))
+      {
+	for  (int index = block.getStart();  index < block.getEnd();  index++)
+	{
+	  isDeadArray_[index]		= true;
+	  isUnreachableArray_[index]	= true;
+	}
+      }
+    }
+  }
+
+  //  PURPOSE: To mark dead each removable instruction of a reachable block
+  //	whose result is not live after it.  The block is scanned backward
+  //	so that an instruction whose only reader was just marked is marked
+  //	too.  No return value.
+  protected
+  void		markUnread	()
+  {
+    LivenessAnalysis	liveness	=
+				(LivenessAnalysis)new LivenessAnalysis(graph_).solve();
+
+    for  (BasicBlock block : graph_.getBlocks())
+    {
+      BitSet	liveSet	= (BitSet)liveness.getExitSet(block).clone();
+
+      if  (isDeadArray_[block.getStart()])
+      {
+	continue;
+      }
+
+      for  (int index = block.getEnd() - 1;  index >= block.getStart();  index--)
+      {
+	int	def	= graph_.getDefIndex(index);
+
+	if  ( (def >= 0)					&&
+	      !liveSet.get(def)					&&
+	      isRemovable(graph_.getInstruct(index))
+	    )
+	{
+	  isDeadArray_[index]	= true;
+	  continue;
+	}
+
+	liveness.apply(index,liveSet);
+      }
+    }
+  }
+
+  //  PURPOSE: To return 'true' if 'instruct' may be removed when what it
+  //	writes is not read, or 'false' if it has some other effect.  An
+  //	integer division stops the program when it divides by zero, so it
+  //	is only removable when its divisor is a nonzero constant.
+  protected static
+  boolean	isRemovable	(PotentialInstruction	instruct)
+  {
+    if  (instruct.getGotoAddressLabel() != PotentialInstruction.NO_ADDRESS_LABEL)
+    {
+      return(false);
+    }
+
+    switch  (instruct.getOp())
+    {
+    case INT_DIV_VM_OP :
+    case MOD_VM_OP :
+      Variable	divisor	= ((VarVarVarPotentialInstruction)instruct).getSrc1();
+
+      return( VarStore.get().isConstVar(divisor)  &&
+	      (divisor.getValue().getInteger() != 0)
+	    );
+    default :
+      return(true);
+    }
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the blocks of the instructions.
+  protected final
+  ControlFlowGraph		graph_;
+
+  //  PURPOSE: To hold, for each instruction, whether it is to be removed.
+  protected final
+  boolean[]			isDeadArray_;
+
+  //  PURPOSE: To hold, for each instruction, whether it cannot run, so
+  //	that its label goes with it.
+  protected final
+  boolean[]			isUnreachableArray_;
+}
@@ -0,0 +1,367 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        DominatorTree.java                                         ---*
+ *---                                                                   ---*
+ *---    This file declares a class that tells which basic blocks of a  ---*
+ *---    ControlFlowGraph every path to a block must pass through.      ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+class DominatorTree
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to hold the dominators of the blocks of
+  //	'graph' reachable from its first block.  No return value.
+  public
+  DominatorTree			(ControlFlowGraph	graph)
+  {
+    int		numBlocks	= graph.getBlocks().size();
+
+    graph_		= graph;
+    orderList_		= new ArrayList<>(numBlocks);
+    orderNumArray_	= new int[numBlocks];
+    idomArray_		= new int[numBlocks];
+    childListList_	= new ArrayList<>(numBlocks);
+    frontierListList_	= null;
+    preNumArray_	= new int[numBlocks];
+    postNumArray_	= new int[numBlocks];
+
+    for  (int block = 0;  block < numBlocks;  block++)
+    {
+      childListList_.add(new ArrayList<>(2));
+    }
+
+    if  (numBlocks > 0)
+    {
+      computeOrder();
+      computeIdoms();
+      numberTree();
+    }
+  }
+
+  //  II.  Accessors:
+  //  PURPOSE: To return the reachable blocks in reverse postorder, so each
+  //	block comes after its dominators.
+  public
+  List<BasicBlock>
+		getReversePostorder
+				()
+  {
+    return(orderList_);
+  }
+
+  //  PURPOSE: To return 'true' if 'block' can be reached from the first
+  //	block, or 'false' otherwise.
+  public
+  boolean	isReachable	(BasicBlock	block)
+  {
+    return(orderNumArray_[block.getIndex()] >= 0);
+  }
+
+  //  PURPOSE: To return the block that immediately dominates 'block', or
+  //	'null' if 'block' is the first block or is not reachable.
+  public
+  BasicBlock	getIdom		(BasicBlock	block)
+  {
+    int		idom	= idomArray_[block.getIndex()];
+
+    return( (idom < 0) ? null : graph_.getBlocks().get(idom) );
+  }
+
+  //  PURPOSE: To return the blocks that 'block' immediately dominates.
+  public
+  List<BasicBlock>
+		getChildren	(BasicBlock	block)
+  {
+    return(childListList_.get(block.getIndex()));
+  }
+
+  //  PURPOSE: To return 'true' if every path to 'block' passes through
+  //	'dominator', or 'false' otherwise.  A block dominates itself.
+  public
+  boolean	dominates	(BasicBlock	dominator,
+				 BasicBlock	block
+				)
+  {
+    int		upper	= dominator.getIndex();
+    int		lower	= block.getIndex();
+
+    return( isReachable(dominator)				&&
+	    isReachable(block)					&&
+	    (preNumArray_[upper]  <= preNumArray_[lower])	&&
+	    (postNumArray_[lower] <= postNumArray_[upper])
+	  );
+  }
+
+  //  PURPOSE: To return the dominance frontier of 'block': the blocks it
+  //	does not strictly dominate that have a predecessor it dominates.
+  public
+  List<BasicBlock>
+		getFrontier	(BasicBlock	block)
+  {
+    if  (frontierListList_ == null)
+    {
+      computeFrontiers();
+    }
+
+    return(frontierListList_.get(block.getIndex()));
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To number the reachable blocks in reverse postorder.  No
+  //	return value.
+  protected
+  void		computeOrder	()
+  {
+    List<BasicBlock>	blockList	= graph_.getBlocks();
+    int[]		nextSuccArray	= new int[blockList.size()];
+    Deque<BasicBlock>	stack		= new ArrayDeque<>();
+    List<BasicBlock>	postList	= new ArrayList<>(blockList.size());
+
+    Arrays.fill(orderNumArray_,-1);
+    orderNumArray_[0]	= 0;
+    stack.push(blockList.get(0));
+
+    while  (!stack.isEmpty())
+    {
+      BasicBlock	block	= stack.peek();
+      List<BasicBlock>	succList= block.getSuccessors();
+      int		next	= nextSuccArray[block.getIndex()]++;
+
+      if  (next < succList.size())
+      {
+	BasicBlock	succ	= succList.get(next);
+
+	if  (orderNumArray_[succ.getIndex()] < 0)
+	{
+	  orderNumArray_[succ.getIndex()]	= 0;
+	  stack.push(succ);
+	}
+      }
+      else
+      {
+	stack.pop();
+	postList.add(block);
+      }
+    }
+
+    for  (int index = postList.size() - 1;  index >= 0;  index--)
+    {
+      BasicBlock	block	= postList.get(index);
+
+      orderNumArray_[block.getIndex()]	= orderList_.size();
+      orderList_.add(block);
+    }
+  }
+
+  //  PURPOSE: To find the immediate dominator of each reachable block by
+  //	intersecting the dominators of its predecessors until nothing
+  //	changes.  No return value.
+  protected
+  void		computeIdoms	()
+  {
+    boolean	hasChanged	= true;
+
+    Arrays.fill(idomArray_,-1);
+    idomArray_[0]	= 0;
+
+    while  (hasChanged)
+    {
+      hasChanged	= false;
+
+      for  (int order = 1;  order < orderList_.size();  order++)
+      {
+	BasicBlock	block	= orderList_.get(order);
+	int		newIdom	= -1;
+
+	for  (BasicBlock pred : block.getPredecessors())
+	{
+	  if  (idomArray_[pred.getIndex()] < 0)
+	  {
+	    continue;
+	  }
+
+	  newIdom	= (newIdom < 0)
+			  ? pred.getIndex()
+			  : intersect(pred.getIndex(),newIdom);
+	}
+
+	if  (idomArray_[block.getIndex()] != newIdom)
+	{
+	  idomArray_[block.getIndex()]	= newIdom;
+	  hasChanged			= true;
+	}
+      }
+    }
+
+    idomArray_[0]	= -1;
+
+    for  (BasicBlock block : orderList_)
+    {
+      int	idom	= idomArray_[block.getIndex()];
+
+      if  (idom >= 0)
+      {
+	childListList_.get(idom).add(block);
+      }
+    }
+  }
+
+  //  PURPOSE: To return the nearest common dominator of blocks 'lhs' and
+  //	'rhs', walking up the dominators found so far.
+  protected
+  int		intersect	(int	lhs,
+				 int	rhs
+				)
+  {
+    while  (lhs != rhs)
+    {
+      while  (orderNumArray_[lhs] > orderNumArray_[rhs])
+      {
+	lhs	= idomArray_[lhs];
+      }
+
+      while  (orderNumArray_[rhs] > orderNumArray_[lhs])
+      {
+	rhs	= idomArray_[rhs];
+      }
+    }
+
+    return(lhs);
+  }
+
+  //  PURPOSE: To number the tree in preorder and postorder, so dominance
+  //	can be tested in constant time.  No return value.
+  protected
+  void		numberTree	()
+  {
+    Deque<BasicBlock>	stack		= new ArrayDeque<>();
+    int[]		nextChildArray	= new int[preNumArray_.length];
+    int			preNum		= 0;
+    int			postNum		= 0;
+
+    stack.push(graph_.getBlocks().get(0));
+    preNumArray_[0]	= preNum++;
+
+    while  (!stack.isEmpty())
+    {
+      BasicBlock	block		= stack.peek();
+      List<BasicBlock>	childList	= getChildren(block);
+      int		next		= nextChildArray[block.getIndex()]++;
+
+      if  (next < childList.size())
+      {
+	BasicBlock	child	= childList.get(next);
+
+	preNumArray_[child.getIndex()]	= preNum++;
+	stack.push(child);
+      }
+      else
+      {
+	stack.pop();
+	postNumArray_[block.getIndex()]	= postNum++;
+      }
+    }
+  }
+
+  //  PURPOSE: To find the dominance frontier of each reachable block by
+  //	walking up from the predecessors of each join.  No return value.
+  protected
+  void		computeFrontiers()
+  {
+    int		numBlocks	= idomArray_.length;
+
+    frontierListList_	= new ArrayList<>(numBlocks);
+
+    for  (int block = 0;  block < numBlocks;  block++)
+    {
+      frontierListList_.add(new ArrayList<>(2));
+    }
+
+    for  (BasicBlock block : orderList_)
+    {
+      if  (block.getPredecessors().size() < 2)
+      {
+	continue;
+      }
+
+      int	idom	= idomArray_[block.getIndex()];
+
+      for  (BasicBlock pred : block.getPredecessors())
+      {
+	int	runner	= pred.getIndex();
+
+	if  (!isReachable(pred))
+	{
+	  continue;
+	}
+
+	while  (runner != idom)
+	{
+	  List<BasicBlock>	frontier	= frontierListList_.get(runner);
+
+	  if  ( frontier.isEmpty()  ||
+		(frontier.get(frontier.size() - 1) != block)
+	      )
+	  {
+	    frontier.add(block);
+	  }
+
+	  if  (runner == 0)
+	  {
+	    break;
+	  }
+
+	  runner	= idomArray_[runner];
+	}
+      }
+    }
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the graph whose dominators 'this' holds.
+  protected final
+  ControlFlowGraph		graph_;
+
+  //  PURPOSE: To hold the reachable blocks in reverse postorder.
+  protected final
+  List<BasicBlock>		orderList_;
+
+  //  PURPOSE: To hold, for each block, its position in 'orderList_', or -1
+  //	if it is not reachable.
+  protected final
+  int[]				orderNumArray_;
+
+  //  PURPOSE: To hold, for each block, the index of its immediate
+  //	dominator, or -1.
+  protected final
+  int[]				idomArray_;
+
+  //  PURPOSE: To hold, for each block, the blocks it immediately
+  //	dominates.
+  protected final
+  List<List<BasicBlock>>	childListList_;
+
+  //  PURPOSE: To hold, for each block, its dominance frontier, or 'null'
+  //	until first asked for.
+  protected
+  List<List<BasicBlock>>	frontierListList_;
+
+  //  PURPOSE: To hold, for each reachable block, its preorder and postorder
+  //	numbers in the tree.
+  protected final
+  int[]				preNumArray_;
+
+  protected final
+  int[]				postNumArray_;
+}
@@ -0,0 +1,276 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        Frame.java                                                 ---*
+ *---                                                                   ---*
+ *---    This file declares a class that holds the values of variables  ---*
+ *---    in dense, typed, slot-indexed arrays.                          ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.util.Arrays;
+
+public class Frame
+{
+  //  0. Constants:
+  //  PURPOSE: To tell the number of slots of each type initially allocated.
+  public static final
+  int		INITIAL_CAPACITY	= 16;
+
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to have no slots.  No parameters.  No
+  //	return value.
+  public
+  Frame				()
+  {
+    booleans_	= new boolean[INITIAL_CAPACITY];
+    integers_	= new long[INITIAL_CAPACITY];
+    reals_	= new double[INITIAL_CAPACITY];
+    objects_	= new Object[INITIAL_CAPACITY];
+  }
+
+  //  PURPOSE: To initialize 'this' to be a copy of 'source'.  No return
+  //	value.
+  public
+  Frame				(Frame	source)
+  {
+    booleans_		= source.booleans_.clone();
+    integers_		= source.integers_.clone();
+    reals_		= source.reals_.clone();
+    objects_		= source.objects_.clone();
+    numBooleans_	= source.numBooleans_;
+    numIntegers_	= source.numIntegers_;
+    numReals_		= source.numReals_;
+    numObjects_		= source.numObjects_;
+  }
+
+  //  II. Accessors:
+  //  PURPOSE: To return the number of slots of type 'type' allocated so far.
+  public
+  int		getNumSlots	(Type	type)
+  {
+    switch (type)
+    {
+    case BOOLEAN:	return numBooleans_;
+    case INTEGER:	return numIntegers_;
+    case REAL:		return numReals_;
+    case STRING:	return numObjects_;
+    default:		return 0;
+    }
+  }
+
+  //  PURPOSE: To return the boolean in slot 'slot'.
+  public final
+  boolean	getBoolean	(int	slot)
+  {
+    return booleans_[slot];
+  }
+
+  //  PURPOSE: To return the integer in slot 'slot'.
+  public final
+  long		getInteger	(int	slot)
+  {
+    return integers_[slot];
+  }
+
+  //  PURPOSE: To return the real in slot 'slot'.
+  public final
+  double	getReal		(int	slot)
+  {
+    return reals_[slot];
+  }
+
+  //  PURPOSE: To return the string in slot 'slot'.
+  public final
+  String	getString	(int	slot)
+  {
+    return (String)objects_[slot];
+  }
+
+  //  PURPOSE: To return a heap-allocated Value holding the contents of slot
+  //	'slot' of type 'type'.
+  public
+  Value		getValue	(Type	type,
+				 int	slot
+				)
+  {
+    switch (type)
+    {
+    case BOOLEAN:	return new BooleanValue(booleans_[slot]);
+    case INTEGER:	return new IntegerValue(integers_[slot]);
+    case REAL:		return new RealValue(reals_[slot]);
+    case STRING:	return new StringValue((String)objects_[slot]);
+    default:
+      throw new IllegalArgumentException
+			("Attempt to read a slot that has no type");
+    }
+  }
+
+  //  PURPOSE: To return the array that holds the boolean slots.  Its length
+  //	may exceed the number of allocated slots.
+  public
+  boolean[]	getBooleanArray	()
+  {
+    return booleans_;
+  }
+
+  //  PURPOSE: To return the array that holds the integer slots.  Its length
+  //	may exceed the number of allocated slots.
+  public
+  long[]	getIntegerArray	()
+  {
+    return integers_;
+  }
+
+  //  PURPOSE: To return the array that holds the real slots.  Its length
+  //	may exceed the number of allocated slots.
+  public
+  double[]	getRealArray	()
+  {
+    return reals_;
+  }
+
+  //  PURPOSE: To return the array that holds the string slots.  Its length
+  //	may exceed the number of allocated slots.
+  public
+  Object[]	getObjectArray	()
+  {
+    return objects_;
+  }
+
+  //  III. Mutators:
+  //  PURPOSE: To set slot 'slot' to boolean 'value'.  No return value.
+  public final
+  void		setBoolean	(int		slot,
+				 boolean	value
+				)
+  {
+    booleans_[slot] = value;
+  }
+
+  //  PURPOSE: To set slot 'slot' to integer 'value'.  No return value.
+  public final
+  void		setInteger	(int		slot,
+				 long		value
+				)
+  {
+    integers_[slot] = value;
+  }
+
+  //  PURPOSE: To set slot 'slot' to real 'value'.  No return value.
+  public final
+  void		setReal		(int		slot,
+				 double		value
+				)
+  {
+    reals_[slot] = value;
+  }
+
+  //  PURPOSE: To set slot 'slot' to string 'value'.  No return value.
+  public final
+  void		setString	(int		slot,
+				 String		value
+				)
+  {
+    objects_[slot] = value;
+  }
+
+  //  PURPOSE: To unpack 'value' into slot 'slot' of type 'type'.  No return
+  //	value.
+  public
+  void		setValue	(Type		type,
+				 int		slot,
+				 Value		value
+				)
+  {
+    switch (type)
+    {
+    case BOOLEAN:	booleans_[slot]	= value.getBoolean();	break;
+    case INTEGER:	integers_[slot]	= value.getInteger();	break;
+    case REAL:		reals_[slot]	= value.getReal();	break;
+    case STRING:	objects_[slot]	= value.getString();	break;
+    default:
+      throw new IllegalArgumentException
+			("Attempt to assign a slot that has no type");
+    }
+  }
+
+  //  PURPOSE: To allocate and return the index of a new slot of type
+  //	'type', initialized to that type's zero value.
+  public
+  int		allocate	(Type	type)
+  {
+    int		slot;
+
+    switch (type)
+    {
+    case BOOLEAN:
+      slot	= numBooleans_++;
+      if  (slot == booleans_.length)
+	booleans_	= Arrays.copyOf(booleans_,2*slot);
+      booleans_[slot]	= false;
+      break;
+    case INTEGER:
+      slot	= numIntegers_++;
+      if  (slot == integers_.length)
+	integers_	= Arrays.copyOf(integers_,2*slot);
+      integers_[slot]	= 0;
+      break;
+    case REAL:
+      slot	= numReals_++;
+      if  (slot == reals_.length)
+	reals_		= Arrays.copyOf(reals_,2*slot);
+      reals_[slot]	= 0.0;
+      break;
+    case STRING:
+      slot	= numObjects_++;
+      if  (slot == objects_.length)
+	objects_	= Arrays.copyOf(objects_,2*slot);
+      objects_[slot]	= "";
+      break;
+    default:
+      throw new IllegalArgumentException
+			("Attempt to define variable to"	+
+			 " have a non-supported type");
+    }
+
+    return slot;
+  }
+
+  //  V. Member vars:
+  //  PURPOSE: To hold the boolean slots.
+  private
+  boolean[]			booleans_;
+
+  //  PURPOSE: To hold the integer slots.
+  private
+  long[]			integers_;
+
+  //  PURPOSE: To hold the real slots.
+  private
+  double[]			reals_;
+
+  //  PURPOSE: To hold the string slots.
+  private
+  Object[]			objects_;
+
+  //  PURPOSE: To hold the number of boolean slots allocated.
+  private
+  int				numBooleans_;
+
+  //  PURPOSE: To hold the number of integer slots allocated.
+  private
+  int				numIntegers_;
+
+  //  PURPOSE: To hold the number of real slots allocated.
+  private
+  int				numReals_;
+
+  //  PURPOSE: To hold the number of string slots allocated.
+  private
+  int				numObjects_;
+
+}
@@ -0,0 +1,522 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        JumpThreader.java                                          ---*
+ *---                                                                   ---*
+ *---    This file declares a class that makes the jumps of a list of   ---*
+ *---    VM instructions go straight to where they end up, and removes  ---*
+ *---    the jumps, no-ops and address labels that are then unneeded.   ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//  PURPOSE: To tidy, in one round, the control flow of a list of
+//	instructions.  No-ops are dropped, their labels moving to the next
+//	instruction (or meaning the same as the label it already has), jumps
+//	to an unconditional goto go to its target instead, a conditional jump
+//	over a goto becomes the opposite jump, jumps to the next instruction
+//	are removed, as are labels nothing jumps to and the unlabelled
+//	instructions after a goto.  Each change may make room for another, so
+//	thread(List) repeats rounds until nothing changes.
+class JumpThreader
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to tidy the jumps of 'instructList'.
+  //	No return value.
+  protected
+  JumpThreader			(List<PotentialInstruction>	instructList)
+  {
+    list_		= new ArrayList<>(instructList);
+    aliasMap_		= new HashMap<>();
+    indexOfLabelMap_	= new HashMap<>();
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To rewrite 'instructList' so that each jump goes straight to
+  //	where control ends up, and no no-op, jump to the next instruction,
+  //	unused label or instruction that follows a goto without a label is
+  //	left.  Returns the number of changes made.
+  public static
+  int		thread		(List<PotentialInstruction>	instructList)
+  {
+    int		total	= 0;
+    int		changed;
+
+    do
+    {
+      changed	= instructList.isEmpty()
+		  ? 0
+		  : new JumpThreader(instructList).transform(instructList);
+      total	+= changed;
+    }
+    while  (changed > 0);
+
+    return(total);
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To do one round of thread(List) on 'instructList'.  Returns
+  //	the number of changes made.
+  protected
+  int		transform	(List<PotentialInstruction>	instructList)
+  {
+    int		changed	= 0;
+
+    changed	+= dropNoOps();
+    changed	+= retarget();
+    changed	+= invertBranchesOverGotos();
+    changed	+= dropJumpsToNext();
+    changed	+= clearUnusedLabels();
+    changed	+= dropUnreachable();
+
+    if  (changed > 0)
+    {
+      instructList.clear();
+      instructList.addAll(list_);
+    }
+
+    return(changed);
+  }
+
+  //  PURPOSE: To return 'true' if 'instruct' does nothing, or 'false'
+  //	otherwise.
+  protected static
+  boolean	isNoOp		(PotentialInstruction	instruct)
+  {
+    return( (instruct.getOp() == VmOperation.NO_VM_OP)  ||
+	    (instruct.getOp() == VmOperation.ADDR_LABEL_OP)
+	  );
+  }
+
+  //  PURPOSE: To return 'true' if 'instruct' always jumps, or 'false'
+  //	otherwise.
+  protected static
+  boolean	isGoto		(PotentialInstruction	instruct)
+  {
+    return(instruct.getOp() == VmOperation.GOTO_VM_OP);
+  }
+
+  //  PURPOSE: To return the label that 'label' means the same as, following
+  //	'aliasMap_'.
+  protected
+  long		resolve		(long	label)
+  {
+    Long	alias;
+
+    while  ( (alias = aliasMap_.get(label)) != null )
+    {
+      label	= alias;
+    }
+
+    return(label);
+  }
+
+  //  PURPOSE: To remove the no-ops of 'list_', giving each label one carried
+  //	to the next instruction, or making it mean that instruction's own
+  //	label.  A labelled no-op is kept at the very end, where control
+  //	leaves the program.  Returns the number of no-ops removed.
+  protected
+  int		dropNoOps	()
+  {
+    List<PotentialInstruction>	kept	= new ArrayList<>(list_.size());
+    long			pending	= PotentialInstruction.NO_ADDRESS_LABEL;
+    int				removed	= 0;
+
+    for  (int index = 0;  index < list_.size();  index++)
+    {
+      PotentialInstruction	instruct	= list_.get(index);
+      long			label		= instruct.getAddressLabel();
+
+      if  (isNoOp(instruct))
+      {
+	if  ( (index == list_.size() - 1)				&&
+	      (pending == PotentialInstruction.NO_ADDRESS_LABEL)	&&
+	      (label != PotentialInstruction.NO_ADDRESS_LABEL)
+	    )
+	{
+	  kept.add(instruct);
+	  continue;
+	}
+
+	removed++;
+
+	if  (label == PotentialInstruction.NO_ADDRESS_LABEL)
+	{
+	  continue;
+	}
+
+	if  (pending == PotentialInstruction.NO_ADDRESS_LABEL)
+	{
+	  pending	= label;
+	}
+	else
+	{
+	  aliasMap_.put(label,pending);
+	}
+
+	continue;
+      }
+
+      if  (pending != PotentialInstruction.NO_ADDRESS_LABEL)
+      {
+	if  (label == PotentialInstruction.NO_ADDRESS_LABEL)
+	{
+	  instruct.setAddressLabel(pending);
+	}
+	else
+	{
+	  aliasMap_.put(pending,label);
+	}
+
+	pending	= PotentialInstruction.NO_ADDRESS_LABEL;
+      }
+
+      kept.add(instruct);
+    }
+
+    if  (pending != PotentialInstruction.NO_ADDRESS_LABEL)
+    {
+      PotentialInstruction	noOp	=
+				new PotentialInstruction(VmOperation.NO_VM_OP);
+
+      noOp.setAddressLabel(pending);
+      kept.add(noOp);
+    }
+
+    list_	= kept;
+    return(removed);
+  }
+
+  //  PURPOSE: To make each jump of 'list_' go to the label its target means,
+  //	and then on past each unconditional goto found there.  Returns the
+  //	number of jumps given a new target.
+  protected
+  int		retarget	()
+  {
+    int		changed	= 0;
+
+    noteLabels();
+
+    for  (PotentialInstruction instruct : list_)
+    {
+      long	target	= instruct.getGotoAddressLabel();
+
+      if  (target == PotentialInstruction.NO_ADDRESS_LABEL)
+      {
+	continue;
+      }
+
+      long		last	= resolve(target);
+      Set<Long>		seenSet	= new HashSet<>();
+      Integer		index;
+
+      //  A goto that ends up back where it started is left as it is:
+      while  ( seenSet.add(last)					&&
+	       ((index = indexOfLabelMap_.get(last)) != null)		&&
+	       isGoto(list_.get(index))
+	     )
+      {
+	long	next	= resolve(list_.get(index).getGotoAddressLabel());
+
+	if  (seenSet.contains(next))
+	{
+	  break;
+	}
+
+	last	= next;
+      }
+
+      if  (last != target)
+      {
+	instruct.setGotoAddressLabel(last);
+	changed++;
+      }
+    }
+
+    return(changed);
+  }
+
+  //  PURPOSE: To replace each conditional jump to label 'L' that is followed
+  //	by an unlabelled 'goto M' and then by label 'L', by the opposite
+  //	jump to 'M', removing the goto.  Returns the number of gotos
+  //	removed.
+  protected
+  int		invertBranchesOverGotos	()
+  {
+    List<PotentialInstruction>	kept	= new ArrayList<>(list_.size());
+    int				removed	= 0;
+
+    for  (int index = 0;  index < list_.size();  index++)
+    {
+      PotentialInstruction	instruct	= list_.get(index);
+
+      if  (index + 2 < list_.size())
+      {
+	PotentialInstruction	jump	= list_.get(index + 1);
+	long			target	= instruct.getGotoAddressLabel();
+
+	if  ( !isGoto(instruct)						&&
+	      (target != PotentialInstruction.NO_ADDRESS_LABEL)		&&
+	      isGoto(jump)						&&
+	      (jump.getAddressLabel() == PotentialInstruction.NO_ADDRESS_LABEL)	&&
+	      (list_.get(index + 2).getAddressLabel() == target)
+	    )
+	{
+	  PotentialInstruction	inverse	=
+				inverted(instruct,jump.getGotoAddressLabel());
+
+	  if  (inverse != null)
+	  {
+	    kept.add(inverse);
+	    index++;
+	    removed++;
+	    continue;
+	  }
+	}
+      }
+
+      kept.add(instruct);
+    }
+
+    list_	= kept;
+    return(removed);
+  }
+
+  //  PURPOSE: To return a jump to 'newAddr' that is taken exactly when
+  //	conditional jump 'instruct' is not, with the same address label, or
+  //	'null' if there is none.  Real comparisons are not inverted, as
+  //	neither order holds for NaN.
+  protected static
+  PotentialInstruction
+		inverted	(PotentialInstruction	instruct,
+				 long			newAddr
+				)
+  {
+    VmOperation			op	= invertedOp(instruct.getOp());
+    PotentialInstruction	inverse;
+
+    if  (op == null)
+    {
+      return(null);
+    }
+
+    if  (instruct instanceof VarAddrPotentialInstruction)
+    {
+      inverse	= new VarAddrPotentialInstruction
+			(op,
+			 ((VarAddrPotentialInstruction)instruct).getVar(),
+			 newAddr
+			);
+    }
+    else
+    if  (instruct instanceof VarVarAddrPotentialInstruction)
+    {
+      VarVarAddrPotentialInstruction	compare	=
+					(VarVarAddrPotentialInstruction)instruct;
+
+      inverse	= new VarVarAddrPotentialInstruction
+			(op,compare.getSrc0(),compare.getSrc1(),newAddr);
+    }
+    else
+    if  (instruct instanceof VarImmAddrPotentialInstruction)
+    {
+      VarImmAddrPotentialInstruction	compare	=
+					(VarImmAddrPotentialInstruction)instruct;
+
+      inverse	= new VarImmAddrPotentialInstruction
+			(op,compare.getSrc0(),compare.getImmediate(),newAddr);
+    }
+    else
+    {
+      return(null);
+    }
+
+    inverse.setAddressLabel(instruct.getAddressLabel());
+    return(inverse);
+  }
+
+  //  PURPOSE: To return the conditional jump op that jumps exactly when 'op'
+  //	does not, or 'null' if there is none that this class uses.
+  protected static
+  VmOperation	invertedOp	(VmOperation	op)
+  {
+    switch  (op)
+    {
+    case IF_FALSE_GOTO_VM_OP :
+      return(VmOperation.IF_TRUE_GOTO_VM_OP);
+    case IF_TRUE_GOTO_VM_OP :
+      return(VmOperation.IF_FALSE_GOTO_VM_OP);
+    case IF_INT_EQUAL_GOTO_VM_OP :
+      return(VmOperation.IF_INT_NOT_EQUAL_GOTO_VM_OP);
+    case IF_INT_NOT_EQUAL_GOTO_VM_OP :
+      return(VmOperation.IF_INT_EQUAL_GOTO_VM_OP);
+    case IF_INT_LESSER_GOTO_VM_OP :
+      return(VmOperation.IF_INT_GREATER_EQUAL_GOTO_VM_OP);
+    case IF_INT_GREATER_EQUAL_GOTO_VM_OP :
+      return(VmOperation.IF_INT_LESSER_GOTO_VM_OP);
+    case IF_INT_LESSER_EQUAL_GOTO_VM_OP :
+      return(VmOperation.IF_INT_GREATER_GOTO_VM_OP);
+    case IF_INT_GREATER_GOTO_VM_OP :
+      return(VmOperation.IF_INT_LESSER_EQUAL_GOTO_VM_OP);
+    case IF_INT_EQUAL_IMM_GOTO_VM_OP :
+      return(VmOperation.IF_INT_NOT_EQUAL_IMM_GOTO_VM_OP);
+    case IF_INT_NOT_EQUAL_IMM_GOTO_VM_OP :
+      return(VmOperation.IF_INT_EQUAL_IMM_GOTO_VM_OP);
+    case IF_INT_LESSER_IMM_GOTO_VM_OP :
+      return(VmOperation.IF_INT_GREATER_EQUAL_IMM_GOTO_VM_OP);
+    case IF_INT_GREATER_EQUAL_IMM_GOTO_VM_OP :
+      return(VmOperation.IF_INT_LESSER_IMM_GOTO_VM_OP);
+    case IF_INT_LESSER_EQUAL_IMM_GOTO_VM_OP :
+      return(VmOperation.IF_INT_GREATER_IMM_GOTO_VM_OP);
+    case IF_INT_GREATER_IMM_GOTO_VM_OP :
+      return(VmOperation.IF_INT_LESSER_EQUAL_IMM_GOTO_VM_OP);
+    default :
+      return(null);
+    }
+  }
+
+  //  PURPOSE: To remove each jump of 'list_' to the label of the instruction
+  //	right after it.  A labelled one becomes a no-op with that label, for
+  //	the next round to merge.  Returns the number of jumps removed.
+  protected
+  int		dropJumpsToNext	()
+  {
+    List<PotentialInstruction>	kept	= new ArrayList<>(list_.size());
+    int				removed	= 0;
+
+    for  (int index = 0;  index < list_.size();  index++)
+    {
+      PotentialInstruction	instruct	= list_.get(index);
+      long			target		= instruct.getGotoAddressLabel();
+
+      if  ( (target != PotentialInstruction.NO_ADDRESS_LABEL)	&&
+	    (index + 1 < list_.size())				&&
+	    (list_.get(index + 1).getAddressLabel() == target)
+	  )
+      {
+	removed++;
+
+	if  (instruct.getAddressLabel() == PotentialInstruction.NO_ADDRESS_LABEL)
+	{
+	  continue;
+	}
+
+	PotentialInstruction	noOp	=
+				new PotentialInstruction(VmOperation.NO_VM_OP);
+
+	noOp.setAddressLabel(instruct.getAddressLabel());
+	instruct	= noOp;
+      }
+
+      kept.add(instruct);
+    }
+
+    list_	= kept;
+    return(removed);
+  }
+
+  //  PURPOSE: To take off the instructions of 'list_' each label that no
+  //	jump goes to.  Returns the number of labels taken off.
+  protected
+  int		clearUnusedLabels	()
+  {
+    Set<Long>	targetSet	= new HashSet<>();
+    int		cleared		= 0;
+
+    for  (PotentialInstruction instruct : list_)
+    {
+      targetSet.add(instruct.getGotoAddressLabel());
+    }
+
+    for  (PotentialInstruction instruct : list_)
+    {
+      long	label	= instruct.getAddressLabel();
+
+      if  ( (label != PotentialInstruction.NO_ADDRESS_LABEL)  &&
+	    !targetSet.contains(label)
+	  )
+      {
+	instruct.setAddressLabel(PotentialInstruction.NO_ADDRESS_LABEL);
+	cleared++;
+      }
+    }
+
+    return(cleared);
+  }
+
+  //  PURPOSE: To remove the instructions of 'list_' that follow an
+  //	unconditional goto and come before the next label, as nothing can
+  //	reach them.  Returns the number of instructions removed.
+  protected
+  int		dropUnreachable	()
+  {
+    List<PotentialInstruction>	kept		= new ArrayList<>(list_.size());
+    boolean			isReachable	= true;
+    int				removed		= 0;
+
+    for  (PotentialInstruction instruct : list_)
+    {
+      if  (instruct.getAddressLabel() != PotentialInstruction.NO_ADDRESS_LABEL)
+      {
+	isReachable	= true;
+      }
+
+      if  (!isReachable)
+      {
+	removed++;
+	continue;
+      }
+
+      kept.add(instruct);
+
+      if  (isGoto(instruct))
+      {
+	isReachable	= false;
+      }
+    }
+
+    list_	= kept;
+    return(removed);
+  }
+
+  //  PURPOSE: To map each address label of 'list_' to the index of the
+  //	instruction it is on.  No return value.
+  protected
+  void		noteLabels	()
+  {
+    indexOfLabelMap_.clear();
+
+    for  (int index = 0;  index < list_.size();  index++)
+    {
+      long	label	= list_.get(index).getAddressLabel();
+
+      if  (label != PotentialInstruction.NO_ADDRESS_LABEL)
+      {
+	indexOfLabelMap_.put(label,index);
+      }
+    }
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the instructions as they are being rewritten.
+  protected
+  List<PotentialInstruction>	list_;
+
+  //  PURPOSE: To map each label whose no-op was removed to the label that
+  //	now means the same place.
+  protected final
+  Map<Long,Long>		aliasMap_;
+
+  //  PURPOSE: To map each address label to the index of its instruction.
+  protected final
+  Map<Long,Integer>		indexOfLabelMap_;
+}
@@ -0,0 +1,1809 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        Node.java                                                  ---*
+ *---                                                                   ---*
+ *---    This file declares the nodes of the self-specializing          ---*
+ *---    interpreter.  Statement trees are translated into these nodes; ---*
+ *---    expression nodes start uninitialized and, the first time they  ---*
+ *---    run, observe the values their children produce and rewrite     ---*
+ *---    themselves in place into a variant specialized for those       ---*
+ *---    types.  Each variant guards its assumption and falls back to   ---*
+ *---    the generic variant if the assumption stops holding.           ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+
+//  PURPOSE: To tell that a node produced a value of another type than the
+//	one its caller asked for.  The value is carried along so it is not
+//	lost.
+class UnexpectedResultException extends Exception
+{
+  //  0.  Constants:
+  //  PURPOSE: To tell the serialization version of the class.
+  private static final
+  long		serialVersionUID	= 1L;
+
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to carry 'newResult'.  No stack trace is
+  //	recorded, it is never needed.  No return value.
+  public
+  UnexpectedResultException	(Object	newResult)
+  {
+    super(null,null,false,false);
+    result_	= newResult;
+  }
+
+  //  II. Accessors:
+  //  PURPOSE: To return the value that was actually produced.
+  public
+  Object	getResult	()
+  {
+    return(result_);
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold the value that was actually produced.
+  private final
+  Object			result_;
+}
+
+
+//  PURPOSE: To represent any node of the self-specializing interpreter.
+abstract
+class Node
+{
+  //  II. Accessors:
+  //  PURPOSE: To return the node that holds 'this' as a child, or 'null' if
+  //	'this' is the root.
+  public
+  Node		getParent	()
+  {
+    return(parent_);
+  }
+
+  //  III. Mutators:
+  //  PURPOSE: To make 'child' a child of 'this'.  Returns 'child'.
+  protected
+  <T extends Node>
+  T		adopt		(T	child)
+  {
+    ((Node)child).parent_	= this;
+    return(child);
+  }
+
+  //  PURPOSE: To replace 'this' with 'newNode' in the parent of 'this'.
+  //	Returns 'newNode'.
+  protected
+  <T extends Node>
+  T		replace		(T	newNode)
+  {
+    if  (parent_ == null)
+    {
+      throw new IllegalStateException("Attempt to replace a root node");
+    }
+
+    parent_.replaceChild(this,newNode);
+    ((Node)newNode).parent_	= parent_;
+    return(newNode);
+  }
+
+  //  PURPOSE: To replace child 'oldChild' of 'this' with 'newChild'.  Nodes
+  //	that have children must override this.  No return value.
+  protected
+  void		replaceChild	(Node	oldChild,
+				 Node	newChild
+				)
+  {
+    throw new IllegalStateException("Node has no children to replace");
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold the node that holds 'this' as a child.
+  private
+  Node				parent_;
+}
+
+
+//  PURPOSE: To represent a node that is run for its effect only.
+abstract
+class StatementNode extends Node
+{
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To run 'this', reading and writing variables in 'frame'.  No
+  //	return value.
+  public abstract
+  void		execute		(Frame	frame);
+}
+
+
+//  PURPOSE: To represent a node that computes a value.  The generic entry
+//	point returns a boxed Long, Double, Boolean or String; the typed entry
+//	points return primitives, and throw UnexpectedResultException if the
+//	value has another type.
+abstract
+class ExpressionNode extends Node
+{
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To compute and return the boxed value of 'this', reading
+  //	variables from 'frame'.
+  public abstract
+  Object	executeGeneric	(Frame	frame);
+
+  //  PURPOSE: To compute and return the integer value of 'this', reading
+  //	variables from 'frame'.
+  public
+  long		executeInteger	(Frame	frame)
+				throws UnexpectedResultException
+  {
+    return(expectInteger(executeGeneric(frame)));
+  }
+
+  //  PURPOSE: To compute and return the value of 'this' as a real, reading
+  //	variables from 'frame'.  Integers are converted.
+  public
+  double	executeReal	(Frame	frame)
+				throws UnexpectedResultException
+  {
+    return(expectReal(executeGeneric(frame)));
+  }
+
+  //  PURPOSE: To compute and return the boolean value of 'this', reading
+  //	variables from 'frame'.
+  public
+  boolean	executeBoolean	(Frame	frame)
+				throws UnexpectedResultException
+  {
+    return(expectBoolean(executeGeneric(frame)));
+  }
+
+  //  PURPOSE: To return 'value' as an integer, or throw if it is not one.
+  protected static
+  long		expectInteger	(Object	value)
+				throws UnexpectedResultException
+  {
+    if  (value instanceof Long)
+    {
+      return((Long)value);
+    }
+
+    throw new UnexpectedResultException(value);
+  }
+
+  //  PURPOSE: To return 'value' as a real, converting integers, or throw if
+  //	it is not numeric.
+  protected static
+  double	expectReal	(Object	value)
+				throws UnexpectedResultException
+  {
+    if  (value instanceof Double)
+    {
+      return((Double)value);
+    }
+
+    if  (value instanceof Long)
+    {
+      return((double)(Long)value);
+    }
+
+    throw new UnexpectedResultException(value);
+  }
+
+  //  PURPOSE: To return 'value' as a boolean, or throw if it is not one.
+  protected static
+  boolean	expectBoolean	(Object	value)
+				throws UnexpectedResultException
+  {
+    if  (value instanceof Boolean)
+    {
+      return((Boolean)value);
+    }
+
+    throw new UnexpectedResultException(value);
+  }
+}
+
+
+//  PURPOSE: To run a Statement that has no node translation with the
+//	tree-walking interpreter.
+class TreeWalkingNode extends StatementNode
+{
+  //  I.  Constructor(s):
+  public
+  TreeWalkingNode		(Statement	newStatement)
+  {
+    statement_	= newStatement;
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  @Override
+  public
+  void		execute		(Frame	frame)
+  {
+    statement_.execute(frame);
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold the Statement to run.
+  private final
+  Statement			statement_;
+}
+
+
+//  PURPOSE: To compute a Statement that has no node translation with the
+//	tree-walking interpreter.
+class TreeWalkingExpressionNode extends ExpressionNode
+{
+  //  I.  Constructor(s):
+  public
+  TreeWalkingExpressionNode	(Statement	newStatement)
+  {
+    statement_	= newStatement;
+    type_	= newStatement.getType();
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    switch  (type_)
+    {
+    case BOOLEAN :	return(statement_.computeBoolean(frame));
+    case INTEGER :	return(statement_.computeInteger(frame));
+    case REAL :		return(statement_.computeReal(frame));
+    default :		return(statement_.computeString(frame));
+    }
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold the Statement to compute.
+  private final
+  Statement			statement_;
+
+  //  PURPOSE: To hold the type 'statement_' computes.
+  private final
+  Type				type_;
+}
+
+
+//  PURPOSE: To run a sequence of statement nodes.
+class BlockNode extends StatementNode
+{
+  //  I.  Constructor(s):
+  public
+  BlockNode			(StatementNode[]	newChildArray)
+  {
+    childArray_	= newChildArray;
+
+    for  (StatementNode child : childArray_)
+    {
+      adopt(child);
+    }
+  }
+
+  //  III. Mutators:
+  @Override
+  protected
+  void		replaceChild	(Node	oldChild,
+				 Node	newChild
+				)
+  {
+    for  (int index = 0;  index < childArray_.length;  index++)
+    {
+      if  (childArray_[index] == oldChild)
+      {
+	childArray_[index]	= (StatementNode)newChild;
+      }
+    }
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  @Override
+  public
+  void		execute		(Frame	frame)
+  {
+    for  (StatementNode child : childArray_)
+    {
+      child.execute(frame);
+    }
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold the nodes to run, in order.
+  private final
+  StatementNode[]		childArray_;
+}
+
+
+//  PURPOSE: To run an 'if' statement.
+class IfNode extends StatementNode
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this'.  'newElse' may be 'null'.
+  public
+  IfNode			(ExpressionNode	newCond,
+				 StatementNode	newThen,
+				 StatementNode	newElse
+				)
+  {
+    cond_	= adopt(newCond);
+    then_	= adopt(newThen);
+    else_	= (newElse == null) ? null : adopt(newElse);
+  }
+
+  //  III. Mutators:
+  @Override
+  protected
+  void		replaceChild	(Node	oldChild,
+				 Node	newChild
+				)
+  {
+    if  (cond_ == oldChild)	cond_	= (ExpressionNode)newChild;
+    if  (then_ == oldChild)	then_	= (StatementNode)newChild;
+    if  (else_ == oldChild)	else_	= (StatementNode)newChild;
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  @Override
+  public
+  void		execute		(Frame	frame)
+  {
+    if  (BooleanGuard.test(cond_,frame))
+    {
+      then_.execute(frame);
+    }
+    else
+    if  (else_ != null)
+    {
+      else_.execute(frame);
+    }
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold the condition.
+  private
+  ExpressionNode		cond_;
+
+  //  PURPOSE: To hold the body run when the condition holds.
+  private
+  StatementNode			then_;
+
+  //  PURPOSE: To hold the body run otherwise, or 'null'.
+  private
+  StatementNode			else_;
+}
+
+
+//  PURPOSE: To run a 'while' statement.
+class WhileNode extends StatementNode
+{
+  //  I.  Constructor(s):
+  public
+  WhileNode			(ExpressionNode	newCond,
+				 StatementNode	newBody
+				)
+  {
+    cond_	= adopt(newCond);
+    body_	= adopt(newBody);
+  }
+
+  //  III. Mutators:
+  @Override
+  protected
+  void		replaceChild	(Node	oldChild,
+				 Node	newChild
+				)
+  {
+    if  (cond_ == oldChild)	cond_	= (ExpressionNode)newChild;
+    if  (body_ == oldChild)	body_	= (StatementNode)newChild;
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  @Override
+  public
+  void		execute		(Frame	frame)
+  {
+    while  (BooleanGuard.test(cond_,frame))
+    {
+      body_.execute(frame);
+    }
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold the condition.
+  private
+  ExpressionNode		cond_;
+
+  //  PURPOSE: To hold the body.
+  private
+  StatementNode			body_;
+}
+
+
+//  PURPOSE: To run a 'repeat-until' statement.
+class RepeatNode extends StatementNode
+{
+  //  I.  Constructor(s):
+  public
+  RepeatNode			(StatementNode	newBody,
+				 ExpressionNode	newCond
+				)
+  {
+    body_	= adopt(newBody);
+    cond_	= adopt(newCond);
+  }
+
+  //  III. Mutators:
+  @Override
+  protected
+  void		replaceChild	(Node	oldChild,
+				 Node	newChild
+				)
+  {
+    if  (body_ == oldChild)	body_	= (StatementNode)newChild;
+    if  (cond_ == oldChild)	cond_	= (ExpressionNode)newChild;
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  @Override
+  public
+  void		execute		(Frame	frame)
+  {
+    do
+    {
+      body_.execute(frame);
+    }
+    while  (!BooleanGuard.test(cond_,frame));
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold the body.
+  private
+  StatementNode			body_;
+
+  //  PURPOSE: To hold the condition.
+  private
+  ExpressionNode		cond_;
+}
+
+
+//  PURPOSE: To run a counted 'for' loop whose bound is computed once.
+class ForNode extends StatementNode
+{
+  //  I.  Constructor(s):
+  public
+  ForNode			(int		newSlot,
+				 ExpressionNode	newStart,
+				 boolean	newIsUp,
+				 ExpressionNode	newEnd,
+				 StatementNode	newBody
+				)
+  {
+    slot_	= newSlot;
+    start_	= adopt(newStart);
+    isUp_	= newIsUp;
+    end_	= adopt(newEnd);
+    body_	= adopt(newBody);
+  }
+
+  //  III. Mutators:
+  @Override
+  protected
+  void		replaceChild	(Node	oldChild,
+				 Node	newChild
+				)
+  {
+    if  (start_ == oldChild)	start_	= (ExpressionNode)newChild;
+    if  (end_   == oldChild)	end_	= (ExpressionNode)newChild;
+    if  (body_  == oldChild)	body_	= (StatementNode)newChild;
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  @Override
+  public
+  void		execute		(Frame	frame)
+  {
+    long	bound;
+
+    try
+    {
+      frame.setInteger(slot_,start_.executeInteger(frame));
+      bound	= end_.executeInteger(frame);
+    }
+    catch  (UnexpectedResultException error)
+    {
+      throw new IllegalArgumentException("For loop bounds must be integers");
+    }
+
+    if  (isUp_)
+    {
+      while  (frame.getInteger(slot_) <= bound)
+      {
+	body_.execute(frame);
+	frame.setInteger(slot_,frame.getInteger(slot_) + 1);
+      }
+    }
+    else
+    {
+      while  (frame.getInteger(slot_) >= bound)
+      {
+	body_.execute(frame);
+	frame.setInteger(slot_,frame.getInteger(slot_) - 1);
+      }
+    }
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold the slot of the loop variable.
+  private final
+  int				slot_;
+
+  //  PURPOSE: To hold the first value.
+  private
+  ExpressionNode		start_;
+
+  //  PURPOSE: To tell whether the variable counts up, rather than down.
+  private final
+  boolean			isUp_;
+
+  //  PURPOSE: To hold the last value.
+  private
+  ExpressionNode		end_;
+
+  //  PURPOSE: To hold the body.
+  private
+  StatementNode			body_;
+}
+
+
+//  PURPOSE: To hold the check shared by nodes that need a boolean from a
+//	child that must produce one.
+final
+class BooleanGuard
+{
+  //  PURPOSE: To return the boolean that 'cond' computes in 'frame'.
+  //	Throws IllegalArgumentException if it computes something else.
+  public static
+  boolean	test		(ExpressionNode	cond,
+				 Frame		frame
+				)
+  {
+    try
+    {
+      return(cond.executeBoolean(frame));
+    }
+    catch  (UnexpectedResultException error)
+    {
+      throw new IllegalArgumentException("Condition requires boolean");
+    }
+  }
+
+  //  PURPOSE: To keep this class from being instantiated.
+  private
+  BooleanGuard			()
+  { }
+}
+
+
+//  PURPOSE: To assign the value of an expression to a variable slot.  The
+//	slot's type is fixed when the variable is declared, so the variant is
+//	chosen at translation time.
+abstract
+class AssignNode extends StatementNode
+{
+  //  I.  Constructor(s):
+  protected
+  AssignNode			(int		newSlot,
+				 ExpressionNode	newExpr
+				)
+  {
+    slot_	= newSlot;
+    expr_	= adopt(newExpr);
+  }
+
+  //  PURPOSE: To return a node that assigns 'newExpr' to the slot of type
+  //	'type' numbered 'newSlot'.
+  public static
+  AssignNode	create		(Type		type,
+				 int		newSlot,
+				 ExpressionNode	newExpr
+				)
+  {
+    switch  (type)
+    {
+    case BOOLEAN :
+      return(new AssignNode(newSlot,newExpr)
+	     {
+	       @Override
+	       public void execute (Frame frame)
+	       {
+		 try
+		 {
+		   frame.setBoolean(slot_,expr_.executeBoolean(frame));
+		 }
+		 catch  (UnexpectedResultException error)
+		 {
+		   throw mismatch();
+		 }
+	       }
+	     }
+	    );
+
+    case INTEGER :
+      return(new AssignNode(newSlot,newExpr)
+	     {
+	       @Override
+	       public void execute (Frame frame)
+	       {
+		 try
+		 {
+		   frame.setInteger(slot_,expr_.executeInteger(frame));
+		 }
+		 catch  (UnexpectedResultException error)
+		 {
+		   throw mismatch();
+		 }
+	       }
+	     }
+	    );
+
+    case REAL :
+      return(new AssignNode(newSlot,newExpr)
+	     {
+	       @Override
+	       public void execute (Frame frame)
+	       {
+		 try
+		 {
+		   frame.setReal(slot_,expr_.executeReal(frame));
+		 }
+		 catch  (UnexpectedResultException error)
+		 {
+		   throw mismatch();
+		 }
+	       }
+	     }
+	    );
+
+    case STRING :
+      return(new AssignNode(newSlot,newExpr)
+	     {
+	       @Override
+	       public void execute (Frame frame)
+	       {
+		 Object	value	= expr_.executeGeneric(frame);
+
+		 if  ( !(value instanceof String) )
+		 {
+		   throw mismatch();
+		 }
+
+		 frame.setString(slot_,(String)value);
+	       }
+	     }
+	    );
+
+    default :
+      throw new IllegalArgumentException("Invalid assignment types");
+    }
+  }
+
+  //  III. Mutators:
+  @Override
+  protected
+  void		replaceChild	(Node	oldChild,
+				 Node	newChild
+				)
+  {
+    if  (expr_ == oldChild)	expr_	= (ExpressionNode)newChild;
+  }
+
+  //  IV. Protected methods:
+  //  PURPOSE: To return the exception thrown when the expression does not
+  //	produce a value the slot can hold.
+  protected
+  RuntimeException
+		mismatch	()
+  {
+    return(new IllegalArgumentException("Invalid assignment types"));
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold the slot assigned to.
+  protected final
+  int				slot_;
+
+  //  PURPOSE: To hold the expression whose value is assigned.
+  protected
+  ExpressionNode		expr_;
+}
+
+
+//  PURPOSE: To print the value of an expression.
+class PrintNode extends StatementNode
+{
+  //  I.  Constructor(s):
+  public
+  PrintNode			(boolean	newShouldWriteNewline,
+				 Type		newType,
+				 ExpressionNode	newExpr
+				)
+  {
+    shouldWriteNewline_	= newShouldWriteNewline;
+    type_		= newType;
+    expr_		= adopt(newExpr);
+  }
+
+  //  III. Mutators:
+  @Override
+  protected
+  void		replaceChild	(Node	oldChild,
+				 Node	newChild
+				)
+  {
+    if  (expr_ == oldChild)	expr_	= (ExpressionNode)newChild;
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  @Override
+  public
+  void		execute		(Frame	frame)
+  {
+    try
+    {
+      switch  (type_)
+      {
+      case BOOLEAN :
+	System.out.print(expr_.executeBoolean(frame));
+	break;
+      case INTEGER :
+	System.out.print(expr_.executeInteger(frame));
+	break;
+      case REAL :
+	System.out.print(expr_.executeReal(frame));
+	break;
+      default :
+	System.out.print(expr_.executeGeneric(frame));
+	break;
+      }
+    }
+    catch  (UnexpectedResultException error)
+    {
+      System.out.print(error.getResult());
+    }
+
+    if  (shouldWriteNewline_)
+    {
+      System.out.println();
+    }
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold 'true' if a newline follows the value.
+  private final
+  boolean			shouldWriteNewline_;
+
+  //  PURPOSE: To hold the type the expression is expected to compute.
+  private final
+  Type				type_;
+
+  //  PURPOSE: To hold the expression whose value is printed.
+  private
+  ExpressionNode		expr_;
+}
+
+
+//  PURPOSE: To read an integer variable.
+class IntegerReadNode extends ExpressionNode
+{
+  public
+  IntegerReadNode		(int	newSlot)
+  {
+    slot_	= newSlot;
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    return(frame.getInteger(slot_));
+  }
+
+  @Override
+  public
+  long		executeInteger	(Frame	frame)
+  {
+    return(frame.getInteger(slot_));
+  }
+
+  @Override
+  public
+  double	executeReal	(Frame	frame)
+  {
+    return((double)frame.getInteger(slot_));
+  }
+
+  //  PURPOSE: To hold the slot read.
+  private final
+  int				slot_;
+}
+
+
+//  PURPOSE: To read a real variable.
+class RealReadNode extends ExpressionNode
+{
+  public
+  RealReadNode			(int	newSlot)
+  {
+    slot_	= newSlot;
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    return(frame.getReal(slot_));
+  }
+
+  @Override
+  public
+  double	executeReal	(Frame	frame)
+  {
+    return(frame.getReal(slot_));
+  }
+
+  //  PURPOSE: To hold the slot read.
+  private final
+  int				slot_;
+}
+
+
+//  PURPOSE: To read a boolean variable.
+class BooleanReadNode extends ExpressionNode
+{
+  public
+  BooleanReadNode		(int	newSlot)
+  {
+    slot_	= newSlot;
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    return(frame.getBoolean(slot_));
+  }
+
+  @Override
+  public
+  boolean	executeBoolean	(Frame	frame)
+  {
+    return(frame.getBoolean(slot_));
+  }
+
+  //  PURPOSE: To hold the slot read.
+  private final
+  int				slot_;
+}
+
+
+//  PURPOSE: To read a string variable.
+class StringReadNode extends ExpressionNode
+{
+  public
+  StringReadNode		(int	newSlot)
+  {
+    slot_	= newSlot;
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    return(frame.getString(slot_));
+  }
+
+  //  PURPOSE: To hold the slot read.
+  private final
+  int				slot_;
+}
+
+
+//  PURPOSE: To return a constant.  Integer constants are also recognized by
+//	binary nodes, which fold them into constant-operand variants.
+class ConstantNode extends ExpressionNode
+{
+  public
+  ConstantNode			(Object	newValue)
+  {
+    value_	= newValue;
+  }
+
+  //  PURPOSE: To return the boxed constant.
+  public
+  Object	getValue	()
+  {
+    return(value_);
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    return(value_);
+  }
+
+  //  PURPOSE: To hold the boxed constant.
+  private final
+  Object			value_;
+}
+
+
+//  PURPOSE: To compute boolean NOT.
+class LogicNotNode extends ExpressionNode
+{
+  public
+  LogicNotNode			(ExpressionNode	newOperand)
+  {
+    operand_	= adopt(newOperand);
+  }
+
+  @Override
+  protected
+  void		replaceChild	(Node	oldChild,
+				 Node	newChild
+				)
+  {
+    if  (operand_ == oldChild)	operand_	= (ExpressionNode)newChild;
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    return(!BooleanGuard.test(operand_,frame));
+  }
+
+  @Override
+  public
+  boolean	executeBoolean	(Frame	frame)
+  {
+    return(!BooleanGuard.test(operand_,frame));
+  }
+
+  //  PURPOSE: To hold the operand.
+  private
+  ExpressionNode		operand_;
+}
+
+
+//  PURPOSE: To represent a binary operation in any of its states.
+abstract
+class BinaryNode extends ExpressionNode
+{
+  //  I.  Constructor(s):
+  protected
+  BinaryNode			(Operation	newOperation,
+				 ExpressionNode	newLeft,
+				 ExpressionNode	newRight
+				)
+  {
+    operation_	= newOperation;
+    left_	= adopt(newLeft);
+    right_	= adopt(newRight);
+  }
+
+  //  II. Accessors:
+  //  PURPOSE: To return the operation.
+  public
+  Operation	getOperation	()
+  {
+    return(operation_);
+  }
+
+  //  III. Mutators:
+  @Override
+  protected
+  void		replaceChild	(Node	oldChild,
+				 Node	newChild
+				)
+  {
+    if  (left_ == oldChild)	left_	= (ExpressionNode)newChild;
+    if  (right_ == oldChild)	right_	= (ExpressionNode)newChild;
+  }
+
+  //  IV. Protected methods:
+  //  PURPOSE: To replace 'this' with the generic variant, after a
+  //	specialized variant saw a value it cannot handle.  Returns the
+  //	generic node.  Expressions have no side effects, so the caller may
+  //	simply re-run the generic node.
+  protected
+  GenericBinaryNode
+		generalize	()
+  {
+    return(replace(new GenericBinaryNode(operation_,left_,right_)));
+  }
+
+  //  PURPOSE: To apply 'operation' to boxed values 'lhs' and 'rhs' without
+  //	any assumption about their types.  Returns the boxed result.
+  protected static
+  Object	applyGeneric	(Operation	operation,
+				 Object		lhs,
+				 Object		rhs
+				)
+  {
+    switch  (operation)
+    {
+    case AND :	return((Boolean)lhs && (Boolean)rhs);
+    case OR :	return((Boolean)lhs || (Boolean)rhs);
+    default :	break;
+    }
+
+    if  ( (lhs instanceof Long) && (rhs instanceof Long) )
+    {
+      long	l	= (Long)lhs;
+      long	r	= (Long)rhs;
+
+      switch  (operation)
+      {
+      case PLUS :		return(l + r);
+      case MINUS :		return(l - r);
+      case STAR :		return(l * r);
+      case DIV :		return(l / r);
+      case MOD :		return(l % r);
+      case SLASH :		return((double)l / (double)r);
+      case EQUALS :		return(l == r);
+      case NOT_EQUALS :		return(l != r);
+      case LESSER :		return(l <  r);
+      case LESSER_EQUALS :	return(l <= r);
+      case GREATER :		return(l >  r);
+      case GREATER_EQUALS :	return(l >= r);
+      default :			break;
+      }
+    }
+    else
+    if  ( (lhs instanceof Number) && (rhs instanceof Number) )
+    {
+      double	l	= ((Number)lhs).doubleValue();
+      double	r	= ((Number)rhs).doubleValue();
+
+      switch  (operation)
+      {
+      case PLUS :		return(l + r);
+      case MINUS :		return(l - r);
+      case STAR :		return(l * r);
+      case SLASH :		return(l / r);
+      case EQUALS :		return(l == r);
+      case NOT_EQUALS :		return(l != r);
+      case LESSER :		return(l <  r);
+      case LESSER_EQUALS :	return(l <= r);
+      case GREATER :		return(l >  r);
+      case GREATER_EQUALS :	return(l >= r);
+      default :			break;
+      }
+    }
+    else
+    if  ( (lhs instanceof Boolean) && (rhs instanceof Boolean) )
+    {
+      switch  (operation)
+      {
+      case EQUALS :		return(lhs.equals(rhs));
+      case NOT_EQUALS :		return(!lhs.equals(rhs));
+      default :			break;
+      }
+    }
+    else
+    if  ( (lhs instanceof String) && (rhs instanceof String) )
+    {
+      int	cmp	= ((String)lhs).compareTo((String)rhs);
+
+      switch  (operation)
+      {
+      case EQUALS :		return(cmp == 0);
+      case NOT_EQUALS :		return(cmp != 0);
+      case LESSER :		return(cmp <  0);
+      case LESSER_EQUALS :	return(cmp <= 0);
+      case GREATER :		return(cmp >  0);
+      case GREATER_EQUALS :	return(cmp >= 0);
+      default :			break;
+      }
+    }
+
+    throw new IllegalArgumentException
+		("Operation " + operation + " does not apply to " +
+		 lhs + " and " + rhs
+		);
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold the operation.
+  protected final
+  Operation			operation_;
+
+  //  PURPOSE: To hold the left operand.
+  protected
+  ExpressionNode		left_;
+
+  //  PURPOSE: To hold the right operand.
+  protected
+  ExpressionNode		right_;
+}
+
+
+//  PURPOSE: To represent a binary operation that has not run yet.  The
+//	first time it runs it looks at the operand values and rewrites itself
+//	into the matching specialized variant.
+class UninitializedBinaryNode extends BinaryNode
+{
+  public
+  UninitializedBinaryNode	(Operation	newOperation,
+				 ExpressionNode	newLeft,
+				 ExpressionNode	newRight
+				)
+  {
+    super(newOperation,newLeft,newRight);
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    Object	lhs	= left_.executeGeneric(frame);
+
+    //  A short-circuited right operand has no value to specialize on:
+    if  ( (lhs instanceof Boolean)  &&
+	  BinaryOpStatement.isDecidedBy(operation_,(Boolean)lhs)
+	)
+    {
+      replace(LogicNode.create(operation_,left_,right_));
+      return(lhs);
+    }
+
+    Object	rhs	= right_.executeGeneric(frame);
+
+    replace(specialize(lhs,rhs));
+    return(applyGeneric(operation_,lhs,rhs));
+  }
+
+  //  PURPOSE: To return the variant of 'this' suited to operands 'lhs' and
+  //	'rhs'.
+  private
+  BinaryNode	specialize	(Object		lhs,
+				 Object		rhs
+				)
+  {
+    boolean	isInteger	= (lhs instanceof Long) && (rhs instanceof Long);
+    boolean	isNumber	= (lhs instanceof Number) &&
+				  (rhs instanceof Number);
+
+    switch  (operation_)
+    {
+    case PLUS :
+    case MINUS :
+    case STAR :
+    case DIV :
+    case MOD :
+      if  (isInteger)
+      {
+	if  ( (right_ instanceof ConstantNode)  &&
+	      (operation_ != Operation.DIV)	&&
+	      (operation_ != Operation.MOD)
+	    )
+	{
+	  return(IntegerConstantArithmeticNode.create
+			(operation_,left_,(Long)((ConstantNode)right_).getValue())
+		);
+	}
+
+	return(IntegerArithmeticNode.create(operation_,left_,right_));
+      }
+
+      if  (isNumber  &&  (operation_ != Operation.DIV)  &&
+	   (operation_ != Operation.MOD)
+	  )
+      {
+	return(RealArithmeticNode.create(operation_,left_,right_));
+      }
+      break;
+
+    case SLASH :
+      if  (isNumber)
+      {
+	return(RealArithmeticNode.create(operation_,left_,right_));
+      }
+      break;
+
+    case EQUALS :
+    case NOT_EQUALS :
+    case LESSER :
+    case LESSER_EQUALS :
+    case GREATER :
+    case GREATER_EQUALS :
+      if  (isInteger)
+      {
+	return(IntegerCompareNode.create(operation_,left_,right_));
+      }
+
+      if  (isNumber)
+      {
+	return(RealCompareNode.create(operation_,left_,right_));
+      }
+      break;
+
+    case AND :
+    case OR :
+      return(LogicNode.create(operation_,left_,right_));
+
+    default :
+      break;
+    }
+
+    return(new GenericBinaryNode(operation_,left_,right_));
+  }
+}
+
+
+//  PURPOSE: To represent a binary operation that has seen operand types no
+//	specialized variant handles.  It never rewrites itself again.
+class GenericBinaryNode extends BinaryNode
+{
+  public
+  GenericBinaryNode		(Operation	newOperation,
+				 ExpressionNode	newLeft,
+				 ExpressionNode	newRight
+				)
+  {
+    super(newOperation,newLeft,newRight);
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    Object	lhs	= left_.executeGeneric(frame);
+
+    if  ( (lhs instanceof Boolean)  &&
+	  BinaryOpStatement.isDecidedBy(operation_,(Boolean)lhs)
+	)
+    {
+      return(lhs);
+    }
+
+    return(applyGeneric(operation_,lhs,right_.executeGeneric(frame)));
+  }
+}
+
+
+//  PURPOSE: To compute integer arithmetic on two integer operands.  The
+//	guard is that both operands keep producing integers.
+abstract
+class IntegerArithmeticNode extends BinaryNode
+{
+  protected
+  IntegerArithmeticNode		(Operation	newOperation,
+				 ExpressionNode	newLeft,
+				 ExpressionNode	newRight
+				)
+  {
+    super(newOperation,newLeft,newRight);
+  }
+
+  //  PURPOSE: To return the variant for 'operation', one class per
+  //	operation so that each node's 'apply()' is monomorphic.
+  public static
+  IntegerArithmeticNode
+		create		(Operation	operation,
+				 ExpressionNode	left,
+				 ExpressionNode	right
+				)
+  {
+    switch  (operation)
+    {
+    case PLUS :
+      return(new IntegerArithmeticNode(operation,left,right)
+	     { long apply (long l, long r) { return(l + r); } });
+    case MINUS :
+      return(new IntegerArithmeticNode(operation,left,right)
+	     { long apply (long l, long r) { return(l - r); } });
+    case STAR :
+      return(new IntegerArithmeticNode(operation,left,right)
+	     { long apply (long l, long r) { return(l * r); } });
+    case DIV :
+      return(new IntegerArithmeticNode(operation,left,right)
+	     { long apply (long l, long r) { return(l / r); } });
+    case MOD :
+      return(new IntegerArithmeticNode(operation,left,right)
+	     { long apply (long l, long r) { return(l % r); } });
+    default :
+      throw new IllegalArgumentException("Non-integer operation " + operation);
+    }
+  }
+
+  //  PURPOSE: To apply the operation to 'l' and 'r'.
+  abstract
+  long		apply		(long	l,
+				 long	r
+				);
+
+  @Override
+  public
+  long		executeInteger	(Frame	frame)
+				throws UnexpectedResultException
+  {
+    long	lhs;
+    long	rhs;
+
+    try
+    {
+      lhs	= left_.executeInteger(frame);
+      rhs	= right_.executeInteger(frame);
+    }
+    catch  (UnexpectedResultException error)
+    {
+      return(expectInteger(generalize().executeGeneric(frame)));
+    }
+
+    return(apply(lhs,rhs));
+  }
+
+  @Override
+  public
+  double	executeReal	(Frame	frame)
+				throws UnexpectedResultException
+  {
+    return((double)executeInteger(frame));
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    try
+    {
+      return(executeInteger(frame));
+    }
+    catch  (UnexpectedResultException error)
+    {
+      return(error.getResult());
+    }
+  }
+}
+
+
+//  PURPOSE: To compute integer arithmetic on an integer operand and an
+//	integer constant, e.g. 'i + 1'.
+abstract
+class IntegerConstantArithmeticNode extends BinaryNode
+{
+  protected
+  IntegerConstantArithmeticNode	(Operation	newOperation,
+				 ExpressionNode	newLeft,
+				 long		newConstant
+				)
+  {
+    super(newOperation,newLeft,new ConstantNode(newConstant));
+    constant_	= newConstant;
+  }
+
+  //  PURPOSE: To return the variant for 'operation'.
+  public static
+  IntegerConstantArithmeticNode
+		create		(Operation	operation,
+				 ExpressionNode	left,
+				 long		constant
+				)
+  {
+    switch  (operation)
+    {
+    case PLUS :
+      return(new IntegerConstantArithmeticNode(operation,left,constant)
+	     { long apply (long l) { return(l + constant_); } });
+    case MINUS :
+      return(new IntegerConstantArithmeticNode(operation,left,constant)
+	     { long apply (long l) { return(l - constant_); } });
+    case STAR :
+      return(new IntegerConstantArithmeticNode(operation,left,constant)
+	     { long apply (long l) { return(l * constant_); } });
+    default :
+      throw new IllegalArgumentException("Non-integer operation " + operation);
+    }
+  }
+
+  //  PURPOSE: To apply the operation to 'l' and the constant.
+  abstract
+  long		apply		(long	l);
+
+  @Override
+  public
+  long		executeInteger	(Frame	frame)
+				throws UnexpectedResultException
+  {
+    long	lhs;
+
+    try
+    {
+      lhs	= left_.executeInteger(frame);
+    }
+    catch  (UnexpectedResultException error)
+    {
+      return(expectInteger(generalize().executeGeneric(frame)));
+    }
+
+    return(apply(lhs));
+  }
+
+  @Override
+  public
+  double	executeReal	(Frame	frame)
+				throws UnexpectedResultException
+  {
+    return((double)executeInteger(frame));
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    try
+    {
+      return(executeInteger(frame));
+    }
+    catch  (UnexpectedResultException error)
+    {
+      return(error.getResult());
+    }
+  }
+
+  //  PURPOSE: To hold the right-hand constant.
+  protected final
+  long				constant_;
+}
+
+
+//  PURPOSE: To compute real arithmetic on two numeric operands, converting
+//	integers.  The guard is that both operands keep producing numbers.
+abstract
+class RealArithmeticNode extends BinaryNode
+{
+  protected
+  RealArithmeticNode		(Operation	newOperation,
+				 ExpressionNode	newLeft,
+				 ExpressionNode	newRight
+				)
+  {
+    super(newOperation,newLeft,newRight);
+  }
+
+  //  PURPOSE: To return the variant for 'operation'.
+  public static
+  RealArithmeticNode
+		create		(Operation	operation,
+				 ExpressionNode	left,
+				 ExpressionNode	right
+				)
+  {
+    switch  (operation)
+    {
+    case PLUS :
+      return(new RealArithmeticNode(operation,left,right)
+	     { double apply (double l, double r) { return(l + r); } });
+    case MINUS :
+      return(new RealArithmeticNode(operation,left,right)
+	     { double apply (double l, double r) { return(l - r); } });
+    case STAR :
+      return(new RealArithmeticNode(operation,left,right)
+	     { double apply (double l, double r) { return(l * r); } });
+    case SLASH :
+      return(new RealArithmeticNode(operation,left,right)
+	     { double apply (double l, double r) { return(l / r); } });
+    default :
+      throw new IllegalArgumentException("Non-real operation " + operation);
+    }
+  }
+
+  //  PURPOSE: To apply the operation to 'l' and 'r'.
+  abstract
+  double	apply		(double	l,
+				 double	r
+				);
+
+  @Override
+  public
+  double	executeReal	(Frame	frame)
+				throws UnexpectedResultException
+  {
+    double	lhs;
+    double	rhs;
+
+    try
+    {
+      lhs	= left_.executeReal(frame);
+      rhs	= right_.executeReal(frame);
+    }
+    catch  (UnexpectedResultException error)
+    {
+      return(expectReal(generalize().executeGeneric(frame)));
+    }
+
+    return(apply(lhs,rhs));
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    try
+    {
+      return(executeReal(frame));
+    }
+    catch  (UnexpectedResultException error)
+    {
+      return(error.getResult());
+    }
+  }
+}
+
+
+//  PURPOSE: To compare two integer operands.
+abstract
+class IntegerCompareNode extends BinaryNode
+{
+  protected
+  IntegerCompareNode		(Operation	newOperation,
+				 ExpressionNode	newLeft,
+				 ExpressionNode	newRight
+				)
+  {
+    super(newOperation,newLeft,newRight);
+  }
+
+  //  PURPOSE: To return the variant for 'operation'.
+  public static
+  IntegerCompareNode
+		create		(Operation	operation,
+				 ExpressionNode	left,
+				 ExpressionNode	right
+				)
+  {
+    switch  (operation)
+    {
+    case EQUALS :
+      return(new IntegerCompareNode(operation,left,right)
+	     { boolean apply (long l, long r) { return(l == r); } });
+    case NOT_EQUALS :
+      return(new IntegerCompareNode(operation,left,right)
+	     { boolean apply (long l, long r) { return(l != r); } });
+    case LESSER :
+      return(new IntegerCompareNode(operation,left,right)
+	     { boolean apply (long l, long r) { return(l <  r); } });
+    case LESSER_EQUALS :
+      return(new IntegerCompareNode(operation,left,right)
+	     { boolean apply (long l, long r) { return(l <= r); } });
+    case GREATER :
+      return(new IntegerCompareNode(operation,left,right)
+	     { boolean apply (long l, long r) { return(l >  r); } });
+    case GREATER_EQUALS :
+      return(new IntegerCompareNode(operation,left,right)
+	     { boolean apply (long l, long r) { return(l >= r); } });
+    default :
+      throw new IllegalArgumentException("Non-comparison " + operation);
+    }
+  }
+
+  //  PURPOSE: To apply the comparison to 'l' and 'r'.
+  abstract
+  boolean	apply		(long	l,
+				 long	r
+				);
+
+  @Override
+  public
+  boolean	executeBoolean	(Frame	frame)
+				throws UnexpectedResultException
+  {
+    long	lhs;
+    long	rhs;
+
+    try
+    {
+      lhs	= left_.executeInteger(frame);
+      rhs	= right_.executeInteger(frame);
+    }
+    catch  (UnexpectedResultException error)
+    {
+      return(expectBoolean(generalize().executeGeneric(frame)));
+    }
+
+    return(apply(lhs,rhs));
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    try
+    {
+      return(executeBoolean(frame));
+    }
+    catch  (UnexpectedResultException error)
+    {
+      return(error.getResult());
+    }
+  }
+}
+
+
+//  PURPOSE: To compare two numeric operands as reals.
+abstract
+class RealCompareNode extends BinaryNode
+{
+  protected
+  RealCompareNode		(Operation	newOperation,
+				 ExpressionNode	newLeft,
+				 ExpressionNode	newRight
+				)
+  {
+    super(newOperation,newLeft,newRight);
+  }
+
+  //  PURPOSE: To return the variant for 'operation'.
+  public static
+  RealCompareNode
+		create		(Operation	operation,
+				 ExpressionNode	left,
+				 ExpressionNode	right
+				)
+  {
+    switch  (operation)
+    {
+    case EQUALS :
+      return(new RealCompareNode(operation,left,right)
+	     { boolean apply (double l, double r) { return(l == r); } });
+    case NOT_EQUALS :
+      return(new RealCompareNode(operation,left,right)
+	     { boolean apply (double l, double r) { return(l != r); } });
+    case LESSER :
+      return(new RealCompareNode(operation,left,right)
+	     { boolean apply (double l, double r) { return(l <  r); } });
+    case LESSER_EQUALS :
+      return(new RealCompareNode(operation,left,right)
+	     { boolean apply (double l, double r) { return(l <= r); } });
+    case GREATER :
+      return(new RealCompareNode(operation,left,right)
+	     { boolean apply (double l, double r) { return(l >  r); } });
+    case GREATER_EQUALS :
+      return(new RealCompareNode(operation,left,right)
+	     { boolean apply (double l, double r) { return(l >= r); } });
+    default :
+      throw new IllegalArgumentException("Non-comparison " + operation);
+    }
+  }
+
+  //  PURPOSE: To apply the comparison to 'l' and 'r'.
+  abstract
+  boolean	apply		(double	l,
+				 double	r
+				);
+
+  @Override
+  public
+  boolean	executeBoolean	(Frame	frame)
+				throws UnexpectedResultException
+  {
+    double	lhs;
+    double	rhs;
+
+    try
+    {
+      lhs	= left_.executeReal(frame);
+      rhs	= right_.executeReal(frame);
+    }
+    catch  (UnexpectedResultException error)
+    {
+      return(expectBoolean(generalize().executeGeneric(frame)));
+    }
+
+    return(apply(lhs,rhs));
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    try
+    {
+      return(executeBoolean(frame));
+    }
+    catch  (UnexpectedResultException error)
+    {
+      return(error.getResult());
+    }
+  }
+}
+
+
+//  PURPOSE: To compute AND or OR of two boolean operands.  Both operands
+//	are evaluated unless Statement.isShortCircuit() is set.
+abstract
+class LogicNode extends BinaryNode
+{
+  protected
+  LogicNode			(Operation	newOperation,
+				 ExpressionNode	newLeft,
+				 ExpressionNode	newRight
+				)
+  {
+    super(newOperation,newLeft,newRight);
+  }
+
+  //  PURPOSE: To return the variant for 'operation'.
+  public static
+  LogicNode	create		(Operation	operation,
+				 ExpressionNode	left,
+				 ExpressionNode	right
+				)
+  {
+    switch  (operation)
+    {
+    case AND :
+      return(new LogicNode(operation,left,right)
+	     { boolean apply (boolean l, boolean r) { return(l && r); } });
+    case OR :
+      return(new LogicNode(operation,left,right)
+	     { boolean apply (boolean l, boolean r) { return(l || r); } });
+    default :
+      throw new IllegalArgumentException("Non-logic operation " + operation);
+    }
+  }
+
+  //  PURPOSE: To apply the operation to 'l' and 'r'.
+  abstract
+  boolean	apply		(boolean	l,
+				 boolean	r
+				);
+
+  @Override
+  public
+  boolean	executeBoolean	(Frame	frame)
+				throws UnexpectedResultException
+  {
+    boolean	lhs;
+    boolean	rhs;
+
+    try
+    {
+      lhs	= left_.executeBoolean(frame);
+
+      if  (BinaryOpStatement.isDecidedBy(operation_,lhs))
+      {
+	return(lhs);
+      }
+
+      rhs	= right_.executeBoolean(frame);
+    }
+    catch  (UnexpectedResultException error)
+    {
+      return(expectBoolean(generalize().executeGeneric(frame)));
+    }
+
+    return(apply(lhs,rhs));
+  }
+
+  @Override
+  public
+  Object	executeGeneric	(Frame	frame)
+  {
+    try
+    {
+      return(executeBoolean(frame));
+    }
+    catch  (UnexpectedResultException error)
+    {
+      return(error.getResult());
+    }
+  }
+}
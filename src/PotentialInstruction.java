@@ -15,6 +15,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.PrintStream;
+import java.util.Map;
 
 class PotentialInstruction
 {
@@ -25,8 +26,15 @@ class PotentialInstruction
   public static final
   char		VAR_PREFIX_CHAR		= '@';
 
+  //  PURPOSE: To tell that an instruction uses no variables.
+  protected static final
+  Variable[]	NO_VARS			= new Variable[0];
+
   public static final
   char		ADDR_LABEL_SUFFIX_CHAR	= '%';
+
+  public static final
+  char		IMMEDIATE_PREFIX_CHAR	= '#';
   
   public static final
   String	ADDR_TEMPLATE		= "label%d";
@@ -75,6 +83,17 @@ class PotentialInstruction
 		    "realGreaterOp",
 		    "intGreaterEqualOp",
 		    "realGreaterEqualOp",
+		    "intAddOp",
+		    "realAddOp",
+		    "intSubOp",
+		    "realSubOp",
+		    "intMulOp",
+		    "realMulOp",
+
+		    // 4 vars
+		    "intSelectOp",
+		    "realSelectOp",
+		    "ideaSelectOp",
 
 		    // 1 addr
 		    "gotoOp",
@@ -82,7 +101,43 @@ class PotentialInstruction
 
 		    // 1 var, 1 addr
 		    "ifFalseGotoOp",
-		    "ifTrueGotoOp"
+		    "ifTrueGotoOp",
+
+		    // 2 vars, 1 addr
+		    "ifIntEqualGotoOp",
+		    "ifIntNotEqualGotoOp",
+		    "ifIntLesserGotoOp",
+		    "ifIntLesserEqualGotoOp",
+		    "ifIntGreaterGotoOp",
+		    "ifIntGreaterEqualGotoOp",
+		    "ifRealEqualGotoOp",
+		    "ifRealNotEqualGotoOp",
+		    "ifRealLesserGotoOp",
+		    "ifRealLesserEqualGotoOp",
+		    "ifRealGreaterGotoOp",
+		    "ifRealGreaterEqualGotoOp",
+
+		    // 2 vars, 1 immediate
+		    "intAddImmOp",
+		    "realAddImmOp",
+		    "intSubImmOp",
+		    "realSubImmOp",
+		    "intMulImmOp",
+		    "realMulImmOp",
+		    "intEqualImmOp",
+		    "intNotEqualImmOp",
+		    "intLesserImmOp",
+		    "intLesserEqualImmOp",
+		    "intGreaterImmOp",
+		    "intGreaterEqualImmOp",
+
+		    // 1 var, 1 immediate, 1 addr
+		    "ifIntEqualImmGotoOp",
+		    "ifIntNotEqualImmGotoOp",
+		    "ifIntLesserImmGotoOp",
+		    "ifIntLesserEqualImmGotoOp",
+		    "ifIntGreaterImmGotoOp",
+		    "ifIntGreaterEqualImmGotoOp"
 		   };
 
   //  I. Constructor(s), assignment op(s), factory(s) and destructor:
@@ -117,6 +172,50 @@ class PotentialInstruction
     return (addressLabel_);
   }
 
+  //  PURPOSE: To return the label of the address to which 'this' may go,
+  //	or 'NO_ADDRESS_LABEL' if it never jumps.  No parameters.
+  public
+  long		getGotoAddressLabel	()
+  {
+    return (NO_ADDRESS_LABEL);
+  }
+
+  //  PURPOSE: To return the variable that 'this' instruction writes, or
+  //	'null' if it writes none.  No parameters.
+  public
+  Variable	getDefinedVar		()
+  {
+    return (null);
+  }
+
+  //  PURPOSE: To return the variables that 'this' instruction reads.  No
+  //	parameters.
+  public
+  Variable[]	getUsedVars		()
+  {
+    return (NO_VARS);
+  }
+
+  //  PURPOSE: To return the variables that 'this' instruction writes or
+  //	reads, the one written (if any) first.  No parameters.
+  public final
+  Variable[]	getVars			()
+  {
+    Variable	def	= getDefinedVar();
+    Variable[]	useArray	= getUsedVars();
+
+    if  (def == null)
+    {
+      return (useArray);
+    }
+
+    Variable[]	varArray	= new Variable[useArray.length + 1];
+
+    varArray[0]	= def;
+    System.arraycopy(useArray,0,varArray,1,useArray.length);
+    return (varArray);
+  }
+
   //  III. Mutators:
   //  PURPOSE: To set the address label of 'this' to 'newAddrLabel'.  No
   //	return value.
@@ -126,6 +225,40 @@ class PotentialInstruction
     addressLabel_ = newAddrLabel;
   }
 
+  //  PURPOSE: To make 'this' go to the address labelled 'newAddrLabel'
+  //	instead.  Only an instruction that may jump can be given a new
+  //	target.  No return value.
+  public
+  void		setGotoAddressLabel	(long newAddrLabel)
+  {
+    throw new IllegalStateException
+		(vmOpNameArray[op_.ordinal()] + " does not jump");
+  }
+
+  //  PURPOSE: To replace each variable of 'this' that is a key of 'varMap'
+  //	with the variable it maps to.  No return value.
+  public
+  void		replaceVars		(Map<Variable,Variable>	varMap)
+  {
+  }
+
+  //  PURPOSE: To replace each variable 'this' reads that is a key of
+  //	'varMap' with the variable it maps to.  The variable 'this' writes
+  //	is left alone, even where it is also read.  No return value.
+  public
+  void		replaceUsedVars		(Map<Variable,Variable>	varMap)
+  {
+  }
+
+  //  PURPOSE: To return 'var' as renamed by 'varMap'.
+  protected static
+  Variable	rename			(Variable		var,
+					 Map<Variable,Variable>	varMap
+					)
+  {
+    return (varMap.getOrDefault(var,var));
+  }
+
   //  IV. Protected methods:
   //  PURPOSE: To print the address prefix of 'this' (if it has one) to
   //	'file'. Prints "\t" otherwise. No return value:
@@ -190,7 +323,51 @@ class VarPotentialInstruction extends PotentialInstruction
     return (var);
   }
 
+  //  PURPOSE: To return the variable that 'this' instruction writes: the
+  //	variable a clear op clears, or 'null' for a print op.
+  @Override
+  public
+  Variable	getDefinedVar	()
+  {
+    return (isPrint() ? null : var);
+  }
+
+  //  PURPOSE: To return the variables that 'this' instruction reads: the
+  //	variable a print op prints.
+  @Override
+  public
+  Variable[]	getUsedVars	()
+  {
+    return (isPrint() ? new Variable[] { var } : NO_VARS);
+  }
+
+  //  PURPOSE: To return 'true' if 'this' prints its variable, or 'false' if
+  //	it clears it.
+  public final
+  boolean	isPrint		()
+  {
+    return ( (getOp() == VmOperation.STDOUT_PRINT_VM_OP)	||
+	     (getOp() == VmOperation.STDOUT_PRINTLN_VM_OP)
+	   );
+  }
+
   //  III. Mutators:
+  @Override
+  public
+  void		replaceVars	(Map<Variable,Variable>	varMap)
+  {
+    var	= rename(var,varMap);
+  }
+
+  @Override
+  public
+  void		replaceUsedVars	(Map<Variable,Variable>	varMap)
+  {
+    if  (isPrint())
+    {
+      var	= rename(var,varMap);
+    }
+  }
 
   //  IV. Methods that do the main and misc work of class:
   // PURPOSE: To translate 'this' into assembly in 'text'. No return value.
@@ -207,7 +384,7 @@ class VarPotentialInstruction extends PotentialInstruction
 
   //  V. Member vars:
   //  PURPOSE: To hold the single variable that 'this' instruction uses.
-  protected final
+  protected
   Variable	var;
 
 }
@@ -243,7 +420,48 @@ class VarVarPotentialInstruction extends PotentialInstruction
     return (src0_);
   }
 
+  @Override
+  public
+  Variable	getDefinedVar	()
+  {
+    return (dest_);
+  }
+
+  //  PURPOSE: To return the variables that 'this' instruction reads.  The
+  //	two-address arithmetic ops also read their destination.
+  @Override
+  public
+  Variable[]	getUsedVars	()
+  {
+    switch  (getOp())
+    {
+    case INT_ADD_VAR_VAR_VM_OP :
+    case REAL_ADD_VAR_VAR_VM_OP :
+    case INT_SUB_VAR_VAR_VM_OP :
+    case REAL_SUB_VAR_VAR_VM_OP :
+    case INT_MUL_VAR_VAR_VM_OP :
+    case REAL_MUL_VAR_VAR_VM_OP :
+      return (new Variable[] { dest_, src0_ });
+    default :
+      return (new Variable[] { src0_ });
+    }
+  }
+
   //  III.  Mutators:
+  @Override
+  public
+  void		replaceVars	(Map<Variable,Variable>	varMap)
+  {
+    dest_	= rename(dest_,varMap);
+    src0_	= rename(src0_,varMap);
+  }
+
+  @Override
+  public
+  void		replaceUsedVars	(Map<Variable,Variable>	varMap)
+  {
+    src0_	= rename(src0_,varMap);
+  }
 
   //  IV.  Methods that do the main and misc work of class:
   //  PURPOSE: To translate 'this' into assembly in 'text'. No return value.
@@ -261,11 +479,11 @@ class VarVarPotentialInstruction extends PotentialInstruction
 
   //  V. Member vars:
   //  PURPOSE: To hold the variable that 'this' instruction will change.
-  protected final
+  protected
   Variable			dest_;
 
   // PURPOSE: To hold the variable that 'this' instruction uses as a source.
-  protected final
+  protected
   Variable			src0_;
 
 }
@@ -313,7 +531,37 @@ class VarVarVarPotentialInstruction extends PotentialInstruction
     return (src1_);
   }
 
+  @Override
+  public
+  Variable	getDefinedVar	()
+  {
+    return (dest_);
+  }
+
+  @Override
+  public
+  Variable[]	getUsedVars	()
+  {
+    return (new Variable[] { src0_, src1_ });
+  }
+
   //  III. Mutators:
+  @Override
+  public
+  void		replaceVars	(Map<Variable,Variable>	varMap)
+  {
+    dest_	= rename(dest_,varMap);
+    src0_	= rename(src0_,varMap);
+    src1_	= rename(src1_,varMap);
+  }
+
+  @Override
+  public
+  void		replaceUsedVars	(Map<Variable,Variable>	varMap)
+  {
+    src0_	= rename(src0_,varMap);
+    src1_	= rename(src1_,varMap);
+  }
 
   //  IV. Methods that do the main and misc work of class:
   // PURPOSE: To translate 'this' into assembly in 'text'. No return value.
@@ -331,17 +579,136 @@ class VarVarVarPotentialInstruction extends PotentialInstruction
 
   //  V.  Member vars:
   //  PURPOSE: To hold the variable that 'this' instruction will change.
-  protected final
+  protected
   Variable			dest_;
 
   // PURPOSE: To hold the first variable that 'this' instruction uses as a
   //  source.
-  protected final
+  protected
   Variable			src0_;
 
   // PURPOSE: To hold the second variable that 'this' instruction uses as a
   // source.
-  protected final
+  protected
+  Variable			src1_;
+
+}
+
+class VarVarVarVarPotentialInstruction extends PotentialInstruction
+{
+  //  I. Constructor(s), assignment op(s), factory(s) and destructor:
+  //  PURPOSE: To initialize 'this' to do operation 'newOp', setting
+  //	'newDest' to 'newSrc0' if 'newCond' is true or to 'newSrc1' if it is
+  //	false. No return value.
+  public
+  VarVarVarVarPotentialInstruction
+				(VmOperation	newOp,
+				 final Variable newDest,
+				 final Variable	newCond,
+				 final Variable	newSrc0,
+				 final Variable	newSrc1
+				)
+  {
+    super(newOp);
+    dest_	= newDest;
+    cond_	= newCond;
+    src0_	= newSrc0;
+    src1_	= newSrc1;
+  }
+
+  //  II. Accessors:
+  //  PURPOSE: To return the variable that 'this' instruction will change.
+  public final
+  Variable	getDest		()
+  {
+    return (dest_);
+  }
+
+  //  PURPOSE: To return the boolean variable that chooses the source.
+  public final
+  Variable	getCond		()
+  {
+    return (cond_);
+  }
+
+  //  PURPOSE: To return the variable copied when the condition is true.
+  public final
+  Variable	getSrc0		()
+  {
+    return (src0_);
+  }
+
+  //  PURPOSE: To return the variable copied when the condition is false.
+  public final
+  Variable	getSrc1		()
+  {
+    return (src1_);
+  }
+
+  @Override
+  public
+  Variable	getDefinedVar	()
+  {
+    return (dest_);
+  }
+
+  @Override
+  public
+  Variable[]	getUsedVars	()
+  {
+    return (new Variable[] { cond_, src0_, src1_ });
+  }
+
+  //  III. Mutators:
+  @Override
+  public
+  void		replaceVars	(Map<Variable,Variable>	varMap)
+  {
+    dest_	= rename(dest_,varMap);
+    cond_	= rename(cond_,varMap);
+    src0_	= rename(src0_,varMap);
+    src1_	= rename(src1_,varMap);
+  }
+
+  @Override
+  public
+  void		replaceUsedVars	(Map<Variable,Variable>	varMap)
+  {
+    cond_	= rename(cond_,varMap);
+    src0_	= rename(src0_,varMap);
+    src1_	= rename(src1_,varMap);
+  }
+
+  //  IV. Methods that do the main and misc work of class:
+  // PURPOSE: To translate 'this' into assembly in 'text'. No return value.
+  @Override
+  public
+  void		toText		(PrintStream file)
+  {
+    printAddress(file);
+    file.println(vmOpNameArray[getOp().ordinal()] +  "\t" +
+		 VAR_PREFIX_CHAR + getDest().getNameStr() + "," +
+		 VAR_PREFIX_CHAR + getCond().getNameStr() + "," +
+		 VAR_PREFIX_CHAR + getSrc0().getNameStr() + "," +
+		 VAR_PREFIX_CHAR + getSrc1().getNameStr()
+		);
+  }
+
+  //  V.  Member vars:
+  //  PURPOSE: To hold the variable that 'this' instruction will change.
+  protected
+  Variable			dest_;
+
+  //  PURPOSE: To hold the boolean variable that chooses the source.
+  protected
+  Variable			cond_;
+
+  //  PURPOSE: To hold the variable copied when the condition is true.
+  protected
+  Variable			src0_;
+
+  //  PURPOSE: To hold the variable copied when the condition is false.
+  protected
   Variable			src1_;
 
 }
@@ -369,6 +736,12 @@ class AddrPotentialInstruction extends PotentialInstruction
   }
 
   //  III. Mutators:
+  @Override
+  public
+  void		setGotoAddressLabel(long	newAddrLabel)
+  {
+    gotoAddressLabel_	= newAddrLabel;
+  }
 
   //  IV. Methods that do the main and misc work of class:
   // PURPOSE: To translate 'this' into assembly in 'text'. No return value.
@@ -385,7 +758,7 @@ class AddrPotentialInstruction extends PotentialInstruction
 
   //  V. Member vars:
   //  PURPOSE: To hold the label of the address to which to go.
-  protected final
+  protected
   long		gotoAddressLabel_;
 
 }
@@ -422,7 +795,34 @@ class VarAddrPotentialInstruction extends PotentialInstruction
     return (gotoAddressLabel_);
   }
 
+  @Override
+  public
+  Variable[]	getUsedVars	()
+  {
+    return (new Variable[] { var_ });
+  }
+
   //  III. Mutators:
+  @Override
+  public
+  void		setGotoAddressLabel(long	newAddrLabel)
+  {
+    gotoAddressLabel_	= newAddrLabel;
+  }
+
+  @Override
+  public
+  void		replaceVars	(Map<Variable,Variable>	varMap)
+  {
+    var_	= rename(var_,varMap);
+  }
+
+  @Override
+  public
+  void		replaceUsedVars	(Map<Variable,Variable>	varMap)
+  {
+    var_	= rename(var_,varMap);
+  }
 
   //  IV. Methods that do the main and misc work of class:
   //  PURPOSE: To translate 'this' into assembly in 'text'. No return value.
@@ -440,12 +840,316 @@ class VarAddrPotentialInstruction extends PotentialInstruction
   
   //  V. Member vars:
   //  PURPOSE: To hold the single variable that 'this' instruction uses.
-  protected final
+  protected
   Variable			var_;
 
   //  PURPOSE: To hold the label of the address to which to go.
-  protected final
+  protected
   long				gotoAddressLabel_;
 
 }
 
+class VarVarAddrPotentialInstruction extends PotentialInstruction
+{
+  //  I.  Constructor(s), assignment op(s), factory(s) and destructor:
+  //  PURPOSE: To initialize 'this' to do operation 'newOp', comparing
+  //	'newSrc0' with 'newSrc1' and going to 'newAddr' if the comparison
+  //	holds.  No return value.
+  public
+  VarVarAddrPotentialInstruction(VmOperation	newOp,
+				 final Variable	newSrc0,
+				 final Variable	newSrc1,
+				 long		newAddr
+				)
+  {
+    super(newOp);
+    src0_		= newSrc0;
+    src1_		= newSrc1;
+    gotoAddressLabel_	= newAddr;
+  }
+
+  //  II. Accessors:
+  //  PURPOSE: To return the left-hand variable of the comparison.
+  public final
+  Variable	getSrc0		()
+  {
+    return (src0_);
+  }
+
+  //  PURPOSE: To return the right-hand variable of the comparison.
+  public final
+  Variable	getSrc1		()
+  {
+    return (src1_);
+  }
+
+  //  PURPOSE: To return the label of the address to which to go.
+  public final
+  long		getGotoAddressLabel()
+  {
+    return (gotoAddressLabel_);
+  }
+
+  @Override
+  public
+  Variable[]	getUsedVars	()
+  {
+    return (new Variable[] { src0_, src1_ });
+  }
+
+  //  III. Mutators:
+  @Override
+  public
+  void		setGotoAddressLabel(long	newAddrLabel)
+  {
+    gotoAddressLabel_	= newAddrLabel;
+  }
+
+  @Override
+  public
+  void		replaceVars	(Map<Variable,Variable>	varMap)
+  {
+    src0_	= rename(src0_,varMap);
+    src1_	= rename(src1_,varMap);
+  }
+
+  @Override
+  public
+  void		replaceUsedVars	(Map<Variable,Variable>	varMap)
+  {
+    src0_	= rename(src0_,varMap);
+    src1_	= rename(src1_,varMap);
+  }
+
+  //  IV. Methods that do the main and misc work of class:
+  //  PURPOSE: To translate 'this' into assembly in 'text'. No return value.
+  @Override
+  public
+  void		toText		(PrintStream file)
+  {
+    printAddress(file);
+    file.println
+	(vmOpNameArray[getOp().ordinal()] + "\t" +
+	 VAR_PREFIX_CHAR + getSrc0().getNameStr() + "," +
+	 VAR_PREFIX_CHAR + getSrc1().getNameStr() + ",label" +
+	 getGotoAddressLabel() + ADDR_LABEL_SUFFIX_CHAR
+	);
+  }
+
+  //  V. Member vars:
+  //  PURPOSE: To hold the left-hand variable of the comparison.
+  protected
+  Variable			src0_;
+
+  //  PURPOSE: To hold the right-hand variable of the comparison.
+  protected
+  Variable			src1_;
+
+  //  PURPOSE: To hold the label of the address to which to go.
+  protected
+  long				gotoAddressLabel_;
+
+}
+
+class VarVarImmPotentialInstruction extends PotentialInstruction
+{
+  //  I.  Constructor(s), assignment op(s), factory(s) and destructor:
+  //  PURPOSE: To initialize 'this' to do operation 'newOp' on 'newSrc' and
+  //	the inline operand 'newImmediate', putting the result in 'newDest'.
+  //	No return value.
+  public
+  VarVarImmPotentialInstruction	(VmOperation	newOp,
+				 final Variable	newDest,
+				 final Variable	newSrc,
+				 final Value	newImmediate
+				)
+  {
+    super(newOp);
+    dest_	= newDest;
+    src0_	= newSrc;
+    immediate_	= newImmediate;
+  }
+
+  //  II. Accessors:
+  //  PURPOSE: To return the variable that 'this' instruction will change.
+  public final
+  Variable	getDest		()
+  {
+    return (dest_);
+  }
+
+  //  PURPOSE: To return the variable that 'this' instruction uses as a
+  //	source.
+  public final
+  Variable	getSrc0		()
+  {
+    return (src0_);
+  }
+
+  //  PURPOSE: To return the inline operand.
+  public final
+  Value		getImmediate	()
+  {
+    return (immediate_);
+  }
+
+  @Override
+  public
+  Variable	getDefinedVar	()
+  {
+    return (dest_);
+  }
+
+  @Override
+  public
+  Variable[]	getUsedVars	()
+  {
+    return (new Variable[] { src0_ });
+  }
+
+  //  III. Mutators:
+  @Override
+  public
+  void		replaceVars	(Map<Variable,Variable>	varMap)
+  {
+    dest_	= rename(dest_,varMap);
+    src0_	= rename(src0_,varMap);
+  }
+
+  @Override
+  public
+  void		replaceUsedVars	(Map<Variable,Variable>	varMap)
+  {
+    src0_	= rename(src0_,varMap);
+  }
+
+  //  IV. Methods that do the main and misc work of class:
+  //  PURPOSE: To translate 'this' into assembly in 'text'. No return value.
+  @Override
+  public
+  void		toText		(PrintStream file)
+  {
+    printAddress(file);
+    file.println
+	(vmOpNameArray[getOp().ordinal()] + "\t" +
+	 VAR_PREFIX_CHAR + getDest().getNameStr() + "," +
+	 VAR_PREFIX_CHAR + getSrc0().getNameStr() + "," +
+	 IMMEDIATE_PREFIX_CHAR + getImmediate()
+	);
+  }
+
+  //  V. Member vars:
+  //  PURPOSE: To hold the variable that 'this' instruction will change.
+  protected
+  Variable			dest_;
+
+  //  PURPOSE: To hold the variable that 'this' instruction uses as a
+  //	source.
+  protected
+  Variable			src0_;
+
+  //  PURPOSE: To hold the inline operand.
+  protected final
+  Value				immediate_;
+
+}
+
+class VarImmAddrPotentialInstruction extends PotentialInstruction
+{
+  //  I.  Constructor(s), assignment op(s), factory(s) and destructor:
+  //  PURPOSE: To initialize 'this' to do operation 'newOp', comparing
+  //	'newSrc' with the inline operand 'newImmediate' and going to
+  //	'newAddr' if the comparison holds.  No return value.
+  public
+  VarImmAddrPotentialInstruction(VmOperation	newOp,
+				 final Variable	newSrc,
+				 final Value	newImmediate,
+				 long		newAddr
+				)
+  {
+    super(newOp);
+    src0_		= newSrc;
+    immediate_		= newImmediate;
+    gotoAddressLabel_	= newAddr;
+  }
+
+  //  II. Accessors:
+  //  PURPOSE: To return the variable that is compared.
+  public final
+  Variable	getSrc0		()
+  {
+    return (src0_);
+  }
+
+  //  PURPOSE: To return the inline operand.
+  public final
+  Value		getImmediate	()
+  {
+    return (immediate_);
+  }
+
+  //  PURPOSE: To return the label of the address to which to go.
+  public final
+  long		getGotoAddressLabel()
+  {
+    return (gotoAddressLabel_);
+  }
+
+  @Override
+  public
+  Variable[]	getUsedVars	()
+  {
+    return (new Variable[] { src0_ });
+  }
+
+  //  III. Mutators:
+  @Override
+  public
+  void		setGotoAddressLabel(long	newAddrLabel)
+  {
+    gotoAddressLabel_	= newAddrLabel;
+  }
+
+  @Override
+  public
+  void		replaceVars	(Map<Variable,Variable>	varMap)
+  {
+    src0_	= rename(src0_,varMap);
+  }
+
+  @Override
+  public
+  void		replaceUsedVars	(Map<Variable,Variable>	varMap)
+  {
+    src0_	= rename(src0_,varMap);
+  }
+
+  //  IV. Methods that do the main and misc work of class:
+  //  PURPOSE: To translate 'this' into assembly in 'text'. No return value.
+  @Override
+  public
+  void		toText		(PrintStream file)
+  {
+    printAddress(file);
+    file.println
+	(vmOpNameArray[getOp().ordinal()] + "\t" +
+	 VAR_PREFIX_CHAR + getSrc0().getNameStr() + "," +
+	 IMMEDIATE_PREFIX_CHAR + getImmediate() + ",label" +
+	 getGotoAddressLabel() + ADDR_LABEL_SUFFIX_CHAR
+	);
+  }
+
+  //  V. Member vars:
+  //  PURPOSE: To hold the variable that is compared.
+  protected
+  Variable			src0_;
+
+  //  PURPOSE: To hold the inline operand.
+  protected final
+  Value				immediate_;
+
+  //  PURPOSE: To hold the label of the address to which to go.
+  protected
+  long				gotoAddressLabel_;
+
+}
@@ -0,0 +1,686 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        SsaForm.java                                               ---*
+ *---                                                                   ---*
+ *---    This file declares classes that give a list of VM              ---*
+ *---    instructions static single assignment form, as a table beside  ---*
+ *---    the instructions rather than by rewriting them, and that walk  ---*
+ *---    that form down the dominator tree.                             ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+//  PURPOSE: To number every value the program computes.  Each write of an
+//	instruction makes one value, each phi makes one where paths with
+//	different values of a Variable join, and each Variable read before
+//	any write has one entry value.  Every read of an instruction is
+//	mapped to the one value it sees.
+class SsaForm
+{
+  //  0.  Constants:
+  //  PURPOSE: To tell that there is no value.
+  public static final
+  int		NO_VALUE		= -1;
+
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to hold the SSA form of 'graph', whose
+  //	dominators are 'domTree'.  Phis are only placed where their
+  //	Variable is live.  No return value.
+  public
+  SsaForm			(ControlFlowGraph	graph,
+				 DominatorTree		domTree
+				)
+  {
+    this(graph,domTree,true);
+  }
+
+  //  PURPOSE: To initialize 'this' to hold the SSA form of 'graph', whose
+  //	dominators are 'domTree'.  If 'isPruned' is 'false' a phi is placed
+  //	wherever different writes of its Variable meet, live or not, so
+  //	that the value a Variable holds at a point by the dominator tree is
+  //	the only one that reaches it.  No return value.
+  public
+  SsaForm			(ControlFlowGraph	graph,
+				 DominatorTree		domTree,
+				 boolean		isPruned
+				)
+  {
+    int		numInstructs	= graph.getNumInstructs();
+    int		numBlocks	= graph.getBlocks().size();
+
+    graph_		= graph;
+    domTree_		= domTree;
+    varOfValueList_	= new ArrayList<>();
+    instructOfValueList_= new ArrayList<>();
+    phiOfValueList_	= new ArrayList<>();
+    defValueArray_	= new int[numInstructs];
+    useValueArray_	= new int[numInstructs][];
+    entryValueArray_	= new int[graph.getNumVars()];
+    phiList_		= new ArrayList<>();
+    phisOfBlockList_	= new ArrayList<>(numBlocks);
+    isPruned_		= isPruned;
+
+    Arrays.fill(defValueArray_,NO_VALUE);
+    Arrays.fill(entryValueArray_,NO_VALUE);
+
+    for  (int index = 0;  index < numInstructs;  index++)
+    {
+      useValueArray_[index]	= new int[graph.getUseIndices(index).length];
+      Arrays.fill(useValueArray_[index],NO_VALUE);
+    }
+
+    for  (int block = 0;  block < numBlocks;  block++)
+    {
+      phisOfBlockList_.add(new ArrayList<>(0));
+    }
+
+    if  (numBlocks > 0)
+    {
+      placePhis();
+      rename();
+    }
+  }
+
+  //  II.  Accessors:
+  //  PURPOSE: To return the number of values.
+  public
+  int		getNumValues	()
+  {
+    return(varOfValueList_.size());
+  }
+
+  //  PURPOSE: To return the number in the graph of the Variable that holds
+  //	value 'value'.
+  public
+  int		getVarOfValue	(int	value)
+  {
+    return(varOfValueList_.get(value));
+  }
+
+  //  PURPOSE: To return the index of the instruction that makes 'value',
+  //	or -1 if a phi makes it or it is an entry value.
+  public
+  int		getInstructOfValue
+				(int	value)
+  {
+    return(instructOfValueList_.get(value));
+  }
+
+  //  PURPOSE: To return the phi that makes 'value', or -1 if an
+  //	instruction makes it or it is an entry value.
+  public
+  int		getPhiOfValue	(int	value)
+  {
+    return(phiOfValueList_.get(value));
+  }
+
+  //  PURPOSE: To return 'true' if 'value' is what its Variable holds when
+  //	the program starts, or 'false' otherwise.
+  public
+  boolean	isEntryValue	(int	value)
+  {
+    return( (getInstructOfValue(value) < 0)  &&  (getPhiOfValue(value) < 0) );
+  }
+
+  //  PURPOSE: To return the value Variable number 'var' of the graph
+  //	holds when the program starts, or 'NO_VALUE' if it is never read
+  //	before it is written.
+  public
+  int		getEntryValue	(int	var)
+  {
+    return(entryValueArray_[var]);
+  }
+
+  //  PURPOSE: To return the value instruction 'index' makes, or 'NO_VALUE'
+  //	if it writes nothing.
+  public
+  int		getDefValue	(int	index)
+  {
+    return(defValueArray_[index]);
+  }
+
+  //  PURPOSE: To return the values instruction 'index' reads, in the order
+  //	of getUsedVars().  They are 'NO_VALUE' in unreachable blocks.  The
+  //	array must not be changed.
+  public
+  int[]		getUseValues	(int	index)
+  {
+    return(useValueArray_[index]);
+  }
+
+  //  PURPOSE: To return the number of phis.
+  public
+  int		getNumPhis	()
+  {
+    return(phiList_.size());
+  }
+
+  //  PURPOSE: To return the phis at the start of 'block'.
+  public
+  List<Integer>	getPhisOf	(BasicBlock	block)
+  {
+    return(phisOfBlockList_.get(block.getIndex()));
+  }
+
+  //  PURPOSE: To return the block phi 'phi' starts.
+  public
+  BasicBlock	getPhiBlock	(int	phi)
+  {
+    return(phiList_.get(phi).block_);
+  }
+
+  //  PURPOSE: To return the value phi 'phi' makes.
+  public
+  int		getPhiValue	(int	phi)
+  {
+    return(phiList_.get(phi).value_);
+  }
+
+  //  PURPOSE: To return the values phi 'phi' merges, one for each
+  //	predecessor of its block in the order of getPredecessors().  A phi
+  //	of the first block has one more, last, for the start of the
+  //	program.  The array must not be changed.
+  public
+  int[]		getPhiOperands	(int	phi)
+  {
+    return(phiList_.get(phi).operandArray_);
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To place a phi for each Variable at each block in the
+  //	iterated dominance frontier of its writes (where it is live, if
+  //	'isPruned_').  No return value.
+  protected
+  void		placePhis	()
+  {
+    List<BasicBlock>	blockList	= graph_.getBlocks();
+    int			numVars		= graph_.getNumVars();
+    BitSet[]		defBlocksArray	= new BitSet[numVars];
+    DataflowAnalysis	liveness	= isPruned_
+					  ? new LivenessAnalysis(graph_).solve()
+					  : null;
+    int[]		hasPhiArray	= new int[blockList.size()];
+    int[]		isQueuedArray	= new int[blockList.size()];
+    Deque<BasicBlock>	workList	= new ArrayDeque<>();
+
+    for  (int var = 0;  var < numVars;  var++)
+    {
+      defBlocksArray[var]	= new BitSet();
+    }
+
+    for  (BasicBlock block : domTree_.getReversePostorder())
+    {
+      for  (int index = block.getStart();  index < block.getEnd();  index++)
+      {
+	int	def	= graph_.getDefIndex(index);
+
+	if  (def >= 0)
+	{
+	  defBlocksArray[def].set(block.getIndex());
+	}
+      }
+    }
+
+    //  The arrays hold 'var + 1' for the Variable last seen, so they need
+    //  not be cleared between Variables:
+    for  (int var = 0;  var < numVars;  var++)
+    {
+      BitSet	defBlocks	= defBlocksArray[var];
+
+      for  (int block = defBlocks.nextSetBit(0);
+	    block >= 0;
+	    block = defBlocks.nextSetBit(block+1)
+	   )
+      {
+	isQueuedArray[block]	= var + 1;
+	workList.add(blockList.get(block));
+      }
+
+      while  (!workList.isEmpty())
+      {
+	for  (BasicBlock frontier : domTree_.getFrontier(workList.poll()))
+	{
+	  int	index	= frontier.getIndex();
+
+	  if  ( (hasPhiArray[index] == var + 1)			||
+		(isPruned_  &&  !liveness.getEntrySet(frontier).get(var))
+	      )
+	  {
+	    continue;
+	  }
+
+	  hasPhiArray[index]	= var + 1;
+	  addPhi(frontier,var);
+
+	  if  (isQueuedArray[index] != var + 1)
+	  {
+	    isQueuedArray[index]	= var + 1;
+	    workList.add(frontier);
+	  }
+	}
+      }
+    }
+  }
+
+  //  PURPOSE: To add a phi for Variable number 'var' at the start of
+  //	'block'.  No return value.
+  protected
+  void		addPhi		(BasicBlock	block,
+				 int		var
+				)
+  {
+    int		phi	= phiList_.size();
+    int		numOperands	= block.getPredecessors().size()
+				  + ( (block.getIndex() == 0) ? 1 : 0 );
+    int[]	operandArray	= new int[numOperands];
+
+    Arrays.fill(operandArray,NO_VALUE);
+    phiList_.add(new Phi(block,newValue(var,-1,phi),operandArray));
+    phisOfBlockList_.get(block.getIndex()).add(phi);
+  }
+
+  //  PURPOSE: To map every read to the value it sees by walking the
+  //	dominator tree, keeping the current value of each Variable.  No
+  //	return value.
+  protected
+  void		rename		()
+  {
+    int[]		currentArray	= new int[graph_.getNumVars()];
+    List<Integer>	prevList	= new ArrayList<>();
+    List<Integer>	pushedList	= new ArrayList<>();
+    Deque<int[]>	stack		= new ArrayDeque<>();
+
+    //  Each stack entry is { block, next child, size of 'pushedList' }:
+    Arrays.fill(currentArray,NO_VALUE);
+    stack.push(new int[] { 0, -1, 0 });
+
+    while  (!stack.isEmpty())
+    {
+      int[]		entry	= stack.peek();
+      BasicBlock	block	= graph_.getBlocks().get(entry[0]);
+
+      if  (entry[1] < 0)
+      {
+	entry[1]	= 0;
+	entry[2]	= pushedList.size();
+	renameBlock(block,currentArray,prevList,pushedList);
+      }
+
+      List<BasicBlock>	childList	= domTree_.getChildren(block);
+
+      if  (entry[1] < childList.size())
+      {
+	stack.push(new int[] { childList.get(entry[1]++).getIndex(), -1, 0 });
+	continue;
+      }
+
+      //  Leaving the block restores the values seen on entry to it:
+      for  (int count = pushedList.size();  count > entry[2];  count--)
+      {
+	int	value	= pushedList.remove(count - 1);
+
+	currentArray[getVarOfValue(value)]	= prevList.get(value);
+      }
+
+      stack.pop();
+    }
+  }
+
+  //  PURPOSE: To map the reads of 'block', and of the phis of its
+  //	successors, to the values in 'currentArray', noting each value
+  //	'block' makes.  'prevList' keeps the value each one hides and
+  //	'pushedList' the order they were made.  No return value.
+  protected
+  void		renameBlock	(BasicBlock	block,
+				 int[]		currentArray,
+				 List<Integer>	prevList,
+				 List<Integer>	pushedList
+				)
+  {
+    for  (int phi : getPhisOf(block))
+    {
+      int[]	operandArray	= getPhiOperands(phi);
+
+      if  (block.getIndex() == 0)
+      {
+	operandArray[operandArray.length - 1]	=
+		current(getVarOfValue(getPhiValue(phi)),currentArray);
+      }
+
+      push(getPhiValue(phi),currentArray,prevList,pushedList);
+    }
+
+    for  (int index = block.getStart();  index < block.getEnd();  index++)
+    {
+      int[]	useArray	= graph_.getUseIndices(index);
+      int	def		= graph_.getDefIndex(index);
+
+      for  (int use = 0;  use < useArray.length;  use++)
+      {
+	useValueArray_[index][use]	= current(useArray[use],currentArray);
+      }
+
+      if  (def >= 0)
+      {
+	defValueArray_[index]	= newValue(def,index,-1);
+	push(defValueArray_[index],currentArray,prevList,pushedList);
+      }
+    }
+
+    for  (BasicBlock succ : block.getSuccessors())
+    {
+      int	pred	= succ.getPredecessors().indexOf(block);
+
+      for  (int phi : getPhisOf(succ))
+      {
+	getPhiOperands(phi)[pred]	=
+		current(getVarOfValue(getPhiValue(phi)),currentArray);
+      }
+    }
+  }
+
+  //  PURPOSE: To return the value Variable number 'var' holds according
+  //	to 'currentArray', making its entry value if it has none yet.
+  protected
+  int		current		(int	var,
+				 int[]	currentArray
+				)
+  {
+    if  (currentArray[var] != NO_VALUE)
+    {
+      return(currentArray[var]);
+    }
+
+    if  (entryValueArray_[var] == NO_VALUE)
+    {
+      entryValueArray_[var]	= newValue(var,-1,-1);
+    }
+
+    return(entryValueArray_[var]);
+  }
+
+  //  PURPOSE: To make 'value' the current value of its Variable.  No
+  //	return value.
+  protected
+  void		push		(int		value,
+				 int[]		currentArray,
+				 List<Integer>	prevList,
+				 List<Integer>	pushedList
+				)
+  {
+    int		var	= getVarOfValue(value);
+
+    while  (prevList.size() <= value)
+    {
+      prevList.add(NO_VALUE);
+    }
+
+    prevList.set(value,currentArray[var]);
+    currentArray[var]	= value;
+    pushedList.add(value);
+  }
+
+  //  PURPOSE: To make and return a new value of Variable number 'var',
+  //	made by instruction 'instruct' or phi 'phi' (either may be -1).
+  protected
+  int		newValue	(int	var,
+				 int	instruct,
+				 int	phi
+				)
+  {
+    varOfValueList_.add(var);
+    instructOfValueList_.add(instruct);
+    phiOfValueList_.add(phi);
+    return(varOfValueList_.size() - 1);
+  }
+
+  //  PURPOSE: To represent a phi: the value a Variable has on entry to a
+  //	block, chosen by the edge control arrived on.
+  protected static
+  class Phi
+  {
+    //  PURPOSE: To initialize 'this' to start 'newBlock', making value
+    //	'newValue' from the values in 'newOperandArray'.  No return value.
+    protected
+    Phi				(BasicBlock	newBlock,
+				 int		newValue,
+				 int[]		newOperandArray
+				)
+    {
+      block_		= newBlock;
+      value_		= newValue;
+      operandArray_	= newOperandArray;
+    }
+
+    //  PURPOSE: To hold the block 'this' starts.
+    protected final
+    BasicBlock			block_;
+
+    //  PURPOSE: To hold the value 'this' makes.
+    protected final
+    int				value_;
+
+    //  PURPOSE: To hold the values merged, one for each predecessor.
+    protected final
+    int[]			operandArray_;
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the graph and its dominators.
+  protected final
+  ControlFlowGraph		graph_;
+
+  protected final
+  DominatorTree			domTree_;
+
+  //  PURPOSE: To hold whether phis are only placed where their Variable
+  //	is live.
+  protected final
+  boolean			isPruned_;
+
+  //  PURPOSE: To hold, for each value, the number of its Variable, the
+  //	instruction that makes it or -1, and the phi that makes it or -1.
+  protected final
+  List<Integer>			varOfValueList_;
+
+  protected final
+  List<Integer>			instructOfValueList_;
+
+  protected final
+  List<Integer>			phiOfValueList_;
+
+  //  PURPOSE: To hold, for each instruction, the value it makes or
+  //	'NO_VALUE'.
+  protected final
+  int[]				defValueArray_;
+
+  //  PURPOSE: To hold, for each instruction, the values it reads.
+  protected final
+  int[][]			useValueArray_;
+
+  //  PURPOSE: To hold, for each Variable, its entry value or 'NO_VALUE'.
+  protected final
+  int[]				entryValueArray_;
+
+  //  PURPOSE: To hold the phis, and for each block the phis that start it.
+  protected final
+  List<Phi>			phiList_;
+
+  protected final
+  List<List<Integer>>	phisOfBlockList_;
+}
+
+
+//  PURPOSE: To walk the reachable blocks of a ControlFlowGraph in
+//	dominator-tree preorder, knowing at each instruction the SSA value
+//	each Variable holds.  Since a block is only left once the blocks it
+//	dominates have been walked, what a subclass notes in a block and
+//	undoes when leaving it is seen exactly where that block dominates.
+//	The SSA form is not pruned: a write on a path that does not
+//	dominate the point makes a phi even where its Variable is dead, so
+//	a value is still current only if no other write can reach.
+abstract
+class SsaWalker
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to walk 'graph', building its
+  //	dominators and SSA form.  No return value.
+  protected
+  SsaWalker			(ControlFlowGraph	graph)
+  {
+    graph_		= graph;
+    domTree_		= new DominatorTree(graph);
+    ssa_		= new SsaForm(graph,domTree_,false);
+    currentArray_	= new int[graph.getNumVars()];
+    varLog_		= new ArrayList<>();
+  }
+
+  //  II.  Accessors:
+  //  PURPOSE: To return the SSA value Variable number 'var' holds at the
+  //	point of the walk, which is the only write of it that reaches
+  //	there.
+  public
+  int		getCurrent	(int	var)
+  {
+    return( (currentArray_[var] == SsaForm.NO_VALUE)
+	    ? ssa_.getEntryValue(var)
+	    : currentArray_[var]
+	  );
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To walk the reachable blocks, calling enterBlock(), then
+  //	visitInstruct() for each instruction, then the same for the
+  //	blocks it dominates, then leaveBlock().  No return value.
+  public
+  void		walk		()
+  {
+    Deque<int[]>	stack	= new ArrayDeque<>();
+
+    if  (graph_.getBlocks().isEmpty())
+    {
+      return;
+    }
+
+    //  Each stack entry is { block, next child, size of 'varLog_' }:
+    Arrays.fill(currentArray_,SsaForm.NO_VALUE);
+    stack.push(new int[] { 0, -1, 0 });
+
+    while  (!stack.isEmpty())
+    {
+      int[]		entry	= stack.peek();
+      BasicBlock	block	= graph_.getBlocks().get(entry[0]);
+
+      if  (entry[1] < 0)
+      {
+	entry[1]	= 0;
+	entry[2]	= varLog_.size();
+	visitBlock(block);
+      }
+
+      List<BasicBlock>	childList	= domTree_.getChildren(block);
+
+      if  (entry[1] < childList.size())
+      {
+	stack.push(new int[] { childList.get(entry[1]++).getIndex(), -1, 0 });
+	continue;
+      }
+
+      for  (int count = varLog_.size();  count > entry[2];  count--)
+      {
+	int[]	undo	= varLog_.remove(count - 1);
+
+	currentArray_[undo[0]]	= undo[1];
+      }
+
+      leaveBlock(block);
+      stack.pop();
+    }
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To be told that the walk has reached 'block', after its phis
+  //	take effect and before its instructions are visited.  No return
+  //	value.
+  protected
+  void		enterBlock	(BasicBlock	block)
+  {
+  }
+
+  //  PURPOSE: To be told about instruction 'index', before what it writes
+  //	takes effect.  No return value.
+  protected abstract
+  void		visitInstruct	(int	index);
+
+  //  PURPOSE: To be told that the walk is leaving 'block' and the blocks
+  //	it dominates.  No return value.
+  protected
+  void		leaveBlock	(BasicBlock	block)
+  {
+  }
+
+  //  PURPOSE: To visit 'block', keeping 'currentArray_' up to date.  No
+  //	return value.
+  protected
+  void		visitBlock	(BasicBlock	block)
+  {
+    for  (int phi : ssa_.getPhisOf(block))
+    {
+      setCurrent(ssa_.getPhiValue(phi));
+    }
+
+    enterBlock(block);
+
+    for  (int index = block.getStart();  index < block.getEnd();  index++)
+    {
+      visitInstruct(index);
+
+      if  (ssa_.getDefValue(index) != SsaForm.NO_VALUE)
+      {
+	setCurrent(ssa_.getDefValue(index));
+      }
+    }
+  }
+
+  //  PURPOSE: To make 'value' what its Variable holds, noting the value it
+  //	hid in 'varLog_'.  No return value.
+  protected
+  void		setCurrent	(int	value)
+  {
+    int		var	= ssa_.getVarOfValue(value);
+
+    varLog_.add(new int[] { var, currentArray_[var] });
+    currentArray_[var]	= value;
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the graph walked, its dominators and its SSA form.
+  protected final
+  ControlFlowGraph		graph_;
+
+  protected final
+  DominatorTree			domTree_;
+
+  protected final
+  SsaForm			ssa_;
+
+  //  PURPOSE: To hold, for each Variable, the value it holds at the point
+  //	of the walk, or 'NO_VALUE' if it has not been written on the way.
+  protected final
+  int[]				currentArray_;
+
+  //  PURPOSE: To hold, for each value made on the way down, its Variable
+  //	and the value it hid.
+  protected final
+  List<int[]>			varLog_;
+}
@@ -22,6 +22,14 @@ public abstract
 class Statement
 {
   //  0.  Constants and hidden classes (if any):
+  //  PURPOSE: To tell the compile threshold at which loops never compile.
+  public static final
+  int		NEVER_COMPILE			= Integer.MAX_VALUE;
+
+  //  PURPOSE: To tell the number of back-edges after which a tree-walked
+  //	loop is usually compiled.
+  public static final
+  int		DEFAULT_COMPILE_THRESHOLD	= 1000;
 
   //  I.  Constructor(s) and factory(s):
   //  PURPOSE:  To initialize 'this'.  No parameters.  No return value.
@@ -35,7 +43,75 @@ class Statement
   public abstract
   Type		getType		();
 
+  //  PURPOSE: To return 'true' if 'this' may be computed even where the
+  //	program would not have computed it, because it changes nothing and
+  //	cannot fail, or 'false' otherwise.
+  public
+  boolean	isSpeculatable	()
+  {
+    return(false);
+  }
+
+  //  PURPOSE: To return the assignment that is all 'this' does, or 'null'
+  //	if 'this' is not a lone assignment.
+  public
+  AssignStatement
+		getSingleAssign	()
+  {
+    return(null);
+  }
+
+  //  PURPOSE: To return the number of back-edges after which a loop run by
+  //	execute() compiles itself to closures, or 'NEVER_COMPILE'.
+  public static
+  int		getCompileThreshold
+				()
+  {
+    return(compileThreshold_static);
+  }
+
+  //  PURPOSE: To return 'true' if loops run by execute() count their
+  //	back-edges to compile themselves once hot, or 'false' if they never
+  //	compile.
+  public static
+  boolean	isTiered	()
+  {
+    return(compileThreshold_static != NEVER_COMPILE);
+  }
+
+  //  PURPOSE: To return 'true' if AND and OR skip their right operand once
+  //	their left one decides the result, or 'false' if they always
+  //	evaluate both.
+  public static
+  boolean	isShortCircuit	()
+  {
+    return(isShortCircuit_static);
+  }
+
   //  III. Mutator(s):
+  //  PURPOSE: To set the number of back-edges after which a loop run by
+  //	execute() compiles itself to closures to 'threshold'.  No return
+  //	value.
+  public static
+  void		setCompileThreshold
+				(int	threshold)
+  {
+    if  (threshold < 1)
+    {
+      throw new IllegalArgumentException("Compile threshold must be positive");
+    }
+
+    compileThreshold_static	= threshold;
+  }
+
+  //  PURPOSE: To set whether AND and OR skip their right operand once their
+  //	left one decides the result to 'shouldShortCircuit'.  Programs
+  //	compiled or run afterwards use the new setting.  No return value.
+  public static
+  void		setShortCircuit	(boolean	shouldShortCircuit)
+  {
+    isShortCircuit_static	= shouldShortCircuit;
+  }
 
   //  IV. Methods that do main and misc. work of class:
   //  PURPOSE:  To compute 'this'.  No parameters.  Returns either the
@@ -45,6 +121,122 @@ class Statement
   Value		compute		();
 
 
+  //  PURPOSE:  To compute 'this' as an integer without allocating a Value,
+  //	reading variables from 'frame'.  Returns the integer.
+  public
+  long		computeInteger	(Frame frame)
+  {
+    return(compute().getInteger());
+  }
+
+
+  //  PURPOSE:  To compute 'this' as a real without allocating a Value,
+  //	reading variables from 'frame'.  Integer-typed nodes are converted.
+  //	Returns the real.
+  public
+  double	computeReal	(Frame frame)
+  {
+    return(compute().getReal());
+  }
+
+
+  //  PURPOSE:  To compute 'this' as a boolean without allocating a Value,
+  //	reading variables from 'frame'.  Returns the boolean.
+  public
+  boolean	computeBoolean	(Frame frame)
+  {
+    return(compute().getBoolean());
+  }
+
+
+  //  PURPOSE:  To compute 'this' as a string, reading variables from
+  //	'frame'.  Returns the string.
+  public
+  String	computeString	(Frame frame)
+  {
+    return(compute().getString());
+  }
+
+
+  //  PURPOSE:  To run 'this' node for its effect only, reading and writing
+  //	variables in 'frame'.  No return value.
+  public
+  void		execute		(Frame frame)
+  {
+    compute();
+  }
+
+
+  //  PURPOSE:  To return a closure that computes 'this' as an integer.
+  //	Nodes override this to bind their children and operation once, at
+  //	compile time.  No parameters.
+  public
+  IntegerClosure
+		compileInteger	()
+  {
+    return(frame -> computeInteger(frame));
+  }
+
+
+  //  PURPOSE:  To return a closure that computes 'this' as a real, with
+  //	integer-typed nodes converted.  No parameters.
+  public
+  RealClosure	compileReal	()
+  {
+    return(frame -> computeReal(frame));
+  }
+
+
+  //  PURPOSE:  To return a closure that computes 'this' as a boolean.  No
+  //	parameters.
+  public
+  BooleanClosure
+		compileBoolean	()
+  {
+    return(frame -> computeBoolean(frame));
+  }
+
+
+  //  PURPOSE:  To return a closure that computes 'this' as a string.  No
+  //	parameters.
+  public
+  StringClosure	compileString	()
+  {
+    return(frame -> computeString(frame));
+  }
+
+
+  //  PURPOSE:  To return a closure that runs 'this' for its effect only.
+  //	No parameters.
+  public
+  ExecuteClosure
+		compileExecute	()
+  {
+    return(frame -> execute(frame));
+  }
+
+
+  //  PURPOSE:  To return a self-specializing interpreter node that runs
+  //	'this'.  Nodes without a translation run on the tree-walker.  No
+  //	parameters.
+  public
+  StatementNode	toStatementNode	()
+  {
+    return(new TreeWalkingNode(this));
+  }
+
+
+  //  PURPOSE:  To return a self-specializing interpreter node that computes
+  //	'this'.  Nodes without a translation run on the tree-walker.  No
+  //	parameters.
+  public
+  ExpressionNode
+		toExpressionNode()
+  {
+    return(new TreeWalkingExpressionNode(this));
+  }
+
+
   //  PURPOSE:  To check that 'this' node is semantically proper. Throws
   //	'RuntimeException' describing problem if one is found. No return
   //	value.
@@ -66,6 +258,28 @@ class Statement
   }
 
 
+  //  PURPOSE:  To convert boolean node 'this' into PotentialInstruction
+  //	instances in 'list' that go to 'label' if 'this' computes
+  //	'jumpIfTrue', and fall through otherwise.  No return value.
+  public
+  void		toConditionalJump
+				(List<PotentialInstruction>	list,
+				 long				label,
+				 boolean			jumpIfTrue
+				)
+  {
+    Variable	condV	= toAssembly(list);
+
+    list.add(new VarAddrPotentialInstruction
+			(jumpIfTrue	? VmOperation.IF_TRUE_GOTO_VM_OP
+					: VmOperation.IF_FALSE_GOTO_VM_OP,
+			 condV,
+			 label
+			)
+	    );
+  }
+
+
   //  PURPOSE:  To return a copy of 'this'.  No parameters.
   public abstract
   Statement	copy		();
@@ -73,6 +287,15 @@ class Statement
   //  V.  Protected methods:
 
   //  VI. Private member vars:
+  //  PURPOSE: To hold the number of back-edges after which a loop run by
+  //	execute() compiles itself, or 'NEVER_COMPILE'.
+  private static
+  int		compileThreshold_static	= NEVER_COMPILE;
+
+  //  PURPOSE: To hold 'true' if AND and OR short-circuit, or 'false' if
+  //	they evaluate both operands as standard Pascal does.
+  private static
+  boolean	isShortCircuit_static	= false;
 }
 
 
@@ -137,6 +360,48 @@ class IfStatement extends Statement
     return(null);
   }
 
+  //  PURPOSE:  To run 'this' node for its effect only, reading and writing
+  //	variables in 'frame'.  No return value.
+  public
+  void		execute		(Frame frame)
+  {
+    if  (cond_.computeBoolean(frame))
+    {
+      then_.execute(frame);
+    }
+    else
+    if  (elseRef_ != null)
+    {
+      elseRef_.execute(frame);
+    }
+  }
+
+  //  PURPOSE:  To return a closure that runs 'this' for its effect only.
+  //	No parameters.
+  public
+  ExecuteClosure
+		compileExecute	()
+  {
+    final BooleanClosure	cond	= cond_.compileBoolean();
+    final ExecuteClosure	then	= then_.compileExecute();
+
+    if  (elseRef_ == null)
+    {
+      return(frame -> { if (cond.computeBoolean(frame)) then.execute(frame); });
+    }
+
+    final ExecuteClosure	elseRef	= elseRef_.compileExecute();
+
+    return(frame ->
+	   {
+	     if  (cond.computeBoolean(frame))
+	       then.execute(frame);
+	     else
+	       elseRef.execute(frame);
+	   }
+	  );
+  }
+
   //  PURPOSE:  To check that 'this' node is semantically proper. Throws
   //	'RuntimeException' describing problem if one is found. No return
   //	value.
@@ -157,24 +422,76 @@ class IfStatement extends Statement
   }
 
 
+  //  PURPOSE:  To return a self-specializing interpreter node that runs
+  //	'this'.  No parameters.
+  public
+  StatementNode	toStatementNode	()
+  {
+    return(new IfNode(cond_.toExpressionNode(),
+		      then_.toStatementNode(),
+		      (elseRef_ == null) ? null : elseRef_.toStatementNode()
+		     )
+	  );
+  }
+
   //  PURPOSE:  To convert 'this' into PotentialInstruction instances in
   //	'list' that implement 'this'.  Returns Variable that will have the
   //	result of 'this' computation, or 'null' if there is no such value.
   public
   Variable	toAssembly	(List<PotentialInstruction> list)
   {
-    Variable condV= cond_.toAssembly(list);
+    AssignStatement	thenAssign	= (then_ == null)
+					  ? null : then_.getSingleAssign();
+    AssignStatement	elseAssign	= (elseRef_ == null)
+					  ? null : elseRef_.getSingleAssign();
+
+    //  Both arms just set the same variable to values safe to compute
+    //  early, so compute both and select one without branching:
+    if  ( (thenAssign != null)					&&
+	  (elseAssign != null)					&&
+	  (thenAssign.getVariable() == elseAssign.getVariable())	&&
+	  thenAssign.getExpr().isSpeculatable()			&&
+	  elseAssign.getExpr().isSpeculatable()
+	)
+    {
+      Variable	var	= thenAssign.getVariable();
+      Variable	condV	= cond_.toAssembly(list);
+      Variable	trueV	= thenAssign.toSourceAssembly(list);
+      Variable	falseV	= elseAssign.toSourceAssembly(list);
+      VmOperation	operation;
+
+      switch  (var.getType())
+      {
+      case INTEGER :	operation = VmOperation.INT_SELECT_VM_OP;	break;
+      case REAL :	operation = VmOperation.REAL_SELECT_VM_OP;	break;
+      default :		operation = VmOperation.IDEA_SELECT_VM_OP;	break;
+      }
+
+      list.add(new VarVarVarVarPotentialInstruction
+			(operation,var,condV,trueV,falseV)
+	      );
+      return(null);
+    }
+
     long elseStart=PotentialInstruction.getNextAddressLabel();
     Long ifEnd=null;
     if(elseRef_!=null){
       ifEnd=PotentialInstruction.getNextAddressLabel();
     }
-list.add(new VarAddrPotentialInstruction(VmOperation.IF_FALSE_GOTO_VM_OP,condV,elseStart));
+    cond_.toConditionalJump(list,elseStart,false);
     if(then_!=null){
       then_.toAssembly(list);
     }
     if(elseRef_!=null) {
       list.add(new AddrPotentialInstruction(VmOperation.GOTO_VM_OP, ifEnd.longValue()));
+    }
+
+    PotentialInstruction else1 = new PotentialInstruction(VmOperation.NO_VM_OP);
+    else1.setAddressLabel(elseStart);
+    list.add(else1);
+
+    if(elseRef_!=null) {
+      elseRef_.toAssembly(list);
 
       PotentialInstruction else2 = new PotentialInstruction(VmOperation.NO_VM_OP);
       else2.setAddressLabel(ifEnd.longValue());
@@ -251,6 +568,47 @@ class WhileStatement extends Statement
     return(null);
   }
 
+  //  PURPOSE:  To run 'this' node for its effect only, reading and writing
+  //	variables in 'frame'.  Once the loop has taken more back-edges than
+  //	the compile threshold it compiles itself, then finishes the current
+  //	run, and all later ones, as closures over the same 'frame'.  No
+  //	return value.
+  public
+  void		execute		(Frame frame)
+  {
+    if  (compiled_ != null)
+    {
+      compiled_.execute(frame);
+      return;
+    }
+
+    while  (cond_.computeBoolean(frame))
+    {
+      block_.execute(frame);
+
+      if  ( isTiered()  &&  (++backEdgeCount_ >= getCompileThreshold()) )
+      {
+	//  The closure tests the condition first, so it resumes right at
+	//  this back-edge:
+	compiled_	= compileExecute();
+	compiled_.execute(frame);
+	return;
+      }
+    }
+  }
+
+  //  PURPOSE:  To return a closure that runs 'this' for its effect only.
+  //	No parameters.
+  public
+  ExecuteClosure
+		compileExecute	()
+  {
+    final BooleanClosure	cond	= cond_.compileBoolean();
+    final ExecuteClosure	block	= block_.compileExecute();
+
+    return(frame -> { while (cond.computeBoolean(frame)) block.execute(frame); });
+  }
+
   //  PURPOSE:  To check that 'this' node is semantically proper. Throws
   //	'RuntimeException' describing problem if one is found. No return
   //	value.
@@ -268,27 +626,43 @@ class WhileStatement extends Statement
 
   }
 
+  //  PURPOSE:  To return a self-specializing interpreter node that runs
+  //	'this'.  No parameters.
+  public
+  StatementNode	toStatementNode	()
+  {
+    return(new WhileNode(cond_.toExpressionNode(),block_.toStatementNode()));
+  }
+
   //  PURPOSE:  To convert 'this' into PotentialInstruction instances in
-  //	'list' that implement 'this'.  Returns Variable that will have the
-  //	result of 'this' computation, or 'null' if there is no such value.
+  //	'list' that implement 'this'.  The loop is rotated: a guard skips
+  //	it when the condition is false on entry, and the test at the
+  //	bottom of the body goes back to its top, so each iteration takes
+  //	one branch.  Returns 'null'.
   public
   Variable	toAssembly	(List<PotentialInstruction> list)
   {
-   long beginning=PotentialInstruction.getNextAddressLabel();
-   long end=PotentialInstruction.getNextAddressLabel();
-   PotentialInstruction beginningNoOp=new PotentialInstruction(VmOperation.NO_VM_OP);
-   beginningNoOp.setAddressLabel(beginning);
-   list.add(beginningNoOp);
-
-   Variable condV=cond_.toAssembly(list);
-   list.add(new VarAddrPotentialInstruction(VmOperation.IF_FALSE_GOTO_VM_OP,condV,end));
-   block_.toAssembly(list);
-   list.add(new AddrPotentialInstruction(VmOperation.GOTO_VM_OP,beginning));
-   PotentialInstruction endNoOp=new PotentialInstruction(VmOperation.NO_VM_OP);
-   endNoOp.setAddressLabel(end);
-   list.add(endNoOp);
-   return null;
-
+    long			top	= PotentialInstruction
+						.getNextAddressLabel();
+    long			end	= PotentialInstruction
+						.getNextAddressLabel();
+    PotentialInstruction	topNoOp	=
+				new PotentialInstruction(VmOperation.NO_VM_OP);
+    PotentialInstruction	endNoOp	=
+				new PotentialInstruction(VmOperation.NO_VM_OP);
+
+    //  I.  Guard the entry:
+    cond_.toConditionalJump(list,end,false);
+
+    //  II.  Run the body, loop back while the condition holds:
+    topNoOp.setAddressLabel(top);
+    list.add(topNoOp);
+    block_.toAssembly(list);
+    cond_.toConditionalJump(list,top,true);
+
+    endNoOp.setAddressLabel(end);
+    list.add(endNoOp);
+    return(null);
   }
 
   //  PURPOSE:  To return a copy of 'this'.  No parameters.
@@ -308,19 +682,35 @@ class WhileStatement extends Statement
   //  PURPOSE: To hold the address of the body.
   private
   Statement		block_;
+
+  //  PURPOSE: To hold the number of back-edges execute() has taken while
+  //	tiered, up to the compile threshold, where it compiles.
+  private
+  int			backEdgeCount_;
+
+  //  PURPOSE: To hold the closure that execute() runs once 'this' is hot,
+  //	or 'null' before then.
+  private
+  ExecuteClosure	compiled_;
 }
 
 
-//  PURPOSE: To represent a block of statements (e.g., statements inside a {}
-//	or BEGIN...END block).
-class	BlockStatement extends Statement
+//  PURPOSE: To represent a 'repeat-until' loop in the parse tree.  The body
+//	runs once before the condition is first tested.
+class RepeatStatement extends Statement
 {
   //  0.  Constants and hidden classes (if any):
 
   //  I.  Constructor(s) and factory(s):
-  public BlockStatement()
+  //  PURPOSE:  To initialize 'this' to run 'block' until 'cond' holds.  No
+  //	return value.
+  public
+  RepeatStatement		(Statement	block,
+				 Statement	cond
+				)
   {
-    // list_ is initialized as an ArrayList by default
+    block_	= block;
+    cond_	= cond;
   }
 
   //  II. Accessor(s):
@@ -333,11 +723,6 @@ class	BlockStatement extends Statement
   }
 
   //  III. Mutator(s):
-  public
-  void		append		(Statement newInstruct)
-  {
-    list_.add(newInstruct);
-  }
 
   //  IV. Methods that do main and misc. work of class:
   //  PURPOSE:  To compute 'this'.  No parameters.  Returns either the
@@ -346,13 +731,66 @@ class	BlockStatement extends Statement
   public
   Value		compute		()
   {
-    for  (Statement statement : list_)
+    do
     {
-      statement.compute();
+      block_.compute();
     }
+    while  ( !cond_.compute().getBoolean() );
+
     return(null);
   }
 
+  //  PURPOSE:  To run 'this' node for its effect only, reading and writing
+  //	variables in 'frame'.  Once the loop has taken more back-edges than
+  //	the compile threshold it compiles itself, then finishes the current
+  //	run, and all later ones, as closures over the same 'frame'.  No
+  //	return value.
+  public
+  void		execute		(Frame frame)
+  {
+    if  (compiled_ != null)
+    {
+      compiled_.execute(frame);
+      return;
+    }
+
+    do
+    {
+      block_.execute(frame);
+
+      if  (cond_.computeBoolean(frame))
+      {
+	return;
+      }
+    }
+    while  ( !isTiered()  ||  (++backEdgeCount_ < getCompileThreshold()) );
+
+    //  The closure runs the body first, so it resumes right at this
+    //  back-edge:
+    compiled_	= compileExecute();
+    compiled_.execute(frame);
+  }
+
+  //  PURPOSE:  To return a closure that runs 'this' for its effect only.
+  //	No parameters.
+  public
+  ExecuteClosure
+		compileExecute	()
+  {
+    final ExecuteClosure	block	= block_.compileExecute();
+    final BooleanClosure	cond	= cond_.compileBoolean();
+
+    return(frame ->
+	   {
+	     do
+	     {
+	       block.execute(frame);
+	     }
+	     while  (!cond.computeBoolean(frame));
+	   }
+	  );
+  }
+
   //  PURPOSE:  To check that 'this' node is semantically proper. Throws
   //	'RuntimeException' describing problem if one is found. No return
   //	value.
@@ -360,74 +798,624 @@ class	BlockStatement extends Statement
   void		check		()
 				throws RuntimeException
   {
-    for  (Statement statement : list_)
+    block_.check();
+    cond_.check();
+
+    if  (cond_.getType() != Type.BOOLEAN)
     {
-      statement.check();
+      throw new RuntimeException("Repeat-Until requires boolean expression");
     }
   }
 
+  //  PURPOSE:  To return a self-specializing interpreter node that runs
+  //	'this'.  No parameters.
+  public
+  StatementNode	toStatementNode	()
+  {
+    return(new RepeatNode(block_.toStatementNode(),cond_.toExpressionNode()));
+  }
+
   //  PURPOSE:  To convert 'this' into PotentialInstruction instances in
-  //	'list' that implement 'this'.  Returns Variable that will have the
-  //	result of 'this' computation, or 'null' if there is no such value.
+  //	'list' that implement 'this'.  The body is emitted once, followed by
+  //	a test that goes back to its top while the condition is false.
+  //	Returns 'null'.
   public
   Variable	toAssembly	(List<PotentialInstruction> list)
   {
-    for  (Statement statement : list_)
-    {
-      statement.toAssembly(list);
-    }
+    long			top	= PotentialInstruction
+						.getNextAddressLabel();
+    PotentialInstruction	topNoOp	=
+				new PotentialInstruction(VmOperation.NO_VM_OP);
 
+    topNoOp.setAddressLabel(top);
+    list.add(topNoOp);
+    block_.toAssembly(list);
+    cond_.toConditionalJump(list,top,false);
     return(null);
   }
 
-
   //  PURPOSE:  To return a copy of 'this'.  No parameters.
   public
   Statement	copy		()
   {
-    BlockStatement	returnMe	= new BlockStatement();
-
-    for  (Statement statement : list_)
-    {
-      returnMe.append(statement.copy());
-    }
-
-    return(returnMe);
+    return(new RepeatStatement(block_.copy(),cond_.copy()));
   }
 
   //  V. Protected methods:
 
   //  VI. Private member vars:
-  //  PURPOSE: To hold the addresses of the code to run.
-  private List<Statement>	list_ = new ArrayList<>();
-}
+  //  PURPOSE: To hold the address of the body.
+  private
+  Statement		block_;
 
+  //  PURPOSE: To hold the address of the condition.
+  private
+  Statement		cond_;
 
+  //  PURPOSE: To hold the number of back-edges execute() has taken while
+  //	tiered, up to the compile threshold, where it compiles.
+  private
+  int			backEdgeCount_;
 
-//  PURPOSE: To represent a variable reference in the parse tree.
-class VariableStatement extends Statement
+  //  PURPOSE: To hold the closure that execute() runs once 'this' is hot,
+  //	or 'null' before then.
+  private
+  ExecuteClosure	compiled_;
+}
+
+
+//  PURPOSE: To represent a counted 'for' loop in the parse tree.  The bound
+//	is computed once, before the first iteration.
+class ForStatement extends Statement
 {
   //  0.  Constants and hidden classes (if any):
 
   //  I.  Constructor(s) and factory(s):
-  //  PURPOSE:  To initialize 'this'.  No return value.
-  public
-  VariableStatement		(Variable newVar)
+  //  PURPOSE:  To initialize 'this' to count 'var' from 'start' to 'end',
+  //	up or down as 'direction' tells, running 'body' each time.  No
+  //	return value.
+  public
+  ForStatement			(Variable	var,
+				 Statement	start,
+				 Direction	direction,
+				 Statement	end,
+				 Statement	body
+				)
   {
-    variable_ = newVar;
+    if  (direction == Direction.NO)
+    {
+      throw new IllegalArgumentException("For loop must count up or down");
+    }
+
+    var_	= var;
+    start_	= start;
+    direction_	= direction;
+    end_	= end;
+    body_	= body;
   }
 
   //  II. Accessor(s):
-  //  PURPOSE:  To return the type that 'this' node returns, or 'NONE' if
+  //  PURPOSE: To return the type that 'this' node returns, or 'NONE' if
   //	it does not return a value.
   public
   Type		getType		()
   {
-    return(getVariable().getType());
+    return(Type.NONE);
   }
 
-  //  PURPOSE: To return the address of the variable being referenced.
-  public
+  //  III. Mutator(s):
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE:  To compute 'this'.  No parameters.  Returns either the
+  //	address of a heap-allocated Value that tells the computation of
+  //	'this' node, or 'null' if no such value is appropriate.
+  public
+  Value		compute		()
+  {
+    long	step	= (direction_ == Direction.UP) ? 1 : -1;
+    long	bound;
+
+    var_.setValue(start_.compute());
+    bound	= end_.compute().getInteger();
+
+    while  ( isInRange(var_.getInteger(),bound) )
+    {
+      body_.compute();
+      var_.setInteger(var_.getInteger() + step);
+    }
+
+    return(null);
+  }
+
+  //  PURPOSE:  To run 'this' node for its effect only, reading and writing
+  //	variables in 'frame'.  Like WhileStatement, it compiles itself once
+  //	hot and finishes the current run as a closure.  No return value.
+  public
+  void		execute		(Frame frame)
+  {
+    final int	slot	= var_.getSlot();
+    final long	step	= (direction_ == Direction.UP) ? 1 : -1;
+    long	bound;
+
+    frame.setInteger(slot,start_.computeInteger(frame));
+    bound	= end_.computeInteger(frame);
+
+    if  (compiledLoop_ != null)
+    {
+      compiledLoop_.execute(frame,bound);
+      return;
+    }
+
+    while  ( isInRange(frame.getInteger(slot),bound) )
+    {
+      body_.execute(frame);
+      frame.setInteger(slot,frame.getInteger(slot) + step);
+
+      if  ( isTiered()  &&  (++backEdgeCount_ >= getCompileThreshold()) )
+      {
+	compiledLoop_	= compileLoop();
+	compiledLoop_.execute(frame,bound);
+	return;
+      }
+    }
+  }
+
+  //  PURPOSE:  To return a closure that runs 'this' for its effect only.
+  //	No parameters.
+  public
+  ExecuteClosure
+		compileExecute	()
+  {
+    final int			slot	= var_.getSlot();
+    final IntegerClosure	start	= start_.compileInteger();
+    final IntegerClosure	end	= end_.compileInteger();
+    final CountedLoopClosure	loop	= compileLoop();
+
+    return(frame ->
+	   {
+	     frame.setInteger(slot,start.computeInteger(frame));
+	     loop.execute(frame,end.computeInteger(frame));
+	   }
+	  );
+  }
+
+  //  PURPOSE:  To check that 'this' node is semantically proper. Throws
+  //	'RuntimeException' describing problem if one is found. No return
+  //	value.
+  public
+  void		check		()
+				throws RuntimeException
+  {
+    start_.check();
+    end_.check();
+    body_.check();
+
+    if  ( (var_.getType()   != Type.INTEGER)	||
+	  (start_.getType() != Type.INTEGER)	||
+	  (end_.getType()   != Type.INTEGER)
+	)
+    {
+      throw new RuntimeException
+		("For loop variable and bounds must be integers");
+    }
+  }
+
+  //  PURPOSE:  To return a self-specializing interpreter node that runs
+  //	'this'.  No parameters.
+  public
+  StatementNode	toStatementNode	()
+  {
+    return(new ForNode(var_.getSlot(),
+		       start_.toExpressionNode(),
+		       direction_ == Direction.UP,
+		       end_.toExpressionNode(),
+		       body_.toStatementNode()
+		      )
+	  );
+  }
+
+  //  PURPOSE:  To convert 'this' into PotentialInstruction instances in
+  //	'list' that implement 'this'.  A constant bound is carried inline,
+  //	any other is copied into its own temporary once.  The loop is
+  //	entered through a single guard and closed by an increment-immediate
+  //	and a fused compare-and-branch.  Returns 'null'.
+  public
+  Variable	toAssembly	(List<PotentialInstruction> list)
+  {
+    boolean	isUp		= (direction_ == Direction.UP);
+    long	top		= PotentialInstruction.getNextAddressLabel();
+    long	exit		= PotentialInstruction.getNextAddressLabel();
+    Value	constBound	= (end_ instanceof ConstantStatement)
+				  ? ((ConstantStatement)end_).getValue()
+				  : null;
+    Variable	bound		= null;
+
+    //  I.  Set the variable, fix the bound:
+    list.add(new VarVarPotentialInstruction
+			(VmOperation.INT_COPY_VM_OP,var_,start_.toAssembly(list))
+	    );
+
+    if  (constBound == null)
+    {
+      bound	= VarStore.get().obtainTempVar(Type.INTEGER);
+      list.add(new VarVarPotentialInstruction
+			(VmOperation.INT_COPY_VM_OP,bound,end_.toAssembly(list))
+	      );
+    }
+
+    //  II.  Skip the loop if it runs no times:
+    list.add(boundJump(isUp ? Operation.GREATER : Operation.LESSER,
+		       bound,
+		       constBound,
+		       exit
+		      )
+	    );
+
+    //  III.  Run the body, step, loop back while in range:
+    PotentialInstruction	topNoOp	=
+				new PotentialInstruction(VmOperation.NO_VM_OP);
+
+    topNoOp.setAddressLabel(top);
+    list.add(topNoOp);
+    body_.toAssembly(list);
+    list.add(new VarVarImmPotentialInstruction
+			(isUp	? VmOperation.INT_ADD_IMM_VM_OP
+				: VmOperation.INT_SUB_IMM_VM_OP,
+			 var_,
+			 var_,
+			 new IntegerValue(1L)
+			)
+	    );
+    list.add(boundJump(isUp ? Operation.LESSER_EQUALS : Operation.GREATER_EQUALS,
+		       bound,
+		       constBound,
+		       top
+		      )
+	    );
+
+    PotentialInstruction	exitNoOp	=
+				new PotentialInstruction(VmOperation.NO_VM_OP);
+
+    exitNoOp.setAddressLabel(exit);
+    list.add(exitNoOp);
+    return(null);
+  }
+
+  //  PURPOSE:  To return a copy of 'this'.  No parameters.
+  public
+  Statement	copy		()
+  {
+    return(new ForStatement(var_,start_.copy(),direction_,end_.copy(),
+			    body_.copy()
+			   )
+	  );
+  }
+
+  //  V. Protected methods:
+  //  PURPOSE:  To return the instruction that goes to 'label' if the loop
+  //	variable compares with the bound as 'relation' says.  The bound is
+  //	'bound', or the inline 'constBound' if 'bound' is 'null'.
+  protected
+  PotentialInstruction
+		boundJump	(Operation	relation,
+				 Variable	bound,
+				 Value		constBound,
+				 long		label
+				)
+  {
+    if  (bound == null)
+    {
+      return(new VarImmAddrPotentialInstruction
+			(BinaryOpStatement.immediateBranchOp(relation),
+			 var_,
+			 constBound,
+			 label
+			)
+	    );
+    }
+
+    return(new VarVarAddrPotentialInstruction
+			(BinaryOpStatement.fusedOp(relation,Type.INTEGER),
+			 var_,
+			 bound,
+			 label
+			)
+	  );
+  }
+
+  //  PURPOSE:  To return 'true' if the loop should run again when its
+  //	variable is 'value' and its bound is 'bound', or 'false' otherwise.
+  protected
+  boolean	isInRange	(long	value,
+				 long	bound
+				)
+  {
+    return( (direction_ == Direction.UP) ? (value <= bound) : (value >= bound) );
+  }
+
+  //  PURPOSE:  To return a closure that runs the loop from the current
+  //	value of its variable up or down to a given bound.  No parameters.
+  protected
+  CountedLoopClosure
+		compileLoop	()
+  {
+    final int			slot	= var_.getSlot();
+    final ExecuteClosure	body	= body_.compileExecute();
+
+    if  (direction_ == Direction.UP)
+    {
+      return((frame,bound) ->
+	     {
+	       while  (frame.getInteger(slot) <= bound)
+	       {
+		 body.execute(frame);
+		 frame.setInteger(slot,frame.getInteger(slot) + 1);
+	       }
+	     }
+	    );
+    }
+
+    return((frame,bound) ->
+	   {
+	     while  (frame.getInteger(slot) >= bound)
+	     {
+	       body.execute(frame);
+	       frame.setInteger(slot,frame.getInteger(slot) - 1);
+	     }
+	   }
+	  );
+  }
+
+  //  VI. Private member vars:
+  //  PURPOSE: To hold the address of the loop variable.
+  private
+  Variable		var_;
+
+  //  PURPOSE: To hold the address of the first value.
+  private
+  Statement		start_;
+
+  //  PURPOSE: To tell whether the variable counts up or down.
+  private
+  Direction		direction_;
+
+  //  PURPOSE: To hold the address of the last value.
+  private
+  Statement		end_;
+
+  //  PURPOSE: To hold the address of the body.
+  private
+  Statement		body_;
+
+  //  PURPOSE: To hold the number of back-edges execute() has taken while
+  //	tiered, up to the compile threshold, where it compiles.
+  private
+  int			backEdgeCount_;
+
+  //  PURPOSE: To hold the closure that execute() runs once 'this' is hot,
+  //	or 'null' before then.
+  private
+  CountedLoopClosure	compiledLoop_;
+}
+
+
+//  PURPOSE: To represent a block of statements (e.g., statements inside a {}
+//	or BEGIN...END block).
+class	BlockStatement extends Statement
+{
+  //  0.  Constants and hidden classes (if any):
+
+  //  I.  Constructor(s) and factory(s):
+  public BlockStatement()
+  {
+    // list_ is initialized as an ArrayList by default
+  }
+
+  //  II. Accessor(s):
+  //  PURPOSE: To return the type that 'this' node returns, or 'NONE' if
+  //	it does not return a value.
+  public
+  Type		getType		()
+  {
+    return(Type.NONE);
+  }
+
+  //  PURPOSE: To return the assignment that is all 'this' does, or 'null'
+  //	if 'this' is not a lone assignment.
+  public
+  AssignStatement
+		getSingleAssign	()
+  {
+    return( (list_.size() == 1) ? list_.get(0).getSingleAssign() : null );
+  }
+
+  //  III. Mutator(s):
+  public
+  void		append		(Statement newInstruct)
+  {
+    list_.add(newInstruct);
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE:  To compute 'this'.  No parameters.  Returns either the
+  //	address of a heap-allocated Value that tells the computation of
+  //	'this' node, or 'null' if no such value is appropriate.
+  public
+  Value		compute		()
+  {
+    for  (Statement statement : list_)
+    {
+      statement.compute();
+    }
+    return(null);
+  }
+
+  //  PURPOSE:  To run 'this' node for its effect only, reading and writing
+  //	variables in 'frame'.  No return value.
+  public
+  void		execute		(Frame frame)
+  {
+    //  Indexed, so that no Iterator is allocated per execution:
+    for  (int index = 0;  index < list_.size();  index++)
+    {
+      list_.get(index).execute(frame);
+    }
+  }
+
+  //  PURPOSE:  To return a closure that runs 'this' for its effect only.
+  //	Short blocks are unrolled.  No parameters.
+  public
+  ExecuteClosure
+		compileExecute	()
+  {
+    final ExecuteClosure[]	closureArray	=
+					new ExecuteClosure[list_.size()];
+
+    for  (int index = 0;  index < closureArray.length;  index++)
+    {
+      closureArray[index]	= list_.get(index).compileExecute();
+    }
+
+    switch  (closureArray.length)
+    {
+    case 0 :
+      return(frame -> { });
+
+    case 1 :
+      return(closureArray[0]);
+
+    case 2 :
+      {
+	final ExecuteClosure	first	= closureArray[0];
+	final ExecuteClosure	second	= closureArray[1];
+
+	return(frame -> { first.execute(frame); second.execute(frame); });
+      }
+
+    case 3 :
+      {
+	final ExecuteClosure	first	= closureArray[0];
+	final ExecuteClosure	second	= closureArray[1];
+	final ExecuteClosure	third	= closureArray[2];
+
+	return(frame ->
+	       {
+		 first.execute(frame);
+		 second.execute(frame);
+		 third.execute(frame);
+	       }
+	      );
+      }
+
+    default :
+      return(frame ->
+	     {
+	       for  (ExecuteClosure closure : closureArray)
+		 closure.execute(frame);
+	     }
+	    );
+    }
+  }
+
+  //  PURPOSE:  To check that 'this' node is semantically proper. Throws
+  //	'RuntimeException' describing problem if one is found. No return
+  //	value.
+  public
+  void		check		()
+				throws RuntimeException
+  {
+    for  (Statement statement : list_)
+    {
+      statement.check();
+    }
+  }
+
+  //  PURPOSE:  To return a self-specializing interpreter node that runs
+  //	'this'.  No parameters.
+  public
+  StatementNode	toStatementNode	()
+  {
+    StatementNode[]	nodeArray	= new StatementNode[list_.size()];
+
+    for  (int index = 0;  index < nodeArray.length;  index++)
+    {
+      nodeArray[index]	= list_.get(index).toStatementNode();
+    }
+
+    return(new BlockNode(nodeArray));
+  }
+
+  //  PURPOSE:  To convert 'this' into PotentialInstruction instances in
+  //	'list' that implement 'this'.  Returns Variable that will have the
+  //	result of 'this' computation, or 'null' if there is no such value.
+  public
+  Variable	toAssembly	(List<PotentialInstruction> list)
+  {
+    for  (Statement statement : list_)
+    {
+      statement.toAssembly(list);
+    }
+
+    return(null);
+  }
+
+
+  //  PURPOSE:  To return a copy of 'this'.  No parameters.
+  public
+  Statement	copy		()
+  {
+    BlockStatement	returnMe	= new BlockStatement();
+
+    for  (Statement statement : list_)
+    {
+      returnMe.append(statement.copy());
+    }
+
+    return(returnMe);
+  }
+
+  //  V. Protected methods:
+
+  //  VI. Private member vars:
+  //  PURPOSE: To hold the addresses of the code to run.
+  private List<Statement>	list_ = new ArrayList<>();
+}
+
+
+
+//  PURPOSE: To represent a variable reference in the parse tree.
+class VariableStatement extends Statement
+{
+  //  0.  Constants and hidden classes (if any):
+
+  //  I.  Constructor(s) and factory(s):
+  //  PURPOSE:  To initialize 'this'.  No return value.
+  public
+  VariableStatement		(Variable newVar)
+  {
+    variable_ = newVar;
+    slot_     = newVar.getSlot();
+  }
+
+  //  II. Accessor(s):
+  //  PURPOSE:  To return the type that 'this' node returns, or 'NONE' if
+  //	it does not return a value.
+  public
+  Type		getType		()
+  {
+    return(getVariable().getType());
+  }
+
+  //  PURPOSE: To return 'true', as reading a variable changes nothing and
+  //	cannot fail.
+  public
+  boolean	isSpeculatable	()
+  {
+    return(true);
+  }
+
+  //  PURPOSE: To return the address of the variable being referenced.
+  public
   Variable	getVariable	()
   {
     return(variable_);
@@ -458,6 +1446,104 @@ class VariableStatement extends Statement
     return(getVariable().getValue().copy());
   }
 
+  //  PURPOSE:  To compute 'this' as an integer without allocating a Value,
+  //	reading variables from 'frame'.  Returns the integer.
+  public
+  long		computeInteger	(Frame frame)
+  {
+    return(frame.getInteger(slot_));
+  }
+
+  //  PURPOSE:  To compute 'this' as a real without allocating a Value,
+  //	reading variables from 'frame'.  Integer-typed nodes are converted.
+  //	Returns the real.
+  public
+  double	computeReal	(Frame frame)
+  {
+    return( (variable_.getType() == Type.INTEGER)
+	    ? (double)frame.getInteger(slot_)
+	    : frame.getReal(slot_)
+	  );
+  }
+
+  //  PURPOSE:  To compute 'this' as a boolean without allocating a Value,
+  //	reading variables from 'frame'.  Returns the boolean.
+  public
+  boolean	computeBoolean	(Frame frame)
+  {
+    return(frame.getBoolean(slot_));
+  }
+
+  //  PURPOSE:  To compute 'this' as a string, reading variables from
+  //	'frame'.  Returns the string.
+  public
+  String	computeString	(Frame frame)
+  {
+    return(frame.getString(slot_));
+  }
+
+  //  PURPOSE:  To return a closure that computes 'this' as an integer.  No
+  //	parameters.
+  public
+  IntegerClosure
+		compileInteger	()
+  {
+    final int	slot	= slot_;
+
+    return(frame -> frame.getInteger(slot));
+  }
+
+  //  PURPOSE:  To return a closure that computes 'this' as a real, with
+  //	integer-typed variables converted.  No parameters.
+  public
+  RealClosure	compileReal	()
+  {
+    final int	slot	= slot_;
+
+    if  (variable_.getType() == Type.INTEGER)
+    {
+      return(frame -> (double)frame.getInteger(slot));
+    }
+
+    return(frame -> frame.getReal(slot));
+  }
+
+  //  PURPOSE:  To return a closure that computes 'this' as a boolean.  No
+  //	parameters.
+  public
+  BooleanClosure
+		compileBoolean	()
+  {
+    final int	slot	= slot_;
+
+    return(frame -> frame.getBoolean(slot));
+  }
+
+  //  PURPOSE:  To return a closure that computes 'this' as a string.  No
+  //	parameters.
+  public
+  StringClosure	compileString	()
+  {
+    final int	slot	= slot_;
+
+    return(frame -> frame.getString(slot));
+  }
+
+  //  PURPOSE:  To return a self-specializing interpreter node that computes
+  //	'this'.  No parameters.
+  public
+  ExpressionNode
+		toExpressionNode()
+  {
+    switch  (variable_.getType())
+    {
+    case BOOLEAN :	return(new BooleanReadNode(slot_));
+    case INTEGER :	return(new IntegerReadNode(slot_));
+    case REAL :		return(new RealReadNode(slot_));
+    default :		return(new StringReadNode(slot_));
+    }
+  }
+
   //  PURPOSE:  To convert 'this' into PotentialInstruction instances in
   //	'list' that implement 'this'.  Returns Variable that will have the
   //	result of 'this' computation, or 'null' if there is no such value.
@@ -480,6 +1566,11 @@ class VariableStatement extends Statement
   //  PURPOSE: To hold the address of the variable being referenced.
   private
   Variable			variable_;
+
+  //  PURPOSE: To hold the Frame slot of 'variable_', fixed when it was
+  //	declared.
+  private final
+  int				slot_;
 }
 
 //  PURPOSE: To represent an assignment statement (e.g., `var := expr`).
@@ -506,6 +1597,28 @@ class AssignStatement extends Statement
     return(Type.NONE);
   }
 
+  //  PURPOSE: To return the variable assigned to.
+  public
+  Variable	getVariable	()
+  {
+    return(var_);
+  }
+
+  //  PURPOSE: To return the expression whose value is assigned.
+  public
+  Statement	getExpr		()
+  {
+    return(expr_);
+  }
+
+  //  PURPOSE: To return 'this', which is a lone assignment.
+  public
+  AssignStatement
+		getSingleAssign	()
+  {
+    return(this);
+  }
+
   //  III. Mutator(s):
 
   //  IV. Methods that do main and misc. work of class:
@@ -519,6 +1632,77 @@ class AssignStatement extends Statement
     return(null);
   }
 
+  //  PURPOSE:  To run 'this' node for its effect only, reading and writing
+  //	variables in 'frame'.  No return value.
+  public
+  void		execute		(Frame frame)
+  {
+    switch  (var_.getType())
+    {
+    case BOOLEAN :
+      frame.setBoolean(var_.getSlot(),expr_.computeBoolean(frame));
+      break;
+
+    case INTEGER :
+      frame.setInteger(var_.getSlot(),expr_.computeInteger(frame));
+      break;
+
+    case REAL :
+      frame.setReal(var_.getSlot(),expr_.computeReal(frame));
+      break;
+
+    case STRING :
+      frame.setString(var_.getSlot(),expr_.computeString(frame));
+      break;
+
+    default :
+      throw new IllegalArgumentException("Invalid assignment types");
+    }
+  }
+
+  //  PURPOSE:  To return a closure that runs 'this' for its effect only.
+  //	No parameters.
+  public
+  ExecuteClosure
+		compileExecute	()
+  {
+    final int	slot	= var_.getSlot();
+
+    switch  (var_.getType())
+    {
+    case BOOLEAN :
+      {
+	final BooleanClosure	expr	= expr_.compileBoolean();
+
+	return(frame -> frame.setBoolean(slot,expr.computeBoolean(frame)));
+      }
+
+    case INTEGER :
+      {
+	final IntegerClosure	expr	= expr_.compileInteger();
+
+	return(frame -> frame.setInteger(slot,expr.computeInteger(frame)));
+      }
+
+    case REAL :
+      {
+	final RealClosure	expr	= expr_.compileReal();
+
+	return(frame -> frame.setReal(slot,expr.computeReal(frame)));
+      }
+
+    case STRING :
+      {
+	final StringClosure	expr	= expr_.compileString();
+
+	return(frame -> frame.setString(slot,expr.computeString(frame)));
+      }
+
+    default :
+      throw new IllegalArgumentException("Invalid assignment types");
+    }
+  }
+
   //  PURPOSE:  To check that 'this' node is semantically proper. Throws
   //	'RuntimeException' describing problem if one is found. No return
   //	value.
@@ -538,6 +1722,18 @@ class AssignStatement extends Statement
     throw new RuntimeException("Invalid assignment types");
   }
 
+  //  PURPOSE:  To return a self-specializing interpreter node that runs
+  //	'this'.  No parameters.
+  public
+  StatementNode	toStatementNode	()
+  {
+    return(AssignNode.create(var_.getType(),
+			     var_.getSlot(),
+			     expr_.toExpressionNode()
+			    )
+	  );
+  }
+
   //  PURPOSE:  To convert 'this' into PotentialInstruction instances in
   //	'list' that implement 'this'.  Returns Variable that will have the
   //	result of 'this' computation, or 'null' if there is no such value.
@@ -567,6 +1763,27 @@ class AssignStatement extends Statement
     return null;
   }
 
+  //  PURPOSE:  To convert the expression of 'this', but not the assignment
+  //	itself, into PotentialInstruction instances in 'list'.  Returns the
+  //	Variable holding the value to assign, of the type of 'var_'.
+  public
+  Variable	toSourceAssembly(List<PotentialInstruction> list)
+  {
+    Variable	rightSideV	= expr_.toAssembly(list);
+
+    if  (rightSideV.getType() == var_.getType())
+    {
+      return(rightSideV);
+    }
+
+    Variable	realV		= VarStore.get().obtainTempVar(Type.REAL);
+
+    list.add(new VarVarPotentialInstruction
+			(VmOperation.INT_TO_REAL_VM_OP,realV,rightSideV)
+	    );
+    return(realV);
+  }
+
   //  PURPOSE:  To return a copy of 'this'.  No parameters.
   public
   Statement	copy		()
@@ -632,6 +1849,13 @@ class UnaryOpStatement extends Statement
     return(operand_);
   }
 
+  //  PURPOSE: To return 'true' if the operand may be computed early.
+  public
+  boolean	isSpeculatable	()
+  {
+    return(getOperand().isSpeculatable());
+  }
+
   //  III. Mutator(s):
 
   //  IV. Methods that do main and misc. work of class:
@@ -663,6 +1887,39 @@ class UnaryOpStatement extends Statement
     return(returnMe);
   }
 
+  //  PURPOSE:  To compute 'this' as a boolean without allocating a Value,
+  //	reading variables from 'frame'.  Returns the boolean.
+  public
+  boolean	computeBoolean	(Frame frame)
+  {
+    switch  (getOperation())
+    {
+    case NOT :
+      return(!getOperand().computeBoolean(frame));
+
+    default :
+      throw new IllegalArgumentException("Type mismatch in comparison");
+    }
+  }
+
+  //  PURPOSE:  To return a closure that computes 'this' as a boolean.  No
+  //	parameters.
+  public
+  BooleanClosure
+		compileBoolean	()
+  {
+    final BooleanClosure	operand	= getOperand().compileBoolean();
+
+    switch  (getOperation())
+    {
+    case NOT :
+      return(frame -> !operand.computeBoolean(frame));
+
+    default :
+      throw new IllegalArgumentException("Type mismatch in comparison");
+    }
+  }
+
   //  PURPOSE:  To check that 'this' node is semantically proper. Throws
   //	'RuntimeException' describing problem if one is found. No return
   //	value.
@@ -683,6 +1940,22 @@ class UnaryOpStatement extends Statement
     }
   }
 
+  //  PURPOSE:  To return a self-specializing interpreter node that computes
+  //	'this'.  No parameters.
+  public
+  ExpressionNode
+		toExpressionNode()
+  {
+    switch  (getOperation())
+    {
+    case NOT :
+      return(new LogicNotNode(getOperand().toExpressionNode()));
+
+    default :
+      throw new IllegalArgumentException("Type mismatch in comparison");
+    }
+  }
+
   //  PURPOSE:  To convert 'this' into PotentialInstruction instances in
   //	'list' that implement 'this'.  Returns Variable that will have the
   //	result of 'this' computation, or 'null' if there is no such value.
@@ -708,6 +1981,26 @@ class UnaryOpStatement extends Statement
     return(result);
   }
 
+  //  PURPOSE:  To convert boolean node 'this' into PotentialInstruction
+  //	instances in 'list' that go to 'label' if 'this' computes
+  //	'jumpIfTrue', and fall through otherwise.  NOT just flips the sense
+  //	of its operand's jump.  No return value.
+  public
+  void		toConditionalJump
+				(List<PotentialInstruction>	list,
+				 long				label,
+				 boolean			jumpIfTrue
+				)
+  {
+    if  (getOperation() == Operation.NOT)
+    {
+      getOperand().toConditionalJump(list,label,!jumpIfTrue);
+      return;
+    }
+
+    super.toConditionalJump(list,label,jumpIfTrue);
+  }
+
   //  PURPOSE:  To return a copy of 'this'.  No parameters.
   public
   Statement	copy		()
@@ -744,6 +2037,8 @@ class BinaryOpStatement extends Statement
     lhs_	= lhs;
     operation_	= newOperation;
     rhs_	= rhs;
+    resultType_	= getType();
+    operandType_= computeOperandType();
   }
 
   //  II. Accessor(s):
@@ -809,6 +2104,27 @@ class BinaryOpStatement extends Statement
     return(rhs_);
   }
 
+  //  PURPOSE: To return 'true' if both operands may be computed early and
+  //	the operation cannot fail.  Integer division and modulus trap on a
+  //	zero divisor, so they are never computed early.
+  public
+  boolean	isSpeculatable	()
+  {
+    return( (getOperation() != Operation.DIV)	&&
+	    (getOperation() != Operation.MOD)	&&
+	    getLeft().isSpeculatable()		&&
+	    getRight().isSpeculatable()
+	  );
+  }
+
+  //  PURPOSE:  To return the type both operands are brought to before the
+  //	operation is applied, or 'NONE' if they are incompatible.
+  public
+  Type		getOperandType	()
+  {
+    return(operandType_);
+  }
+
   //  III. Mutator(s):
 
   //  IV. Methods that do main and misc. work of class:
@@ -817,6 +2133,14 @@ class BinaryOpStatement extends Statement
   Value		compute		()
   {
     Value	leftValue	= getLeft().compute();
+
+    if  ( (leftValue.getType() == Type.BOOLEAN)  &&
+	  isDecidedBy(getOperation(),leftValue.getBoolean())
+	)
+    {
+      return(leftValue);
+    }
+
     Value	rightValue	= getRight().compute();
     Value	returnMe	= null;
 
@@ -1012,6 +2336,451 @@ class BinaryOpStatement extends Statement
   }
 
 
+  //  PURPOSE:  To compute 'this' as an integer without allocating a Value,
+  //	reading variables from 'frame'.  Returns the integer.
+  public
+  long		computeInteger	(Frame frame)
+  {
+    switch  (getOperation())
+    {
+    case PLUS :
+      return(lhs_.computeInteger(frame) + rhs_.computeInteger(frame));
+    case MINUS :
+      return(lhs_.computeInteger(frame) - rhs_.computeInteger(frame));
+    case STAR :
+      return(lhs_.computeInteger(frame) * rhs_.computeInteger(frame));
+    case DIV :
+      return(lhs_.computeInteger(frame) / rhs_.computeInteger(frame));
+    case MOD :
+      return(lhs_.computeInteger(frame) % rhs_.computeInteger(frame));
+    default :
+      throw new IllegalArgumentException
+			("Non-integer operation in "	+
+			 "BinaryOpStatement.computeInteger()"
+			);
+    }
+  }
+
+
+  //  PURPOSE:  To compute 'this' as a real without allocating a Value,
+  //	reading variables from 'frame'.  Integer-typed nodes are converted.
+  //	Returns the real.
+  public
+  double	computeReal	(Frame frame)
+  {
+    if  (resultType_ == Type.INTEGER)
+    {
+      return((double)computeInteger(frame));
+    }
+
+    switch  (getOperation())
+    {
+    case PLUS :
+      return(lhs_.computeReal(frame) + rhs_.computeReal(frame));
+    case MINUS :
+      return(lhs_.computeReal(frame) - rhs_.computeReal(frame));
+    case STAR :
+      return(lhs_.computeReal(frame) * rhs_.computeReal(frame));
+    case SLASH :
+      return(lhs_.computeReal(frame) / rhs_.computeReal(frame));
+    default :
+      throw new IllegalArgumentException
+			("Non-real operation in "	+
+			 "BinaryOpStatement.computeReal()"
+			);
+    }
+  }
+
+
+  //  PURPOSE:  To compute 'this' as a boolean without allocating a Value,
+  //	reading variables from 'frame'.  Returns the boolean.
+  public
+  boolean	computeBoolean	(Frame frame)
+  {
+    switch  (getOperation())
+    {
+    case AND :
+      {
+	boolean	lhs	= lhs_.computeBoolean(frame);
+
+	if  (isDecidedBy(Operation.AND,lhs))
+	{
+	  return(lhs);
+	}
+
+	boolean	rhs	= rhs_.computeBoolean(frame);
+
+	return(lhs && rhs);
+      }
+
+    case OR :
+      {
+	boolean	lhs	= lhs_.computeBoolean(frame);
+
+	if  (isDecidedBy(Operation.OR,lhs))
+	{
+	  return(lhs);
+	}
+
+	boolean	rhs	= rhs_.computeBoolean(frame);
+
+	return(lhs || rhs);
+      }
+
+    default :
+      break;
+    }
+
+    switch  (operandType_)
+    {
+    case INTEGER :
+      {
+	long	lhs	= lhs_.computeInteger(frame);
+	long	rhs	= rhs_.computeInteger(frame);
+
+	switch  (getOperation())
+	{
+	case EQUALS:		return(lhs == rhs);
+	case NOT_EQUALS:	return(lhs != rhs);
+	case LESSER:		return(lhs <  rhs);
+	case LESSER_EQUALS:	return(lhs <= rhs);
+	case GREATER:		return(lhs >  rhs);
+	case GREATER_EQUALS:	return(lhs >= rhs);
+	default:		break;
+	}
+      }
+      break;
+
+    case REAL :
+      {
+	double	lhs	= lhs_.computeReal(frame);
+	double	rhs	= rhs_.computeReal(frame);
+
+	switch  (getOperation())
+	{
+	case EQUALS:		return(lhs == rhs);
+	case NOT_EQUALS:	return(lhs != rhs);
+	case LESSER:		return(lhs <  rhs);
+	case LESSER_EQUALS:	return(lhs <= rhs);
+	case GREATER:		return(lhs >  rhs);
+	case GREATER_EQUALS:	return(lhs >= rhs);
+	default:		break;
+	}
+      }
+      break;
+
+    case BOOLEAN :
+      {
+	boolean	lhs	= lhs_.computeBoolean(frame);
+	boolean	rhs	= rhs_.computeBoolean(frame);
+
+	switch  (getOperation())
+	{
+	case EQUALS:		return(lhs == rhs);
+	case NOT_EQUALS:	return(lhs != rhs);
+	default:
+	  throw new IllegalArgumentException
+			("Non-boolean comparison on boolean types");
+	}
+      }
+
+    case STRING :
+      {
+	int	cmp	= lhs_.computeString(frame).compareTo(rhs_.computeString(frame));
+
+	switch  (getOperation())
+	{
+	case EQUALS:		return(cmp == 0);
+	case NOT_EQUALS:	return(cmp != 0);
+	case LESSER:		return(cmp <  0);
+	case LESSER_EQUALS:	return(cmp <= 0);
+	case GREATER:		return(cmp >  0);
+	case GREATER_EQUALS:	return(cmp >= 0);
+	default:		break;
+	}
+      }
+      break;
+
+    default :
+      break;
+    }
+
+    throw new IllegalArgumentException
+			("Non-boolean operation in "	+
+			 "BinaryOpStatement.computeBoolean()"
+			);
+  }
+
+
+  //  PURPOSE:  To return a closure that computes 'this' as an integer.  The
+  //	operation is chosen here, once, and a constant right-hand side is
+  //	folded into the closure.  No parameters.
+  public
+  IntegerClosure
+		compileInteger	()
+  {
+    final IntegerClosure	lhs	= lhs_.compileInteger();
+
+    if  (rhs_ instanceof ConstantStatement)
+    {
+      final long	rhs	= rhs_.computeInteger(null);
+
+      switch  (getOperation())
+      {
+      case PLUS :	return(frame -> lhs.computeInteger(frame) + rhs);
+      case MINUS :	return(frame -> lhs.computeInteger(frame) - rhs);
+      case STAR :	return(frame -> lhs.computeInteger(frame) * rhs);
+      case DIV :	return(frame -> lhs.computeInteger(frame) / rhs);
+      case MOD :	return(frame -> lhs.computeInteger(frame) % rhs);
+      default :		break;
+      }
+    }
+    else
+    {
+      final IntegerClosure	rhs	= rhs_.compileInteger();
+
+      switch  (getOperation())
+      {
+      case PLUS :
+	return(frame -> lhs.computeInteger(frame) + rhs.computeInteger(frame));
+      case MINUS :
+	return(frame -> lhs.computeInteger(frame) - rhs.computeInteger(frame));
+      case STAR :
+	return(frame -> lhs.computeInteger(frame) * rhs.computeInteger(frame));
+      case DIV :
+	return(frame -> lhs.computeInteger(frame) / rhs.computeInteger(frame));
+      case MOD :
+	return(frame -> lhs.computeInteger(frame) % rhs.computeInteger(frame));
+      default :
+	break;
+      }
+    }
+
+    throw new IllegalArgumentException
+			("Non-integer operation in "	+
+			 "BinaryOpStatement.compileInteger()"
+			);
+  }
+
+
+  //  PURPOSE:  To return a closure that computes 'this' as a real, with an
+  //	integer result converted.  No parameters.
+  public
+  RealClosure	compileReal	()
+  {
+    if  (resultType_ == Type.INTEGER)
+    {
+      final IntegerClosure	integer	= compileInteger();
+
+      return(frame -> (double)integer.computeInteger(frame));
+    }
+
+    final RealClosure	lhs	= lhs_.compileReal();
+    final RealClosure	rhs	= rhs_.compileReal();
+
+    switch  (getOperation())
+    {
+    case PLUS :
+      return(frame -> lhs.computeReal(frame) + rhs.computeReal(frame));
+    case MINUS :
+      return(frame -> lhs.computeReal(frame) - rhs.computeReal(frame));
+    case STAR :
+      return(frame -> lhs.computeReal(frame) * rhs.computeReal(frame));
+    case SLASH :
+      return(frame -> lhs.computeReal(frame) / rhs.computeReal(frame));
+    default :
+      throw new IllegalArgumentException
+			("Non-real operation in "	+
+			 "BinaryOpStatement.compileReal()"
+			);
+    }
+  }
+
+
+  //  PURPOSE:  To return a closure that computes 'this' as a boolean.  The
+  //	operation and operand type are chosen here, once.  No parameters.
+  public
+  BooleanClosure
+		compileBoolean	()
+  {
+    switch  (getOperation())
+    {
+    case AND :
+    case OR :
+      {
+	final BooleanClosure	lhs	= lhs_.compileBoolean();
+	final BooleanClosure	rhs	= rhs_.compileBoolean();
+
+	if  (isShortCircuit())
+	{
+	  if  (getOperation() == Operation.AND)
+	  {
+	    return(frame -> lhs.computeBoolean(frame)
+			    && rhs.computeBoolean(frame)
+		  );
+	  }
+
+	  return(frame -> lhs.computeBoolean(frame)
+			  || rhs.computeBoolean(frame)
+		);
+	}
+
+	if  (getOperation() == Operation.AND)
+	{
+	  return(frame ->
+		 {
+		   boolean	left	= lhs.computeBoolean(frame);
+		   boolean	right	= rhs.computeBoolean(frame);
+
+		   return(left && right);
+		 }
+		);
+	}
+
+	return(frame ->
+	       {
+		 boolean	left	= lhs.computeBoolean(frame);
+		 boolean	right	= rhs.computeBoolean(frame);
+
+		 return(left || right);
+	       }
+	      );
+      }
+
+    default :
+      break;
+    }
+
+    switch  (operandType_)
+    {
+    case INTEGER :
+      {
+	final IntegerClosure	lhs	= lhs_.compileInteger();
+
+	if  (rhs_ instanceof ConstantStatement)
+	{
+	  final long	rhs	= rhs_.computeInteger(null);
+
+	  switch  (getOperation())
+	  {
+	  case EQUALS:	       return(frame -> lhs.computeInteger(frame) == rhs);
+	  case NOT_EQUALS:     return(frame -> lhs.computeInteger(frame) != rhs);
+	  case LESSER:	       return(frame -> lhs.computeInteger(frame) <  rhs);
+	  case LESSER_EQUALS:  return(frame -> lhs.computeInteger(frame) <= rhs);
+	  case GREATER:	       return(frame -> lhs.computeInteger(frame) >  rhs);
+	  case GREATER_EQUALS: return(frame -> lhs.computeInteger(frame) >= rhs);
+	  default:	       break;
+	  }
+	}
+	else
+	{
+	  final IntegerClosure	rhs	= rhs_.compileInteger();
+
+	  switch  (getOperation())
+	  {
+	  case EQUALS:
+	    return(frame -> lhs.computeInteger(frame) == rhs.computeInteger(frame));
+	  case NOT_EQUALS:
+	    return(frame -> lhs.computeInteger(frame) != rhs.computeInteger(frame));
+	  case LESSER:
+	    return(frame -> lhs.computeInteger(frame) <  rhs.computeInteger(frame));
+	  case LESSER_EQUALS:
+	    return(frame -> lhs.computeInteger(frame) <= rhs.computeInteger(frame));
+	  case GREATER:
+	    return(frame -> lhs.computeInteger(frame) >  rhs.computeInteger(frame));
+	  case GREATER_EQUALS:
+	    return(frame -> lhs.computeInteger(frame) >= rhs.computeInteger(frame));
+	  default:
+	    break;
+	  }
+	}
+      }
+      break;
+
+    case REAL :
+      {
+	final RealClosure	lhs	= lhs_.compileReal();
+	final RealClosure	rhs	= rhs_.compileReal();
+
+	switch  (getOperation())
+	{
+	case EQUALS:
+	  return(frame -> lhs.computeReal(frame) == rhs.computeReal(frame));
+	case NOT_EQUALS:
+	  return(frame -> lhs.computeReal(frame) != rhs.computeReal(frame));
+	case LESSER:
+	  return(frame -> lhs.computeReal(frame) <  rhs.computeReal(frame));
+	case LESSER_EQUALS:
+	  return(frame -> lhs.computeReal(frame) <= rhs.computeReal(frame));
+	case GREATER:
+	  return(frame -> lhs.computeReal(frame) >  rhs.computeReal(frame));
+	case GREATER_EQUALS:
+	  return(frame -> lhs.computeReal(frame) >= rhs.computeReal(frame));
+	default:
+	  break;
+	}
+      }
+      break;
+
+    case BOOLEAN :
+      {
+	final BooleanClosure	lhs	= lhs_.compileBoolean();
+	final BooleanClosure	rhs	= rhs_.compileBoolean();
+
+	switch  (getOperation())
+	{
+	case EQUALS:
+	  return(frame -> lhs.computeBoolean(frame) == rhs.computeBoolean(frame));
+	case NOT_EQUALS:
+	  return(frame -> lhs.computeBoolean(frame) != rhs.computeBoolean(frame));
+	default:
+	  throw new IllegalArgumentException
+			("Non-boolean comparison on boolean types");
+	}
+      }
+
+    case STRING :
+      {
+	final StringClosure	lhs	= lhs_.compileString();
+	final StringClosure	rhs	= rhs_.compileString();
+
+	switch  (getOperation())
+	{
+	case EQUALS:
+	  return(frame -> lhs.computeString(frame)
+			     .compareTo(rhs.computeString(frame)) == 0);
+	case NOT_EQUALS:
+	  return(frame -> lhs.computeString(frame)
+			     .compareTo(rhs.computeString(frame)) != 0);
+	case LESSER:
+	  return(frame -> lhs.computeString(frame)
+			     .compareTo(rhs.computeString(frame)) <  0);
+	case LESSER_EQUALS:
+	  return(frame -> lhs.computeString(frame)
+			     .compareTo(rhs.computeString(frame)) <= 0);
+	case GREATER:
+	  return(frame -> lhs.computeString(frame)
+			     .compareTo(rhs.computeString(frame)) >  0);
+	case GREATER_EQUALS:
+	  return(frame -> lhs.computeString(frame)
+			     .compareTo(rhs.computeString(frame)) >= 0);
+	default:
+	  break;
+	}
+      }
+      break;
+
+    default :
+      break;
+    }
+
+    throw new IllegalArgumentException
+			("Non-boolean operation in "	+
+			 "BinaryOpStatement.compileBoolean()"
+			);
+  }
+
+
   //  PURPOSE:  To check that 'this' node is semantically proper. Throws
   //	'RuntimeException' describing problem if one is found. No return
   //	value.
@@ -1087,12 +2856,39 @@ class BinaryOpStatement extends Statement
     }
   }
 
+  //  PURPOSE:  To return a self-specializing interpreter node that computes
+  //	'this'.  No parameters.
+  public
+  ExpressionNode
+		toExpressionNode()
+  {
+    return(new UninitializedBinaryNode(getOperation(),
+				       getLeft().toExpressionNode(),
+				       getRight().toExpressionNode()
+				      )
+	  );
+  }
+
   //  PURPOSE:  To convert 'this' into PotentialInstruction instances in
   //	'list' that implement 'this'.  Returns Variable that will have the
   //	result of 'this' computation, or 'null' if there is no such value.
   public
   Variable	toAssembly	(List<PotentialInstruction> list)
   {
+    if  (hasImmediateForm())
+    {
+      return(toImmediateAssembly(list));
+    }
+
+    if  ( isShortCircuit()  &&  (getType() == Type.BOOLEAN)  &&
+	  ( (getOperation() == Operation.AND)  ||
+	    (getOperation() == Operation.OR)
+	  )
+	)
+    {
+      return(toShortCircuitAssembly(list));
+    }
+
     Variable	leftVar		= getLeft().toAssembly(list);
     Variable	rightVar	= getRight().toAssembly(list);
     Variable	result		= VarStore.get().obtainTempVar(getType());
@@ -1311,18 +3107,18 @@ class BinaryOpStatement extends Statement
       {
       case PLUS :
 	vmOp	= (getType() == Type.INTEGER)
-		  ? VmOperation.INT_ADD_VAR_VAR_VM_OP
-		  : VmOperation.REAL_ADD_VAR_VAR_VM_OP;
+		  ? VmOperation.INT_ADD_VM_OP
+		  : VmOperation.REAL_ADD_VM_OP;
 	break;
       case MINUS :
 	vmOp	= (getType() == Type.INTEGER)
-		  ? VmOperation.INT_SUB_VAR_VAR_VM_OP
-		  : VmOperation.REAL_SUB_VAR_VAR_VM_OP;
+		  ? VmOperation.INT_SUB_VM_OP
+		  : VmOperation.REAL_SUB_VM_OP;
 	break;
       case STAR :
 	vmOp	= (getType() == Type.INTEGER)
-		  ? VmOperation.INT_MUL_VAR_VAR_VM_OP
-		  : VmOperation.REAL_MUL_VAR_VAR_VM_OP;
+		  ? VmOperation.INT_MUL_VM_OP
+		  : VmOperation.REAL_MUL_VM_OP;
 	break;
 
       default :
@@ -1333,19 +3129,130 @@ class BinaryOpStatement extends Statement
       }
 
       list.add
-	(new VarVarPotentialInstruction
-		( (getType()==Type.INTEGER)
-		  ? VmOperation.INT_COPY_VM_OP
-		  : VmOperation.REAL_COPY_VM_OP,
+	(new VarVarVarPotentialInstruction
+		( vmOp,
 		  result,
-		  leftVar
+		  leftVar,
+		  rightVar
 		)
 	);
-       list.add(new VarVarPotentialInstruction(vmOp,result,rightVar));
       break;
     }
 
-    return(result);
+    return(result);
+  }
+
+  //  PURPOSE:  To convert boolean node 'this' into PotentialInstruction
+  //	instances in 'list' that go to 'label' if 'this' computes
+  //	'jumpIfTrue', and fall through otherwise.  Numeric comparisons
+  //	become one fused compare-and-branch instead of a compare into a
+  //	temporary and a test of it.  No return value.
+  public
+  void		toConditionalJump
+				(List<PotentialInstruction>	list,
+				 long				label,
+				 boolean			jumpIfTrue
+				)
+  {
+    Operation	relation	= getOperation();
+    Type	operandType	= getOperandType();
+
+    if  ( isShortCircuit()  &&
+	  ( (relation == Operation.AND)  ||  (relation == Operation.OR) )
+	)
+    {
+      //  Jump as soon as one operand decides the result, skipping the
+      //  other.  'decider' is the value of an operand that decides it:
+      boolean	decider	= (relation == Operation.OR);
+
+      if  (jumpIfTrue == decider)
+      {
+	getLeft().toConditionalJump(list,label,jumpIfTrue);
+	getRight().toConditionalJump(list,label,jumpIfTrue);
+      }
+      else
+      {
+	long			skip	= PotentialInstruction
+						.getNextAddressLabel();
+	PotentialInstruction	skipNoOp= new PotentialInstruction
+						(VmOperation.NO_VM_OP);
+
+	getLeft().toConditionalJump(list,skip,decider);
+	getRight().toConditionalJump(list,label,jumpIfTrue);
+	skipNoOp.setAddressLabel(skip);
+	list.add(skipNoOp);
+      }
+
+      return;
+    }
+
+    if  ( !isComparison(relation)				||
+	  ( (operandType != Type.INTEGER)  &&
+	    (operandType != Type.REAL)
+	  )
+	)
+    {
+      super.toConditionalJump(list,label,jumpIfTrue);
+      return;
+    }
+
+    if  (hasImmediateForm())
+    {
+      boolean	isSwapped	= !(getRight() instanceof ConstantStatement);
+      Statement	varSide		= isSwapped ? getRight() : getLeft();
+      Statement	constSide	= isSwapped ? getLeft()  : getRight();
+
+      if  (isSwapped)
+	relation	= mirror(relation);
+
+      if  (!jumpIfTrue)
+	relation	= negate(relation);
+
+      list.add(new VarImmAddrPotentialInstruction
+			(immediateBranchOp(relation),
+			 varSide.toAssembly(list),
+			 ((ConstantStatement)constSide).getValue(),
+			 label
+			)
+	      );
+      return;
+    }
+
+    Variable	leftVar		= toOperand(getLeft(),operandType,list);
+    Variable	rightVar	= toOperand(getRight(),operandType,list);
+
+    if  (jumpIfTrue)
+    {
+      list.add(new VarVarAddrPotentialInstruction
+			(fusedOp(relation,operandType),leftVar,rightVar,label)
+	      );
+    }
+    else
+    if  (operandType == Type.INTEGER)
+    {
+      list.add(new VarVarAddrPotentialInstruction
+			(fusedOp(negate(relation),operandType),
+			 leftVar,
+			 rightVar,
+			 label
+			)
+	      );
+    }
+    else
+    {
+      //  With NaN, !(a < b) is not (a >= b); hop over the jump instead:
+      long			pass	= PotentialInstruction
+						.getNextAddressLabel();
+      PotentialInstruction	passNoOp= new PotentialInstruction
+						(VmOperation.NO_VM_OP);
+
+      list.add(new VarVarAddrPotentialInstruction
+			(fusedOp(relation,operandType),leftVar,rightVar,pass)
+	      );
+      list.add(new AddrPotentialInstruction(VmOperation.GOTO_VM_OP,label));
+      passNoOp.setAddressLabel(pass);
+      list.add(passNoOp);
+    }
   }
 
   //  PURPOSE:  To return a copy of 'this'.  No parameters.
@@ -1362,6 +3269,342 @@ class BinaryOpStatement extends Statement
   }
 
   //  V. Protected methods:
+  //  PURPOSE:  To return 'true' if AND and OR short-circuit and the left
+  //	operand value 'lhs' alone decides the result of 'operation', or
+  //	'false' if the right operand must be evaluated too.
+  protected static
+  boolean	isDecidedBy	(Operation	operation,
+				 boolean	lhs
+				)
+  {
+    switch  (operation)
+    {
+    case AND :	return(isShortCircuit()  &&  !lhs);
+    case OR :	return(isShortCircuit()  &&  lhs);
+    default :	return(false);
+    }
+  }
+
+  //  PURPOSE:  To convert AND or OR node 'this' into PotentialInstruction
+  //	instances in 'list' that only compute the right operand when the
+  //	left one does not decide the result.  Returns the Variable that
+  //	holds the result.
+  protected
+  Variable	toShortCircuitAssembly
+				(List<PotentialInstruction>	list)
+  {
+    Variable		result	= VarStore.get().obtainTempVar(getType());
+    long		end	= PotentialInstruction.getNextAddressLabel();
+    PotentialInstruction
+			endNoOp	= new PotentialInstruction(VmOperation.NO_VM_OP);
+
+    list.add(new VarVarPotentialInstruction
+			(VmOperation.IDEA_COPY_VM_OP,
+			 result,
+			 getLeft().toAssembly(list)
+			)
+	    );
+    list.add(new VarAddrPotentialInstruction
+			( (getOperation() == Operation.AND)
+			  ? VmOperation.IF_FALSE_GOTO_VM_OP
+			  : VmOperation.IF_TRUE_GOTO_VM_OP,
+			  result,
+			  end
+			)
+	    );
+    list.add(new VarVarPotentialInstruction
+			(VmOperation.IDEA_COPY_VM_OP,
+			 result,
+			 getRight().toAssembly(list)
+			)
+	    );
+    endNoOp.setAddressLabel(end);
+    list.add(endNoOp);
+    return(result);
+  }
+
+  //  PURPOSE:  To return 'true' if 'this' can be translated with one side
+  //	as an inline operand, or 'false' otherwise.  Arithmetic takes a
+  //	constant on the right, or on either side when it commutes; integer
+  //	comparisons take a constant on either side.  No parameters.
+  protected
+  boolean	hasImmediateForm()
+  {
+    boolean	isLeftConstant	= (getLeft()  instanceof ConstantStatement);
+    boolean	isRightConstant	= (getRight() instanceof ConstantStatement);
+
+    switch  (getOperation())
+    {
+    case PLUS :
+    case STAR :
+      return( (isLeftConstant  ||  isRightConstant)	&&
+	      ( (operandType_ == Type.INTEGER)  ||  (operandType_ == Type.REAL) )
+	    );
+
+    case MINUS :
+      return( isRightConstant	&&
+	      ( (operandType_ == Type.INTEGER)  ||  (operandType_ == Type.REAL) )
+	    );
+
+    case EQUALS :
+    case NOT_EQUALS :
+    case LESSER :
+    case LESSER_EQUALS :
+    case GREATER :
+    case GREATER_EQUALS :
+      return( (isLeftConstant  ||  isRightConstant)	&&
+	      (operandType_ == Type.INTEGER)
+	    );
+
+    default :
+      return(false);
+    }
+  }
+
+  //  PURPOSE:  To convert 'this', for which hasImmediateForm() is 'true',
+  //	into PotentialInstruction instances in 'list' that carry the
+  //	constant inline.  Returns the Variable that holds the result.
+  protected
+  Variable	toImmediateAssembly
+				(List<PotentialInstruction>	list)
+  {
+    boolean	isSwapped	= !(getRight() instanceof ConstantStatement);
+    Statement	varSide		= isSwapped ? getRight() : getLeft();
+    Value	constant	= ((ConstantStatement)
+					(isSwapped ? getLeft() : getRight())
+				  ).getValue();
+    Variable	result		= VarStore.get().obtainTempVar(getType());
+
+    if  (isComparison(getOperation()))
+    {
+      list.add(new VarVarImmPotentialInstruction
+			(immediateCompareOp(isSwapped	? mirror(getOperation())
+							: getOperation()
+					   ),
+			 result,
+			 varSide.toAssembly(list),
+			 constant
+			)
+	      );
+      return(result);
+    }
+
+    Variable	source		= toOperand(varSide,operandType_,list);
+    boolean	isInt		= (operandType_ == Type.INTEGER);
+    VmOperation	vmOp;
+
+    if  (!isInt  &&  (constant.getType() == Type.INTEGER))
+    {
+      constant	= new RealValue(constant.getInteger());
+    }
+
+    switch  (getOperation())
+    {
+    case PLUS :
+      vmOp	= isInt ? VmOperation.INT_ADD_IMM_VM_OP : VmOperation.REAL_ADD_IMM_VM_OP;
+      break;
+    case MINUS :
+      vmOp	= isInt ? VmOperation.INT_SUB_IMM_VM_OP : VmOperation.REAL_SUB_IMM_VM_OP;
+      break;
+    default :
+      vmOp	= isInt ? VmOperation.INT_MUL_IMM_VM_OP : VmOperation.REAL_MUL_IMM_VM_OP;
+      break;
+    }
+
+    list.add(new VarVarImmPotentialInstruction(vmOp,result,source,constant));
+    return(result);
+  }
+
+  //  PURPOSE:  To return the comparison that holds for (b,a) exactly when
+  //	'relation' holds for (a,b).
+  protected static
+  Operation	mirror		(Operation	relation)
+  {
+    switch  (relation)
+    {
+    case LESSER :		return(Operation.GREATER);
+    case LESSER_EQUALS :	return(Operation.GREATER_EQUALS);
+    case GREATER :		return(Operation.LESSER);
+    case GREATER_EQUALS :	return(Operation.LESSER_EQUALS);
+    default :			return(relation);
+    }
+  }
+
+  //  PURPOSE:  To return the op that sets a boolean to whether an integer
+  //	variable compares with an inline integer as 'relation' says.
+  protected static
+  VmOperation	immediateCompareOp
+				(Operation	relation)
+  {
+    switch  (relation)
+    {
+    case EQUALS :		return(VmOperation.INT_EQUAL_IMM_VM_OP);
+    case NOT_EQUALS :		return(VmOperation.INT_NOT_EQUAL_IMM_VM_OP);
+    case LESSER :		return(VmOperation.INT_LESSER_IMM_VM_OP);
+    case LESSER_EQUALS :	return(VmOperation.INT_LESSER_EQUAL_IMM_VM_OP);
+    case GREATER :		return(VmOperation.INT_GREATER_IMM_VM_OP);
+    case GREATER_EQUALS :	return(VmOperation.INT_GREATER_EQUAL_IMM_VM_OP);
+    default :
+      throw new IllegalArgumentException("Not a comparison: " + relation);
+    }
+  }
+
+  //  PURPOSE:  To return the op that goes to an address if an integer
+  //	variable compares with an inline integer as 'relation' says.
+  protected static
+  VmOperation	immediateBranchOp
+				(Operation	relation)
+  {
+    switch  (relation)
+    {
+    case EQUALS :		return(VmOperation.IF_INT_EQUAL_IMM_GOTO_VM_OP);
+    case NOT_EQUALS :		return(VmOperation.IF_INT_NOT_EQUAL_IMM_GOTO_VM_OP);
+    case LESSER :		return(VmOperation.IF_INT_LESSER_IMM_GOTO_VM_OP);
+    case LESSER_EQUALS :	return(VmOperation.IF_INT_LESSER_EQUAL_IMM_GOTO_VM_OP);
+    case GREATER :		return(VmOperation.IF_INT_GREATER_IMM_GOTO_VM_OP);
+    case GREATER_EQUALS :	return(VmOperation.IF_INT_GREATER_EQUAL_IMM_GOTO_VM_OP);
+    default :
+      throw new IllegalArgumentException("Not a comparison: " + relation);
+    }
+  }
+
+  //  PURPOSE:  To return 'true' if 'operation' is a comparison, or 'false'
+  //	otherwise.
+  protected static
+  boolean	isComparison	(Operation	operation)
+  {
+    switch  (operation)
+    {
+    case EQUALS :
+    case NOT_EQUALS :
+    case LESSER :
+    case LESSER_EQUALS :
+    case GREATER :
+    case GREATER_EQUALS :
+      return(true);
+
+    default :
+      return(false);
+    }
+  }
+
+  //  PURPOSE:  To return the comparison that holds exactly when integer
+  //	comparison 'relation' does not.
+  protected static
+  Operation	negate		(Operation	relation)
+  {
+    switch  (relation)
+    {
+    case EQUALS :		return(Operation.NOT_EQUALS);
+    case NOT_EQUALS :		return(Operation.EQUALS);
+    case LESSER :		return(Operation.GREATER_EQUALS);
+    case LESSER_EQUALS :	return(Operation.GREATER);
+    case GREATER :		return(Operation.LESSER_EQUALS);
+    case GREATER_EQUALS :	return(Operation.LESSER);
+    default :
+      throw new IllegalArgumentException("Not a comparison: " + relation);
+    }
+  }
+
+  //  PURPOSE:  To return the op that goes to an address if comparison
+  //	'relation' holds between operands of type 'operandType'.
+  protected static
+  VmOperation	fusedOp		(Operation	relation,
+				 Type		operandType
+				)
+  {
+    boolean	isInt	= (operandType == Type.INTEGER);
+
+    switch  (relation)
+    {
+    case EQUALS :
+      return(isInt	? VmOperation.IF_INT_EQUAL_GOTO_VM_OP
+			: VmOperation.IF_REAL_EQUAL_GOTO_VM_OP);
+    case NOT_EQUALS :
+      return(isInt	? VmOperation.IF_INT_NOT_EQUAL_GOTO_VM_OP
+			: VmOperation.IF_REAL_NOT_EQUAL_GOTO_VM_OP);
+    case LESSER :
+      return(isInt	? VmOperation.IF_INT_LESSER_GOTO_VM_OP
+			: VmOperation.IF_REAL_LESSER_GOTO_VM_OP);
+    case LESSER_EQUALS :
+      return(isInt	? VmOperation.IF_INT_LESSER_EQUAL_GOTO_VM_OP
+			: VmOperation.IF_REAL_LESSER_EQUAL_GOTO_VM_OP);
+    case GREATER :
+      return(isInt	? VmOperation.IF_INT_GREATER_GOTO_VM_OP
+			: VmOperation.IF_REAL_GREATER_GOTO_VM_OP);
+    case GREATER_EQUALS :
+      return(isInt	? VmOperation.IF_INT_GREATER_EQUAL_GOTO_VM_OP
+			: VmOperation.IF_REAL_GREATER_EQUAL_GOTO_VM_OP);
+    default :
+      throw new IllegalArgumentException("Not a comparison: " + relation);
+    }
+  }
+
+  //  PURPOSE:  To convert 'operand' into PotentialInstruction instances in
+  //	'list', returning the Variable that holds its value as type
+  //	'operandType'.  Integers are converted when 'operandType' is REAL.
+  protected static
+  Variable	toOperand	(Statement			operand,
+				 Type				operandType,
+				 List<PotentialInstruction>	list
+				)
+  {
+    Variable	var	= operand.toAssembly(list);
+
+    if  ( (operandType == Type.REAL)  &&  (var.getType() == Type.INTEGER) )
+    {
+      Variable	convert	= VarStore.get().obtainTempVar(Type.REAL);
+
+      list.add(new VarVarPotentialInstruction
+			(VmOperation.INT_TO_REAL_VM_OP,convert,var)
+	      );
+      var	= convert;
+    }
+
+    return(var);
+  }
+
+  //  PURPOSE:  To return the type both operands are brought to before the
+  //	operation is applied, or 'NONE' if they are incompatible.  No
+  //	parameters.
+  protected
+  Type		computeOperandType
+				()
+  {
+    Type	leftType	= getLeft().getType();
+    Type	rightType	= getRight().getType();
+
+    switch  (getOperation())
+    {
+    case AND :
+    case OR :
+      return(Type.BOOLEAN);
+
+    case DIV :
+    case MOD :
+      return(Type.INTEGER);
+
+    case SLASH :
+      return(Type.REAL);
+
+    default :
+      break;
+    }
+
+    if  (leftType == rightType)
+    {
+      return(leftType);
+    }
+
+    if  ( ( (leftType == Type.INTEGER) || (leftType == Type.REAL) )	&&
+	  ( (rightType == Type.INTEGER) || (rightType == Type.REAL) )
+	)
+    {
+      return(Type.REAL);
+    }
+
+    return(Type.NONE);
+  }
 
   //  VI. Private member vars:
   //  PURPOSE:  To tell the operation to do.
@@ -1375,6 +3618,16 @@ class BinaryOpStatement extends Statement
   //  PURPOSE:  To hold the address of node on the right hand side.
   private
   Statement		rhs_;
+
+  //  PURPOSE:  To hold the type that 'this' node returns, computed once at
+  //	construction so that the typed compute methods need not recurse.
+  private
+  Type			resultType_;
+
+  //  PURPOSE:  To hold the type both operands are brought to before the
+  //	operation is applied.
+  private
+  Type			operandType_;
 }
 
 
@@ -1424,6 +3677,21 @@ class	ConstantStatement extends Statement
     return(value_.getType());
   }
 
+  //  PURPOSE: To return 'true', as a constant changes nothing and cannot
+  //	fail.
+  public
+  boolean	isSpeculatable	()
+  {
+    return(true);
+  }
+
+  //  PURPOSE:  To return the constant value.  It must not be changed.
+  public
+  Value		getValue	()
+  {
+    return(value_);
+  }
+
   //  III. Mutator(s):
 
   //  IV. Methods that do main and misc. work of class:
@@ -1437,13 +3705,101 @@ class	ConstantStatement extends Statement
     return(value_.copy());
   }
 
+  //  PURPOSE:  To compute 'this' as an integer without allocating a Value,
+  //	reading variables from 'frame'.  Returns the integer.
+  public
+  long		computeInteger	(Frame frame)
+  {
+    return(value_.getInteger());
+  }
+
+  //  PURPOSE:  To compute 'this' as a real without allocating a Value,
+  //	reading variables from 'frame'.  Integer-typed nodes are converted.
+  //	Returns the real.
+  public
+  double	computeReal	(Frame frame)
+  {
+    return(value_.getReal());
+  }
+
+  //  PURPOSE:  To compute 'this' as a boolean without allocating a Value,
+  //	reading variables from 'frame'.  Returns the boolean.
+  public
+  boolean	computeBoolean	(Frame frame)
+  {
+    return(value_.getBoolean());
+  }
+
+  //  PURPOSE:  To compute 'this' as a string, reading variables from
+  //	'frame'.  Returns the string.
+  public
+  String	computeString	(Frame frame)
+  {
+    return(value_.getString());
+  }
+
+  //  PURPOSE:  To return a closure that returns 'this' integer.  No
+  //	parameters.
+  public
+  IntegerClosure
+		compileInteger	()
+  {
+    final long	integer	= value_.getInteger();
+
+    return(frame -> integer);
+  }
+
+  //  PURPOSE:  To return a closure that returns 'this' as a real.  No
+  //	parameters.
+  public
+  RealClosure	compileReal	()
+  {
+    final double	real	= value_.getReal();
+
+    return(frame -> real);
+  }
+
+  //  PURPOSE:  To return a closure that returns 'this' boolean.  No
+  //	parameters.
+  public
+  BooleanClosure
+		compileBoolean	()
+  {
+    return(value_.getBoolean() ? (frame -> true) : (frame -> false));
+  }
+
+  //  PURPOSE:  To return a closure that returns 'this' string.  No
+  //	parameters.
+  public
+  StringClosure	compileString	()
+  {
+    final String	string	= value_.getString();
+
+    return(frame -> string);
+  }
+
+  //  PURPOSE:  To return a self-specializing interpreter node that computes
+  //	'this'.  No parameters.
+  public
+  ExpressionNode
+		toExpressionNode()
+  {
+    switch  (getType())
+    {
+    case BOOLEAN :	return(new ConstantNode(value_.getBoolean()));
+    case INTEGER :	return(new ConstantNode(value_.getInteger()));
+    case REAL :		return(new ConstantNode(value_.getReal()));
+    default :		return(new ConstantNode(value_.getString()));
+    }
+  }
+
   //  PURPOSE:  To convert 'this' into PotentialInstruction instances in
-  //	'list' that implement 'this'.  Returns Variable that will have the
-  //	result of 'this' computation, or 'null' if there is no such value.
+  //	'list' that implement 'this'.  Returns the read-only Variable that
+  //	holds the constant, shared with every equal constant.
   public
   Variable	toAssembly	(List<PotentialInstruction> list)
   {
-    return(VarStore.get().obtainTempVar(value_));
+    return(VarStore.get().obtainConstVar(value_));
   }
 
   //	PURPOSE:  To return a copy of 'this'.  No parameters.
@@ -1513,6 +3869,96 @@ class PrintStatement extends Statement
     return(null);
   }
 
+  //  PURPOSE:  To run 'this' node for its effect only, reading and writing
+  //	variables in 'frame'.  No return value.
+  public
+  void		execute		(Frame frame)
+  {
+    switch  (expression_.getType())
+    {
+    case BOOLEAN :
+      System.out.print(expression_.computeBoolean(frame));
+      break;
+
+    case INTEGER :
+      System.out.print(expression_.computeInteger(frame));
+      break;
+
+    case REAL :
+      System.out.print(expression_.computeReal(frame));
+      break;
+
+    default :
+      System.out.print(expression_.computeString(frame));
+      break;
+    }
+
+    if  (getShouldWriteNewline())
+    {
+      System.out.println();
+    }
+  }
+
+  //  PURPOSE:  To return a closure that runs 'this' for its effect only.
+  //	No parameters.
+  public
+  ExecuteClosure
+		compileExecute	()
+  {
+    final boolean	shouldWriteNewline	= getShouldWriteNewline();
+
+    switch  (expression_.getType())
+    {
+    case BOOLEAN :
+      {
+	final BooleanClosure	expr	= expression_.compileBoolean();
+
+	return(frame ->
+	       {
+		 System.out.print(expr.computeBoolean(frame));
+		 if (shouldWriteNewline) System.out.println();
+	       }
+	      );
+      }
+
+    case INTEGER :
+      {
+	final IntegerClosure	expr	= expression_.compileInteger();
+
+	return(frame ->
+	       {
+		 System.out.print(expr.computeInteger(frame));
+		 if (shouldWriteNewline) System.out.println();
+	       }
+	      );
+      }
+
+    case REAL :
+      {
+	final RealClosure	expr	= expression_.compileReal();
+
+	return(frame ->
+	       {
+		 System.out.print(expr.computeReal(frame));
+		 if (shouldWriteNewline) System.out.println();
+	       }
+	      );
+      }
+
+    default :
+      {
+	final StringClosure	expr	= expression_.compileString();
+
+	return(frame ->
+	       {
+		 System.out.print(expr.computeString(frame));
+		 if (shouldWriteNewline) System.out.println();
+	       }
+	      );
+      }
+    }
+  }
+
 
   //  PURPOSE:  To check that 'this' node is semantically proper. Throws
   //	'RuntimeException' describing problem if one is found. No return
@@ -1524,6 +3970,18 @@ class PrintStatement extends Statement
     expression_.check();
   }
 
+  //  PURPOSE:  To return a self-specializing interpreter node that runs
+  //	'this'.  No parameters.
+  public
+  StatementNode	toStatementNode	()
+  {
+    return(new PrintNode(getShouldWriteNewline(),
+			 expression_.getType(),
+			 expression_.toExpressionNode()
+			)
+	  );
+  }
+
   //  PURPOSE:  To convert 'this' into PotentialInstruction instances in
   //	'list' that implement 'this'.  Returns Variable that will have the
   //	result of 'this' computation, or 'null' if there is no such value.
@@ -0,0 +1,229 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        TempAllocator.java                                         ---*
+ *---                                                                   ---*
+ *---    This file declares a class that packs the temporary variables  ---*
+ *---    of a list of VM instructions into as few variables as their    ---*
+ *---    live ranges allow.                                             ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+class TempAllocator
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to allocate the temporaries of
+  //	'instructList'.  No return value.
+  protected
+  TempAllocator			(List<PotentialInstruction>	instructList)
+  {
+    graph_	= new ControlFlowGraph(instructList);
+    tempList_	= new ArrayList<>();
+
+    for  (int var = 0;  var < graph_.getNumVars();  var++)
+    {
+      if  (VarStore.isTempVar(graph_.getVar(var)))
+      {
+	tempList_.add(var);
+      }
+    }
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To rewrite 'instructList' so that temporaries whose live
+  //	ranges do not overlap share one variable of their type, and to
+  //	remove the temporaries and shared constants no longer used from
+  //	VarStore.  Returns the number of variables removed.
+  public static
+  int		allocate	(List<PotentialInstruction>	instructList)
+  {
+    new TempAllocator(instructList).allocate();
+    return(removeUnused(instructList));
+  }
+
+  //  PURPOSE: To remove from VarStore each temporary and shared constant
+  //	that no instruction of 'instructList' uses.  Returns the number of
+  //	variables removed.
+  public static
+  int		removeUnused	(List<PotentialInstruction>	instructList)
+  {
+    Set<Variable>	usedVarSet	=
+			Collections.newSetFromMap(new IdentityHashMap<>());
+
+    for  (PotentialInstruction instruct : instructList)
+    {
+      Collections.addAll(usedVarSet,instruct.getVars());
+    }
+
+    return(VarStore.get().removeUnusedVars(usedVarSet));
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To do the work of allocate(List) but the removal.  Returns
+  //	the number of temporaries merged into others.
+  protected
+  int		allocate	()
+  {
+    if  (tempList_.isEmpty())
+    {
+      return(0);
+    }
+
+    int[]			startArray	= new int[graph_.getNumVars()];
+    int[]			endArray	= new int[graph_.getNumVars()];
+    Map<Variable,Variable>	renameMap	= new IdentityHashMap<>();
+
+    computeLiveRanges(startArray,endArray);
+
+    //  I.  Linear scan: visit the ranges by start, reusing the variable
+    //	of any range of the same type that has ended:
+    Integer[]	order	= tempList_.toArray(new Integer[0]);
+
+    Arrays.sort(order,(lhs,rhs) -> startArray[lhs] - startArray[rhs]);
+
+    PriorityQueue<Integer>	activeQueue	=
+		new PriorityQueue<>((lhs,rhs) -> endArray[lhs] - endArray[rhs]);
+    Map<Type,Deque<Variable>>	freeMap		= new EnumMap<>(Type.class);
+    Variable[]			assignArray	= new Variable[startArray.length];
+
+    for  (Type type : Type.values())
+    {
+      freeMap.put(type,new ArrayDeque<>());
+    }
+
+    for  (int temp : order)
+    {
+      //  A range that ends where this one starts may share with it: every
+      //  instruction reads its sources before it writes its destination.
+      while  ( !activeQueue.isEmpty()  &&
+	       (endArray[activeQueue.peek()] <= startArray[temp])
+	     )
+      {
+	Variable	freed	= assignArray[activeQueue.poll()];
+
+	freeMap.get(freed.getType()).push(freed);
+      }
+
+      Variable	var	= graph_.getVar(temp);
+      Variable	free	= freeMap.get(var.getType()).poll();
+
+      assignArray[temp]	= (free == null) ? var : free;
+      activeQueue.add(temp);
+
+      if  (free != null)
+      {
+	renameMap.put(var,free);
+      }
+    }
+
+    //  II.  Rewrite the instructions:
+    for  (int index = 0;  index < graph_.getNumInstructs();  index++)
+    {
+      graph_.getInstruct(index).replaceVars(renameMap);
+    }
+
+    return(renameMap.size());
+  }
+
+  //  PURPOSE: To set 'startArray[v]' and 'endArray[v]' to the first and
+  //	last instruction index at which Variable 'v' of the graph is live or
+  //	written.  A Variable live around a loop covers the whole loop.  No
+  //	return value.
+  protected
+  void		computeLiveRanges
+				(int[]	startArray,
+				 int[]	endArray
+				)
+  {
+    DataflowAnalysis	liveness	= new LivenessAnalysis(graph_).solve();
+
+    Arrays.fill(startArray,Integer.MAX_VALUE);
+    Arrays.fill(endArray,Integer.MIN_VALUE);
+
+    //  Within a block a Variable is live only between the ends of the
+    //  block it is live across and the instructions that read or write
+    //  it, so those are the only points that can widen its range.  Not
+    //  walking every live set keeps this fast when the shared constants,
+    //  which are live everywhere, are read all over the program.
+    for  (BasicBlock block : graph_.getBlocks())
+    {
+      notePoints(startArray,endArray,liveness.getEntrySet(block),
+		 block.getStart()
+		);
+      notePoints(startArray,endArray,liveness.getExitSet(block),
+		 block.getEnd() - 1
+		);
+
+      for  (int index = block.getStart();  index < block.getEnd();  index++)
+      {
+	int	def	= graph_.getDefIndex(index);
+
+	if  (def >= 0)
+	{
+	  notePoint(startArray,endArray,def,index);
+	}
+
+	for  (int use : graph_.getUseIndices(index))
+	{
+	  notePoint(startArray,endArray,use,index);
+	}
+      }
+    }
+  }
+
+  //  PURPOSE: To widen the range of each Variable in 'varSet' to cover
+  //	instruction 'index'.  No return value.
+  protected static
+  void		notePoints	(int[]	startArray,
+				 int[]	endArray,
+				 BitSet	varSet,
+				 int	index
+				)
+  {
+    for  (int var = varSet.nextSetBit(0);
+	  var >= 0;
+	  var = varSet.nextSetBit(var+1)
+	 )
+    {
+      notePoint(startArray,endArray,var,index);
+    }
+  }
+
+  //  PURPOSE: To widen the range of Variable 'var' to cover instruction
+  //	'index'.  No return value.
+  protected static
+  void		notePoint	(int[]	startArray,
+				 int[]	endArray,
+				 int	var,
+				 int	index
+				)
+  {
+    startArray[var]	= Math.min(startArray[var],index);
+    endArray[var]	= Math.max(endArray[var],index);
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the blocks of the instructions.
+  protected final
+  ControlFlowGraph		graph_;
+
+  //  PURPOSE: To hold the numbers in 'graph_' of the temporaries.
+  protected final
+  List<Integer>			tempList_;
+}
@@ -0,0 +1,311 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        ValueNumberer.java                                         ---*
+ *---                                                                   ---*
+ *---    This file declares a class that finds the computations of a    ---*
+ *---    list of VM instructions that repeat one already done, and      ---*
+ *---    turns them into copies of its result.                          ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+//  PURPOSE: To do hash-based value numbering over the SSA form of a list
+//	of instructions.  Two SSA values get the same number when they are
+//	copies of one another or the same pure op of values with the same
+//	numbers.  The dominator tree is walked keeping a table from each
+//	computation to the value that first made it, scoped so that only
+//	computations in dominating blocks (including earlier in the same
+//	block) are seen.  A repeat is replaced by a copy of that value as
+//	long as no other write of the Variable that holds it can reach the
+//	repeat.
+class ValueNumberer extends SsaWalker
+{
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to number the values of 'instructList'.
+  //	No return value.
+  protected
+  ValueNumberer			(List<PotentialInstruction>	instructList)
+  {
+    super(new ControlFlowGraph(instructList));
+
+    numberArray_	= new int[ssa_.getNumValues()];
+    replaceArray_	= new PotentialInstruction[graph_.getNumInstructs()];
+    tableMap_		= new HashMap<>();
+    tableLog_		= new ArrayList<>();
+    tableMarkStack_	= new ArrayDeque<>();
+
+    for  (int value = 0;  value < numberArray_.length;  value++)
+    {
+      numberArray_[value]	= value;
+    }
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To rewrite 'instructList' so that each pure computation
+  //	that repeats one whose result is still held in a Variable copies
+  //	that Variable instead.  Returns the number of computations
+  //	replaced.
+  public static
+  int		number		(List<PotentialInstruction>	instructList)
+  {
+    if  (instructList.isEmpty())
+    {
+      return(0);
+    }
+
+    return(new ValueNumberer(instructList).transform(instructList));
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To do the work of number(List) on 'instructList'.  Returns
+  //	the number of computations replaced.
+  protected
+  int		transform	(List<PotentialInstruction>	instructList)
+  {
+    ListIterator<PotentialInstruction>	iter	= instructList.listIterator();
+    int					numReplaced	= 0;
+
+    walk();
+
+    for  (int index = 0;  iter.hasNext();  index++)
+    {
+      iter.next();
+
+      if  (replaceArray_[index] != null)
+      {
+	iter.set(replaceArray_[index]);
+	numReplaced++;
+      }
+    }
+
+    return(numReplaced);
+  }
+
+  //  PURPOSE: To note how much of 'tableLog_' was there before 'block'.
+  //	No return value.
+  @Override
+  protected
+  void		enterBlock	(BasicBlock	block)
+  {
+    tableMarkStack_.push(tableLog_.size());
+  }
+
+  //  PURPOSE: To number the value instruction 'index' makes, choosing a
+  //	replacement for it if it repeats a computation.  No return value.
+  @Override
+  protected
+  void		visitInstruct	(int	index)
+  {
+    PotentialInstruction	instruct	= graph_.getInstruct(index);
+    int				def		= ssa_.getDefValue(index);
+
+    if  (def == SsaForm.NO_VALUE)
+    {
+      return;
+    }
+
+    if  (isCopy(instruct))
+    {
+      numberArray_[def]	= numberArray_[ssa_.getUseValues(index)[0]];
+      return;
+    }
+
+    String	key	= computationKey(index);
+
+    if  (key == null)
+    {
+      return;
+    }
+
+    Integer	first	= tableMap_.get(key);
+
+    if  ( (first != null)  &&
+	  (getCurrent(ssa_.getVarOfValue(first)) == first)
+	)
+    {
+      Variable	dest	= instruct.getDefinedVar();
+
+      replaceArray_[index]	= new VarVarPotentialInstruction
+				(ConstantPropagator.copyOp(dest.getType()),
+				 dest,
+				 graph_.getVar(ssa_.getVarOfValue(first))
+				);
+      replaceArray_[index].setAddressLabel(instruct.getAddressLabel());
+      numberArray_[def]	= numberArray_[first];
+    }
+    else
+    {
+      //  The first value is no longer held, so this one takes its place:
+      tableLog_.add(new Object[] { key, first });
+      tableMap_.put(key,def);
+    }
+  }
+
+  //  PURPOSE: To forget the computations 'block' added to 'tableMap_'.
+  //	No return value.
+  @Override
+  protected
+  void		leaveBlock	(BasicBlock	block)
+  {
+    int		mark	= tableMarkStack_.pop();
+
+    for  (int count = tableLog_.size();  count > mark;  count--)
+    {
+      Object[]	undo	= tableLog_.remove(count - 1);
+
+      if  (undo[1] == null)
+      {
+	tableMap_.remove((String)undo[0]);
+      }
+      else
+      {
+	tableMap_.put((String)undo[0],(Integer)undo[1]);
+      }
+    }
+  }
+
+  //  PURPOSE: To return the text that identifies what instruction 'index'
+  //	computes in terms of the numbers of its operands, or 'null' if it
+  //	is not a pure computation.  A two-address op is keyed as the
+  //	three-address op it matches, and the operands of a commutative op
+  //	are put in order.
+  protected
+  String	computationKey	(int	index)
+  {
+    PotentialInstruction	instruct	= graph_.getInstruct(index);
+    VmOperation			op		= keyOp(instruct.getOp());
+    int[]			valueArray	= ssa_.getUseValues(index);
+    int[]			numArray	= new int[valueArray.length];
+    StringBuilder		key		= new StringBuilder();
+
+    if  ( !AvailableExpressions.isPure(instruct)			&&
+	  !(instruct instanceof VarVarVarVarPotentialInstruction)	&&
+	  (op == instruct.getOp())
+	)
+    {
+      return(null);
+    }
+
+    for  (int use = 0;  use < valueArray.length;  use++)
+    {
+      numArray[use]	= numberArray_[valueArray[use]];
+    }
+
+    if  (isCommutative(op)  &&  (numArray[0] > numArray[1]))
+    {
+      int	swap	= numArray[0];
+
+      numArray[0]	= numArray[1];
+      numArray[1]	= swap;
+    }
+
+    key.append(op.ordinal());
+
+    for  (int num : numArray)
+    {
+      key.append(',').append(num);
+    }
+
+    if  (instruct instanceof VarVarImmPotentialInstruction)
+    {
+      Value	immediate	= ((VarVarImmPotentialInstruction)instruct)
+					.getImmediate();
+
+      key.append(",#").append(immediate.getType().ordinal())
+	 .append(':').append(immediate);
+    }
+
+    return(key.toString());
+  }
+
+  //  PURPOSE: To return the three-address op that two-address op 'op'
+  //	matches, or 'op' itself for any other op.
+  protected static
+  VmOperation	keyOp		(VmOperation	op)
+  {
+    switch  (op)
+    {
+    case INT_ADD_VAR_VAR_VM_OP :	return(VmOperation.INT_ADD_VM_OP);
+    case REAL_ADD_VAR_VAR_VM_OP :	return(VmOperation.REAL_ADD_VM_OP);
+    case INT_SUB_VAR_VAR_VM_OP :	return(VmOperation.INT_SUB_VM_OP);
+    case REAL_SUB_VAR_VAR_VM_OP :	return(VmOperation.REAL_SUB_VM_OP);
+    case INT_MUL_VAR_VAR_VM_OP :	return(VmOperation.INT_MUL_VM_OP);
+    case REAL_MUL_VAR_VAR_VM_OP :	return(VmOperation.REAL_MUL_VM_OP);
+    default :				return(op);
+    }
+  }
+
+  //  PURPOSE: To return 'true' if 'op' gives the same result with its two
+  //	operands swapped, or 'false' otherwise.
+  protected static
+  boolean	isCommutative	(VmOperation	op)
+  {
+    switch  (op)
+    {
+    case INT_ADD_VM_OP :
+    case REAL_ADD_VM_OP :
+    case INT_MUL_VM_OP :
+    case REAL_MUL_VM_OP :
+    case LOGIC_AND_VM_OP :
+    case LOGIC_OR_VM_OP :
+    case INT_EQUAL_VM_OP :
+    case INT_NOT_EQUAL_VM_OP :
+    case REAL_EQUAL_VM_OP :
+    case REAL_NOT_EQUAL_VM_OP :
+      return(true);
+    default :
+      return(false);
+    }
+  }
+
+  //  PURPOSE: To return 'true' if 'instruct' copies one Variable to
+  //	another, or 'false' otherwise.
+  protected static
+  boolean	isCopy		(PotentialInstruction	instruct)
+  {
+    switch  (instruct.getOp())
+    {
+    case INT_COPY_VM_OP :
+    case REAL_COPY_VM_OP :
+    case IDEA_COPY_VM_OP :
+      return(true);
+    default :
+      return(false);
+    }
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold, for each SSA value, its value number: the first
+  //	value known to be equal to it.
+  protected final
+  int[]				numberArray_;
+
+  //  PURPOSE: To hold, for each instruction, the copy that replaces it, or
+  //	'null'.
+  protected final
+  PotentialInstruction[]	replaceArray_;
+
+  //  PURPOSE: To map each computation seen in the dominating blocks to the
+  //	value that made it, with a log of { key, value hidden } to undo the
+  //	entries of each block, and for each block being walked the size
+  //	the log had before it.
+  protected final
+  Map<String,Integer>		tableMap_;
+
+  protected final
+  List<Object[]>		tableLog_;
+
+  protected final
+  Deque<Integer>		tableMarkStack_;
+}
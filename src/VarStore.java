@@ -11,8 +11,11 @@
  *---                                                                   ---*
  *-------------------------------------------------------------------------*/
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.io.PrintStream;
 
 public class VarStore
@@ -23,6 +26,14 @@ public class VarStore
   public static
   final char		VAR_PREFIX_CHAR			= '@';
 
+  //  PURPOSE: To tell the prefix of the names of temporary variables.
+  public static
+  final String		TEMP_VAR_PREFIX_STR		= "_tempVar";
+
+  //  PURPOSE: To tell the prefix of the names of shared constants.
+  public static
+  final String		CONST_VAR_PREFIX_STR		= "_const";
+
   public static
   final String		typeNameArray[]
 			= { "no-type",
@@ -39,6 +50,14 @@ public class VarStore
     return singleton_static;
   }
 
+  //  PURPOSE:  To return the Frame that holds the values of all variables
+  //	declared so far.
+  public
+  Frame		getFrame	()
+  {
+    return frame_;
+  }
+
   //  PURPOSE:  To return the address of an existing variable with the same
   //	name as 'var'.  Throws exception if not seen.
   public
@@ -55,6 +74,44 @@ public class VarStore
     return existingVar;
   }
 
+  //  PURPOSE:  To return the name of generated variable number 'index'
+  //	with prefix 'prefixStr'.  The program may declare a variable by
+  //	the same name, so the name is lengthened with leading underscores
+  //	until it is not one declared.  All declarations precede the first
+  //	generated name, which is only asked for when writing code.
+  public
+  String	generatedName	(String	prefixStr,
+				 int	index
+				)
+  {
+    String	nameStr	= prefixStr + index;
+
+    while  (nameToVarMap_.containsKey(nameStr))
+    {
+      nameStr	= "_" + nameStr;
+    }
+
+    return(nameStr);
+  }
+
+  //  PURPOSE:  To return 'true' if 'var' is a temporary obtained from
+  //	obtainTempVar(), or 'false' otherwise.
+  public static
+  boolean	isTempVar	(Variable	var)
+  {
+    return(var.getTempIndex() != Variable.NO_TEMP_INDEX);
+  }
+
+  //  PURPOSE:  To return 'true' if 'var' is a read-only constant obtained
+  //	from obtainConstVar(), or 'false' otherwise.
+  public
+  boolean	isConstVar	(Variable	var)
+  {
+    return( (var.getTempIndex() == Variable.NO_TEMP_INDEX)  &&
+	    (constToVarMap_.get(constKey(var.getValue())) == var)
+	  );
+  }
+
   //  PURPOSE: To attempt to declare a variable named 'var' to have type 'type'.
   public
   void		declare		(Variable	var,
@@ -70,42 +127,99 @@ public class VarStore
     }
 
     var.setType(type);
+    var.setSlot(frame_.allocate(type));
     nameToVarMap_.put(nameStr, var);
   }
 
 
   //  PURPOSE:  To create and return the address of a new Variable of Type
-  //	'type'.
+  //	'type'.  Temporaries are kept by index rather than by name, so
+  //	no name is built until one is written out.
   public
   Variable	obtainTempVar	(Type	type
   				)
   {
-    int		varIndex	= nextTempVarIndex_++;
-    String	varName		= "_tempVar" + varIndex;
-    Variable	returnMe	= new Variable(varName);
+    Variable	returnMe	= new Variable(tempVarList_.size());
 
     returnMe.setType(type);
-    nameToVarMap_.put(varName,returnMe);
+    returnMe.setSlot(frame_.allocate(type));
+    tempVarList_.add(returnMe);
     return(returnMe);
   }
 
 
-  //  PURPOSE:  To create and return the address of a new Variable that is
-  //	initialized to value 'value'.
+  //  PURPOSE:  To return the address of the read-only Variable that holds
+  //	constant 'value', creating it the first time 'value' is asked for.
+  //	Equal constants of the same type share one Variable, so it must
+  //	never be the destination of an instruction.
   public
-  Variable	obtainTempVar	(Value	value
+  Variable	obtainConstVar	(Value	value
   				)
   {
-    int		varIndex	= nextTempVarIndex_++;
-    String	varName		= "_tempVar" + varIndex;
-    Variable	returnMe	= new Variable(varName,value);
+    String	key		= constKey(value);
+    Variable	returnMe	= constToVarMap_.get(key);
+
+    if  (returnMe == null)
+    {
+      returnMe	= new Variable(generatedName(CONST_VAR_PREFIX_STR,
+					     constVarList_.size()
+					    )
+			      );
+      returnMe.setType(value.getType());
+      returnMe.setSlot(frame_.allocate(value.getType()));
+      returnMe.setValue(value);
+      constVarList_.add(returnMe);
+      constToVarMap_.put(key,returnMe);
+    }
 
-    nameToVarMap_.put(varName,returnMe);
     return(returnMe);
   }
 
 
 
+  //  PURPOSE:  To return the key of constant 'value' in 'constToVarMap_'.
+  private static
+  String	constKey	(Value	value
+				)
+  {
+    return(value.getType().ordinal() + ":" + value);
+  }
+
+  //  PURPOSE:  To forget each temporary and shared constant that is not in
+  //	'usedVarSet', as no instruction uses it, so that it is not declared.
+  //	Returns the number forgotten.
+  public
+  int		removeUnusedVars(Set<Variable>	usedVarSet
+				)
+  {
+    int		numRemoved	= 0;
+
+    for  (int index = 0;  index < tempVarList_.size();  index++)
+    {
+      Variable	var	= tempVarList_.get(index);
+
+      if  ( (var != null)  &&  !usedVarSet.contains(var) )
+      {
+	tempVarList_.set(index,null);
+	numRemoved++;
+      }
+    }
+
+    for  (int index = 0;  index < constVarList_.size();  index++)
+    {
+      Variable	var	= constVarList_.get(index);
+
+      if  ( (var != null)  &&  !usedVarSet.contains(var) )
+      {
+	constToVarMap_.remove(constKey(var.getValue()));
+	constVarList_.set(index,null);
+	numRemoved++;
+      }
+    }
+
+    return(numRemoved);
+  }
+
   //  PURPOSE:  To print the assembly language representation of '*this' to
   //	'file'.  No return value.
   public
@@ -114,44 +228,84 @@ public class VarStore
   {
     file.println("  %beginVarDecl");
 
-    for  (Map.Entry<String,Variable> entry : nameToVarMap_.entrySet())
+    for  (Variable var : nameToVarMap_.values())
     {
-      Variable	var	= entry.getValue();
-      Value	value	= var.getValue();
+      varToAssembly(file,var);
+    }
 
-      if  (value.getType() == Type.STRING)
+    for  (Variable var : constVarList_)
+    {
+      if  (var != null)
       {
-	file.println
-	    ("    %var\t"				+
-	     VAR_PREFIX_CHAR + var.getNameStr()		+
-	     ","					+
-	     typeNameArray[var.getType().ordinal()]	+
-	     ",\"" + value + "\""
-      	    );
+	varToAssembly(file,var);
       }
-      else
+    }
+
+    for  (Variable var : tempVarList_)
+    {
+      if  (var != null)
       {
-	file.println
-	    ("    %var\t"				+
-	     VAR_PREFIX_CHAR + var.getNameStr()		+
-	     ","					+
-	     typeNameArray[var.getType().ordinal()]	+
-	     "," + value
-	    );
+	varToAssembly(file,var);
       }
-
     }
 
     file.println("  %endVarDecl");
   }
 
+  //  PURPOSE:  To print the declaration of 'var' to 'file'.  No return
+  //	value.
+  private
+  void		varToAssembly	(PrintStream		file,
+				 Variable		var
+				)
+  {
+    Value	value	= var.getValue();
+
+    if  (value.getType() == Type.STRING)
+    {
+      file.println
+	  ("    %var\t"				+
+	   VAR_PREFIX_CHAR + var.getNameStr()		+
+	   ","					+
+	   typeNameArray[var.getType().ordinal()]	+
+	   ",\"" + value + "\""
+	  );
+    }
+    else
+    {
+      file.println
+	  ("    %var\t"				+
+	   VAR_PREFIX_CHAR + var.getNameStr()		+
+	   ","					+
+	   typeNameArray[var.getType().ordinal()]	+
+	   "," + value
+	  );
+    }
+  }
+
   //  V.  Member vars:
-  //  PURPOSE: To keep track of the variables.
+  //  PURPOSE: To keep track of the variables the program declares.
   private
   Map<String,Variable>		nameToVarMap_;
 
-  //  PURPOSE:  To hold the index of the next temporary var.
-  int				nextTempVarIndex_;
+  //  PURPOSE: To hold the shared constants in the order they were made.
+  //	Removed ones are left as 'null', so no name is given twice.
+  private
+  List<Variable>		constVarList_;
+
+  //  PURPOSE: To map the type and text of each constant to the Variable
+  //	that holds it.
+  private
+  Map<String,Variable>		constToVarMap_;
+
+  //  PURPOSE: To hold the temporaries, indexed by their temporary index.
+  //	Removed temporaries are left as 'null'.
+  private
+  List<Variable>		tempVarList_;
+
+  //  PURPOSE:  To hold the values of the variables, indexed by their slots.
+  private
+  Frame				frame_;
 
   //  PURPOSE: To hold the singleton instance of this class.
   private static
@@ -163,7 +317,10 @@ public class VarStore
   VarStore			()
   {
     this.nameToVarMap_		= new HashMap<>();
-    this.nextTempVarIndex_	= 0;
+    this.constToVarMap_		= new HashMap<>();
+    this.constVarList_		= new ArrayList<>();
+    this.tempVarList_		= new ArrayList<>();
+    this.frame_			= new Frame();
   }
 
 }
@@ -14,35 +14,60 @@ import java.util.Objects; // Import for Objects.requireNonNull
 
 public class Variable
 {
+  //  0.  Constants:
+  //  PURPOSE: To tell that a Variable has not yet been given a frame slot.
+  public static final
+  int		NO_SLOT		= -1;
+
+  //  PURPOSE: To tell that a Variable is not a temporary.
+  public static final
+  int		NO_TEMP_INDEX	= -1;
+
   //  I.  Constructor(s):
   //  PURPOSE: To initialize 'this' to be named 'newNameStr' and have type
   //	'newType'.
   public	Variable	(String newNameStr)
   {
-    this.name_	= newNameStr;
-    this.type_	= Type.NONE;
-    this.value_ = null;
+    this.name_		= newNameStr;
+    this.type_		= Type.NONE;
+    this.slot_		= NO_SLOT;
+    this.tempIndex_	= NO_TEMP_INDEX;
   }
 
-  //  PURPOSE: To initialize 'this' to be named 'newNameStr' and have type
-  //	'newType'.
-  public	Variable	(String	newNameStr,
-		  		 Value	value
-		  		)
+  //  PURPOSE: To initialize 'this' to be temporary number 'newTempIndex'.
+  //	Its name is not built until asked for.
+  public	Variable	(int newTempIndex)
   {
-    this.name_	= newNameStr;
-    this.type_	= value.getType();
-    this.value_ = value;
+    this.name_		= null;
+    this.type_		= Type.NONE;
+    this.slot_		= NO_SLOT;
+    this.tempIndex_	= newTempIndex;
   }
 
   //  II.  Accessors:
-  //  PURPOSE: To hold the name of the Variable.
+  //  PURPOSE: To return the name of the Variable.  The name of a temporary
+  //	is built the first time it is asked for.
   public
   String	getNameStr	()
   {
+    if  (name_ == null)
+    {
+      name_	= VarStore.get().generatedName(VarStore.TEMP_VAR_PREFIX_STR,
+					       tempIndex_
+					      );
+    }
+
     return name_;
   }
 
+  //  PURPOSE: To return the index of 'this' among the temporaries, or
+  //	'NO_TEMP_INDEX' if it is not a temporary.
+  public
+  int		getTempIndex	()
+  {
+    return tempIndex_;
+  }
+
   //  PURPOSE: To return the type of the variable.
   public
   Type		getType		()
@@ -50,11 +75,50 @@ public class Variable
     return type_;
   }
 
+  //  PURPOSE: To return the index of the slot that holds the value of 'this'
+  //	in the Frame array for its type, or 'NO_SLOT' if it has none yet.
+  public
+  int		getSlot		()
+  {
+    return slot_;
+  }
+
   //  PURPOSE: To return the value.
   public
   Value		getValue	()
   {
-    return value_.copy();
+    return VarStore.get().getFrame().getValue(type_,slot_);
+  }
+
+  //  PURPOSE: To return the value of a boolean variable without allocating.
+  public
+  boolean	getBoolean	()
+  {
+    return VarStore.get().getFrame().getBoolean(slot_);
+  }
+
+  //  PURPOSE: To return the value of an integer variable without allocating.
+  public
+  long		getInteger	()
+  {
+    return VarStore.get().getFrame().getInteger(slot_);
+  }
+
+  //  PURPOSE: To return the value of a numeric variable as a real without
+  //	allocating.  Integer variables are converted.
+  public
+  double	getReal		()
+  {
+    return (type_ == Type.INTEGER)
+	   ? (double)getInteger()
+	   : VarStore.get().getFrame().getReal(slot_);
+  }
+
+  //  PURPOSE: To return the value of a string variable without allocating.
+  public
+  String	getString	()
+  {
+    return VarStore.get().getFrame().getString(slot_);
   }
 
   //  III. Mutators:
@@ -62,21 +126,13 @@ public class Variable
   public
   void		setType		(Type type)
   {
-    this.type_ = type;
-
-    switch (type_)
+    switch (type)
     {
     case BOOLEAN:
-      value_	= new BooleanValue(false);
-      break;
     case INTEGER:
-      value_ = new IntegerValue(0);
-      break;
     case REAL:
-      value_ = new RealValue(0.0);
-      break;
     case STRING:
-      value_ = new StringValue("");
+      this.type_ = type;
       break;
     default:
       throw new IllegalArgumentException
@@ -85,6 +141,14 @@ public class Variable
     }
   }
 
+  //  PURPOSE: To set the index of the Frame slot of 'this' to 'newSlot'.
+  //	Only VarStore should do this.
+  public
+  void		setSlot		(int newSlot)
+  {
+    this.slot_ = newSlot;
+  }
+
   //  PURPOSE: To set the value.
   public
   void		setValue	(Value newValue)
@@ -97,11 +161,40 @@ public class Variable
 			);
     }
 
-    value_	= newValue;
+    VarStore.get().getFrame().setValue(type_,slot_,newValue);
+  }
+
+  //  PURPOSE: To set the value of a boolean variable to 'newBoolean'.
+  public
+  void		setBoolean	(boolean newBoolean)
+  {
+    VarStore.get().getFrame().setBoolean(slot_,newBoolean);
+  }
+
+  //  PURPOSE: To set the value of an integer variable to 'newInteger'.
+  public
+  void		setInteger	(long newInteger)
+  {
+    VarStore.get().getFrame().setInteger(slot_,newInteger);
+  }
+
+  //  PURPOSE: To set the value of a real variable to 'newReal'.
+  public
+  void		setReal		(double newReal)
+  {
+    VarStore.get().getFrame().setReal(slot_,newReal);
+  }
+
+  //  PURPOSE: To set the value of a string variable to 'newString'.
+  public
+  void		setString	(String newString)
+  {
+    VarStore.get().getFrame().setString(slot_,newString);
   }
 
   //  V. Member vars:
-  //  PURPOSE: To hold the name of the Variable.
+  //  PURPOSE: To hold the name of the Variable, or 'null' for a temporary
+  //	whose name has not been asked for yet.
   private
   String			name_;
 
@@ -109,8 +202,14 @@ public class Variable
   private
   Type				type_;
 
-  //  PURPOSE: To address of the current value.
+  //  PURPOSE: To hold the index of the slot that holds the value of 'this'
+  //	in the Frame array for its type.
   private
-  Value				value_;
+  int				slot_;
+
+  //  PURPOSE: To hold the index of 'this' among the temporaries, or
+  //	'NO_TEMP_INDEX' if it is not a temporary.
+  private final
+  int				tempIndex_;
 
 }
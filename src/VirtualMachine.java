@@ -0,0 +1,1272 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        VirtualMachine.java                                        ---*
+ *---                                                                   ---*
+ *---    This file declares a class that assembles VM instructions,     ---*
+ *---    either in memory or as the text that OurPascal.toAssembly()    ---*
+ *---    prints, into dense int-coded form and runs them with typed     ---*
+ *---    register banks.                                                ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class VirtualMachine
+{
+  //  0.  Constants:
+  //  PURPOSE: To tell the number of ints each encoded instruction takes:
+  //	the opcode followed by up to three operands.
+  public static final
+  int		INSTRUCTION_WIDTH	= 4;
+
+  //  PURPOSE: To tell the text that begins and ends the sections of an
+  //	assembly file.
+  public static final
+  String	BEGIN_VAR_DECL_STR	= "%beginVarDecl";
+
+  public static final
+  String	END_VAR_DECL_STR	= "%endVarDecl";
+
+  public static final
+  String	VAR_DECL_STR		= "%var";
+
+  public static final
+  String	BEGIN_CODE_STR		= "%beginCode";
+
+  public static final
+  String	END_CODE_STR		= "%endCode";
+
+  //  PURPOSE: To hold the encoded opcodes.  Unlike VmOperation they are
+  //	specialized by operand type, so the dispatch loop never tests a type.
+  //	Register operands index the Frame array of their type; jump operands
+  //	are code indices.
+  protected static final int	HALT		= 0;
+  protected static final int	BOOL_CLEAR	= 1;
+  protected static final int	INT_CLEAR	= 2;
+  protected static final int	REAL_CLEAR	= 3;
+  protected static final int	BOOL_PRINT	= 4;
+  protected static final int	INT_PRINT	= 5;
+  protected static final int	REAL_PRINT	= 6;
+  protected static final int	STRING_PRINT	= 7;
+  protected static final int	NEWLINE		= 8;
+  protected static final int	BOOL_COPY	= 9;
+  protected static final int	INT_COPY	= 10;
+  protected static final int	REAL_COPY	= 11;
+  protected static final int	STRING_COPY	= 12;
+  protected static final int	INT_ADD		= 13;
+  protected static final int	REAL_ADD	= 14;
+  protected static final int	INT_SUB		= 15;
+  protected static final int	REAL_SUB	= 16;
+  protected static final int	INT_MUL		= 17;
+  protected static final int	REAL_MUL	= 18;
+  protected static final int	LOGIC_NOT	= 19;
+  protected static final int	INT_TO_REAL	= 20;
+  protected static final int	INT_DIV		= 21;
+  protected static final int	REAL_DIV	= 22;
+  protected static final int	MOD		= 23;
+  protected static final int	LOGIC_AND	= 24;
+  protected static final int	LOGIC_OR	= 25;
+  protected static final int	INT_EQUAL	= 26;
+  protected static final int	INT_NOT_EQUAL	= 27;
+  protected static final int	INT_LESSER	= 28;
+  protected static final int	INT_LESSER_EQUAL= 29;
+  protected static final int	INT_GREATER	= 30;
+  protected static final int	INT_GREATER_EQUAL= 31;
+  protected static final int	REAL_EQUAL	= 32;
+  protected static final int	REAL_NOT_EQUAL	= 33;
+  protected static final int	REAL_LESSER	= 34;
+  protected static final int	REAL_LESSER_EQUAL= 35;
+  protected static final int	REAL_GREATER	= 36;
+  protected static final int	REAL_GREATER_EQUAL= 37;
+  protected static final int	STRING_EQUAL	= 38;
+  protected static final int	STRING_NOT_EQUAL= 39;
+  protected static final int	STRING_LESSER	= 40;
+  protected static final int	STRING_LESSER_EQUAL= 41;
+  protected static final int	STRING_GREATER	= 42;
+  protected static final int	STRING_GREATER_EQUAL= 43;
+  protected static final int	BOOL_EQUAL	= 44;
+  protected static final int	BOOL_NOT_EQUAL	= 45;
+  protected static final int	GOTO		= 46;
+  protected static final int	IF_FALSE_GOTO	= 47;
+  protected static final int	IF_TRUE_GOTO	= 48;
+  protected static final int	IF_INT_EQUAL_GOTO	= 49;
+  protected static final int	IF_INT_NOT_EQUAL_GOTO	= 50;
+  protected static final int	IF_INT_LESSER_GOTO	= 51;
+  protected static final int	IF_INT_LESSER_EQUAL_GOTO= 52;
+  protected static final int	IF_INT_GREATER_GOTO	= 53;
+  protected static final int	IF_INT_GREATER_EQUAL_GOTO= 54;
+  protected static final int	IF_REAL_EQUAL_GOTO	= 55;
+  protected static final int	IF_REAL_NOT_EQUAL_GOTO	= 56;
+  protected static final int	IF_REAL_LESSER_GOTO	= 57;
+  protected static final int	IF_REAL_LESSER_EQUAL_GOTO= 58;
+  protected static final int	IF_REAL_GREATER_GOTO	= 59;
+  protected static final int	IF_REAL_GREATER_EQUAL_GOTO= 60;
+  protected static final int	INT_ADD_IMM	= 61;
+  protected static final int	REAL_ADD_IMM	= 62;
+  protected static final int	INT_SUB_IMM	= 63;
+  protected static final int	REAL_SUB_IMM	= 64;
+  protected static final int	INT_MUL_IMM	= 65;
+  protected static final int	REAL_MUL_IMM	= 66;
+  protected static final int	INT_EQUAL_IMM	= 67;
+  protected static final int	INT_NOT_EQUAL_IMM= 68;
+  protected static final int	INT_LESSER_IMM	= 69;
+  protected static final int	INT_LESSER_EQUAL_IMM= 70;
+  protected static final int	INT_GREATER_IMM	= 71;
+  protected static final int	INT_GREATER_EQUAL_IMM= 72;
+  protected static final int	IF_INT_EQUAL_IMM_GOTO	= 73;
+  protected static final int	IF_INT_NOT_EQUAL_IMM_GOTO= 74;
+  protected static final int	IF_INT_LESSER_IMM_GOTO	= 75;
+  protected static final int	IF_INT_LESSER_EQUAL_IMM_GOTO= 76;
+  protected static final int	IF_INT_GREATER_IMM_GOTO	= 77;
+  protected static final int	IF_INT_GREATER_EQUAL_IMM_GOTO= 78;
+  protected static final int	INT_ADD3	= 79;
+  protected static final int	REAL_ADD3	= 80;
+  protected static final int	INT_SUB3	= 81;
+  protected static final int	REAL_SUB3	= 82;
+  protected static final int	INT_MUL3	= 83;
+  protected static final int	REAL_MUL3	= 84;
+  protected static final int	BOOL_SELECT	= 85;
+  protected static final int	INT_SELECT	= 86;
+  protected static final int	REAL_SELECT	= 87;
+  protected static final int	STRING_SELECT	= 88;
+
+  //  I.  Constructor(s):
+  //  PURPOSE: To initialize 'this' to run 'instructList' with the registers
+  //	in 'frame', each Variable using its own slot as its register.  No
+  //	return value.
+  public
+  VirtualMachine		(List<PotentialInstruction>	instructList,
+				 Frame				frame
+				)
+  {
+    List<Long>		intImmList	= new ArrayList<>();
+    List<Double>	realImmList	= new ArrayList<>();
+
+    frame_	= frame;
+    code_	= encode(instructList,intImmList,realImmList);
+    intImm_	= new long[intImmList.size()];
+    realImm_	= new double[realImmList.size()];
+
+    for  (int index = 0;  index < intImm_.length;  index++)
+    {
+      intImm_[index]	= intImmList.get(index);
+    }
+
+    for  (int index = 0;  index < realImm_.length;  index++)
+    {
+      realImm_[index]	= realImmList.get(index);
+    }
+  }
+
+  //  PURPOSE: To return a VirtualMachine that runs the assembly text read
+  //	from 'reader', in the format OurPascal.toAssembly() prints.  Its
+  //	registers are a new Frame initialized from the '%var' declarations.
+  public static
+  VirtualMachine
+		load		(Reader	reader
+				)
+				throws IOException
+  {
+    BufferedReader		in		= new BufferedReader(reader);
+    Frame			frame		= new Frame();
+    Map<String,Variable>	nameToVarMap	= new HashMap<>();
+    List<PotentialInstruction>	list		= new ArrayList<>();
+    long			pendingLabel	= PotentialInstruction
+							.NO_ADDRESS_LABEL;
+    boolean			isInVarDecl	= false;
+    boolean			isInCode	= false;
+    String			line;
+
+    while  ( (line = in.readLine()) != null )
+    {
+      line	= line.trim();
+
+      if  (line.isEmpty())
+      {
+	continue;
+      }
+
+      if  (line.equals(BEGIN_VAR_DECL_STR))
+      {
+	isInVarDecl	= true;
+      }
+      else
+      if  (line.equals(END_VAR_DECL_STR))
+      {
+	isInVarDecl	= false;
+      }
+      else
+      if  (line.equals(BEGIN_CODE_STR))
+      {
+	isInCode	= true;
+      }
+      else
+      if  (line.equals(END_CODE_STR))
+      {
+	isInCode	= false;
+      }
+      else
+      if  (isInVarDecl  &&  line.startsWith(VAR_DECL_STR))
+      {
+	Variable	var	= parseVarDecl(line.substring
+						(VAR_DECL_STR.length()).trim(),
+					       frame
+					      );
+
+	nameToVarMap.put(var.getNameStr(),var);
+      }
+      else
+      if  (isInCode)
+      {
+	//  A label line labels the next instruction:
+	if  (line.endsWith(":"))
+	{
+	  pendingLabel	= parseLabel(line.substring(0,line.length()-1).trim());
+	  continue;
+	}
+
+	PotentialInstruction	instruct = parseInstruction(line,nameToVarMap);
+
+	instruct.setAddressLabel(pendingLabel);
+	pendingLabel	= PotentialInstruction.NO_ADDRESS_LABEL;
+	list.add(instruct);
+      }
+    }
+
+    if  (pendingLabel != PotentialInstruction.NO_ADDRESS_LABEL)
+    {
+      PotentialInstruction	end	=
+				new PotentialInstruction(VmOperation.NO_VM_OP);
+
+      end.setAddressLabel(pendingLabel);
+      list.add(end);
+    }
+
+    return(new VirtualMachine(list,frame));
+  }
+
+  //  II. Accessors:
+  //  PURPOSE: To return the Frame that holds the registers.
+  public
+  Frame		getFrame	()
+  {
+    return(frame_);
+  }
+
+  //  PURPOSE: To return the number of encoded instructions.
+  public
+  int		getNumInstructions
+				()
+  {
+    return(code_.length / INSTRUCTION_WIDTH);
+  }
+
+  //  IV. Methods that do main and misc. work of class:
+  //  PURPOSE: To run the encoded program until it halts.  Output goes to
+  //	'System.out'.  No return value.
+  public
+  void		run		()
+  {
+    final int[]		code		= code_;
+    final boolean[]	booleans	= frame_.getBooleanArray();
+    final long[]	integers	= frame_.getIntegerArray();
+    final double[]	reals		= frame_.getRealArray();
+    final Object[]	objects		= frame_.getObjectArray();
+    final long[]	intImm		= intImm_;
+    final double[]	realImm		= realImm_;
+    final PrintStream	out		= System.out;
+    int			pc		= 0;
+
+    while  (true)
+    {
+      final int	a	= code[pc+1];
+      final int	b	= code[pc+2];
+      final int	c	= code[pc+3];
+
+      switch  (code[pc])
+      {
+      case HALT :		return;
+      case BOOL_CLEAR :		booleans[a] = false;			break;
+      case INT_CLEAR :		integers[a] = 0;			break;
+      case REAL_CLEAR :		reals[a]    = 0.0;			break;
+      case BOOL_PRINT :		out.print(booleans[a]);			break;
+      case INT_PRINT :		out.print(integers[a]);			break;
+      case REAL_PRINT :		out.print(reals[a]);			break;
+      case STRING_PRINT :	out.print((String)objects[a]);		break;
+      case NEWLINE :		out.println();				break;
+      case BOOL_COPY :		booleans[a] = booleans[b];		break;
+      case INT_COPY :		integers[a] = integers[b];		break;
+      case REAL_COPY :		reals[a]    = reals[b];			break;
+      case STRING_COPY :	objects[a]  = objects[b];		break;
+      case INT_ADD :		integers[a] += integers[b];		break;
+      case REAL_ADD :		reals[a]    += reals[b];		break;
+      case INT_SUB :		integers[a] -= integers[b];		break;
+      case REAL_SUB :		reals[a]    -= reals[b];		break;
+      case INT_MUL :		integers[a] *= integers[b];		break;
+      case REAL_MUL :		reals[a]    *= reals[b];		break;
+      case LOGIC_NOT :		booleans[a] = !booleans[b];		break;
+      case INT_TO_REAL :	reals[a]    = integers[b];		break;
+      case INT_ADD3 :		integers[a] = integers[b] + integers[c];break;
+      case REAL_ADD3 :		reals[a]    = reals[b]    + reals[c];	break;
+      case INT_SUB3 :		integers[a] = integers[b] - integers[c];break;
+      case REAL_SUB3 :		reals[a]    = reals[b]    - reals[c];	break;
+      case INT_MUL3 :		integers[a] = integers[b] * integers[c];break;
+      case REAL_MUL3 :		reals[a]    = reals[b]    * reals[c];	break;
+      //  A select keeps its false operand in the row after it:
+      case BOOL_SELECT :
+	booleans[a] = booleans[b] ? booleans[c]
+				  : booleans[code[pc+INSTRUCTION_WIDTH+1]];
+	pc	+= 2 * INSTRUCTION_WIDTH;
+	continue;
+      case INT_SELECT :
+	integers[a] = booleans[b] ? integers[c]
+				  : integers[code[pc+INSTRUCTION_WIDTH+1]];
+	pc	+= 2 * INSTRUCTION_WIDTH;
+	continue;
+      case REAL_SELECT :
+	reals[a]    = booleans[b] ? reals[c]
+				  : reals[code[pc+INSTRUCTION_WIDTH+1]];
+	pc	+= 2 * INSTRUCTION_WIDTH;
+	continue;
+      case STRING_SELECT :
+	objects[a]  = booleans[b] ? objects[c]
+				  : objects[code[pc+INSTRUCTION_WIDTH+1]];
+	pc	+= 2 * INSTRUCTION_WIDTH;
+	continue;
+      case INT_DIV :		integers[a] = integers[b] / integers[c];break;
+      case REAL_DIV :		reals[a]    = reals[b]    / reals[c];	break;
+      case MOD :		integers[a] = integers[b] % integers[c];break;
+      case LOGIC_AND :		booleans[a] = booleans[b] & booleans[c];break;
+      case LOGIC_OR :		booleans[a] = booleans[b] | booleans[c];break;
+      case INT_EQUAL :		booleans[a] = integers[b] == integers[c];break;
+      case INT_NOT_EQUAL :	booleans[a] = integers[b] != integers[c];break;
+      case INT_LESSER :		booleans[a] = integers[b] <  integers[c];break;
+      case INT_LESSER_EQUAL :	booleans[a] = integers[b] <= integers[c];break;
+      case INT_GREATER :	booleans[a] = integers[b] >  integers[c];break;
+      case INT_GREATER_EQUAL :	booleans[a] = integers[b] >= integers[c];break;
+      case REAL_EQUAL :		booleans[a] = reals[b] == reals[c];	break;
+      case REAL_NOT_EQUAL :	booleans[a] = reals[b] != reals[c];	break;
+      case REAL_LESSER :	booleans[a] = reals[b] <  reals[c];	break;
+      case REAL_LESSER_EQUAL :	booleans[a] = reals[b] <= reals[c];	break;
+      case REAL_GREATER :	booleans[a] = reals[b] >  reals[c];	break;
+      case REAL_GREATER_EQUAL :	booleans[a] = reals[b] >= reals[c];	break;
+      case STRING_EQUAL :
+	booleans[a] = ((String)objects[b]).equals(objects[c]);
+	break;
+      case STRING_NOT_EQUAL :
+	booleans[a] = !((String)objects[b]).equals(objects[c]);
+	break;
+      case STRING_LESSER :
+	booleans[a] = ((String)objects[b]).compareTo((String)objects[c]) <  0;
+	break;
+      case STRING_LESSER_EQUAL :
+	booleans[a] = ((String)objects[b]).compareTo((String)objects[c]) <= 0;
+	break;
+      case STRING_GREATER :
+	booleans[a] = ((String)objects[b]).compareTo((String)objects[c]) >  0;
+	break;
+      case STRING_GREATER_EQUAL :
+	booleans[a] = ((String)objects[b]).compareTo((String)objects[c]) >= 0;
+	break;
+      case BOOL_EQUAL :		booleans[a] = booleans[b] == booleans[c];break;
+      case BOOL_NOT_EQUAL :	booleans[a] = booleans[b] != booleans[c];break;
+      case GOTO :		pc = a;					continue;
+      case IF_FALSE_GOTO :
+	if  (!booleans[a])
+	{
+	  pc = b;
+	  continue;
+	}
+	break;
+      case IF_TRUE_GOTO :
+	if  (booleans[a])
+	{
+	  pc = b;
+	  continue;
+	}
+	break;
+      case IF_INT_EQUAL_GOTO :
+	if  (integers[a] == integers[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_INT_NOT_EQUAL_GOTO :
+	if  (integers[a] != integers[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_INT_LESSER_GOTO :
+	if  (integers[a] < integers[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_INT_LESSER_EQUAL_GOTO :
+	if  (integers[a] <= integers[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_INT_GREATER_GOTO :
+	if  (integers[a] > integers[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_INT_GREATER_EQUAL_GOTO :
+	if  (integers[a] >= integers[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_REAL_EQUAL_GOTO :
+	if  (reals[a] == reals[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_REAL_NOT_EQUAL_GOTO :
+	if  (reals[a] != reals[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_REAL_LESSER_GOTO :
+	if  (reals[a] < reals[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_REAL_LESSER_EQUAL_GOTO :
+	if  (reals[a] <= reals[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_REAL_GREATER_GOTO :
+	if  (reals[a] > reals[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_REAL_GREATER_EQUAL_GOTO :
+	if  (reals[a] >= reals[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case INT_ADD_IMM :	integers[a] = integers[b] + intImm[c];	break;
+      case REAL_ADD_IMM :	reals[a]    = reals[b]    + realImm[c];	break;
+      case INT_SUB_IMM :	integers[a] = integers[b] - intImm[c];	break;
+      case REAL_SUB_IMM :	reals[a]    = reals[b]    - realImm[c];	break;
+      case INT_MUL_IMM :	integers[a] = integers[b] * intImm[c];	break;
+      case REAL_MUL_IMM :	reals[a]    = reals[b]    * realImm[c];	break;
+      case INT_EQUAL_IMM :	booleans[a] = integers[b] == intImm[c];	break;
+      case INT_NOT_EQUAL_IMM :	booleans[a] = integers[b] != intImm[c];	break;
+      case INT_LESSER_IMM :	booleans[a] = integers[b] <  intImm[c];	break;
+      case INT_LESSER_EQUAL_IMM:booleans[a] = integers[b] <= intImm[c];	break;
+      case INT_GREATER_IMM :	booleans[a] = integers[b] >  intImm[c];	break;
+      case INT_GREATER_EQUAL_IMM:booleans[a] = integers[b] >= intImm[c];break;
+      case IF_INT_EQUAL_IMM_GOTO :
+	if  (integers[a] == intImm[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_INT_NOT_EQUAL_IMM_GOTO :
+	if  (integers[a] != intImm[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_INT_LESSER_IMM_GOTO :
+	if  (integers[a] < intImm[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_INT_LESSER_EQUAL_IMM_GOTO :
+	if  (integers[a] <= intImm[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_INT_GREATER_IMM_GOTO :
+	if  (integers[a] > intImm[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      case IF_INT_GREATER_EQUAL_IMM_GOTO :
+	if  (integers[a] >= intImm[b])
+	{
+	  pc = c;
+	  continue;
+	}
+	break;
+      default :
+	throw new IllegalStateException
+		("Bad opcode " + code[pc] + " at " + pc/INSTRUCTION_WIDTH);
+      }
+
+      pc	+= INSTRUCTION_WIDTH;
+    }
+  }
+
+  //  PURPOSE: To run the assembly file named by 'args[0]', as printed by
+  //	OurPascal.toAssembly().
+  public static
+  void		main		(String[]	args
+				)
+				throws IOException
+  {
+    if  (args.length != 1)
+    {
+      System.err.println("Usage:\tjava VirtualMachine program.asm");
+      return;
+    }
+
+    VirtualMachine	vm;
+    PrintStream		stdout	= System.out;
+
+    try  (FileReader reader = new FileReader(args[0]))
+    {
+      vm	= load(reader);
+    }
+
+    System.setOut(new PrintStream(new BufferedOutputStream(stdout),false));
+
+    try
+    {
+      vm.run();
+    }
+    finally
+    {
+      System.out.flush();
+      System.setOut(stdout);
+    }
+  }
+
+  //  V.  Protected methods:
+  //  PURPOSE: To return the int-coded form of 'instructList'.  No-ops are
+  //	dropped, each label becoming the index of the next real instruction.
+  //	Inline operands are appended to 'intImmList' or 'realImmList' and
+  //	encoded as their index there.
+  protected static
+  int[]		encode		(List<PotentialInstruction>	instructList,
+				 List<Long>			intImmList,
+				 List<Double>			realImmList
+				)
+  {
+    Map<Long,Integer>	labelToPcMap	= new HashMap<>();
+    List<int[]>		encodedList	= new ArrayList<>();
+    List<Long>		targetList	= new ArrayList<>();
+
+    //  I.  Encode, remembering the target label of each jump:
+    for  (PotentialInstruction instruct : instructList)
+    {
+      if  (instruct.getAddressLabel() != PotentialInstruction.NO_ADDRESS_LABEL)
+      {
+	labelToPcMap.put(instruct.getAddressLabel(),
+			 encodedList.size() * INSTRUCTION_WIDTH
+			);
+      }
+
+      encodeInstruction(instruct,encodedList,targetList,intImmList,
+			realImmList
+		       );
+    }
+
+    encodedList.add(new int[] { HALT, 0, 0, 0 });
+    targetList.add(null);
+
+    //  II.  Resolve the jumps:
+    int[]	code	= new int[encodedList.size() * INSTRUCTION_WIDTH];
+
+    for  (int index = 0;  index < encodedList.size();  index++)
+    {
+      int[]	encoded	= encodedList.get(index);
+      Long	target	= targetList.get(index);
+
+      if  (target != null)
+      {
+	Integer	pc	= labelToPcMap.get(target);
+
+	if  (pc == null)
+	{
+	  throw new IllegalArgumentException
+			("Jump to undefined label " + target);
+	}
+
+	encoded[targetOperand(encoded[0])]	= pc;
+      }
+
+      System.arraycopy(encoded,0,code,index*INSTRUCTION_WIDTH,
+		       INSTRUCTION_WIDTH
+		      );
+    }
+
+    return(code);
+  }
+
+  //  PURPOSE: To append the encoded form(s) of 'instruct' to 'encodedList',
+  //	and for each the label it jumps to, or 'null', to 'targetList'.  Any
+  //	inline operand goes in 'intImmList' or 'realImmList'.  No return
+  //	value.
+  protected static
+  void		encodeInstruction
+				(PotentialInstruction	instruct,
+				 List<int[]>		encodedList,
+				 List<Long>		targetList,
+				 List<Long>		intImmList,
+				 List<Double>		realImmList
+				)
+  {
+    VmOperation	op	= instruct.getOp();
+    int		opcode;
+
+    if  (instruct instanceof VarPotentialInstruction)
+    {
+      Variable	var	= ((VarPotentialInstruction)instruct).getVar();
+
+      switch  (op)
+      {
+      case BOOL_CLEAR_VM_OP :	opcode = BOOL_CLEAR;	break;
+      case INT_CLEAR_VM_OP :	opcode = INT_CLEAR;	break;
+      case REAL_CLEAR_VM_OP :	opcode = REAL_CLEAR;	break;
+      case STDOUT_PRINT_VM_OP :
+      case STDOUT_PRINTLN_VM_OP :
+	opcode	= typed(var.getType(),BOOL_PRINT,INT_PRINT,REAL_PRINT,
+			STRING_PRINT
+		       );
+	add(encodedList,targetList,opcode,var.getSlot(),0,0);
+
+	if  (op == VmOperation.STDOUT_PRINTLN_VM_OP)
+	{
+	  add(encodedList,targetList,NEWLINE,0,0,0);
+	}
+
+	return;
+      default :
+	throw nonHandled(op);
+      }
+
+      add(encodedList,targetList,opcode,var.getSlot(),0,0);
+    }
+    else
+    if  (instruct instanceof VarVarPotentialInstruction)
+    {
+      VarVarPotentialInstruction
+		varVar	= (VarVarPotentialInstruction)instruct;
+      Variable	dest	= varVar.getDest();
+
+      switch  (op)
+      {
+      case INT_COPY_VM_OP :
+      case REAL_COPY_VM_OP :
+      case IDEA_COPY_VM_OP :
+	opcode	= typed(dest.getType(),BOOL_COPY,INT_COPY,REAL_COPY,
+			STRING_COPY
+		       );
+	break;
+      case INT_ADD_VAR_VAR_VM_OP :	opcode = INT_ADD;	break;
+      case REAL_ADD_VAR_VAR_VM_OP :	opcode = REAL_ADD;	break;
+      case INT_SUB_VAR_VAR_VM_OP :	opcode = INT_SUB;	break;
+      case REAL_SUB_VAR_VAR_VM_OP :	opcode = REAL_SUB;	break;
+      case INT_MUL_VAR_VAR_VM_OP :	opcode = INT_MUL;	break;
+      case REAL_MUL_VAR_VAR_VM_OP :	opcode = REAL_MUL;	break;
+      case LOGIC_NOT_VM_OP :		opcode = LOGIC_NOT;	break;
+      case INT_TO_REAL_VM_OP :		opcode = INT_TO_REAL;	break;
+      default :
+	throw nonHandled(op);
+      }
+
+      add(encodedList,targetList,opcode,dest.getSlot(),
+	  varVar.getSrc0().getSlot(),0
+	 );
+    }
+    else
+    if  (instruct instanceof VarVarVarPotentialInstruction)
+    {
+      VarVarVarPotentialInstruction
+		triple	= (VarVarVarPotentialInstruction)instruct;
+
+      switch  (op)
+      {
+      case INT_ADD_VM_OP :		opcode = INT_ADD3;	break;
+      case REAL_ADD_VM_OP :		opcode = REAL_ADD3;	break;
+      case INT_SUB_VM_OP :		opcode = INT_SUB3;	break;
+      case REAL_SUB_VM_OP :		opcode = REAL_SUB3;	break;
+      case INT_MUL_VM_OP :		opcode = INT_MUL3;	break;
+      case REAL_MUL_VM_OP :		opcode = REAL_MUL3;	break;
+      case INT_DIV_VM_OP :		opcode = INT_DIV;	break;
+      case REAL_DIV_VM_OP :		opcode = REAL_DIV;	break;
+      case MOD_VM_OP :			opcode = MOD;		break;
+      case LOGIC_AND_VM_OP :		opcode = LOGIC_AND;	break;
+      case LOGIC_OR_VM_OP :		opcode = LOGIC_OR;	break;
+      default :
+	opcode	= compareOpcode(op,triple.getSrc0().getType());
+	break;
+      }
+
+      add(encodedList,targetList,opcode,triple.getDest().getSlot(),
+	  triple.getSrc0().getSlot(),triple.getSrc1().getSlot()
+	 );
+    }
+    else
+    if  (instruct instanceof VarVarVarVarPotentialInstruction)
+    {
+      VarVarVarVarPotentialInstruction
+		select	= (VarVarVarVarPotentialInstruction)instruct;
+      Variable	dest	= select.getDest();
+
+      switch  (op)
+      {
+      case INT_SELECT_VM_OP :
+      case REAL_SELECT_VM_OP :
+      case IDEA_SELECT_VM_OP :
+	opcode	= typed(dest.getType(),BOOL_SELECT,INT_SELECT,REAL_SELECT,
+			STRING_SELECT
+		       );
+	break;
+      default :
+	throw nonHandled(op);
+      }
+
+      //  The false operand rides in a row that is never dispatched:
+      add(encodedList,targetList,opcode,dest.getSlot(),
+	  select.getCond().getSlot(),select.getSrc0().getSlot()
+	 );
+      add(encodedList,targetList,HALT,select.getSrc1().getSlot(),0,0);
+    }
+    else
+    if  (instruct instanceof AddrPotentialInstruction)
+    {
+      if  (op == VmOperation.GOTO_VM_OP)
+      {
+	encodedList.add(new int[] { GOTO, 0, 0, 0 });
+	targetList.add
+		(((AddrPotentialInstruction)instruct).getGotoAddressLabel());
+      }
+    }
+    else
+    if  (instruct instanceof VarAddrPotentialInstruction)
+    {
+      VarAddrPotentialInstruction
+		varAddr	= (VarAddrPotentialInstruction)instruct;
+
+      encodedList.add(new int[]
+			{ (op == VmOperation.IF_FALSE_GOTO_VM_OP)
+			  ? IF_FALSE_GOTO : IF_TRUE_GOTO,
+			  varAddr.getVar().getSlot(), 0, 0
+			}
+		     );
+      targetList.add(varAddr.getGotoAddressLabel());
+    }
+    else
+    if  (instruct instanceof VarVarAddrPotentialInstruction)
+    {
+      VarVarAddrPotentialInstruction
+		fused	= (VarVarAddrPotentialInstruction)instruct;
+      boolean	isReal	= (fused.getSrc0().getType() == Type.REAL);
+      int	offset	= op.ordinal()
+			  - (isReal	? VmOperation.IF_REAL_EQUAL_GOTO_VM_OP
+					: VmOperation.IF_INT_EQUAL_GOTO_VM_OP
+			    ).ordinal();
+
+      //  Both sets list the six comparisons in the same order:
+      if  ( (offset < 0)  ||  (offset > 5) )
+      {
+	throw nonHandled(op);
+      }
+
+      encodedList.add(new int[]
+			{ (isReal ? IF_REAL_EQUAL_GOTO : IF_INT_EQUAL_GOTO)
+			  + offset,
+			  fused.getSrc0().getSlot(),
+			  fused.getSrc1().getSlot(),
+			  0
+			}
+		     );
+      targetList.add(fused.getGotoAddressLabel());
+    }
+    else
+    if  (instruct instanceof VarVarImmPotentialInstruction)
+    {
+      VarVarImmPotentialInstruction
+		varVarImm	= (VarVarImmPotentialInstruction)instruct;
+      int	offset		= op.ordinal()
+				  - VmOperation.INT_ADD_IMM_VM_OP.ordinal();
+
+      //  Both list the six arithmetic then the six comparison ops in the
+      //  same order:
+      if  ( (offset < 0)  ||  (offset > 11) )
+      {
+	throw nonHandled(op);
+      }
+
+      add(encodedList,targetList,INT_ADD_IMM + offset,
+	  varVarImm.getDest().getSlot(),varVarImm.getSrc0().getSlot(),
+	  immediate(varVarImm.getImmediate(),intImmList,realImmList)
+	 );
+    }
+    else
+    if  (instruct instanceof VarImmAddrPotentialInstruction)
+    {
+      VarImmAddrPotentialInstruction
+		varImmAddr	= (VarImmAddrPotentialInstruction)instruct;
+      int	offset		= op.ordinal()
+				  - VmOperation.IF_INT_EQUAL_IMM_GOTO_VM_OP
+					.ordinal();
+
+      if  ( (offset < 0)  ||  (offset > 5) )
+      {
+	throw nonHandled(op);
+      }
+
+      encodedList.add(new int[]
+			{ IF_INT_EQUAL_IMM_GOTO + offset,
+			  varImmAddr.getSrc0().getSlot(),
+			  immediate(varImmAddr.getImmediate(),intImmList,
+				    realImmList
+				   ),
+			  0
+			}
+		     );
+      targetList.add(varImmAddr.getGotoAddressLabel());
+    }
+    else
+    if  ( (op != VmOperation.NO_VM_OP)  &&  (op != VmOperation.ADDR_LABEL_OP) )
+    {
+      throw nonHandled(op);
+    }
+  }
+
+  //  PURPOSE: To return the index of the operand of jump 'opcode' that
+  //	holds its target: the one after its variable operands.
+  protected static
+  int		targetOperand	(int	opcode)
+  {
+    switch  (opcode)
+    {
+    case GOTO :				return(1);
+    case IF_FALSE_GOTO :
+    case IF_TRUE_GOTO :			return(2);
+    default :				return(3);
+    }
+  }
+
+  //  PURPOSE: To return the index of inline operand 'value' in
+  //	'intImmList' or 'realImmList', whichever goes with its type, adding it
+  //	if it is not already there.
+  protected static
+  int		immediate	(Value		value,
+				 List<Long>	intImmList,
+				 List<Double>	realImmList
+				)
+  {
+    switch  (value.getType())
+    {
+    case INTEGER :	return(indexOf(intImmList,value.getInteger()));
+    case REAL :		return(indexOf(realImmList,value.getReal()));
+    default :
+      throw new IllegalArgumentException
+		("Inline operand " + value + " is not a number");
+    }
+  }
+
+  //  PURPOSE: To return the index of 'value' in 'list', appending it if it
+  //	is not already there.
+  protected static
+  <T>
+  int		indexOf		(List<T>	list,
+				 T		value
+				)
+  {
+    int		index	= list.indexOf(value);
+
+    if  (index < 0)
+    {
+      index	= list.size();
+      list.add(value);
+    }
+
+    return(index);
+  }
+
+  //  PURPOSE: To return the opcode that compares operands of type
+  //	'operandType' as 'op' does.  The REAL_*_VM_OP comparisons are also
+  //	emitted for string and boolean operands.
+  protected static
+  int		compareOpcode	(VmOperation	op,
+				 Type		operandType
+				)
+  {
+    int		offset;
+
+    switch  (op)
+    {
+    case INT_EQUAL_VM_OP :
+    case REAL_EQUAL_VM_OP :		offset	= 0;	break;
+    case INT_NOT_EQUAL_VM_OP :
+    case REAL_NOT_EQUAL_VM_OP :		offset	= 1;	break;
+    case INT_LESSER_VM_OP :
+    case REAL_LESSER_VM_OP :		offset	= 2;	break;
+    case INT_LESSER_EQUAL_VM_OP :
+    case REAL_LESSER_EQUAL_VM_OP :	offset	= 3;	break;
+    case INT_GREATER_VM_OP :
+    case REAL_GREATER_VM_OP :		offset	= 4;	break;
+    case INT_GREATER_EQUAL_VM_OP :
+    case REAL_GREATER_EQUAL_VM_OP :	offset	= 5;	break;
+    default :
+      throw nonHandled(op);
+    }
+
+    if  ( (operandType == Type.BOOLEAN)  &&  (offset > 1) )
+    {
+      throw new IllegalArgumentException
+		("Booleans may only be compared for equality");
+    }
+
+    return(typed(operandType,BOOL_EQUAL,INT_EQUAL,REAL_EQUAL,STRING_EQUAL)
+	   + offset
+	  );
+  }
+
+  //  PURPOSE: To return the one of 'boolOp', 'intOp', 'realOp' and
+  //	'stringOp' that goes with 'type'.
+  protected static
+  int		typed		(Type	type,
+				 int	boolOp,
+				 int	intOp,
+				 int	realOp,
+				 int	stringOp
+				)
+  {
+    switch  (type)
+    {
+    case BOOLEAN :	return(boolOp);
+    case INTEGER :	return(intOp);
+    case REAL :		return(realOp);
+    case STRING :	return(stringOp);
+    default :
+      throw new IllegalArgumentException("Operand has no type");
+    }
+  }
+
+  //  PURPOSE: To append the non-jumping instruction 'opcode a,b,c' to
+  //	'encodedList'.  No return value.
+  protected static
+  void		add		(List<int[]>	encodedList,
+				 List<Long>	targetList,
+				 int		opcode,
+				 int		a,
+				 int		b,
+				 int		c
+				)
+  {
+    encodedList.add(new int[] { opcode, a, b, c });
+    targetList.add(null);
+  }
+
+  //  PURPOSE: To return the exception thrown for a VM op that cannot be
+  //	encoded.
+  protected static
+  IllegalArgumentException
+		nonHandled	(VmOperation	op)
+  {
+    return(new IllegalArgumentException
+		("Non-handled op " + op + " in VirtualMachine.encode()")
+	  );
+  }
+
+  //  PURPOSE: To return the Variable declared by 'text', which is of the
+  //	form '@name,Type,value', giving it a register in 'frame' that holds
+  //	'value'.
+  protected static
+  Variable	parseVarDecl	(String	text,
+				 Frame	frame
+				)
+  {
+    String[]	fieldArray	= text.split(",",3);
+
+    if  ( (fieldArray.length != 3)  ||
+	  (fieldArray[0].charAt(0) != VarStore.VAR_PREFIX_CHAR)
+	)
+    {
+      throw new IllegalArgumentException("Bad variable declaration " + text);
+    }
+
+    Variable	var		= new Variable(fieldArray[0].substring(1));
+    String	valueStr	= fieldArray[2];
+    Type	type		= null;
+    Value	value;
+
+    for  (int index = 0;  index < VarStore.typeNameArray.length;  index++)
+    {
+      if  (VarStore.typeNameArray[index].equals(fieldArray[1]))
+      {
+	type	= Type.values()[index];
+      }
+    }
+
+    if  (type == null)
+    {
+      throw new IllegalArgumentException("Bad variable type " + text);
+    }
+
+    switch  (type)
+    {
+    case BOOLEAN :
+      value	= new BooleanValue(Boolean.parseBoolean(valueStr));
+      break;
+    case INTEGER :
+      value	= new IntegerValue(Long.parseLong(valueStr));
+      break;
+    case REAL :
+      value	= new RealValue(Double.parseDouble(valueStr));
+      break;
+    case STRING :
+      if  ( (valueStr.length() < 2)	||
+	    !valueStr.startsWith("\"")	||
+	    !valueStr.endsWith("\"")
+	  )
+      {
+	throw new IllegalArgumentException("Bad string value " + text);
+      }
+
+      value	= new StringValue(valueStr.substring(1,valueStr.length()-1));
+      break;
+    default :
+      throw new IllegalArgumentException("Bad variable type " + text);
+    }
+
+    var.setType(type);
+    var.setSlot(frame.allocate(type));
+    frame.setValue(type,var.getSlot(),value);
+    return(var);
+  }
+
+  //  PURPOSE: To return the number of label 'text', which is of the form
+  //	'labelN%'.
+  protected static
+  long		parseLabel	(String	text)
+  {
+    if  ( !text.startsWith("label")  ||
+	  (text.charAt(text.length()-1) !=
+	   PotentialInstruction.ADDR_LABEL_SUFFIX_CHAR
+	  )
+	)
+    {
+      throw new IllegalArgumentException("Bad address label " + text);
+    }
+
+    return(Long.parseLong(text.substring("label".length(),text.length()-1)));
+  }
+
+  //  PURPOSE: To return the inline operand written as 'text': an integer
+  //	if it has no fraction or exponent, else a real.
+  protected static
+  Value		parseImmediate	(String	text)
+  {
+    try
+    {
+      return(new IntegerValue(Long.parseLong(text)));
+    }
+    catch  (NumberFormatException integerException)
+    {
+      try
+      {
+	return(new RealValue(Double.parseDouble(text)));
+      }
+      catch  (NumberFormatException realException)
+      {
+	throw new IllegalArgumentException("Bad inline operand " + text);
+      }
+    }
+  }
+
+  //  PURPOSE: To return the instruction written as 'text', looking up its
+  //	variables in 'nameToVarMap'.  The shape of the operands decides the
+  //	PotentialInstruction subclass.
+  protected static
+  PotentialInstruction
+		parseInstruction(String			text,
+				 Map<String,Variable>	nameToVarMap
+				)
+  {
+    String[]	partArray	= text.split("\\s+",2);
+    VmOperation	op		= null;
+
+    for  (int index = 0;
+	  index < PotentialInstruction.vmOpNameArray.length;
+	  index++
+	 )
+    {
+      if  (PotentialInstruction.vmOpNameArray[index].equals(partArray[0]))
+      {
+	op	= VmOperation.values()[index];
+      }
+    }
+
+    if  (op == null)
+    {
+      throw new IllegalArgumentException("Unknown op " + partArray[0]);
+    }
+
+    if  (partArray.length == 1)
+    {
+      return(new PotentialInstruction(op));
+    }
+
+    String[]	argArray	= partArray[1].split(",");
+    List<Variable>
+		varList		= new ArrayList<>();
+    long	label		= PotentialInstruction.NO_ADDRESS_LABEL;
+    Value	immediate	= null;
+
+    for  (String arg : argArray)
+    {
+      arg	= arg.trim();
+
+      if  (arg.charAt(0) == PotentialInstruction.IMMEDIATE_PREFIX_CHAR)
+      {
+	immediate	= parseImmediate(arg.substring(1));
+      }
+      else
+      if  (arg.charAt(0) == PotentialInstruction.VAR_PREFIX_CHAR)
+      {
+	Variable	var	= nameToVarMap.get(arg.substring(1));
+
+	if  (var == null)
+	{
+	  throw new IllegalArgumentException("Undeclared variable " + arg);
+	}
+
+	varList.add(var);
+      }
+      else
+      {
+	label	= parseLabel(arg);
+      }
+    }
+
+    if  (immediate != null)
+    {
+      if  (label != PotentialInstruction.NO_ADDRESS_LABEL)
+      {
+	if  (varList.size() == 1)
+	{
+	  return(new VarImmAddrPotentialInstruction(op,varList.get(0),
+						    immediate,label
+						   )
+		);
+	}
+      }
+      else
+      {
+	if  (varList.size() == 2)
+	{
+	  return(new VarVarImmPotentialInstruction(op,varList.get(0),
+						   varList.get(1),immediate
+						  )
+		);
+	}
+      }
+    }
+    else
+    if  (label != PotentialInstruction.NO_ADDRESS_LABEL)
+    {
+      switch  (varList.size())
+      {
+      case 0 :	return(new AddrPotentialInstruction(op,label));
+      case 1 :	return(new VarAddrPotentialInstruction(op,varList.get(0),label));
+      case 2 :	return(new VarVarAddrPotentialInstruction(op,varList.get(0),
+							  varList.get(1),label
+							 )
+		      );
+      default :	break;
+      }
+    }
+    else
+    {
+      switch  (varList.size())
+      {
+      case 1 :
+	return(new VarPotentialInstruction(op,varList.get(0)));
+      case 2 :
+	return(new VarVarPotentialInstruction(op,varList.get(0),
+					      varList.get(1)
+					     )
+	      );
+      case 3 :
+	return(new VarVarVarPotentialInstruction(op,varList.get(0),
+						 varList.get(1),
+						 varList.get(2)
+						)
+	      );
+      case 4 :
+	return(new VarVarVarVarPotentialInstruction(op,varList.get(0),
+						    varList.get(1),
+						    varList.get(2),
+						    varList.get(3)
+						   )
+	      );
+      default :
+	break;
+      }
+    }
+
+    throw new IllegalArgumentException("Bad operands " + text);
+  }
+
+  //  VI.  Member vars:
+  //  PURPOSE: To hold the registers.
+  protected final
+  Frame				frame_;
+
+  //  PURPOSE: To hold the encoded instructions, 'INSTRUCTION_WIDTH' ints
+  //	each.
+  protected final
+  int[]				code_;
+
+  //  PURPOSE: To hold the integer and real inline operands, indexed by the
+  //	encoded instructions that use them.
+  protected final
+  long[]			intImm_;
+
+  protected final
+  double[]			realImm_;
+}
@@ -54,6 +54,17 @@ enum	VmOperation
 	 REAL_GREATER_VM_OP,
 	 INT_GREATER_EQUAL_VM_OP,
 	 REAL_GREATER_EQUAL_VM_OP,
+	 INT_ADD_VM_OP,
+	 REAL_ADD_VM_OP,
+	 INT_SUB_VM_OP,
+	 REAL_SUB_VM_OP,
+	 INT_MUL_VM_OP,
+	 REAL_MUL_VM_OP,
+
+	 // 4 vars
+	 INT_SELECT_VM_OP,
+	 REAL_SELECT_VM_OP,
+	 IDEA_SELECT_VM_OP,
 
 	 // 1 addr
 	 GOTO_VM_OP,
@@ -61,7 +72,43 @@ enum	VmOperation
 
 	 // 1 var, 1 addr
 	 IF_FALSE_GOTO_VM_OP,
-	 IF_TRUE_GOTO_VM_OP
+	 IF_TRUE_GOTO_VM_OP,
+
+	 // 2 vars, 1 addr
+	 IF_INT_EQUAL_GOTO_VM_OP,
+	 IF_INT_NOT_EQUAL_GOTO_VM_OP,
+	 IF_INT_LESSER_GOTO_VM_OP,
+	 IF_INT_LESSER_EQUAL_GOTO_VM_OP,
+	 IF_INT_GREATER_GOTO_VM_OP,
+	 IF_INT_GREATER_EQUAL_GOTO_VM_OP,
+	 IF_REAL_EQUAL_GOTO_VM_OP,
+	 IF_REAL_NOT_EQUAL_GOTO_VM_OP,
+	 IF_REAL_LESSER_GOTO_VM_OP,
+	 IF_REAL_LESSER_EQUAL_GOTO_VM_OP,
+	 IF_REAL_GREATER_GOTO_VM_OP,
+	 IF_REAL_GREATER_EQUAL_GOTO_VM_OP,
+
+	 // 2 vars, 1 immediate
+	 INT_ADD_IMM_VM_OP,
+	 REAL_ADD_IMM_VM_OP,
+	 INT_SUB_IMM_VM_OP,
+	 REAL_SUB_IMM_VM_OP,
+	 INT_MUL_IMM_VM_OP,
+	 REAL_MUL_IMM_VM_OP,
+	 INT_EQUAL_IMM_VM_OP,
+	 INT_NOT_EQUAL_IMM_VM_OP,
+	 INT_LESSER_IMM_VM_OP,
+	 INT_LESSER_EQUAL_IMM_VM_OP,
+	 INT_GREATER_IMM_VM_OP,
+	 INT_GREATER_EQUAL_IMM_VM_OP,
+
+	 // 1 var, 1 immediate, 1 addr
+	 IF_INT_EQUAL_IMM_GOTO_VM_OP,
+	 IF_INT_NOT_EQUAL_IMM_GOTO_VM_OP,
+	 IF_INT_LESSER_IMM_GOTO_VM_OP,
+	 IF_INT_LESSER_EQUAL_IMM_GOTO_VM_OP,
+	 IF_INT_GREATER_IMM_GOTO_VM_OP,
+	 IF_INT_GREATER_EQUAL_IMM_GOTO_VM_OP
 	}
 
 
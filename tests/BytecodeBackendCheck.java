@@ -0,0 +1,158 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        BytecodeBackendCheck.java                                  ---*
+ *---                                                                   ---*
+ *---    This file declares a check of the JVM engine on a program too  ---*
+ *---    large for one JVM method.                                      ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+//  PURPOSE: To check that a program whose loop alone is longer than a JVM
+//	method allows is split into chunks that run as the whole would:
+//
+//		s := 0
+//		i := 0
+//	label0:	s := s + 1		(NUM_ADDS times)
+//		i := i + 1
+//		if i < 3 goto label0
+//		t := 0
+//	label1:	t := t + i
+//		i := i + 1
+//		if i < 1000 goto label1
+public class BytecodeBackendCheck
+{
+  //  PURPOSE: To tell how many times the first loop adds to 's'.  Each add
+  //	takes 10 bytes of code.
+  public static final
+  int		NUM_ADDS		= 10000;
+
+  //  PURPOSE: To run the checks, exiting with status 1 if one fails.  No
+  //	return value.
+  public static
+  void		main		(String[]	argArray)
+				throws IllegalAccessException
+  {
+    Variable			s		= intVar("s");
+    Variable			t		= intVar("t");
+    Variable			i		= intVar("i");
+    List<PotentialInstruction>	instructList	= new ArrayList<>();
+    PotentialInstruction	add;
+
+    instructList.add(new VarPotentialInstruction(VmOperation.INT_CLEAR_VM_OP,s));
+    instructList.add(new VarPotentialInstruction(VmOperation.INT_CLEAR_VM_OP,i));
+
+    for  (int count = 0;  count < NUM_ADDS;  count++)
+    {
+      add	= new VarVarImmPotentialInstruction
+			(VmOperation.INT_ADD_IMM_VM_OP,s,s,new IntegerValue(1));
+
+      if  (count == 0)
+      {
+	add.setAddressLabel(0);
+      }
+
+      instructList.add(add);
+    }
+
+    addCountUp(instructList,i,3,0);
+    instructList.add(new VarPotentialInstruction(VmOperation.INT_CLEAR_VM_OP,t));
+    add	= new VarVarPotentialInstruction(VmOperation.INT_ADD_VAR_VAR_VM_OP,t,i);
+    add.setAddressLabel(1);
+    instructList.add(add);
+    addCountUp(instructList,i,1000,1);
+
+    Frame			frame		= VarStore.get().getFrame();
+    int				numChunks	= 0;
+
+    for  (Method method : MethodHandles.lookup()
+					.defineHiddenClass
+					  (new BytecodeBackend(instructList)
+						.toClassFile(),
+					   false
+					  )
+					.lookupClass()
+					.getDeclaredMethods()
+	 )
+    {
+      if  (method.getName()
+		 .startsWith(BytecodeBackend.CHUNK_METHOD_PREFIX_STR)
+	  )
+      {
+	numChunks++;
+      }
+    }
+
+    check(numChunks > 1,"the program is split into chunks");
+
+    BytecodeBackend.run(instructList,frame);
+
+    check(frame.getInteger(s.getSlot()) == 3 * NUM_ADDS,
+	  "the loop split across chunks runs each add 3 times"
+	 );
+    check(frame.getInteger(t.getSlot()) == (999 * 1000) / 2 - (1 + 2),
+	  "the loop after it adds 3 up to 999"
+	 );
+
+    if  (numFailed_static > 0)
+    {
+      System.exit(1);
+    }
+  }
+
+  //  PURPOSE: To return a new integer Variable named 'nameStr', with a slot
+  //	in the Frame.
+  protected static
+  Variable	intVar		(String	nameStr)
+  {
+    Variable	var	= new Variable(nameStr);
+
+    VarStore.get().declare(var,Type.INTEGER);
+    return(var);
+  }
+
+  //  PURPOSE: To append to 'instructList' code that adds 1 to 'var' and
+  //	goes to 'label' while 'var' is less than 'limit'.  No return value.
+  protected static
+  void		addCountUp	(List<PotentialInstruction>	instructList,
+				 Variable			var,
+				 long				limit,
+				 long				label
+				)
+  {
+    instructList.add(new VarVarImmPotentialInstruction
+			(VmOperation.INT_ADD_IMM_VM_OP,var,var,new IntegerValue(1))
+		    );
+    instructList.add(new VarImmAddrPotentialInstruction
+			(VmOperation.IF_INT_LESSER_IMM_GOTO_VM_OP,var,
+			 new IntegerValue(limit),label
+			)
+		    );
+  }
+
+  //  PURPOSE: To report 'descriptionStr' as failed unless 'isTrue'.  No
+  //	return value.
+  protected static
+  void		check		(boolean	isTrue,
+				 String		descriptionStr
+				)
+  {
+    if  (!isTrue)
+    {
+      System.out.println("FAIL BytecodeBackendCheck: " + descriptionStr);
+      numFailed_static++;
+    }
+  }
+
+  //  PURPOSE: To hold the number of checks failed.
+  protected static
+  int				numFailed_static	= 0;
+}
@@ -0,0 +1,103 @@
+/*-------------------------------------------------------------------------*
+ *---                                                                   ---*
+ *---        DataflowCheck.java                                         ---*
+ *---                                                                   ---*
+ *---    This file declares a check of the dataflow solver on a         ---*
+ *---    program whose first block is also the target of a loop.        ---*
+ *---                                                                   ---*
+ *---    ----    ----    ----    ----    ----    ----    ----    ----   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *---                                                                   ---*
+ *-------------------------------------------------------------------------*/
+
+import java.util.ArrayList;
+import java.util.List;
+
+//  PURPOSE: To check that what holds at the start of the program is not
+//	taken from the back-edge alone when the program starts with a loop:
+//
+//	label0:	x := a * b
+//		i := i + 1
+//		if i < 3 goto label0
+//		print x
+public class DataflowCheck
+{
+  //  PURPOSE: To run the checks, exiting with status 1 if one fails.  No
+  //	return value.
+  public static
+  void		main		(String[]	argArray)
+  {
+    Variable			a		= intVar("a");
+    Variable			b		= intVar("b");
+    Variable			x		= intVar("x");
+    Variable			i		= intVar("i");
+    List<PotentialInstruction>	instructList	= new ArrayList<>();
+    PotentialInstruction	head		=
+		new VarVarVarPotentialInstruction(VmOperation.INT_MUL_VM_OP,x,a,b);
+
+    head.setAddressLabel(0);
+    instructList.add(head);
+    instructList.add(new VarVarImmPotentialInstruction
+			(VmOperation.INT_ADD_IMM_VM_OP,i,i,new IntegerValue(1))
+		    );
+    instructList.add(new VarImmAddrPotentialInstruction
+			(VmOperation.IF_INT_LESSER_IMM_GOTO_VM_OP,i,
+			 new IntegerValue(3),0
+			)
+		    );
+    instructList.add(new VarPotentialInstruction
+			(VmOperation.STDOUT_PRINTLN_VM_OP,x)
+		    );
+
+    ControlFlowGraph		graph		= new ControlFlowGraph(instructList);
+    List<BasicBlock>		blockList	= graph.getBlocks();
+    DataflowAnalysis		available	=
+				new AvailableExpressions(graph).solve();
+    DataflowAnalysis		liveness	=
+				new LivenessAnalysis(graph).solve();
+
+    check(available.getEntrySet(blockList.get(0)).isEmpty(),
+	  "a * b is not available where the program starts"
+	 );
+    check(!available.getEntrySet(blockList.get(1)).isEmpty(),
+	  "a * b is available after the loop"
+	 );
+    check(liveness.getExitSet(blockList.get(1)).isEmpty(),
+	  "nothing is live where the program ends"
+	 );
+
+    if  (numFailed_static > 0)
+    {
+      System.exit(1);
+    }
+  }
+
+  //  PURPOSE: To return a new integer Variable named 'nameStr'.
+  protected static
+  Variable	intVar		(String	nameStr)
+  {
+    Variable	var	= new Variable(nameStr);
+
+    var.setType(Type.INTEGER);
+    return(var);
+  }
+
+  //  PURPOSE: To report 'descriptionStr' as failed unless 'isTrue'.  No
+  //	return value.
+  protected static
+  void		check		(boolean	isTrue,
+				 String		descriptionStr
+				)
+  {
+    if  (!isTrue)
+    {
+      System.out.println("FAIL DataflowCheck: " + descriptionStr);
+      numFailed_static++;
+    }
+  }
+
+  //  PURPOSE: To hold the number of checks failed.
+  protected static
+  int				numFailed_static	= 0;
+}
@@ -0,0 +1,19 @@
+program copysourcereal;
+var
+  w : real;
+  v : real;
+  z : real;
+  k : integer;
+begin
+  w := 10.0;
+  for k := 1 to 2 do w := w * 2.0;
+  v := w + 5.0;
+  z := v;
+  k := 0;
+  while k < 3 do
+  begin
+    if k = 1 then v := 80.0;
+    k := k + 1
+  end;
+  writeln(z)
+end.
@@ -0,0 +1,14 @@
+program copysource;
+var
+  a : integer;
+  y : integer;
+  x : integer;
+  i : integer;
+begin
+  a := 0;
+  for i := 1 to 3 do a := a + i;
+  y := a * 2;
+  x := y;
+  if a > 5 then y := 100;
+  writeln(x)
+end.
@@ -0,0 +1,18 @@
+program dividebyzero;
+var
+  a : integer;
+  z : integer;
+  i : integer;
+begin
+  a := 10;
+  z := 0;
+  for i := 1 to 3 do
+  begin
+    writeln(a div i);
+    z := z + i
+  end;
+  z := z - 6;
+  writeln(a mod 4);
+  writeln(a div z);
+  writeln(a)
+end.
@@ -0,0 +1,33 @@
+program forbound;
+var
+  i : integer;
+  n : integer;
+  s : integer;
+begin
+  n := 5;
+  s := 0;
+  for i := 1 to n do
+  begin
+    n := n + 1;
+    s := s + i
+  end;
+  writeln(s);
+  writeln(n);
+  n := 1;
+  for i := 10 downto n do
+  begin
+    n := n + 2;
+    s := s + i
+  end;
+  writeln(s);
+  writeln(n);
+  n := 2000;
+  s := 0;
+  for i := 1 to n do
+  begin
+    n := n - 1;
+    s := s + 1
+  end;
+  writeln(s);
+  writeln(n)
+end.
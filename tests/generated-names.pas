@@ -0,0 +1,15 @@
+program generatednames;
+var
+  _const0 : integer;
+  _tempVar0 : integer;
+  __const1 : integer;
+  x : integer;
+begin
+  _const0 := 3;
+  x := 10 + _const0;
+  writeln(x);
+  _tempVar0 := x * 2 + 1;
+  __const1 := 10;
+  writeln(_const0);
+  writeln(_tempVar0 + __const1)
+end.
@@ -0,0 +1,76 @@
+#!/bin/sh
+#  Runs each program in this directory on every engine, unoptimized and
+#  with -O, with and without -short, and reports each run whose output
+#  differs from -run with the same -short setting.  The C translation is
+#  compiled and run too when a C compiler is found.  Then compiles and
+#  runs each check class here, which reports its own failures.  The
+#  compiled classes are looked for on the classpath given as the first
+#  argument, or on $CLASSPATH.
+#
+#    tests/run.sh path/to/classes
+
+cp="${1:-$CLASSPATH}"
+dir=`dirname "$0"`
+cc="${CC:-cc}"
+failed=0
+buildDir=`mktemp -d`
+
+command -v "$cc" > /dev/null  ||  cc=
+
+for prog in "$dir"/*.pas
+do
+  for short in "" "-short"
+  do
+    expect=`java -cp "$cp" OurPascal "$prog" $short -run 2>&1`
+
+    for opt in "" "-O"
+    do
+      for engine in -closure -specialize -tiered -vm -jvm
+      do
+        got=`java -cp "$cp" OurPascal "$prog" $opt $short $engine 2>&1`
+
+        if [ "$got" != "$expect" ]
+        then
+          echo "FAIL $prog $opt $short $engine"
+          failed=1
+        fi
+      done
+
+      if [ -n "$cc" ]
+      then
+        java -cp "$cp" OurPascal "$prog" $opt $short -c > "$buildDir/prog.c"
+
+        if "$cc" -O2 -w -o "$buildDir/prog" "$buildDir/prog.c" -lm
+        then
+          got=`"$buildDir/prog" 2>&1`
+        else
+          got="(did not compile)"
+        fi
+
+        if [ "$got" != "$expect" ]
+        then
+          echo "FAIL $prog $opt $short -c"
+          failed=1
+        fi
+      fi
+    done
+  done
+done
+
+[ -z "$cc" ] && echo "skipped -c: no C compiler found"
+
+if javac -nowarn -cp "$cp" -d "$buildDir" "$dir"/*.java
+then
+  for check in "$dir"/*.java
+  do
+    java -cp "$cp:$buildDir" `basename "$check" .java`  ||  failed=1
+  done
+else
+  echo "FAIL compiling the checks in $dir"
+  failed=1
+fi
+
+rm -rf "$buildDir"
+
+[ $failed -eq 0 ] && echo "all passed"
+exit $failed
@@ -0,0 +1,19 @@
+program shortright;
+var
+  z : integer;
+  i : integer;
+  b : boolean;
+begin
+  z := 0;
+  i := 0;
+  b := (z <> 0) and ((10 div z) > 1);
+  writeln(b);
+  b := (z = 0) or ((10 mod z) > 1);
+  writeln(b);
+  if (z <> 0) and ((10 div z) > 1) then writeln(1) else writeln(2);
+  while (z <> 0) and ((10 div z) > 1) do z := z - 1;
+  repeat i := i + 1 until (z = 0) or ((10 div z) > 1);
+  writeln(i);
+  for i := 1 to 3 do
+    if (z <> 0) and ((10 div z) > 1) then writeln(0) else writeln(i)
+end.
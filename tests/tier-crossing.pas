@@ -0,0 +1,34 @@
+program tiercrossing;
+var
+  i : integer;
+  j : integer;
+  s : integer;
+  t : integer;
+  r : real;
+begin
+  s := 0;
+  i := 0;
+  while i < 2500 do
+  begin
+    s := s + i mod 7;
+    if i = 999 then writeln(s);
+    i := i + 1
+  end;
+  writeln(s);
+  t := 0;
+  i := 0;
+  repeat
+    t := t + 3;
+    if i = 1000 then t := t * 2;
+    i := i + 1
+  until i >= 1800;
+  writeln(t);
+  r := 0.0;
+  for i := 1 to 1500 do r := r + 0.5;
+  writeln(r);
+  s := 0;
+  for i := 1 to 60 do
+    for j := 1 to 40 do
+      s := s + i * j;
+  writeln(s)
+end.
@@ -0,0 +1,17 @@
+program vnholder;
+var
+  a : integer;
+  b : integer;
+  m : integer;
+  n : integer;
+  i : integer;
+begin
+  a := 0;
+  for i := 1 to 3 do a := a + i;
+  b := a + 1;
+  if a > b then m := a else m := b;
+  writeln(m);
+  if a > 2 then m := 100;
+  if a > b then n := a else n := b;
+  writeln(n)
+end.